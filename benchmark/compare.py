@@ -0,0 +1,86 @@
+#!/usr/bin/env python3
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+#
+"""Compare two JMH results written with `-rf json`.
+
+Usage: compare.py BASELINE.json CANDIDATE.json [--threshold PERCENT]
+
+Prints the score of every benchmark in both files and how much slower the
+candidate is, a negative change means it is faster. A change is marked as a regression or an improvement only if it is
+larger than the threshold and than the sum of the two score errors. Exits with
+1 if there is any regression.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    results = {}
+    with open(path) as f:
+        for result in json.load(f):
+            params = result.get("params") or {}
+            key = result["benchmark"]
+            if params:
+                key += "(" + ", ".join("%s=%s" % p for p in sorted(params.items())) + ")"
+            results[key] = result
+    return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare two JMH json results.")
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=5.0,
+                        help="changes within this percentage are ignored, 5 by default")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = 0
+    for key in sorted(baseline.keys() & candidate.keys()):
+        old, new = baseline[key], candidate[key]
+        old_score = old["primaryMetric"]["score"]
+        new_score = new["primaryMetric"]["score"]
+        unit = new["primaryMetric"]["scoreUnit"]
+        if old_score == 0:
+            continue
+        change = (new_score - old_score) / old_score * 100
+        # a lower score is better for time per op, a higher one for throughput
+        if new["mode"] == "thrpt":
+            change = -change
+        error = (abs(old["primaryMetric"].get("scoreError") or 0)
+                 + abs(new["primaryMetric"].get("scoreError") or 0))
+        verdict = ""
+        if abs(change) > args.threshold and abs(new_score - old_score) > error:
+            if change > 0:
+                verdict = "REGRESSION"
+                regressions += 1
+            else:
+                verdict = "improvement"
+        print("%-100s %14.3f -> %14.3f %-10s %+7.1f%% %s"
+              % (key, old_score, new_score, unit, change, verdict))
+    for key in sorted(baseline.keys() - candidate.keys()):
+        print("%-100s only in baseline" % key)
+    for key in sorted(candidate.keys() - baseline.keys()):
+        print("%-100s only in candidate" % key)
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
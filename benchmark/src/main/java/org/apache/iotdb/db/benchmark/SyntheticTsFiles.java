@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/** Writes TsFiles of one non-aligned INT64 series with synthetic data for the benchmarks. */
+public class SyntheticTsFiles {
+
+  public static final String DATABASE = "root.benchmark";
+  public static final IDeviceID DEVICE = IDeviceID.Factory.DEFAULT_FACTORY.create(DATABASE + ".d1");
+  public static final String MEASUREMENT = "s1";
+  public static final String PATH = DEVICE.toString() + "." + MEASUREMENT;
+
+  private SyntheticTsFiles() {
+    // util class
+  }
+
+  /**
+   * Write a TsFile of chunkCount chunks, each chunk holds pointsPerChunk points with consecutive
+   * timestamps starting at startTime. The file is placed under baseDir in the same directory layout
+   * as a DataNode, so that its {@link TsFileResource} can be queried.
+   *
+   * @param sequence whether the file is placed in the sequence or the unsequence directory
+   * @param version the version of the file, which also decides its file name
+   * @param writtenChunks metadata of the written chunks is appended to it in order if not null
+   */
+  public static TsFileResource write(
+      File baseDir,
+      boolean sequence,
+      long version,
+      long startTime,
+      int chunkCount,
+      int pointsPerChunk,
+      List<ChunkMetadata> writtenChunks)
+      throws IOException {
+    File file =
+        new File(
+            baseDir,
+            String.format(
+                "%s/%s/0/0/%d-%d-0-0.tsfile",
+                sequence ? "sequence" : "unsequence", DATABASE, version, version));
+    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+      throw new IOException("Failed to create directory " + file.getParentFile());
+    }
+    TsFileResource resource = new TsFileResource(file);
+    MeasurementSchema schema =
+        new MeasurementSchema(MEASUREMENT, TSDataType.INT64, TSEncoding.RLE, CompressionType.LZ4);
+    long time = startTime;
+    try (TsFileIOWriter writer = new TsFileIOWriter(file)) {
+      for (int i = 0; i < chunkCount; i++) {
+        writer.startChunkGroup(DEVICE);
+        ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+        for (int j = 0; j < pointsPerChunk; j++, time++) {
+          chunkWriter.write(time, time * 31 % 1000);
+        }
+        chunkWriter.writeToFileWriter(writer);
+        writer.endChunkGroup();
+      }
+      if (writtenChunks != null) {
+        for (ChunkGroupMetadata chunkGroupMetadata : writer.getChunkGroupMetadataList()) {
+          writtenChunks.addAll(chunkGroupMetadata.getChunkMetadataList());
+        }
+      }
+      writer.endFile();
+    }
+    resource.updateStartTime(DEVICE, startTime);
+    resource.updateEndTime(DEVICE, time - 1);
+    resource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    return resource;
+  }
+}
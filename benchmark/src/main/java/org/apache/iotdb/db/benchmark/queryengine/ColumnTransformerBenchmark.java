@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.queryengine;
+
+import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.ArithmeticAdditionColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.LeafColumnTransformer;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the type-specialized kernels of the arithmetic and compare ColumnTransformers with the
+ * generic implementation they replaced, which converts every value to double through {@link Type}.
+ * The generic implementation is kept here as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnTransformerBenchmark {
+
+  private static final int POSITION_COUNT = 1_000_000;
+
+  private static final Type INT32 = TypeFactory.getType(TSDataType.INT32);
+  private static final Type INT64 = TypeFactory.getType(TSDataType.INT64);
+  private static final Type DOUBLE = TypeFactory.getType(TSDataType.DOUBLE);
+  private static final Type BOOLEAN = TypeFactory.getType(TSDataType.BOOLEAN);
+
+  /** One of ten rows is null if true. */
+  @Param({"false", "true"})
+  public boolean withNull;
+
+  private Column intColumn;
+  private Column longColumn;
+  private Column longConstant;
+
+  private ColumnTransformer addition;
+  private ColumnTransformer compareWithConstant;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(0);
+    TsBlockBuilder builder =
+        new TsBlockBuilder(POSITION_COUNT, Arrays.asList(TSDataType.INT32, TSDataType.INT64));
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      if (withNull && i % 10 == 0) {
+        builder.getColumnBuilder(0).appendNull();
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeInt(random.nextInt());
+        builder.getColumnBuilder(1).writeLong(random.nextLong());
+      }
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    intColumn = tsBlock.getColumn(0);
+    longColumn = tsBlock.getColumn(1);
+    longConstant =
+        new RunLengthEncodedColumn(
+            new LongColumn(1, Optional.empty(), new long[] {0L}), POSITION_COUNT);
+
+    IdentityColumnTransformer intLeaf = new IdentityColumnTransformer(INT32, 0);
+    IdentityColumnTransformer longLeaf = new IdentityColumnTransformer(INT64, 1);
+    ConstantColumnTransformer constantLeaf =
+        new ConstantColumnTransformer(INT64, new LongColumn(1, Optional.empty(), new long[] {0L}));
+    addition = new ArithmeticAdditionColumnTransformer(DOUBLE, intLeaf, longLeaf);
+    compareWithConstant = new CompareGreaterThanColumnTransformer(BOOLEAN, longLeaf, constantLeaf);
+    for (LeafColumnTransformer leaf :
+        new LeafColumnTransformer[] {intLeaf, longLeaf, constantLeaf}) {
+      leaf.addReferenceCount();
+      leaf.initFromTsBlock(tsBlock);
+    }
+    addition.addReferenceCount();
+    compareWithConstant.addReferenceCount();
+  }
+
+  @Benchmark
+  public Column additionGeneric() {
+    ColumnBuilder builder = DOUBLE.createColumnBuilder(POSITION_COUNT);
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      if (!intColumn.isNull(i) && !longColumn.isNull(i)) {
+        DOUBLE.writeDouble(builder, INT32.getDouble(intColumn, i) + INT64.getDouble(longColumn, i));
+      } else {
+        builder.appendNull();
+      }
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public Column additionKernel() {
+    return evaluate(addition);
+  }
+
+  @Benchmark
+  public Column compareWithConstantGeneric() {
+    ColumnBuilder builder = BOOLEAN.createColumnBuilder(POSITION_COUNT);
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      if (!longColumn.isNull(i) && !longConstant.isNull(i)) {
+        double left = INT64.getDouble(longColumn, i);
+        double right = INT64.getDouble(longConstant, i);
+        BOOLEAN.writeBoolean(
+            builder,
+            !Double.isNaN(left) && !Double.isNaN(right) && Double.compare(left, right) > 0);
+      } else {
+        builder.appendNull();
+      }
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public Column compareWithConstantKernel() {
+    return evaluate(compareWithConstant);
+  }
+
+  private static Column evaluate(ColumnTransformer transformer) {
+    transformer.tryEvaluate();
+    Column result = transformer.getColumn();
+    transformer.clearCache();
+    return result;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.queryengine;
+
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCache;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl.DualKeyCacheBuilder;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl.DualKeyCachePolicy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a skewed access trace of devices on a dual key cache with each eviction policy, as the
+ * device schema cache sees it under writes. The devices are drawn from a Zipf distribution, and a
+ * scan over devices which are accessed only once, like a {@code SHOW TIMESERIES}, is interleaved
+ * regularly. A miss puts the device into the cache. Compare the {@code hits} and {@code misses}
+ * counters of the policies besides the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DualKeyCacheBenchmark {
+
+  private static final String DATABASE = "root.db";
+  private static final String VALUE = "schema";
+  private static final int TRACE_LENGTH = 1 << 20;
+
+  @Param({"LRU", "FIFO", "W_TINY_LFU"})
+  public String policy;
+
+  @Param({"100000"})
+  public int deviceNum;
+
+  /** Number of devices the cache can hold. */
+  @Param({"10000"})
+  public int cachedDeviceNum;
+
+  @Param({"1.0"})
+  public double skew;
+
+  /** Number of accesses of the scan interleaved every 256K accesses. */
+  @Param({"50000"})
+  public int scanLength;
+
+  private IDualKeyCache<String, String, String> cache;
+  private String[] trace;
+  private int position = 0;
+
+  @Setup
+  public void setup() {
+    cache =
+        new DualKeyCacheBuilder<String, String, String>()
+            .cacheEvictionPolicy(DualKeyCachePolicy.valueOf(policy))
+            // 0.8 of the capacity is used before eviction
+            .memoryCapacity((long) (cachedDeviceNum * entrySize() / 0.8))
+            .firstKeySizeComputer(DualKeyCacheBenchmark::sizeOf)
+            .secondKeySizeComputer(DualKeyCacheBenchmark::sizeOf)
+            .valueSizeComputer(DualKeyCacheBenchmark::sizeOf)
+            .build();
+    trace = generateTrace(new Random(42));
+  }
+
+  private String[] generateTrace(Random random) {
+    double[] cumulativeProbabilities = new double[deviceNum];
+    double sum = 0;
+    for (int i = 0; i < deviceNum; i++) {
+      sum += 1 / Math.pow(i + 1, skew);
+      cumulativeProbabilities[i] = sum;
+    }
+    String[] result = new String[TRACE_LENGTH];
+    int scanDevice = 0;
+    for (int i = 0; i < TRACE_LENGTH; i++) {
+      if (i % (1 << 18) < scanLength) {
+        result[i] = "scan.d" + scanDevice++;
+      } else {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble() * sum);
+        result[i] = "d" + (index < 0 ? -index - 1 : index);
+      }
+    }
+    return result;
+  }
+
+  private int entrySize() {
+    return sizeOf("d" + deviceNum) + sizeOf(VALUE);
+  }
+
+  private static int sizeOf(String string) {
+    return 8 + 8 + 4 + 2 * string.length();
+  }
+
+  @Benchmark
+  public String replay(HitCounters counters) {
+    String device = trace[position];
+    position = position + 1 == TRACE_LENGTH ? 0 : position + 1;
+    String value = cache.get(DATABASE, device);
+    if (value != null) {
+      counters.hits++;
+      return value;
+    }
+    counters.misses++;
+    cache.put(DATABASE, device, VALUE);
+    return VALUE;
+  }
+
+  /** Hits and misses of the cache in the iteration. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+}
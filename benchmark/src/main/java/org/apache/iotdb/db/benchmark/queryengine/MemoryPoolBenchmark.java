@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.queryengine;
+
+import org.apache.iotdb.commons.memory.MemoryManager;
+import org.apache.iotdb.db.queryengine.execution.memory.MemoryPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserves and frees TsBlock-sized memory from one {@link MemoryPool} in many threads concurrently,
+ * as done by the operators and exchange handles of the fragment instances of concurrent queries.
+ * Each thread plays one fragment instance, so the score shows the contention on the pool. Run it
+ * with other thread counts by {@code -t}, e.g. {@code -t 1} for the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class MemoryPoolBenchmark {
+
+  private static final long MAX_BYTES = 1024L * 1024L * 1024L;
+  private static final String QUERY_ID = "query";
+
+  @Param({"65536"})
+  public long bytesPerReservation;
+
+  /** Number of reservations held by a fragment instance before they are freed. */
+  @Param({"1", "8"})
+  public int reservationsInFlight;
+
+  private MemoryPool pool;
+
+  private final AtomicInteger fragmentInstanceCount = new AtomicInteger();
+
+  @State(Scope.Thread)
+  public static class FragmentInstance {
+
+    private String fragmentInstanceId;
+    private String[] planNodeIds;
+
+    @Setup
+    public void setup(MemoryPoolBenchmark benchmark) {
+      fragmentInstanceId = "fi" + benchmark.fragmentInstanceCount.getAndIncrement();
+      planNodeIds = new String[benchmark.reservationsInFlight];
+      for (int i = 0; i < planNodeIds.length; i++) {
+        planNodeIds[i] = "node" + i;
+        benchmark.pool.registerPlanNodeIdToQueryMemoryMap(
+            QUERY_ID, fragmentInstanceId, planNodeIds[i]);
+      }
+    }
+
+    @TearDown
+    public void tearDown(MemoryPoolBenchmark benchmark) {
+      benchmark.pool.deRegisterFragmentInstanceFromQueryMemoryMap(
+          QUERY_ID, fragmentInstanceId, true);
+    }
+  }
+
+  @Setup
+  public void setup() {
+    pool = new MemoryPool("benchmark", new MemoryManager(MAX_BYTES), MAX_BYTES / 4);
+  }
+
+  @Benchmark
+  public boolean reserveAndFree(FragmentInstance fragmentInstance) {
+    boolean reserved = true;
+    for (String planNodeId : fragmentInstance.planNodeIds) {
+      reserved &=
+          pool.reserve(
+                  QUERY_ID,
+                  fragmentInstance.fragmentInstanceId,
+                  planNodeId,
+                  bytesPerReservation,
+                  Long.MAX_VALUE)
+              .right;
+    }
+    for (String planNodeId : fragmentInstance.planNodeIds) {
+      pool.free(QUERY_ID, fragmentInstance.fragmentInstanceId, planNodeId, bytesPerReservation);
+    }
+    return reserved;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.queryengine;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.benchmark.SyntheticTsFiles;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanUtil;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans one series of synthetic TsFiles through {@link SeriesScanUtil} in the same way as
+ * SeriesScanOperator. With {@code overlap}, an unsequence file overlapping every sequence file is
+ * added, so that the pages have to be merged.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeriesScanBenchmark {
+
+  private static final int CHUNKS_PER_FILE = 10;
+  private static final int POINTS_PER_CHUNK = 10_000;
+
+  @Param({"10"})
+  public int seqFileCount;
+
+  @Param({"false", "true"})
+  public boolean overlap;
+
+  @Param({"ASC", "DESC"})
+  public Ordering scanOrder;
+
+  private File baseDir;
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unseqResources = new ArrayList<>();
+  private IFullPath seriesPath;
+  private SeriesScanOptions scanOptions;
+  private long queryId;
+
+  @Setup
+  public void setup() throws IOException, IllegalPathException {
+    baseDir = Files.createTempDirectory("series-scan-benchmark").toFile();
+    long pointsPerFile = (long) CHUNKS_PER_FILE * POINTS_PER_CHUNK;
+    for (int i = 0; i < seqFileCount; i++) {
+      seqResources.add(
+          SyntheticTsFiles.write(
+              baseDir, true, i + 1, i * pointsPerFile, CHUNKS_PER_FILE, POINTS_PER_CHUNK, null));
+    }
+    if (overlap) {
+      // one chunk in the middle of every sequence file
+      unseqResources.add(
+          SyntheticTsFiles.write(
+              baseDir,
+              false,
+              seqFileCount + 1L,
+              pointsPerFile / 2,
+              seqFileCount,
+              POINTS_PER_CHUNK,
+              null));
+    }
+    MeasurementPath path = new MeasurementPath(SyntheticTsFiles.PATH, TSDataType.INT64);
+    seriesPath = IFullPath.convertToIFullPath(path);
+    SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+    scanOptionsBuilder.withAllSensors(Collections.singleton(path.getMeasurement()));
+    scanOptions = scanOptionsBuilder.build();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Benchmark
+  public void scan(Blackhole blackhole) throws IOException {
+    SeriesScanUtil seriesScanUtil =
+        new SeriesScanUtil(
+            seriesPath,
+            scanOrder,
+            scanOptions,
+            FragmentInstanceContext.createFragmentInstanceContextForCompaction(queryId++));
+    seriesScanUtil.initQueryDataSource(new QueryDataSource(seqResources, unseqResources));
+    while (seriesScanUtil.hasNextFile()) {
+      while (seriesScanUtil.hasNextChunk()) {
+        while (seriesScanUtil.hasNextPage()) {
+          TsBlock tsBlock = seriesScanUtil.nextPage();
+          if (tsBlock != null) {
+            blackhole.consume(tsBlock);
+          }
+        }
+      }
+    }
+  }
+}
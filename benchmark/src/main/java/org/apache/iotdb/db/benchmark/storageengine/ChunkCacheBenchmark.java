@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.storageengine;
+
+import org.apache.iotdb.db.benchmark.SyntheticTsFiles;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.read.common.Chunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the chunks of a synthetic TsFile in {@link ChunkCache}. {@code hit} only reads chunks
+ * which are cached, {@code miss} clears the cache every time so that the chunk is read from the
+ * file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkCacheBenchmark {
+
+  @Param({"1000"})
+  public int chunkCount;
+
+  @Param({"1000"})
+  public int pointsPerChunk;
+
+  private File baseDir;
+  private final List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+  private ChunkCache.ChunkCacheKey[] keys;
+  private QueryContext queryContext;
+
+  @Setup
+  public void setup() throws IOException {
+    baseDir = Files.createTempDirectory("chunk-cache-benchmark").toFile();
+    TsFileResource resource =
+        SyntheticTsFiles.write(baseDir, true, 1, 0, chunkCount, pointsPerChunk, chunkMetadataList);
+    String filePath = resource.getTsFilePath();
+    TsFileID tsFileID = new TsFileID(filePath);
+    keys = new ChunkCache.ChunkCacheKey[chunkMetadataList.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] =
+          new ChunkCache.ChunkCacheKey(
+              filePath, tsFileID, chunkMetadataList.get(i).getOffsetOfChunkHeader(), true);
+    }
+    queryContext = new QueryContext();
+    // warm the cache up for hit
+    for (int i = 0; i < keys.length; i++) {
+      get(i);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    ChunkCache.getInstance().clear();
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Chunk hit() throws IOException {
+    return get(ThreadLocalRandom.current().nextInt(keys.length));
+  }
+
+  @Benchmark
+  public Chunk miss() throws IOException {
+    ChunkCache.getInstance().clear();
+    return get(ThreadLocalRandom.current().nextInt(keys.length));
+  }
+
+  private Chunk get(int index) throws IOException {
+    ChunkMetadata chunkMetadata = chunkMetadataList.get(index);
+    return ChunkCache.getInstance()
+        .get(
+            keys[index],
+            chunkMetadata.getDeleteIntervalList(),
+            chunkMetadata.getStatistics(),
+            queryContext);
+  }
+}
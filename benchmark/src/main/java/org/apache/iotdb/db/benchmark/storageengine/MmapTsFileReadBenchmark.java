@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.storageengine;
+
+import org.apache.iotdb.db.benchmark.SyntheticTsFiles;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.MmapTsFileSequenceReader;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.common.Path;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a sealed TsFile through the file channel or the memory mapping, as done when the chunks and
+ * the metadata miss the ChunkCache and the TimeSeriesMetadataCache.
+ *
+ * <p>{@code cachedReader} reads a random chunk by the reader cached in {@link FileReaderManager}.
+ * {@code newReaderPerRead} opens a new reader every time, reads the metadata of the series and then
+ * one chunk, which measures the cost of opening a reader and mapping the file. Both read the file
+ * from the page cache of the OS, which is never dropped here, so neither measures reading from the
+ * disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MmapTsFileReadBenchmark {
+
+  @Param({"false", "true"})
+  public boolean mmap;
+
+  @Param({"1000"})
+  public int chunkCount;
+
+  @Param({"10000"})
+  public int pointsPerChunk;
+
+  private File baseDir;
+  private String filePath;
+  private final List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+  private final Path path = new Path(SyntheticTsFiles.DEVICE, SyntheticTsFiles.MEASUREMENT, true);
+  private boolean enableMmapSealedTsFileRead;
+
+  @Setup
+  public void setup() throws IOException {
+    enableMmapSealedTsFileRead =
+        IoTDBDescriptor.getInstance().getConfig().isEnableMmapSealedTsFileRead();
+    IoTDBDescriptor.getInstance().getConfig().setEnableMmapSealedTsFileRead(mmap);
+    baseDir = Files.createTempDirectory("mmap-tsfile-read-benchmark").toFile();
+    TsFileResource resource =
+        SyntheticTsFiles.write(baseDir, true, 1, 0, chunkCount, pointsPerChunk, chunkMetadataList);
+    filePath = resource.getTsFilePath();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setEnableMmapSealedTsFileRead(enableMmapSealedTsFileRead);
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Chunk cachedReader() throws IOException {
+    TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
+    return reader.readMemChunk(
+        chunkMetadataList.get(ThreadLocalRandom.current().nextInt(chunkMetadataList.size())));
+  }
+
+  @Benchmark
+  public Chunk newReaderPerRead() throws IOException {
+    try (TsFileSequenceReader reader =
+        mmap
+            ? new MmapTsFileSequenceReader(filePath, null)
+            : new TsFileSequenceReader(filePath, null)) {
+      List<ChunkMetadata> chunkMetadata = reader.getChunkMetadataList(path);
+      return reader.readMemChunk(
+          chunkMetadata.get(ThreadLocalRandom.current().nextInt(chunkMetadata.size())));
+    }
+  }
+}
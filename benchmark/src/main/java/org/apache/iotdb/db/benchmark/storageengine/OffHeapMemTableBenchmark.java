@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.storageengine;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the INT64 series of a memtable in batches and then releases them, as done by inserting
+ * tablets and flushing the memtable, with the TVLists on the heap or in direct memory.
+ *
+ * <p>Several full memtables are kept alive during the benchmark, like the memtables waiting to be
+ * flushed, so the live set of the heap is large in the on-heap mode. Besides the throughput in
+ * points per second, the number and total time of GCs in each iteration are reported as gcCount and
+ * gcTimeMillis. The off-heap mode is read into a static field when the TVList classes are loaded,
+ * so every value of offHeap runs in its own fork, do not run this benchmark with -f 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+public class OffHeapMemTableBenchmark {
+
+  private static final int SERIES_NUM = 100;
+  private static final int POINTS_PER_SERIES = 100_000;
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"false", "true"})
+  public boolean offHeap;
+
+  /** Number of full memtables alive besides the one being written. */
+  @Param({"4"})
+  public int residentMemTables;
+
+  private long[] times;
+  private long[] values;
+
+  private final List<TVList[]> resident = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    IoTDBDescriptor.getInstance().getConfig().setEnableOffHeapMemTable(offHeap);
+    times = new long[POINTS_PER_SERIES];
+    values = new long[POINTS_PER_SERIES];
+    for (int i = 0; i < POINTS_PER_SERIES; i++) {
+      times[i] = i;
+      values[i] = i * 31L;
+    }
+    for (int i = 0; i < residentMemTables; i++) {
+      resident.add(writeMemTable());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownTrial() {
+    for (TVList[] memTable : resident) {
+      release(memTable);
+    }
+    resident.clear();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SERIES_NUM * POINTS_PER_SERIES)
+  public void insertAndFlush(GcCounters counters) {
+    release(writeMemTable());
+    counters.update();
+  }
+
+  private TVList[] writeMemTable() {
+    TVList[] memTable = new TVList[SERIES_NUM];
+    for (int series = 0; series < SERIES_NUM; series++) {
+      memTable[series] = TVList.newList(TSDataType.INT64);
+    }
+    // tablets of all the series are written one after another, each one is deserialized from a
+    // request into new arrays
+    for (int start = 0; start < POINTS_PER_SERIES; start += BATCH_SIZE) {
+      for (TVList list : memTable) {
+        long[] tabletTimes = Arrays.copyOfRange(times, start, start + BATCH_SIZE);
+        long[] tabletValues = Arrays.copyOfRange(values, start, start + BATCH_SIZE);
+        list.putLongs(tabletTimes, tabletValues, null, 0, BATCH_SIZE);
+      }
+    }
+    return memTable;
+  }
+
+  private static void release(TVList[] memTable) {
+    for (TVList list : memTable) {
+      list.clear();
+    }
+  }
+
+  /** GCs happened in the iteration, read from the GarbageCollectorMXBeans. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class GcCounters {
+    public long gcCount;
+    public long gcTimeMillis;
+
+    private long lastCount;
+    private long lastTimeMillis;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      gcCount = 0;
+      gcTimeMillis = 0;
+      lastCount = totalCount();
+      lastTimeMillis = totalTimeMillis();
+    }
+
+    void update() {
+      long count = totalCount();
+      long timeMillis = totalTimeMillis();
+      gcCount += count - lastCount;
+      gcTimeMillis += timeMillis - lastTimeMillis;
+      lastCount = count;
+      lastTimeMillis = timeMillis;
+    }
+
+    private static long totalCount() {
+      long count = 0;
+      for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        count += Math.max(0, bean.getCollectionCount());
+      }
+      return count;
+    }
+
+    private static long totalTimeMillis() {
+      long timeMillis = 0;
+      for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        timeMillis += Math.max(0, bean.getCollectionTime());
+      }
+      return timeMillis;
+    }
+  }
+}
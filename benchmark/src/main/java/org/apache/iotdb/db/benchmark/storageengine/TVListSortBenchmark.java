@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.storageengine;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts an INT64 {@link TVList} of a memtable, as done before the memtable is flushed or queried.
+ *
+ * <p>The sort algorithm is read into a static field when the TVList classes are loaded, so it is
+ * set in the config before any of them is touched. Every combination of the params runs in its own
+ * fork, do not run this benchmark with -f 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TVListSortBenchmark {
+
+  @Param({"TIM", "QUICK", "BACKWARD"})
+  public TVListSortAlgorithm algorithm;
+
+  @Param({"100000", "1000000"})
+  public int size;
+
+  /** Ratio of the points which are written out of order. */
+  @Param({"0.0", "0.01", "0.5"})
+  public double disorderRatio;
+
+  private long[] times;
+
+  private TVList list;
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    IoTDBDescriptor.getInstance().getConfig().setTvListSortAlgorithm(algorithm);
+    Random random = new Random(0);
+    times = new long[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = random.nextDouble() < disorderRatio ? random.nextInt(size) : i;
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void fill() {
+    list = TVList.newList(TSDataType.INT64);
+    for (long time : times) {
+      list.putLong(time, time);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void clear() {
+    list.clear();
+  }
+
+  @Benchmark
+  public TVList sort() {
+    list.sort();
+    return list;
+  }
+}
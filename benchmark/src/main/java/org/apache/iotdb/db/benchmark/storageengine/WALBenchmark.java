@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark.storageengine;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALBuffer;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.listener.AbstractResultListener.Status;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes an {@link InsertTabletNode} into the WAL. {@code serialize} measures the encoding of a
+ * {@link WALInfoEntry} alone, {@code writeAndWait} writes it through a real {@link WALBuffer} in
+ * SYNC mode and waits until it is fsynced, as a write request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WALBenchmark {
+
+  private static final String[] MEASUREMENTS = {"s1", "s2", "s3", "s4", "s5", "s6"};
+  private static final TSDataType[] DATA_TYPES = {
+    TSDataType.DOUBLE,
+    TSDataType.FLOAT,
+    TSDataType.INT64,
+    TSDataType.INT32,
+    TSDataType.BOOLEAN,
+    TSDataType.TEXT
+  };
+
+  @Param({"10", "1000"})
+  public int rowCount;
+
+  private InsertTabletNode insertTabletNode;
+  private ByteBufferView bufferView;
+
+  private File logDirectory;
+  private WALBuffer walBuffer;
+  private long memTableId;
+
+  @Setup
+  public void setup() throws IOException, IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    config.setWalMode(WALMode.SYNC);
+    insertTabletNode = createInsertTabletNode();
+    bufferView =
+        new ByteBufferView(
+            ByteBuffer.allocate(new WALInfoEntry(0, insertTabletNode).serializedSize()));
+
+    logDirectory = Files.createTempDirectory("wal-benchmark").toFile();
+    walBuffer = new WALBuffer("0", logDirectory.getAbsolutePath());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    walBuffer.close();
+    FileUtils.deleteDirectory(logDirectory);
+  }
+
+  @Benchmark
+  public ByteBuffer serialize() {
+    bufferView.buffer.clear();
+    new WALInfoEntry(0, insertTabletNode).serialize(bufferView);
+    return bufferView.buffer;
+  }
+
+  @Benchmark
+  public Status writeAndWait() {
+    WALEntry walEntry = new WALInfoEntry(memTableId++, insertTabletNode);
+    walBuffer.write(walEntry);
+    return walEntry.getWalFlushListener().waitForResult();
+  }
+
+  private InsertTabletNode createInsertTabletNode() throws IllegalPathException {
+    Random random = new Random(0);
+    long[] times = new long[rowCount];
+    Object[] columns = {
+      new double[rowCount],
+      new float[rowCount],
+      new long[rowCount],
+      new int[rowCount],
+      new boolean[rowCount],
+      new Binary[rowCount]
+    };
+    for (int r = 0; r < rowCount; r++) {
+      times[r] = r;
+      ((double[]) columns[0])[r] = random.nextDouble();
+      ((float[]) columns[1])[r] = random.nextFloat();
+      ((long[]) columns[2])[r] = random.nextLong();
+      ((int[]) columns[3])[r] = random.nextInt();
+      ((boolean[]) columns[4])[r] = random.nextBoolean();
+      ((Binary[]) columns[5])[r] =
+          new Binary("value" + random.nextInt(), TSFileConfig.STRING_CHARSET);
+    }
+    BitMap[] bitMaps = new BitMap[DATA_TYPES.length];
+    MeasurementSchema[] schemas = new MeasurementSchema[DATA_TYPES.length];
+    for (int i = 0; i < DATA_TYPES.length; i++) {
+      bitMaps[i] = new BitMap(rowCount);
+      schemas[i] = new MeasurementSchema(MEASUREMENTS[i], DATA_TYPES[i], TSEncoding.PLAIN);
+    }
+    return new InsertTabletNode(
+        new PlanNodeId(""),
+        new PartialPath("root.benchmark.d1"),
+        false,
+        MEASUREMENTS,
+        DATA_TYPES,
+        schemas,
+        times,
+        bitMaps,
+        columns,
+        rowCount);
+  }
+
+  /** Heap buffer for serialize, so that it is not affected by the flush of the WALBuffer. */
+  private static class ByteBufferView extends IWALByteBufferView {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferView(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+      put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+      put(b);
+    }
+
+    @Override
+    public void put(byte b) {
+      buffer.put(b);
+    }
+
+    @Override
+    public void put(byte[] src) {
+      buffer.put(src);
+    }
+
+    @Override
+    public void putChar(char value) {
+      buffer.putChar(value);
+    }
+
+    @Override
+    public void putShort(short value) {
+      buffer.putShort(value);
+    }
+
+    @Override
+    public void putInt(int value) {
+      buffer.putInt(value);
+    }
+
+    @Override
+    public void putLong(long value) {
+      buffer.putLong(value);
+    }
+
+    @Override
+    public void putFloat(float value) {
+      buffer.putFloat(value);
+    }
+
+    @Override
+    public void putDouble(double value) {
+      buffer.putDouble(value);
+    }
+
+    @Override
+    public int position() {
+      return buffer.position();
+    }
+  }
+}
@@ -28,6 +28,7 @@ public class SessionConfig {
   public static final String DEFAULT_USER = "root";
   public static final String DEFAULT_PASSWORD = "root";
   public static final int DEFAULT_FETCH_SIZE = 5000;
+  public static final int DEFAULT_PREFETCH_BATCH_NUM = 0;
   public static final int DEFAULT_CONNECTION_TIMEOUT_MS = 0;
   public static final boolean DEFAULT_REDIRECTION_MODE = true;
   public static final boolean DEFAULT_RECORDS_AUTO_CONVERT_TABLET = true;
@@ -46,6 +47,17 @@ public class SessionConfig {
 
   public static final int DEFAULT_SESSION_POOL_MAX_SIZE = 5;
 
+  /** max bytes of asynchronous insert requests in flight, 64MB by default */
+  public static final long DEFAULT_ASYNC_INSERT_MAX_IN_FLIGHT_BYTES = 67108864L;
+
+  public static final int DEFAULT_ASYNC_INSERT_THREAD_NUM = 4;
+
+  /** max number of asynchronous inserted records of a device coalesced into one tablet */
+  public static final int DEFAULT_ASYNC_INSERT_COALESCE_ROW_NUM = 1000;
+
+  /** max time that an asynchronous inserted record waits to be coalesced with later ones */
+  public static final long DEFAULT_ASYNC_INSERT_LINGER_MS = 10;
+
   public static final Version DEFAULT_VERSION = Version.V_1_0;
 
   public static final boolean DEFAULT_ENABLE_AUTO_FETCH = true;
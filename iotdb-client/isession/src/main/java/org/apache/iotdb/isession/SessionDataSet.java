@@ -130,6 +130,18 @@ public class SessionDataSet implements ISessionDataSet {
     ioTDBRpcDataSet.setFetchSize(fetchSize);
   }
 
+  public int getPrefetchBatchNum() {
+    return ioTDBRpcDataSet.getPrefetchBatchNum();
+  }
+
+  /**
+   * Fetch at most prefetchBatchNum batches of results in background while iterating the current
+   * one, 0 disables it. It only takes effect if called before the first call of {@link #hasNext()}.
+   */
+  public void setPrefetchBatchNum(int prefetchBatchNum) {
+    ioTDBRpcDataSet.setPrefetchBatchNum(prefetchBatchNum);
+  }
+
   @Override
   public List<String> getColumnNames() {
     return new ArrayList<>(ioTDBRpcDataSet.getColumnNameList());
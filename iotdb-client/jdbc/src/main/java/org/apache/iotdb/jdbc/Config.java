@@ -85,4 +85,12 @@ public class Config {
   public static final String SQL_DIALECT = "sql_dialect";
 
   public static final String DATABASE = "db";
+
+  /**
+   * Key of the max number of result batches fetched in background while the current batch is
+   * consumed, 0 disables prefetching.
+   */
+  public static final String PREFETCH_BATCH_NUM = "prefetch_batch_num";
+
+  static final int DEFAULT_PREFETCH_BATCH_NUM = 0;
 }
@@ -150,6 +150,10 @@ public class IoTDBConnection implements Connection {
     return params;
   }
 
+  public int getPrefetchBatchNum() {
+    return params != null ? params.getPrefetchBatchNum() : Config.DEFAULT_PREFETCH_BATCH_NUM;
+  }
+
   @Override
   public boolean isWrapperFor(Class<?> arg0) throws SQLException {
     throw new SQLException("Does not support isWrapperFor");
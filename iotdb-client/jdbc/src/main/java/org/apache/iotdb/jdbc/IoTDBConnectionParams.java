@@ -56,6 +56,8 @@ public class IoTDBConnectionParams {
 
   private String db;
 
+  private int prefetchBatchNum = Config.DEFAULT_PREFETCH_BATCH_NUM;
+
   public IoTDBConnectionParams(String url) {
     this.jdbcUriString = url;
   }
@@ -199,4 +201,12 @@ public class IoTDBConnectionParams {
   public void setDb(String db) {
     this.db = db;
   }
+
+  public int getPrefetchBatchNum() {
+    return prefetchBatchNum;
+  }
+
+  public void setPrefetchBatchNum(int prefetchBatchNum) {
+    this.prefetchBatchNum = prefetchBatchNum;
+  }
 }
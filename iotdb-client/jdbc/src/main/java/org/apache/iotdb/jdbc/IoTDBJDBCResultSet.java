@@ -123,6 +123,7 @@ public class IoTDBJDBCResultSet implements ResultSet {
             statement.getTimeFactor(),
             tableModel,
             columnIndex2TsBlockColumnIndexList);
+    this.ioTDBRpcDataSet.setPrefetchBatchNum(statement.getPrefetchBatchNum());
     this.statement = statement;
     this.columnTypeList = columnTypeList;
     if (tracingInfo != null) {
@@ -170,6 +171,7 @@ public class IoTDBJDBCResultSet implements ResultSet {
             false,
             IntStream.range(0, columnNameList.size()).boxed().collect(Collectors.toList()));
     this.statement = (IoTDBStatement) statement;
+    this.ioTDBRpcDataSet.setPrefetchBatchNum(this.statement.getPrefetchBatchNum());
     this.columnTypeList = columnTypeList;
     if (tracingInfo != null) {
       ioTDBRpcTracingInfo = new IoTDBTracingInfo();
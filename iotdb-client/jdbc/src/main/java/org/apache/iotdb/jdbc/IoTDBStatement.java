@@ -775,6 +775,10 @@ public class IoTDBStatement implements Statement {
     return connection.getTimeFactor();
   }
 
+  public int getPrefetchBatchNum() {
+    return connection.getPrefetchBatchNum();
+  }
+
   public String getSqlDialect() {
     if (connection != null && StringUtils.isNotBlank(connection.getSqlDialect())) {
       return connection.getSqlDialect().toLowerCase();
@@ -139,6 +139,9 @@ public class Utils {
     if (info.containsKey(Config.SQL_DIALECT)) {
       params.setSqlDialect(info.getProperty(Config.SQL_DIALECT));
     }
+    if (info.containsKey(Config.PREFETCH_BATCH_NUM)) {
+      params.setPrefetchBatchNum(Integer.parseInt(info.getProperty(Config.PREFETCH_BATCH_NUM)));
+    }
 
     return params;
   }
@@ -180,6 +183,16 @@ public class Utils {
         case Config.SQL_DIALECT:
           info.put(key, value);
           break;
+        case Config.PREFETCH_BATCH_NUM:
+          try {
+            if (Integer.parseInt(value) < 0) {
+              return false;
+            }
+          } catch (NumberFormatException e) {
+            return false;
+          }
+          info.put(key, value);
+          break;
         case Config.TIME_ZONE:
           try {
             // Check the validity of the time zone string.
@@ -105,6 +105,23 @@ public class UtilsTest {
     assertEquals(6667, params.getPort());
   }
 
+  @Test
+  public void testParsePrefetchBatchNum() throws IoTDBURLException {
+    Properties properties = new Properties();
+    IoTDBConnectionParams params =
+        Utils.parseUrl("jdbc:iotdb://test:6667?prefetch_batch_num=2", properties);
+    assertEquals(2, params.getPrefetchBatchNum());
+
+    params = Utils.parseUrl("jdbc:iotdb://test:6667", new Properties());
+    assertEquals(0, params.getPrefetchBatchNum());
+  }
+
+  @Test(expected = IoTDBURLException.class)
+  public void testParseWrongPrefetchBatchNum() throws IoTDBURLException {
+    Properties properties = new Properties();
+    Utils.parseUrl("jdbc:iotdb://test:6667?prefetch_batch_num=-1", properties);
+  }
+
   @Test(expected = IoTDBURLException.class)
   public void testParseWrongUrl2() throws IoTDBURLException {
     Properties properties = new Properties();
@@ -41,6 +41,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.rpc.RpcUtils.convertToTimestamp;
 import static org.apache.iotdb.rpc.RpcUtils.getTimePrecision;
@@ -49,6 +55,16 @@ public class IoTDBRpcDataSet {
 
   private static final String TIMESTAMP_STR = "Time";
   private static final TsBlockSerde SERDE = new TsBlockSerde();
+  private static final long PREFETCH_POLL_INTERVAL_MS = 100;
+
+  // shared by all the data sets in prefetch mode, each of them runs at most one task at a time
+  private static final ExecutorService PREFETCH_EXECUTOR =
+      Executors.newCachedThreadPool(
+          r -> {
+            Thread t = new Thread(r, "IoTDBRpcDataSet-Prefetch");
+            t.setDaemon(true);
+            return t;
+          });
 
   private final String sql;
   private boolean isClosed = false;
@@ -89,6 +105,15 @@ public class IoTDBRpcDataSet {
 
   private final String timePrecision;
 
+  // max number of batches fetched in background ahead of the consumer, 0 means that the next batch
+  // is fetched only after the cached ones are consumed
+  private int prefetchBatchNum = 0;
+  // fetched batches which are not consumed yet, each element is either a TSFetchResultsResp or the
+  // exception thrown while fetching it
+  private BlockingQueue<Object> prefetchedResults;
+  private Future<?> prefetchTask;
+  private volatile boolean prefetchStopped = false;
+
   @SuppressWarnings({"squid:S3776", "squid:S107"}) // Suppress high Cognitive Complexity warning
   public IoTDBRpcDataSet(
       String sql,
@@ -208,6 +233,9 @@ public class IoTDBRpcDataSet {
     if (isClosed) {
       return;
     }
+    // the prefetch task exits after its in-flight fetch, which is serialized with closeOperation by
+    // the synchronized client
+    prefetchStopped = true;
     if (client != null) {
       try {
         TSCloseOperationReq closeReq = new TSCloseOperationReq(sessionId);
@@ -227,6 +255,9 @@ public class IoTDBRpcDataSet {
   }
 
   public boolean next() throws StatementExecutionException, IoTDBConnectionException {
+    if (prefetchBatchNum > 0 && prefetchTask == null && moreData && !isClosed) {
+      startPrefetch();
+    }
     if (hasCachedBlock()) {
       lastReadWasNull = false;
       constructOneRow();
@@ -257,32 +288,105 @@ public class IoTDBRpcDataSet {
     if (isClosed) {
       throw new IoTDBConnectionException("This DataSet is already closed");
     }
+    TSFetchResultsResp resp =
+        prefetchTask != null ? takePrefetchedResults() : fetchResultsFromServer(client);
+    moreData = resp.moreData;
+    if (!resp.hasResultSet) {
+      try {
+        close();
+      } catch (TException e) {
+        throw new IoTDBConnectionException(
+            "Cannot fetch result from server, because of network connection: {} ", e);
+      }
+    } else {
+      queryResult = resp.getQueryResult();
+      queryResultIndex = 0;
+      queryResultSize = 0;
+      if (queryResult != null) {
+        queryResultSize = queryResult.size();
+      }
+      this.tsBlockSize = 0;
+      this.tsBlockIndex = -1;
+    }
+    return resp.hasResultSet;
+  }
+
+  private TSFetchResultsResp fetchResultsFromServer(IClientRPCService.Iface client)
+      throws StatementExecutionException, IoTDBConnectionException {
     TSFetchResultsReq req = new TSFetchResultsReq(sessionId, sql, fetchSize, queryId, true);
     req.setStatementId(statementId);
     req.setTimeout(timeout);
     try {
       TSFetchResultsResp resp = client.fetchResultsV2(req);
       RpcUtils.verifySuccess(resp.getStatus());
-      moreData = resp.moreData;
-      if (!resp.hasResultSet) {
-        close();
-      } else {
-        queryResult = resp.getQueryResult();
-        queryResultIndex = 0;
-        queryResultSize = 0;
-        if (queryResult != null) {
-          queryResultSize = queryResult.size();
-        }
-        this.tsBlockSize = 0;
-        this.tsBlockIndex = -1;
-      }
-      return resp.hasResultSet;
+      return resp;
     } catch (TException e) {
       throw new IoTDBConnectionException(
           "Cannot fetch result from server, because of network connection: {} ", e);
     }
   }
 
+  private void startPrefetch() {
+    prefetchedResults = new ArrayBlockingQueue<>(prefetchBatchNum);
+    IClientRPCService.Iface prefetchClient = client;
+    prefetchTask = PREFETCH_EXECUTOR.submit(() -> prefetch(prefetchClient));
+  }
+
+  /**
+   * Fetch the batches one by one until the server has no more data, an error occurs or the data set
+   * is closed. It waits while prefetchBatchNum batches are not consumed.
+   */
+  private void prefetch(IClientRPCService.Iface prefetchClient) {
+    boolean hasMoreData = true;
+    while (hasMoreData && !prefetchStopped) {
+      Object result;
+      try {
+        TSFetchResultsResp resp = fetchResultsFromServer(prefetchClient);
+        hasMoreData = resp.hasResultSet && resp.moreData;
+        result = resp;
+      } catch (Exception e) {
+        hasMoreData = false;
+        result = e;
+      }
+      try {
+        while (!prefetchedResults.offer(result, PREFETCH_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+          if (prefetchStopped) {
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private TSFetchResultsResp takePrefetchedResults()
+      throws StatementExecutionException, IoTDBConnectionException {
+    Object result;
+    try {
+      while ((result = prefetchedResults.poll(PREFETCH_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS))
+          == null) {
+        if (prefetchTask.isDone() && prefetchedResults.isEmpty()) {
+          // all the prefetched batches are consumed, e.g. fetchResults is called after the last
+          // batch, behave the same as without prefetch
+          return fetchResultsFromServer(client);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IoTDBConnectionException("Interrupted while waiting for the prefetched results");
+    }
+    if (result instanceof StatementExecutionException) {
+      throw (StatementExecutionException) result;
+    } else if (result instanceof IoTDBConnectionException) {
+      throw (IoTDBConnectionException) result;
+    } else if (result instanceof Exception) {
+      throw new IoTDBConnectionException("Cannot fetch result from server", (Exception) result);
+    }
+    return (TSFetchResultsResp) result;
+  }
+
   public boolean hasCachedBlock() {
     return (curTsBlock != null && tsBlockIndex < tsBlockSize - 1);
   }
@@ -656,6 +760,22 @@ public class IoTDBRpcDataSet {
     this.fetchSize = fetchSize;
   }
 
+  public int getPrefetchBatchNum() {
+    return prefetchBatchNum;
+  }
+
+  /**
+   * Fetch at most prefetchBatchNum batches of results in background while the current one is
+   * consumed. 0 disables prefetching. It only takes effect if called before the first call of
+   * {@link #next()}.
+   */
+  public void setPrefetchBatchNum(int prefetchBatchNum) {
+    if (prefetchBatchNum < 0) {
+      throw new IllegalArgumentException("prefetchBatchNum should not be negative");
+    }
+    this.prefetchBatchNum = prefetchBatchNum;
+  }
+
   public boolean hasCachedRecord() {
     return hasCachedRecord;
   }
@@ -32,6 +32,9 @@ public abstract class AbstractSessionBuilder {
   public String username = SessionConfig.DEFAULT_USER;
   public String pw = SessionConfig.DEFAULT_PASSWORD;
   public int fetchSize = SessionConfig.DEFAULT_FETCH_SIZE;
+  // max number of result batches fetched in background ahead of the consumer of a query, 0 means
+  // the next batch is fetched only after the current one is consumed
+  public int prefetchBatchNum = SessionConfig.DEFAULT_PREFETCH_BATCH_NUM;
   public ZoneId zoneId = null;
   public int thriftDefaultBufferSize = SessionConfig.DEFAULT_INITIAL_BUFFER_CAPACITY;
   public int thriftMaxFrameSize = SessionConfig.DEFAULT_MAX_FRAME_SIZE;
@@ -68,4 +71,15 @@ public abstract class AbstractSessionBuilder {
   public String sqlDialect = SessionConfig.SQL_DIALECT;
 
   public String database;
+
+  // bound of the bytes of asynchronous insert requests in flight, callers of the asynchronous
+  // insert API are blocked until previous requests finish if it is exceeded
+  public long asyncInsertMaxInFlightBytes = SessionConfig.DEFAULT_ASYNC_INSERT_MAX_IN_FLIGHT_BYTES;
+
+  // number of threads sending asynchronous insert requests
+  public int asyncInsertThreadNum = SessionConfig.DEFAULT_ASYNC_INSERT_THREAD_NUM;
+
+  // max number of asynchronous inserted records of a device coalesced into one tablet, 1 means
+  // records are not coalesced
+  public int asyncInsertCoalesceRowNum = SessionConfig.DEFAULT_ASYNC_INSERT_COALESCE_ROW_NUM;
 }
@@ -0,0 +1,482 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.isession.SessionConfig;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.util.ThreadUtils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends insert requests of a {@link Session} or a {@link org.apache.iotdb.session.pool.SessionPool}
+ * in background and returns futures of them, so that the caller can keep multiple requests in
+ * flight without holding a thread for each of them.
+ *
+ * <p>The bytes of the requests in flight are bounded by maxInFlightBytes, the caller is blocked
+ * until enough previous requests finish if the bound is exceeded. A request larger than the bound
+ * is still sent when nothing else is in flight.
+ *
+ * <p>Records inserted by {@link #insertRecord} are coalesced into a tablet per device as long as
+ * their measurements and types are unchanged. The tablet is sent when it has coalesceRowNum rows,
+ * when a record with different measurements arrives, or {@link
+ * SessionConfig#DEFAULT_ASYNC_INSERT_LINGER_MS} after its first record.
+ */
+public class AsyncInsertDispatcher implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncInsertDispatcher.class);
+
+  /** An insert request to be executed in background. */
+  @FunctionalInterface
+  public interface Insertion {
+    void insert() throws IoTDBConnectionException, StatementExecutionException;
+  }
+
+  /** Inserts a tablet coalesced from records, through the redirection of the caller. */
+  @FunctionalInterface
+  public interface TabletInserter {
+    void insert(Tablet tablet, boolean isAligned)
+        throws IoTDBConnectionException, StatementExecutionException;
+  }
+
+  private final TabletInserter tabletInserter;
+  private final long maxInFlightBytes;
+  private final int coalesceRowNum;
+  private final long lingerMs;
+
+  private final ExecutorService insertExecutor;
+  private final ScheduledExecutorService lingerExecutor;
+
+  private final Object inFlightLock = new Object();
+  // guarded by inFlightLock
+  private long inFlightBytes = 0;
+  private final Set<CompletableFuture<Void>> inFlightFutures = ConcurrentHashMap.newKeySet();
+
+  // guarded by itself
+  private final Map<RecordBufferKey, RecordBuffer> recordBuffers = new HashMap<>();
+
+  private volatile boolean closed = false;
+
+  public AsyncInsertDispatcher(
+      TabletInserter tabletInserter,
+      long maxInFlightBytes,
+      int threadNum,
+      int coalesceRowNum,
+      long lingerMs) {
+    if (maxInFlightBytes <= 0) {
+      throw new IllegalArgumentException("maxInFlightBytes should be positive.");
+    }
+    if (threadNum <= 0) {
+      throw new IllegalArgumentException("threadNum should be positive.");
+    }
+    if (coalesceRowNum <= 0) {
+      throw new IllegalArgumentException("coalesceRowNum should be positive.");
+    }
+    this.tabletInserter = tabletInserter;
+    this.maxInFlightBytes = maxInFlightBytes;
+    this.coalesceRowNum = coalesceRowNum;
+    this.lingerMs = lingerMs;
+    this.insertExecutor =
+        Executors.newFixedThreadPool(
+            threadNum, ThreadUtils.createThreadFactory("AsyncInsertExecutor", true));
+    this.lingerExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            ThreadUtils.createThreadFactory("AsyncInsertLinger", true));
+  }
+
+  /**
+   * Execute the insertion in background.
+   *
+   * @param sizeInBytes estimated size of the request, see {@link #estimateSize(Tablet)}
+   * @return completed when the insertion finishes, or completed exceptionally with the exception
+   *     thrown by the insertion
+   */
+  public CompletableFuture<Void> submit(long sizeInBytes, Insertion insertion) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    if (closed) {
+      future.completeExceptionally(new IllegalStateException("AsyncInsertDispatcher is closed."));
+      return future;
+    }
+    try {
+      acquireInFlightBytes(sizeInBytes);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(e);
+      return future;
+    }
+    inFlightFutures.add(future);
+    try {
+      insertExecutor.execute(
+          () -> {
+            Throwable failure = null;
+            try {
+              insertion.insert();
+            } catch (Throwable e) {
+              failure = e;
+            }
+            // release before completing, so that the bytes are available to the callbacks
+            releaseInFlightBytes(sizeInBytes);
+            inFlightFutures.remove(future);
+            if (failure == null) {
+              future.complete(null);
+            } else {
+              future.completeExceptionally(failure);
+            }
+          });
+    } catch (RuntimeException e) {
+      // the executor is shut down
+      releaseInFlightBytes(sizeInBytes);
+      inFlightFutures.remove(future);
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  public CompletableFuture<Void> insertTablet(Tablet tablet, boolean isAligned) {
+    return submit(estimateSize(tablet), () -> tabletInserter.insert(tablet, isAligned));
+  }
+
+  /**
+   * Append the record to the tablet being coalesced of its device.
+   *
+   * @return completed when the tablet containing the record is inserted
+   */
+  public CompletableFuture<Void> insertRecord(
+      String deviceId,
+      boolean isAligned,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    if (measurements.size() != types.size() || measurements.size() != values.size()) {
+      throw new IllegalArgumentException(
+          "measurements, types and values should have the same size.");
+    }
+    // check the values before any of them is added, a half-written row would be sent with the
+    // records of other callers
+    for (int i = 0; i < measurements.size(); i++) {
+      checkValue(measurements.get(i), types.get(i), values.get(i));
+    }
+    RecordBufferKey key = new RecordBufferKey(deviceId, isAligned);
+    List<RecordBuffer> buffersToSend = new ArrayList<>(2);
+    CompletableFuture<Void> future;
+    synchronized (recordBuffers) {
+      RecordBuffer buffer = recordBuffers.get(key);
+      if (buffer != null && !buffer.accepts(measurements, types)) {
+        recordBuffers.remove(key);
+        buffersToSend.add(buffer);
+        buffer = null;
+      }
+      if (buffer == null) {
+        buffer = new RecordBuffer(key, measurements, types, coalesceRowNum);
+        recordBuffers.put(key, buffer);
+        if (coalesceRowNum > 1) {
+          RecordBuffer lingering = buffer;
+          lingerExecutor.schedule(() -> sendIfBuffered(lingering), lingerMs, TimeUnit.MILLISECONDS);
+        }
+      }
+      buffer.append(time, values);
+      future = buffer.future;
+      if (buffer.tablet.getRowSize() >= coalesceRowNum) {
+        recordBuffers.remove(key);
+        buffersToSend.add(buffer);
+      }
+    }
+    // sending may be blocked by the bound of in-flight bytes, so do it outside the lock
+    for (RecordBuffer buffer : buffersToSend) {
+      send(buffer);
+    }
+    return future;
+  }
+
+  /**
+   * Send all the records being coalesced.
+   *
+   * @return completed when all the insertions submitted before finish
+   */
+  public CompletableFuture<Void> flush() {
+    List<RecordBuffer> buffersToSend;
+    synchronized (recordBuffers) {
+      buffersToSend = new ArrayList<>(recordBuffers.values());
+      recordBuffers.clear();
+    }
+    List<CompletableFuture<Void>> futures = new ArrayList<>(inFlightFutures);
+    for (RecordBuffer buffer : buffersToSend) {
+      send(buffer);
+      futures.add(buffer.future);
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+  }
+
+  public long getInFlightBytes() {
+    synchronized (inFlightLock) {
+      return inFlightBytes;
+    }
+  }
+
+  /** Send the records being coalesced and wait for all the insertions to finish. */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    try {
+      flush().join();
+    } catch (Exception e) {
+      LOGGER.warn("Some asynchronous insertions failed before closing.", e);
+    } finally {
+      closed = true;
+      lingerExecutor.shutdownNow();
+      insertExecutor.shutdown();
+    }
+  }
+
+  private void sendIfBuffered(RecordBuffer buffer) {
+    synchronized (recordBuffers) {
+      if (recordBuffers.get(buffer.key) != buffer) {
+        // already sent
+        return;
+      }
+      recordBuffers.remove(buffer.key);
+    }
+    send(buffer);
+  }
+
+  private void send(RecordBuffer buffer) {
+    submit(
+            estimateSize(buffer.tablet),
+            () -> tabletInserter.insert(buffer.tablet, buffer.key.isAligned))
+        .whenComplete(
+            (v, e) -> {
+              if (e == null) {
+                buffer.future.complete(null);
+              } else {
+                buffer.future.completeExceptionally(e);
+              }
+            });
+  }
+
+  private void acquireInFlightBytes(long sizeInBytes) throws InterruptedException {
+    synchronized (inFlightLock) {
+      // let a request larger than the bound go if nothing else is in flight
+      while (inFlightBytes > 0 && inFlightBytes + sizeInBytes > maxInFlightBytes) {
+        inFlightLock.wait();
+      }
+      inFlightBytes += sizeInBytes;
+    }
+  }
+
+  private void releaseInFlightBytes(long sizeInBytes) {
+    synchronized (inFlightLock) {
+      inFlightBytes -= sizeInBytes;
+      inFlightLock.notifyAll();
+    }
+  }
+
+  /** Estimate the serialized size of the timestamps and values of the tablet. */
+  public static long estimateSize(Tablet tablet) {
+    int rowSize = tablet.getRowSize();
+    long size = (long) Long.BYTES * rowSize;
+    List<IMeasurementSchema> schemas = tablet.getSchemas();
+    Object[] values = tablet.getValues();
+    for (int i = 0; i < schemas.size(); i++) {
+      TSDataType type = schemas.get(i).getType();
+      switch (type) {
+        case TEXT:
+        case STRING:
+        case BLOB:
+          Binary[] binaries = (Binary[]) values[i];
+          for (int row = 0; row < rowSize; row++) {
+            size += Integer.BYTES + (binaries[row] == null ? 0 : binaries[row].getLength());
+          }
+          break;
+        default:
+          size += (long) fixedSize(type) * rowSize;
+      }
+    }
+    return size;
+  }
+
+  /** Estimate the serialized size of the timestamp and values of a record. */
+  public static long estimateSize(List<TSDataType> types, List<Object> values) {
+    long size = Long.BYTES;
+    for (int i = 0; i < types.size(); i++) {
+      Object value = values.get(i);
+      if (value instanceof String) {
+        size += Integer.BYTES + ((String) value).length();
+      } else if (value instanceof Binary) {
+        size += Integer.BYTES + ((Binary) value).getLength();
+      } else if (value instanceof byte[]) {
+        size += Integer.BYTES + ((byte[]) value).length;
+      } else {
+        size += fixedSize(types.get(i));
+      }
+    }
+    return size;
+  }
+
+  /** Estimate the serialized size of the timestamps and values of records. */
+  public static long estimateRecordsSize(
+      List<List<TSDataType>> typesList, List<List<Object>> valuesList) {
+    long size = 0;
+    for (int i = 0; i < typesList.size(); i++) {
+      size += estimateSize(typesList.get(i), valuesList.get(i));
+    }
+    return size;
+  }
+
+  // the same value classes as accepted by Tablet.addValue
+  private static void checkValue(String measurement, TSDataType type, Object value) {
+    if (value == null) {
+      return;
+    }
+    boolean matches;
+    switch (type) {
+      case BOOLEAN:
+        matches = value instanceof Boolean;
+        break;
+      case INT32:
+        matches = value instanceof Integer;
+        break;
+      case DATE:
+        matches = value instanceof LocalDate;
+        break;
+      case INT64:
+      case TIMESTAMP:
+        matches = value instanceof Long;
+        break;
+      case FLOAT:
+        matches = value instanceof Float;
+        break;
+      case DOUBLE:
+        matches = value instanceof Double;
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        matches = value instanceof Binary || value instanceof String;
+        break;
+      default:
+        throw new IllegalArgumentException(
+            String.format("Data type %s of %s is not supported.", type, measurement));
+    }
+    if (!matches) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Value of %s should be %s, but got %s.",
+              measurement, type, value.getClass().getName()));
+    }
+  }
+
+  private static int fixedSize(TSDataType type) {
+    switch (type) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+      case DATE:
+        return Integer.BYTES;
+      default:
+        return Long.BYTES;
+    }
+  }
+
+  private static class RecordBufferKey {
+
+    private final String deviceId;
+    private final boolean isAligned;
+
+    private RecordBufferKey(String deviceId, boolean isAligned) {
+      this.deviceId = deviceId;
+      this.isAligned = isAligned;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      RecordBufferKey that = (RecordBufferKey) o;
+      return isAligned == that.isAligned && deviceId.equals(that.deviceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(deviceId, isAligned);
+    }
+  }
+
+  private static class RecordBuffer {
+
+    private final RecordBufferKey key;
+    private final List<String> measurements;
+    private final List<TSDataType> types;
+    private final Tablet tablet;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private RecordBuffer(
+        RecordBufferKey key, List<String> measurements, List<TSDataType> types, int maxRowNum) {
+      this.key = key;
+      this.measurements = new ArrayList<>(measurements);
+      this.types = new ArrayList<>(types);
+      List<IMeasurementSchema> schemas = new ArrayList<>(measurements.size());
+      for (int i = 0; i < measurements.size(); i++) {
+        schemas.add(new MeasurementSchema(measurements.get(i), types.get(i)));
+      }
+      this.tablet = new Tablet(key.deviceId, schemas, maxRowNum);
+    }
+
+    private boolean accepts(List<String> measurements, List<TSDataType> types) {
+      return this.measurements.equals(measurements) && this.types.equals(types);
+    }
+
+    private void append(long time, List<Object> values) {
+      int row = tablet.getRowSize();
+      tablet.addTimestamp(row, time);
+      for (int i = 0; i < measurements.size(); i++) {
+        tablet.addValue(measurements.get(i), row, values.get(i));
+      }
+    }
+  }
+}
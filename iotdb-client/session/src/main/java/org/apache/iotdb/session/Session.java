@@ -127,6 +127,17 @@ public class Session implements ISession {
   protected String username;
   protected String password;
   protected int fetchSize;
+  // max number of result batches fetched in background ahead of the consumer of a query
+  protected int prefetchBatchNum = SessionConfig.DEFAULT_PREFETCH_BATCH_NUM;
+  protected long asyncInsertMaxInFlightBytes =
+      SessionConfig.DEFAULT_ASYNC_INSERT_MAX_IN_FLIGHT_BYTES;
+  protected int asyncInsertThreadNum = SessionConfig.DEFAULT_ASYNC_INSERT_THREAD_NUM;
+  protected int asyncInsertCoalesceRowNum = SessionConfig.DEFAULT_ASYNC_INSERT_COALESCE_ROW_NUM;
+
+  // created when the asynchronous insert API is used for the first time
+  @SuppressWarnings("squid:S3077") // Non-primitive fields should not be "volatile"
+  private volatile AsyncInsertDispatcher asyncInsertDispatcher;
+
   protected boolean useSSL;
   protected String trustStore;
   protected String trustStorePwd;
@@ -454,6 +465,10 @@ public class Session implements ISession {
     this.username = builder.username;
     this.password = builder.pw;
     this.fetchSize = builder.fetchSize;
+    this.prefetchBatchNum = builder.prefetchBatchNum;
+    this.asyncInsertMaxInFlightBytes = builder.asyncInsertMaxInFlightBytes;
+    this.asyncInsertThreadNum = builder.asyncInsertThreadNum;
+    this.asyncInsertCoalesceRowNum = builder.asyncInsertCoalesceRowNum;
     this.zoneId = builder.zoneId;
     this.thriftDefaultBufferSize = builder.thriftDefaultBufferSize;
     this.thriftMaxFrameSize = builder.thriftMaxFrameSize;
@@ -479,6 +494,18 @@ public class Session implements ISession {
     return this.fetchSize;
   }
 
+  /**
+   * Set the max number of result batches fetched in background while the current batch of a query
+   * is consumed, 0 disables it. It takes effect on the queries executed afterward.
+   */
+  public void setPrefetchBatchNum(int prefetchBatchNum) {
+    this.prefetchBatchNum = prefetchBatchNum;
+  }
+
+  public int getPrefetchBatchNum() {
+    return this.prefetchBatchNum;
+  }
+
   @Override
   public Version getVersion() {
     return version;
@@ -630,6 +657,11 @@ public class Session implements ISession {
     if (isClosed) {
       return;
     }
+    if (asyncInsertDispatcher != null) {
+      // send the remaining asynchronous insertions before the connections are closed
+      asyncInsertDispatcher.close();
+      asyncInsertDispatcher = null;
+    }
     try {
       if (enableRedirection) {
         for (SessionConnection sessionConnection : endPointToSessionConnection.values()) {
@@ -4163,6 +4195,111 @@ public class Session implements ISession {
     return database;
   }
 
+  /**
+   * Insert a Tablet in background, the caller is blocked only if the bytes of the asynchronous
+   * insertions in flight exceed asyncInsertMaxInFlightBytes. The tablet should not be modified
+   * before the returned future completes.
+   *
+   * @return completed when the tablet is inserted, or completed exceptionally with the exception
+   *     thrown by {@link #insertTablet(Tablet)}
+   */
+  public CompletableFuture<Void> insertTabletAsync(Tablet tablet) {
+    return getAsyncInsertDispatcher().insertTablet(tablet, false);
+  }
+
+  /**
+   * Insert the aligned timeseries data of a device in background.
+   *
+   * @see Session#insertTabletAsync(Tablet)
+   */
+  public CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet) {
+    return getAsyncInsertDispatcher().insertTablet(tablet, true);
+  }
+
+  /**
+   * Insert multiple rows in background.
+   *
+   * @see Session#insertTabletAsync(Tablet)
+   * @see Session#insertRecords(List, List, List, List, List)
+   */
+  public CompletableFuture<Void> insertRecordsAsync(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    return getAsyncInsertDispatcher()
+        .submit(
+            AsyncInsertDispatcher.estimateRecordsSize(typesList, valuesList),
+            () -> insertRecords(deviceIds, times, measurementsList, typesList, valuesList));
+  }
+
+  /**
+   * Insert one row in background. Rows of the same device with the same measurements and types are
+   * coalesced into one tablet of at most asyncInsertCoalesceRowNum rows before sent, so a single
+   * row may wait for {@link SessionConfig#DEFAULT_ASYNC_INSERT_LINGER_MS} at most.
+   *
+   * @return completed when the tablet containing the row is inserted
+   * @see Session#flushAsyncInsertions()
+   */
+  public CompletableFuture<Void> insertRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return getAsyncInsertDispatcher()
+        .insertRecord(deviceId, false, time, measurements, types, values);
+  }
+
+  /**
+   * Insert one aligned row in background.
+   *
+   * @see Session#insertRecordAsync(String, long, List, List, List)
+   */
+  public CompletableFuture<Void> insertAlignedRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return getAsyncInsertDispatcher()
+        .insertRecord(deviceId, true, time, measurements, types, values);
+  }
+
+  /**
+   * Send the rows being coalesced immediately.
+   *
+   * @return completed when all the asynchronous insertions submitted before finish
+   */
+  public CompletableFuture<Void> flushAsyncInsertions() {
+    AsyncInsertDispatcher dispatcher = asyncInsertDispatcher;
+    return dispatcher == null ? CompletableFuture.completedFuture(null) : dispatcher.flush();
+  }
+
+  private AsyncInsertDispatcher getAsyncInsertDispatcher() {
+    if (asyncInsertDispatcher == null) {
+      synchronized (this) {
+        if (asyncInsertDispatcher == null) {
+          asyncInsertDispatcher =
+              new AsyncInsertDispatcher(
+                  (tablet, isAligned) -> {
+                    if (isAligned) {
+                      insertAlignedTablet(tablet);
+                    } else {
+                      insertTablet(tablet);
+                    }
+                  },
+                  asyncInsertMaxInFlightBytes,
+                  asyncInsertThreadNum,
+                  asyncInsertCoalesceRowNum,
+                  SessionConfig.DEFAULT_ASYNC_INSERT_LINGER_MS);
+        }
+      }
+    }
+    return asyncInsertDispatcher;
+  }
+
   protected void changeSqlDialect(String sqlDialect) {
     this.sqlDialect = sqlDialect;
   }
@@ -4198,11 +4335,31 @@ public class Session implements ISession {
       return this;
     }
 
+    public Builder prefetchBatchNum(int prefetchBatchNum) {
+      this.prefetchBatchNum = prefetchBatchNum;
+      return this;
+    }
+
     public Builder zoneId(ZoneId zoneId) {
       this.zoneId = zoneId;
       return this;
     }
 
+    public Builder asyncInsertMaxInFlightBytes(long asyncInsertMaxInFlightBytes) {
+      this.asyncInsertMaxInFlightBytes = asyncInsertMaxInFlightBytes;
+      return this;
+    }
+
+    public Builder asyncInsertThreadNum(int asyncInsertThreadNum) {
+      this.asyncInsertThreadNum = asyncInsertThreadNum;
+      return this;
+    }
+
+    public Builder asyncInsertCoalesceRowNum(int asyncInsertCoalesceRowNum) {
+      this.asyncInsertCoalesceRowNum = asyncInsertCoalesceRowNum;
+      return this;
+    }
+
     public Builder thriftDefaultBufferSize(int thriftDefaultBufferSize) {
       this.thriftDefaultBufferSize = thriftDefaultBufferSize;
       return this;
@@ -397,24 +397,27 @@ public class SessionConnection {
       RpcUtils.verifySuccess(execResp.getStatus());
     }
 
-    return new SessionDataSet(
-        sql,
-        execResp.getColumns(),
-        execResp.getDataTypeList(),
-        execResp.columnNameIndexMap,
-        execResp.getQueryId(),
-        statementId,
-        client,
-        sessionId,
-        execResp.queryResult,
-        execResp.isIgnoreTimeStamp(),
-        timeout,
-        execResp.moreData,
-        session.fetchSize,
-        zoneId,
-        timeFactor,
-        execResp.isSetTableModel() && execResp.isTableModel(),
-        execResp.getColumnIndex2TsBlockColumnIndexList());
+    SessionDataSet dataSet =
+        new SessionDataSet(
+            sql,
+            execResp.getColumns(),
+            execResp.getDataTypeList(),
+            execResp.columnNameIndexMap,
+            execResp.getQueryId(),
+            statementId,
+            client,
+            sessionId,
+            execResp.queryResult,
+            execResp.isIgnoreTimeStamp(),
+            timeout,
+            execResp.moreData,
+            session.fetchSize,
+            zoneId,
+            timeFactor,
+            execResp.isSetTableModel() && execResp.isTableModel(),
+            execResp.getColumnIndex2TsBlockColumnIndexList());
+    dataSet.setPrefetchBatchNum(session.prefetchBatchNum);
+    return dataSet;
   }
 
   protected void executeNonQueryStatement(String sql)
@@ -467,22 +470,25 @@ public class SessionConnection {
       RpcUtils.verifySuccess(execResp.getStatus());
     }
 
-    return new SessionDataSet(
-        "",
-        execResp.getColumns(),
-        execResp.getDataTypeList(),
-        execResp.columnNameIndexMap,
-        execResp.getQueryId(),
-        statementId,
-        client,
-        sessionId,
-        execResp.queryResult,
-        execResp.isIgnoreTimeStamp(),
-        execResp.moreData,
-        zoneId,
-        timeFactor,
-        execResp.isSetTableModel() && execResp.isTableModel(),
-        execResp.getColumnIndex2TsBlockColumnIndexList());
+    SessionDataSet dataSet =
+        new SessionDataSet(
+            "",
+            execResp.getColumns(),
+            execResp.getDataTypeList(),
+            execResp.columnNameIndexMap,
+            execResp.getQueryId(),
+            statementId,
+            client,
+            sessionId,
+            execResp.queryResult,
+            execResp.isIgnoreTimeStamp(),
+            execResp.moreData,
+            zoneId,
+            timeFactor,
+            execResp.isSetTableModel() && execResp.isTableModel(),
+            execResp.getColumnIndex2TsBlockColumnIndexList());
+    dataSet.setPrefetchBatchNum(session.prefetchBatchNum);
+    return dataSet;
   }
 
   protected Pair<SessionDataSet, TEndPoint> executeLastDataQueryForOneDevice(
@@ -558,22 +564,25 @@ public class SessionConnection {
       RpcUtils.verifySuccess(tsExecuteStatementResp.getStatus());
     }
 
-    return new SessionDataSet(
-        "",
-        tsExecuteStatementResp.getColumns(),
-        tsExecuteStatementResp.getDataTypeList(),
-        tsExecuteStatementResp.columnNameIndexMap,
-        tsExecuteStatementResp.getQueryId(),
-        statementId,
-        client,
-        sessionId,
-        tsExecuteStatementResp.queryResult,
-        tsExecuteStatementResp.isIgnoreTimeStamp(),
-        tsExecuteStatementResp.moreData,
-        zoneId,
-        timeFactor,
-        tsExecuteStatementResp.isSetTableModel() && tsExecuteStatementResp.isTableModel(),
-        tsExecuteStatementResp.getColumnIndex2TsBlockColumnIndexList());
+    SessionDataSet dataSet =
+        new SessionDataSet(
+            "",
+            tsExecuteStatementResp.getColumns(),
+            tsExecuteStatementResp.getDataTypeList(),
+            tsExecuteStatementResp.columnNameIndexMap,
+            tsExecuteStatementResp.getQueryId(),
+            statementId,
+            client,
+            sessionId,
+            tsExecuteStatementResp.queryResult,
+            tsExecuteStatementResp.isIgnoreTimeStamp(),
+            tsExecuteStatementResp.moreData,
+            zoneId,
+            timeFactor,
+            tsExecuteStatementResp.isSetTableModel() && tsExecuteStatementResp.isTableModel(),
+            tsExecuteStatementResp.getColumnIndex2TsBlockColumnIndexList());
+    dataSet.setPrefetchBatchNum(session.prefetchBatchNum);
+    return dataSet;
   }
 
   protected SessionDataSet executeAggregationQuery(
@@ -639,22 +648,25 @@ public class SessionConnection {
       RpcUtils.verifySuccess(tsExecuteStatementResp.getStatus());
     }
 
-    return new SessionDataSet(
-        "",
-        tsExecuteStatementResp.getColumns(),
-        tsExecuteStatementResp.getDataTypeList(),
-        tsExecuteStatementResp.columnNameIndexMap,
-        tsExecuteStatementResp.getQueryId(),
-        statementId,
-        client,
-        sessionId,
-        tsExecuteStatementResp.queryResult,
-        tsExecuteStatementResp.isIgnoreTimeStamp(),
-        tsExecuteStatementResp.moreData,
-        zoneId,
-        timeFactor,
-        tsExecuteStatementResp.isSetTableModel() && tsExecuteStatementResp.isTableModel(),
-        tsExecuteStatementResp.getColumnIndex2TsBlockColumnIndexList());
+    SessionDataSet dataSet =
+        new SessionDataSet(
+            "",
+            tsExecuteStatementResp.getColumns(),
+            tsExecuteStatementResp.getDataTypeList(),
+            tsExecuteStatementResp.columnNameIndexMap,
+            tsExecuteStatementResp.getQueryId(),
+            statementId,
+            client,
+            sessionId,
+            tsExecuteStatementResp.queryResult,
+            tsExecuteStatementResp.isIgnoreTimeStamp(),
+            tsExecuteStatementResp.moreData,
+            zoneId,
+            timeFactor,
+            tsExecuteStatementResp.isSetTableModel() && tsExecuteStatementResp.isTableModel(),
+            tsExecuteStatementResp.getColumnIndex2TsBlockColumnIndexList());
+    dataSet.setPrefetchBatchNum(session.prefetchBatchNum);
+    return dataSet;
   }
 
   private TSAggregationQueryReq createAggregationQueryReq(
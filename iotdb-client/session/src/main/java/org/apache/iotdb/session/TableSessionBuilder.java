@@ -114,6 +114,20 @@ public class TableSessionBuilder extends AbstractSessionBuilder {
     return this;
   }
 
+  /**
+   * Sets the max number of result batches fetched in background while the current batch of a query
+   * is consumed. 0 disables prefetching, so the next batch is fetched only after the current one is
+   * consumed.
+   *
+   * @param prefetchBatchNum the max number of prefetched batches.
+   * @return the current {@link TableSessionBuilder} instance.
+   * @defaultValue 0
+   */
+  public TableSessionBuilder prefetchBatchNum(int prefetchBatchNum) {
+    this.prefetchBatchNum = prefetchBatchNum;
+    return this;
+  }
+
   /**
    * Sets the {@link ZoneId} for timezone-related operations.
    *
@@ -34,6 +34,7 @@ import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.TSBackupConfigurationResp;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionInfoResp;
+import org.apache.iotdb.session.AsyncInsertDispatcher;
 import org.apache.iotdb.session.DummyNodesSupplier;
 import org.apache.iotdb.session.NodesSupplier;
 import org.apache.iotdb.session.Session;
@@ -53,6 +54,7 @@ import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentMap;
@@ -110,6 +112,14 @@ public class SessionPool implements ISessionPool {
   private final String password;
   private int fetchSize;
 
+  private long asyncInsertMaxInFlightBytes = SessionConfig.DEFAULT_ASYNC_INSERT_MAX_IN_FLIGHT_BYTES;
+  private int asyncInsertThreadNum = SessionConfig.DEFAULT_ASYNC_INSERT_THREAD_NUM;
+  private int asyncInsertCoalesceRowNum = SessionConfig.DEFAULT_ASYNC_INSERT_COALESCE_ROW_NUM;
+
+  // created when the asynchronous insert API is used for the first time
+  @SuppressWarnings("squid:S3077") // Non-primitive fields should not be "volatile"
+  private volatile AsyncInsertDispatcher asyncInsertDispatcher;
+
   private boolean useSSL;
 
   private String trustStore;
@@ -497,6 +507,9 @@ public class SessionPool implements ISessionPool {
     this.user = builder.username;
     this.password = builder.pw;
     this.fetchSize = builder.fetchSize;
+    this.asyncInsertMaxInFlightBytes = builder.asyncInsertMaxInFlightBytes;
+    this.asyncInsertThreadNum = builder.asyncInsertThreadNum;
+    this.asyncInsertCoalesceRowNum = builder.asyncInsertCoalesceRowNum;
     this.waitToGetSessionTimeoutInMs = builder.waitToGetSessionTimeoutInMs;
     this.enableCompression = builder.enableCompression;
     this.zoneId = builder.zoneId;
@@ -773,7 +786,18 @@ public class SessionPool implements ISessionPool {
 
   /** close all connections in the pool */
   @Override
-  public synchronized void close() {
+  public void close() {
+    AsyncInsertDispatcher dispatcher = asyncInsertDispatcher;
+    if (dispatcher != null) {
+      // send the remaining asynchronous insertions before the sessions are closed, not in the
+      // synchronized block because the insertions need the lock to borrow and return sessions
+      dispatcher.close();
+    }
+    closeSessions();
+  }
+
+  private synchronized void closeSessions() {
+    asyncInsertDispatcher = null;
     for (ISession session : queue) {
       try {
         session.close();
@@ -3565,6 +3589,106 @@ public class SessionPool implements ISessionPool {
     return queryTimeoutInMs;
   }
 
+  /**
+   * Insert a Tablet in background with a session borrowed from the pool, so that at most
+   * asyncInsertThreadNum requests are in flight at the same time. The caller is blocked only if the
+   * bytes of the asynchronous insertions in flight exceed asyncInsertMaxInFlightBytes.
+   *
+   * @see Session#insertTabletAsync(Tablet)
+   */
+  public CompletableFuture<Void> insertTabletAsync(Tablet tablet) {
+    return getAsyncInsertDispatcher().insertTablet(tablet, false);
+  }
+
+  /**
+   * Insert the aligned timeseries data of a device in background.
+   *
+   * @see SessionPool#insertTabletAsync(Tablet)
+   */
+  public CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet) {
+    return getAsyncInsertDispatcher().insertTablet(tablet, true);
+  }
+
+  /**
+   * Insert multiple rows in background.
+   *
+   * @see SessionPool#insertTabletAsync(Tablet)
+   */
+  public CompletableFuture<Void> insertRecordsAsync(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    return getAsyncInsertDispatcher()
+        .submit(
+            AsyncInsertDispatcher.estimateRecordsSize(typesList, valuesList),
+            () -> insertRecords(deviceIds, times, measurementsList, typesList, valuesList));
+  }
+
+  /**
+   * Insert one row in background, rows of the same device are coalesced into tablets.
+   *
+   * @see Session#insertRecordAsync(String, long, List, List, List)
+   */
+  public CompletableFuture<Void> insertRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return getAsyncInsertDispatcher()
+        .insertRecord(deviceId, false, time, measurements, types, values);
+  }
+
+  /**
+   * Insert one aligned row in background, rows of the same device are coalesced into tablets.
+   *
+   * @see Session#insertRecordAsync(String, long, List, List, List)
+   */
+  public CompletableFuture<Void> insertAlignedRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return getAsyncInsertDispatcher()
+        .insertRecord(deviceId, true, time, measurements, types, values);
+  }
+
+  /**
+   * Send the rows being coalesced immediately.
+   *
+   * @return completed when all the asynchronous insertions submitted before finish
+   */
+  public CompletableFuture<Void> flushAsyncInsertions() {
+    AsyncInsertDispatcher dispatcher = asyncInsertDispatcher;
+    return dispatcher == null ? CompletableFuture.completedFuture(null) : dispatcher.flush();
+  }
+
+  private AsyncInsertDispatcher getAsyncInsertDispatcher() {
+    if (asyncInsertDispatcher == null) {
+      synchronized (this) {
+        if (asyncInsertDispatcher == null) {
+          asyncInsertDispatcher =
+              new AsyncInsertDispatcher(
+                  (tablet, isAligned) -> {
+                    if (isAligned) {
+                      insertAlignedTablet(tablet);
+                    } else {
+                      insertTablet(tablet);
+                    }
+                  },
+                  asyncInsertMaxInFlightBytes,
+                  asyncInsertThreadNum,
+                  asyncInsertCoalesceRowNum,
+                  SessionConfig.DEFAULT_ASYNC_INSERT_LINGER_MS);
+        }
+      }
+    }
+    return asyncInsertDispatcher;
+  }
+
   public static class Builder extends AbstractSessionPoolBuilder {
 
     public Builder useSSL(boolean useSSL) {
@@ -3617,6 +3741,21 @@ public class SessionPool implements ISessionPool {
       return this;
     }
 
+    public Builder asyncInsertMaxInFlightBytes(long asyncInsertMaxInFlightBytes) {
+      this.asyncInsertMaxInFlightBytes = asyncInsertMaxInFlightBytes;
+      return this;
+    }
+
+    public Builder asyncInsertThreadNum(int asyncInsertThreadNum) {
+      this.asyncInsertThreadNum = asyncInsertThreadNum;
+      return this;
+    }
+
+    public Builder asyncInsertCoalesceRowNum(int asyncInsertCoalesceRowNum) {
+      this.asyncInsertCoalesceRowNum = asyncInsertCoalesceRowNum;
+      return this;
+    }
+
     public Builder zoneId(ZoneId zoneId) {
       this.zoneId = zoneId;
       return this;
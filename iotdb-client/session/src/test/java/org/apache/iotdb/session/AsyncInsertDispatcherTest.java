@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.StatementExecutionException;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.record.Tablet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AsyncInsertDispatcherTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final List<String> MEASUREMENTS = Arrays.asList("s1", "s2");
+  private static final List<TSDataType> TYPES = Arrays.asList(TSDataType.INT64, TSDataType.TEXT);
+
+  private final List<Tablet> insertedTablets = new CopyOnWriteArrayList<>();
+
+  private AsyncInsertDispatcher dispatcher;
+
+  @After
+  public void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
+  }
+
+  @Test
+  public void testCoalesceRecords() throws Exception {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> insertedTablets.add(tablet), 1024, 2, 3, 60_000);
+
+    CompletableFuture<Void> future1 = insertRecord(1);
+    CompletableFuture<Void> future2 = insertRecord(2);
+    Assert.assertFalse(future1.isDone());
+    CompletableFuture<Void> future3 = insertRecord(3);
+    future3.get(10, TimeUnit.SECONDS);
+    Assert.assertTrue(future1.isDone());
+    Assert.assertTrue(future2.isDone());
+
+    Assert.assertEquals(1, insertedTablets.size());
+    Tablet tablet = insertedTablets.get(0);
+    Assert.assertEquals(3, tablet.getRowSize());
+    Assert.assertEquals(3L, tablet.getTimestamp(2));
+    Assert.assertTrue(tablet.isNull(1, 1));
+  }
+
+  @Test
+  public void testSendOnSchemaChangeAndFlush() throws Exception {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> insertedTablets.add(tablet), 1024, 2, 100, 60_000);
+
+    CompletableFuture<Void> future1 = insertRecord(1);
+    CompletableFuture<Void> future2 =
+        dispatcher.insertRecord(
+            DEVICE,
+            false,
+            2,
+            Collections.singletonList("s1"),
+            Collections.singletonList(TSDataType.INT64),
+            Collections.singletonList(2L));
+    future1.get(10, TimeUnit.SECONDS);
+    Assert.assertFalse(future2.isDone());
+
+    dispatcher.flush().get(10, TimeUnit.SECONDS);
+    Assert.assertTrue(future2.isDone());
+    Assert.assertEquals(2, insertedTablets.size());
+    Assert.assertEquals(1, insertedTablets.get(1).getSchemas().size());
+  }
+
+  @Test
+  public void testRejectMismatchedValue() throws Exception {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> insertedTablets.add(tablet), 1024, 2, 2, 60_000);
+
+    CompletableFuture<Void> future1 = insertRecord(1);
+    try {
+      dispatcher.insertRecord(DEVICE, false, 2, MEASUREMENTS, TYPES, Arrays.asList(2L, 2));
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // the value of s2 is not TEXT
+    }
+    Assert.assertFalse(future1.isDone());
+
+    insertRecord(3).get(10, TimeUnit.SECONDS);
+    Assert.assertTrue(future1.isDone());
+    Assert.assertEquals(1, insertedTablets.size());
+    Tablet tablet = insertedTablets.get(0);
+    Assert.assertEquals(2, tablet.getRowSize());
+    Assert.assertEquals(1L, tablet.getTimestamp(0));
+    Assert.assertEquals(3L, tablet.getTimestamp(1));
+  }
+
+  @Test
+  public void testSendAfterLinger() throws Exception {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> insertedTablets.add(tablet), 1024, 2, 100, 10);
+
+    insertRecord(1).get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(1, insertedTablets.size());
+  }
+
+  @Test
+  public void testBoundInFlightBytes() throws Exception {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> insertedTablets.add(tablet), 100, 4, 100, 60_000);
+    CountDownLatch blocked = new CountDownLatch(1);
+
+    // a request larger than the bound is sent if nothing else is in flight
+    CompletableFuture<Void> large =
+        dispatcher.submit(
+            150,
+            () -> {
+              try {
+                blocked.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    Assert.assertEquals(150, dispatcher.getInFlightBytes());
+
+    AtomicBoolean submitted = new AtomicBoolean(false);
+    Thread caller =
+        new Thread(
+            () -> {
+              dispatcher.submit(10, () -> {});
+              submitted.set(true);
+            });
+    caller.start();
+    caller.join(200);
+    Assert.assertFalse(submitted.get());
+
+    blocked.countDown();
+    caller.join(10_000);
+    Assert.assertTrue(submitted.get());
+    large.get(10, TimeUnit.SECONDS);
+    dispatcher.flush().get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(0, dispatcher.getInFlightBytes());
+  }
+
+  @Test
+  public void testPropagateFailure() throws InterruptedException, TimeoutException {
+    dispatcher =
+        new AsyncInsertDispatcher(
+            (tablet, isAligned) -> {
+              throw new StatementExecutionException("insert failed");
+            },
+            1024,
+            2,
+            1,
+            60_000);
+
+    try {
+      insertRecord(1).get(10, TimeUnit.SECONDS);
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof StatementExecutionException);
+    }
+    Assert.assertEquals(0, dispatcher.getInFlightBytes());
+  }
+
+  private CompletableFuture<Void> insertRecord(long time) {
+    return dispatcher.insertRecord(
+        DEVICE, false, time, MEASUREMENTS, TYPES, Arrays.asList(time, time == 2 ? null : "v"));
+  }
+}
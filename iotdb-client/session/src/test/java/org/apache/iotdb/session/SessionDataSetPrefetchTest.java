@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.isession.SessionDataSet;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.service.rpc.thrift.IClientRPCService;
+import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
+
+import org.apache.thrift.TException;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.RowRecord;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class SessionDataSetPrefetchTest {
+
+  private static final int ROWS_PER_BATCH = 10;
+
+  private IClientRPCService.Iface client;
+
+  @Before
+  public void setUp() throws TException {
+    client = Mockito.mock(IClientRPCService.Iface.class);
+    Mockito.when(client.closeOperation(any()))
+        .thenReturn(new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()));
+  }
+
+  @Test
+  public void testPrefetch() throws Exception {
+    Mockito.when(client.fetchResultsV2(any()))
+        .thenReturn(fetchResp(1, true), fetchResp(2, true), fetchResp(3, false));
+    SessionDataSet dataSet = createDataSet();
+    dataSet.setPrefetchBatchNum(2);
+
+    Assert.assertTrue(dataSet.hasNext());
+    // the following batches are fetched in background before the first one is consumed
+    Mockito.verify(client, Mockito.timeout(10_000).atLeast(2)).fetchResultsV2(any());
+
+    long expectedTime = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      Assert.assertEquals(expectedTime, record.getTimestamp());
+      Assert.assertEquals(expectedTime, record.getFields().get(0).getLongV());
+      expectedTime++;
+    }
+    Assert.assertEquals(4L * ROWS_PER_BATCH, expectedTime);
+    Mockito.verify(client, Mockito.times(3)).fetchResultsV2(any());
+    Mockito.verify(client, Mockito.times(1)).closeOperation(any());
+  }
+
+  @Test
+  public void testPrefetchFailure() throws Exception {
+    Mockito.when(client.fetchResultsV2(any()))
+        .thenReturn(fetchResp(1, true))
+        .thenThrow(new TException("connection lost"));
+    SessionDataSet dataSet = createDataSet();
+    dataSet.setPrefetchBatchNum(2);
+
+    int rowCount = 0;
+    try {
+      while (dataSet.hasNext()) {
+        dataSet.next();
+        rowCount++;
+      }
+      Assert.fail();
+    } catch (IoTDBConnectionException e) {
+      Assert.assertEquals(2 * ROWS_PER_BATCH, rowCount);
+    }
+  }
+
+  @Test
+  public void testCloseWhilePrefetching() throws Exception {
+    Mockito.when(client.fetchResultsV2(any())).thenAnswer(invocation -> fetchResp(1, true));
+    SessionDataSet dataSet = createDataSet();
+    dataSet.setPrefetchBatchNum(1);
+
+    Assert.assertTrue(dataSet.hasNext());
+    Mockito.verify(client, Mockito.timeout(10_000).atLeastOnce()).fetchResultsV2(any());
+    dataSet.closeOperationHandle();
+    Mockito.verify(client, Mockito.times(1)).closeOperation(any());
+  }
+
+  private SessionDataSet createDataSet() throws IOException {
+    return new SessionDataSet(
+        "select s1 from root.sg.d1",
+        Collections.singletonList("root.sg.d1.s1"),
+        Collections.singletonList(TSDataType.INT64.name()),
+        Collections.singletonMap("root.sg.d1.s1", 0),
+        1,
+        1,
+        client,
+        1,
+        serialize(0),
+        false,
+        0,
+        true,
+        ROWS_PER_BATCH,
+        ZoneId.systemDefault(),
+        1000,
+        false,
+        null);
+  }
+
+  private static TSFetchResultsResp fetchResp(int batchIndex, boolean moreData) throws IOException {
+    TSFetchResultsResp resp =
+        new TSFetchResultsResp(
+            new TSStatus(TSStatusCode.SUCCESS_STATUS.getStatusCode()), true, true);
+    resp.setMoreData(moreData);
+    resp.setQueryResult(serialize(batchIndex));
+    return resp;
+  }
+
+  private static List<ByteBuffer> serialize(int batchIndex) throws IOException {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(ROWS_PER_BATCH, Collections.singletonList(TSDataType.INT64));
+    for (int i = 0; i < ROWS_PER_BATCH; i++) {
+      long time = (long) batchIndex * ROWS_PER_BATCH + i;
+      builder.getTimeColumnBuilder().writeLong(time);
+      builder.getColumnBuilder(0).writeLong(time);
+      builder.declarePosition();
+    }
+    return Collections.singletonList(new TsBlockSerde().serialize(builder.build()));
+  }
+}
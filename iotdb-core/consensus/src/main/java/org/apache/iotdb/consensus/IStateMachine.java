@@ -52,6 +52,14 @@ public interface IStateMachine {
    */
   TSStatus write(IConsensusRequest request);
 
+  /**
+   * Whether {@link #write} may be called by several threads at the same time. Consensus protocols
+   * which do not order the writes themselves only apply them concurrently if it returns true.
+   */
+  default boolean isConcurrentWriteSupported() {
+    return false;
+  }
+
   /**
    * deserialize IConsensusRequest.
    *
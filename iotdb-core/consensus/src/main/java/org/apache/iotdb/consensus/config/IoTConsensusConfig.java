@@ -251,6 +251,7 @@ public class IoTConsensusConfig {
     private final IMemoryBlock consensusMemoryBlock;
     private final double maxMemoryRatioForQueue;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    private final int logDispatcherWorkerNum;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -266,7 +267,8 @@ public class IoTConsensusConfig {
         long checkpointGap,
         IMemoryBlock consensusMemoryBlock,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        long regionMigrationSpeedLimitBytesPerSecond,
+        int logDispatcherWorkerNum) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -281,6 +283,7 @@ public class IoTConsensusConfig {
       this.consensusMemoryBlock = consensusMemoryBlock;
       this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.logDispatcherWorkerNum = logDispatcherWorkerNum;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -339,6 +342,14 @@ public class IoTConsensusConfig {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    /**
+     * Number of shared workers multiplexing the replication streams of all regions. 0 means each
+     * (region, peer) stream is served by a dedicated thread.
+     */
+    public int getLogDispatcherWorkerNum() {
+      return logDispatcherWorkerNum;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -362,6 +373,7 @@ public class IoTConsensusConfig {
               "Consensus-Default", null, Runtime.getRuntime().maxMemory() / 10);
       private double maxMemoryRatioForQueue = 0.6;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private int logDispatcherWorkerNum = 0;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -436,6 +448,11 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setLogDispatcherWorkerNum(int logDispatcherWorkerNum) {
+        this.logDispatcherWorkerNum = logDispatcherWorkerNum;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -451,7 +468,8 @@ public class IoTConsensusConfig {
             checkpointGap,
             consensusMemoryBlock,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            regionMigrationSpeedLimitBytesPerSecond,
+            logDispatcherWorkerNum);
       }
     }
   }
@@ -55,6 +55,7 @@ import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.AsyncIoTCons
 import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.SyncIoTConsensusServiceClientPoolFactory;
 import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.logdispatcher.IoTConsensusMemoryManager;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcherWorkerPool;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCService;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCServiceProcessor;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
@@ -101,6 +102,8 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
+  // null if each replication stream occupies a dedicated thread
+  private final LogDispatcherWorkerPool logDispatcherWorkerPool;
   private Future<?> updateReaderFuture;
   private Map<ConsensusGroupId, List<Peer>> correctPeerListBeforeStart = null;
 
@@ -122,6 +125,10 @@ public class IoTConsensus implements IConsensus {
     this.backgroundTaskService =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR.getName());
+    int logDispatcherWorkerNum =
+        config.getIotConsensusConfig().getReplication().getLogDispatcherWorkerNum();
+    this.logDispatcherWorkerPool =
+        logDispatcherWorkerNum > 0 ? new LogDispatcherWorkerPool(logDispatcherWorkerNum) : null;
     // init IoTConsensus memory manager
     IoTConsensusMemoryManager.getInstance()
         .init(
@@ -180,6 +187,7 @@ public class IoTConsensus implements IConsensus {
                   backgroundTaskService,
                   clientManager,
                   syncClientManager,
+                  logDispatcherWorkerPool,
                   config);
           stateMachineMap.put(consensusGroupId, consensus);
         }
@@ -214,6 +222,7 @@ public class IoTConsensus implements IConsensus {
   public synchronized void stop() {
     Optional.ofNullable(updateReaderFuture).ifPresent(future -> future.cancel(false));
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
+    Optional.ofNullable(logDispatcherWorkerPool).ifPresent(LogDispatcherWorkerPool::stop);
     clientManager.close();
     syncClientManager.close();
     registerManager.deregisterAll();
@@ -287,6 +296,7 @@ public class IoTConsensus implements IConsensus {
                           backgroundTaskService,
                           clientManager,
                           syncClientManager,
+                          logDispatcherWorkerPool,
                           config);
                   impl.start();
                   return impl;
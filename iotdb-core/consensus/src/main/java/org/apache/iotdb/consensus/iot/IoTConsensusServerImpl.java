@@ -44,6 +44,7 @@ import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcherWorkerPool;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
 import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragmentReader;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
@@ -135,6 +136,7 @@ public class IoTConsensusServerImpl {
       ScheduledExecutorService backgroundTaskService,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
+      LogDispatcherWorkerPool logDispatcherWorkerPool,
       IoTConsensusConfig config) {
     this.active = true;
     this.storageDir = storageDir;
@@ -150,7 +152,7 @@ public class IoTConsensusServerImpl {
         (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     this.searchIndex = new AtomicLong(consensusReqReader.getCurrentSearchIndex());
     this.ioTConsensusServerMetrics = new IoTConsensusServerMetrics(this);
-    this.logDispatcher = new LogDispatcher(this, clientManager);
+    this.logDispatcher = new LogDispatcher(this, clientManager, logDispatcherWorkerPool);
   }
 
   public IStateMachine getStateMachine() {
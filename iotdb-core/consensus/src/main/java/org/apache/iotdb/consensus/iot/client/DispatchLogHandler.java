@@ -144,6 +144,8 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
 
   private void completeBatch(Batch batch) {
     thread.getSyncStatus().removeBatch(batch);
+    // the synchronization pipeline has room again
+    thread.signal();
     // update safely deleted search index after last flushed sync index may be updated by
     // removeBatch
     thread.updateSafelyDeletedSearchIndex();
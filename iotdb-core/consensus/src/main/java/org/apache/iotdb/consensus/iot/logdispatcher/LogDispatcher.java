@@ -47,8 +47,13 @@ import java.util.OptionalLong;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -62,6 +67,8 @@ public class LogDispatcher {
   private final int selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private ExecutorService executorService;
+  // null if each LogDispatcherThread occupies a dedicated thread of executorService
+  private final LogDispatcherWorkerPool workerPool;
 
   private final ConsensusReqReader reader;
   private boolean stopped = false;
@@ -71,17 +78,19 @@ public class LogDispatcher {
 
   public LogDispatcher(
       IoTConsensusServerImpl impl,
-      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      LogDispatcherWorkerPool workerPool) {
     this.impl = impl;
     this.reader = (ConsensusReqReader) impl.getStateMachine().read(new GetConsensusReqReaderPlan());
     this.selfPeerId = impl.getThisNode().getNodeId();
     this.clientManager = clientManager;
+    this.workerPool = workerPool;
     this.threads =
         impl.getConfiguration().stream()
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && workerPool == null) {
       initLogSyncThreadPool();
     }
   }
@@ -97,8 +106,14 @@ public class LogDispatcher {
   }
 
   public synchronized void start() {
-    if (!threads.isEmpty()) {
-      threads.forEach(logDispatcherThread -> executorService.submit(logDispatcherThread));
+    threads.forEach(this::startLogDispatcherThread);
+  }
+
+  private void startLogDispatcherThread(LogDispatcherThread thread) {
+    if (workerPool == null) {
+      executorService.submit(thread);
+    } else {
+      thread.startOnWorker(workerPool);
     }
   }
 
@@ -106,6 +121,8 @@ public class LogDispatcher {
     if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::setStopped);
       threads.forEach(LogDispatcherThread::processStopped);
+    }
+    if (executorService != null) {
       executorService.shutdownNow();
       int timeout = 10;
       try {
@@ -129,11 +146,11 @@ public class LogDispatcher {
     threads.add(thread);
     // If the initial replica is 1, the executorService won't be initialized. And when adding
     // dispatcher thread, the executorService should be initialized manually
-    if (this.executorService == null) {
+    if (this.executorService == null && workerPool == null) {
       initLogSyncThreadPool();
     }
     if (startNow) {
-      executorService.submit(thread);
+      startLogDispatcherThread(thread);
     }
   }
 
@@ -195,6 +212,7 @@ public class LogDispatcher {
                     thread.getPeer(),
                     request.getSearchIndex());
               }
+              thread.signal();
             });
       }
     }
@@ -234,6 +252,16 @@ public class LogDispatcher {
 
     private final CountDownLatch runFinished = new CountDownLatch(1);
 
+    // The following fields are only used when this stream is served by a LogDispatcherWorkerPool
+    private LogDispatcherWorkerPool workerPool;
+    private volatile ScheduledExecutorService worker;
+    // Whether a dispatch step of this stream is already queued on its worker
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // A batch that has been built but could not enter the full synchronization pipeline yet
+    private Batch unsentBatch;
+    // Whether a delayed dispatch step is waiting for more requests to build a larger batch
+    private boolean accumulating = false;
+
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
       this.config = config;
@@ -313,12 +341,17 @@ public class LogDispatcher {
     }
 
     private void processStopped() {
-      try {
-        if (!runFinished.await(30, TimeUnit.SECONDS)) {
-          logger.info("{}: Dispatcher for {} didn't stop after 30s.", impl.getThisNode(), peer);
+      if (workerPool != null) {
+        workerPool.deregister(this);
+        awaitDispatchFinished();
+      } else {
+        try {
+          if (!runFinished.await(30, TimeUnit.SECONDS)) {
+            logger.info("{}: Dispatcher for {} didn't stop after 30s.", impl.getThisNode(), peer);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
       }
       long requestSize = 0;
       for (IndexedConsensusRequest indexedConsensusRequest : pendingEntries) {
@@ -393,6 +426,114 @@ public class LogDispatcher {
       logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
     }
 
+    private void startOnWorker(LogDispatcherWorkerPool workerPool) {
+      this.workerPool = workerPool;
+      this.worker = workerPool.select();
+      workerPool.register(this);
+      logger.info("{}: Dispatcher for {} starts on a shared worker", impl.getThisNode(), peer);
+      signal();
+    }
+
+    /**
+     * Notify that this stream may have something to send, i.e. new requests are offered or the
+     * synchronization pipeline has room again. Does nothing if this stream occupies a dedicated
+     * thread.
+     */
+    public void signal() {
+      ScheduledExecutorService currentWorker = worker;
+      if (currentWorker == null || stopped || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        currentWorker.execute(this::dispatchOnce);
+      } catch (RejectedExecutionException e) {
+        // the worker pool is shutting down
+        scheduled.set(false);
+      }
+    }
+
+    /**
+     * Build and send at most one batch without blocking, the counterpart of one iteration of {@link
+     * #run()}. Steps of the same stream never run concurrently because a stream is always served by
+     * the same single-threaded worker.
+     */
+    private void dispatchOnce() {
+      if (stopped) {
+        scheduled.set(false);
+        return;
+      }
+      if (unsentBatch == null && !accumulating && shouldAccumulate()) {
+        // If write pressure is low, wait a little to put more requests into one RPC, just like
+        // run() does. The stream stays scheduled, so the requests offered meanwhile join this batch
+        // instead of waking it up again.
+        accumulating = true;
+        try {
+          worker.schedule(
+              this::dispatchOnce,
+              config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs(),
+              TimeUnit.MILLISECONDS);
+          return;
+        } catch (RejectedExecutionException e) {
+          // the worker pool is shutting down
+          accumulating = false;
+          scheduled.set(false);
+          return;
+        }
+      }
+      accumulating = false;
+      // reset first so that a signal arriving during this step schedules another one
+      scheduled.set(false);
+      try {
+        if (unsentBatch == null) {
+          long startTime = System.nanoTime();
+          Batch batch = getBatch();
+          if (batch.isEmpty()) {
+            return;
+          }
+          logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
+          unsentBatch = batch;
+        }
+        if (!syncStatus.tryAddNextBatch(unsentBatch)) {
+          // the completion of an in-flight batch will signal this stream again
+          return;
+        }
+        Batch batch = unsentBatch;
+        unsentBatch = null;
+        logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+        logEntriesFromQueue.addAndGet(
+            batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+        sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
+        // there may be more requests left, give other streams of this worker a chance first
+        signal();
+      } catch (Exception e) {
+        logger.error("Unexpected error in logDispatcher for peer {}", peer, e);
+      }
+    }
+
+    private boolean shouldAccumulate() {
+      int pendingCount = pendingEntries.size();
+      return pendingCount > 0
+          && pendingCount < config.getReplication().getMaxLogEntriesNumPerBatch()
+          && config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs() > 0;
+    }
+
+    private void awaitDispatchFinished() {
+      if (worker == null) {
+        return;
+      }
+      // the worker is single-threaded, so once this empty task runs, no dispatch step is running
+      try {
+        worker.submit(() -> {}).get(30, TimeUnit.SECONDS);
+      } catch (RejectedExecutionException | ExecutionException e) {
+        // the worker pool has been shut down
+      } catch (TimeoutException e) {
+        logger.info("{}: Dispatcher for {} didn't stop after 30s.", impl.getThisNode(), peer);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
+    }
+
     public void updateSafelyDeletedSearchIndex() {
       // update safely deleted search index to delete outdated info,
       // indicating that insert nodes whose search index are before this value can be deleted
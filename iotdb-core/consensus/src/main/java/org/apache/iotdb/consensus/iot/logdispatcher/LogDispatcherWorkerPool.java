@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher.LogDispatcherThread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of single-threaded workers that multiplexes the replication streams of all regions
+ * instead of dedicating one thread to each (region, peer) pair. A stream is only run when it is
+ * signalled, i.e. when new requests are offered or when one of its in-flight batches completes.
+ * Each stream is pinned to one worker, and the streams are assigned to the workers in turn, so that
+ * the streams of all (region, peer) pairs are spread evenly whatever the number of peers is.
+ */
+public class LogDispatcherWorkerPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogDispatcherWorkerPool.class);
+
+  // Streams are woken up periodically so that entries dropped from a full queue are caught up from
+  // the WAL even when no new requests arrive, just like the polling timeout of a dedicated thread
+  private static final long CHECK_INTERVAL_IN_SEC = 10;
+
+  private final ScheduledExecutorService[] workers;
+  private final Set<LogDispatcherThread> streams = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger nextWorker = new AtomicInteger(0);
+
+  public LogDispatcherWorkerPool(int workerNum) {
+    this.workers = new ScheduledExecutorService[workerNum];
+    for (int i = 0; i < workerNum; i++) {
+      workers[i] =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.LOG_DISPATCHER.getName() + "-Worker-" + i);
+    }
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        workers[0],
+        () -> streams.forEach(LogDispatcherThread::signal),
+        CHECK_INTERVAL_IN_SEC,
+        CHECK_INTERVAL_IN_SEC,
+        TimeUnit.SECONDS);
+  }
+
+  /** Returns the worker that will serve a new stream. */
+  ScheduledExecutorService select() {
+    return workers[Math.floorMod(nextWorker.getAndIncrement(), workers.length)];
+  }
+
+  void register(LogDispatcherThread stream) {
+    streams.add(stream);
+  }
+
+  void deregister(LogDispatcherThread stream) {
+    streams.remove(stream);
+  }
+
+  public int getWorkerNum() {
+    return workers.length;
+  }
+
+  public void stop() {
+    streams.clear();
+    for (ScheduledExecutorService worker : workers) {
+      worker.shutdownNow();
+    }
+    try {
+      for (ScheduledExecutorService worker : workers) {
+        if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+          logger.error("Unable to shutdown LogDispatcher worker after 10 seconds");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Unexpected Interruption when closing LogDispatcher workers");
+    }
+  }
+}
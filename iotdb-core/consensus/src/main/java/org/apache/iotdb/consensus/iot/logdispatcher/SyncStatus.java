@@ -51,6 +51,20 @@ public class SyncStatus {
     pendingBatches.add(batch);
   }
 
+  /**
+   * Non-blocking version of {@link #addNextBatch(Batch)}.
+   *
+   * @return false if the synchronization pipeline is full, in which case the batch is not added
+   */
+  public synchronized boolean tryAddNextBatch(Batch batch) {
+    if (pendingBatches.size() >= config.getReplication().getMaxPendingBatchesNum()
+        || !iotConsensusMemoryManager.reserve(batch.getSerializedSize(), false)) {
+      return false;
+    }
+    pendingBatches.add(batch);
+    return true;
+  }
+
   /**
    * We only set a flag if this batch is not the first one. Notice, We need to confirm that the
    * batch in the parameter is actually in pendingBatches, rather than a reference to a different
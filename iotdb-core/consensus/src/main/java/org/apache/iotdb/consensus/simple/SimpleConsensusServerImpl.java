@@ -26,6 +26,9 @@ import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.common.request.IConsensusRequest;
 
 import java.io.File;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class SimpleConsensusServerImpl implements IStateMachine {
 
@@ -33,6 +36,12 @@ public class SimpleConsensusServerImpl implements IStateMachine {
   private final IStateMachine stateMachine;
   private boolean initialized = false;
 
+  /**
+   * Writes hold the read lock if the state machine supports concurrent writes, otherwise the write
+   * lock. Start, stop and snapshots always hold the write lock.
+   */
+  private final ReadWriteLock stateMachineLock = new ReentrantReadWriteLock();
+
   public SimpleConsensusServerImpl(Peer peer, IStateMachine stateMachine) {
     this.peer = peer;
     this.stateMachine = stateMachine;
@@ -47,19 +56,29 @@ public class SimpleConsensusServerImpl implements IStateMachine {
   }
 
   @Override
-  public synchronized void start() {
-    if (!initialized) {
-      initialized = true;
-      stateMachine.start();
-      // Notify itself as the leader
-      stateMachine.event().notifyLeaderChanged(peer.getGroupId(), peer.getNodeId());
-      stateMachine.event().notifyLeaderReady();
+  public void start() {
+    stateMachineLock.writeLock().lock();
+    try {
+      if (!initialized) {
+        initialized = true;
+        stateMachine.start();
+        // Notify itself as the leader
+        stateMachine.event().notifyLeaderChanged(peer.getGroupId(), peer.getNodeId());
+        stateMachine.event().notifyLeaderReady();
+      }
+    } finally {
+      stateMachineLock.writeLock().unlock();
     }
   }
 
   @Override
-  public synchronized void stop() {
-    stateMachine.stop();
+  public void stop() {
+    stateMachineLock.writeLock().lock();
+    try {
+      stateMachine.stop();
+    } finally {
+      stateMachineLock.writeLock().unlock();
+    }
   }
 
   @Override
@@ -68,8 +87,22 @@ public class SimpleConsensusServerImpl implements IStateMachine {
   }
 
   @Override
-  public synchronized TSStatus write(IConsensusRequest request) {
-    return stateMachine.write(request);
+  public TSStatus write(IConsensusRequest request) {
+    Lock lock =
+        stateMachine.isConcurrentWriteSupported()
+            ? stateMachineLock.readLock()
+            : stateMachineLock.writeLock();
+    lock.lock();
+    try {
+      return stateMachine.write(request);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isConcurrentWriteSupported() {
+    return stateMachine.isConcurrentWriteSupported();
   }
 
   @Override
@@ -84,12 +117,22 @@ public class SimpleConsensusServerImpl implements IStateMachine {
   }
 
   @Override
-  public synchronized boolean takeSnapshot(File snapshotDir) {
-    return stateMachine.takeSnapshot(snapshotDir);
+  public boolean takeSnapshot(File snapshotDir) {
+    stateMachineLock.writeLock().lock();
+    try {
+      return stateMachine.takeSnapshot(snapshotDir);
+    } finally {
+      stateMachineLock.writeLock().unlock();
+    }
   }
 
   @Override
-  public synchronized void loadSnapshot(File latestSnapshotRootDir) {
-    stateMachine.loadSnapshot(latestSnapshotRootDir);
+  public void loadSnapshot(File latestSnapshotRootDir) {
+    stateMachineLock.writeLock().lock();
+    try {
+      stateMachine.loadSnapshot(latestSnapshotRootDir);
+    } finally {
+      stateMachineLock.writeLock().unlock();
+    }
   }
 }
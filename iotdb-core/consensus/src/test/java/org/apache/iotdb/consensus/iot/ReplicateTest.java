@@ -28,6 +28,7 @@ import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.consensus.common.ConsensusGroup;
 import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.exception.ConsensusException;
 import org.apache.iotdb.consensus.iot.util.TestEntry;
 import org.apache.iotdb.consensus.iot.util.TestStateMachine;
@@ -93,6 +94,10 @@ public class ReplicateTest {
   }
 
   private void initServer() throws IOException {
+    initServer(0);
+  }
+
+  private void initServer(int logDispatcherWorkerNum) throws IOException {
     Assume.assumeTrue(checkPortAvailable());
     try {
       for (int i = 0; i < peers.size(); i++) {
@@ -106,6 +111,13 @@ public class ReplicateTest {
                             .setThisNode(peers.get(i).getEndpoint())
                             .setStorageDir(peersStorage.get(i).getAbsolutePath())
                             .setConsensusGroupType(TConsensusGroupType.DataRegion)
+                            .setIoTConsensusConfig(
+                                IoTConsensusConfig.newBuilder()
+                                    .setReplication(
+                                        IoTConsensusConfig.Replication.newBuilder()
+                                            .setLogDispatcherWorkerNum(logDispatcherWorkerNum)
+                                            .build())
+                                    .build())
                             .build(),
                         groupId -> stateMachines.get(finalI))
                     .orElseThrow(
@@ -286,6 +298,41 @@ public class ReplicateTest {
     }
   }
 
+  /** The replication streams of all three nodes are multiplexed on a few shared workers. */
+  @Test
+  public void replicateUsingSharedWorkersTest()
+      throws IOException, InterruptedException, ConsensusException {
+    logger.info("Start ReplicateUsingSharedWorkersTest");
+    stopServer();
+    initServer(2);
+    servers.get(0).createLocalPeer(group.getGroupId(), group.getPeers());
+    servers.get(1).createLocalPeer(group.getGroupId(), group.getPeers());
+    servers.get(2).createLocalPeer(group.getGroupId(), group.getPeers());
+
+    for (int i = 0; i < CHECK_POINT_GAP; i++) {
+      servers.get(0).write(gid, new TestEntry(i, peers.get(0)));
+      servers.get(1).write(gid, new TestEntry(i, peers.get(1)));
+      servers.get(2).write(gid, new TestEntry(i, peers.get(2)));
+    }
+
+    for (int i = 0; i < 3; i++) {
+      long start = System.currentTimeMillis();
+      while (servers.get(i).getImpl(gid).getMinSyncIndex() < CHECK_POINT_GAP) {
+        long current = System.currentTimeMillis();
+        if ((current - start) > 60 * 1000) {
+          Assert.fail("Unable to replicate entries");
+        }
+        Thread.sleep(100);
+      }
+    }
+
+    Assert.assertEquals(CHECK_POINT_GAP * 3, stateMachines.get(0).getRequestSet().size());
+    Assert.assertEquals(CHECK_POINT_GAP * 3, stateMachines.get(1).getRequestSet().size());
+    Assert.assertEquals(CHECK_POINT_GAP * 3, stateMachines.get(2).getRequestSet().size());
+    Assert.assertEquals(stateMachines.get(0).getData(), stateMachines.get(1).getData());
+    Assert.assertEquals(stateMachines.get(2).getData(), stateMachines.get(1).getData());
+  }
+
   @Test
   public void parsingAndConstructIDTest() throws Exception {
     logger.info("Start ParsingAndConstructIDTest");
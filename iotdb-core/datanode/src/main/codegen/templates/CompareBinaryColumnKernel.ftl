@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+<@pp.dropOutputFile />
+<#--Only the primitive numeric types, DATE and TIMESTAMP share the kernels of int and long-->
+<#assign types = mathematicalDataType.types?filter(t -> t.instance != "DATE" && t.instance != "TIMESTAMP")>
+<#macro caseLabels type indent>
+<#if type.instance == "INT">
+${indent}case INT32:
+${indent}case DATE:
+<#elseif type.instance == "LONG">
+${indent}case INT64:
+${indent}case TIMESTAMP:
+<#else>
+${indent}case ${type.instance}:
+</#if>
+</#macro>
+<#--write one row, or null if the row is filtered or any input is null-->
+<#macro writeRows leftValue rightValue nullCheck compareMethod indent="">
+<#if nullCheck == "">
+${indent}      for (int i = 0; i < positionCount; i++) {
+${indent}        builder.writeBoolean(${compareMethod}(${leftValue}, ${rightValue}));
+${indent}      }
+<#else>
+${indent}      for (int i = 0; i < positionCount; i++) {
+${indent}        if ((selection == null || selection[i])${nullCheck}) {
+${indent}          builder.writeBoolean(${compareMethod}(${leftValue}, ${rightValue}));
+${indent}        } else {
+${indent}          builder.appendNull();
+${indent}        }
+${indent}      }
+</#if>
+</#macro>
+<#list compareOperator.binaryOperators as operator>
+<#assign className = "Compare${operator.name}ColumnKernel">
+<@pp.changeOutputFile name="/org/apache/iotdb/db/queryengine/transformation/dag/column/binary/${className}.java" />
+package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+
+/**
+ * Kernels of {@link Compare${operator.name}ColumnTransformer} specialized for each pair of numeric
+ * input types. Values are read as primitives and compared as int or long when both inputs are
+ * integers, a constant input is read only once, and rows are not checked for null if neither input
+ * may have null.
+ */
+public class ${className} {
+
+  private ${className}() {
+    // util class
+  }
+
+  /**
+   * Compare leftColumn with rightColumn and write the results into builder.
+   *
+   * @param selection rows which are not selected are written as null, null means all the rows are
+   *     selected
+   * @return false if there is no kernel for the input types, nothing is written in this case
+   */
+  public static boolean transform(
+      Type leftType,
+      Column leftColumn,
+      Type rightType,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection) {
+    if (leftType == null || rightType == null) {
+      return false;
+    }
+    switch (leftType.getTypeEnum()) {
+<#list types as first>
+<@caseLabels type=first indent="      " />
+        switch (rightType.getTypeEnum()) {
+<#list types as second>
+<@caseLabels type=second indent="          " />
+            transform${first.dataType?cap_first}${second.dataType?cap_first}(
+                leftColumn, rightColumn, builder, positionCount, selection);
+            return true;
+</#list>
+          default:
+            return false;
+        }
+</#list>
+      default:
+        return false;
+    }
+  }
+<#list types as first>
+<#list types as second>
+<#assign leftGetter = "get${first.dataType?cap_first}">
+<#assign rightGetter = "get${second.dataType?cap_first}">
+<#if (first.dataType == "int" && second.dataType == "int")>
+  <#assign compareMethod = "compareInt">
+<#elseif (first.dataType == "int" || first.dataType == "long") && (second.dataType == "int" || second.dataType == "long")>
+  <#assign compareMethod = "compareLong">
+<#else>
+  <#assign compareMethod = "compareDouble">
+</#if>
+
+  private static void transform${first.dataType?cap_first}${second.dataType?cap_first}(
+      Column leftColumn,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection) {
+    if (leftColumn instanceof RunLengthEncodedColumn) {
+      if (leftColumn.isNull(0)) {
+        builder.appendNull(positionCount);
+        return;
+      }
+      ${first.dataType} left = leftColumn.${leftGetter}(0);
+      if (selection == null && !rightColumn.mayHaveNull()) {
+<@writeRows leftValue="left" rightValue="rightColumn.${rightGetter}(i)" nullCheck="" compareMethod=compareMethod indent="  " />
+      } else {
+<@writeRows leftValue="left" rightValue="rightColumn.${rightGetter}(i)" nullCheck=" && !rightColumn.isNull(i)" compareMethod=compareMethod indent="  " />
+      }
+    } else if (rightColumn instanceof RunLengthEncodedColumn) {
+      if (rightColumn.isNull(0)) {
+        builder.appendNull(positionCount);
+        return;
+      }
+      ${second.dataType} right = rightColumn.${rightGetter}(0);
+      if (selection == null && !leftColumn.mayHaveNull()) {
+<@writeRows leftValue="leftColumn.${leftGetter}(i)" rightValue="right" nullCheck="" compareMethod=compareMethod indent="  " />
+      } else {
+<@writeRows leftValue="leftColumn.${leftGetter}(i)" rightValue="right" nullCheck=" && !leftColumn.isNull(i)" compareMethod=compareMethod indent="  " />
+      }
+    } else if (selection == null && !leftColumn.mayHaveNull() && !rightColumn.mayHaveNull()) {
+<@writeRows leftValue="leftColumn.${leftGetter}(i)" rightValue="rightColumn.${rightGetter}(i)" nullCheck="" compareMethod=compareMethod />
+    } else {
+<@writeRows leftValue="leftColumn.${leftGetter}(i)" rightValue="rightColumn.${rightGetter}(i)" nullCheck=" && !leftColumn.isNull(i) && !rightColumn.isNull(i)" compareMethod=compareMethod />
+    }
+  }
+</#list>
+</#list>
+
+  private static boolean compareInt(int left, int right) {
+    return left ${operator.symbol} right;
+  }
+
+  private static boolean compareLong(long left, long right) {
+    return left ${operator.symbol} right;
+  }
+
+  /** Same as {@link CompareBinaryColumnTransformer}, the result is false if any input is NaN. */
+  private static boolean compareDouble(double left, double right) {
+    return !Double.isNaN(left)
+        && !Double.isNaN(right)
+        && Double.compare(left, right) ${operator.symbol} 0;
+  }
+}
+</#list>
@@ -137,6 +137,9 @@ public class DataNodeMemoryConfig {
   /** The memory manager of direct Buffer */
   private MemoryManager directBufferMemoryManager;
 
+  /** The memory manager of off-heap TVLists of memtables */
+  private MemoryManager offHeapMemtableMemoryManager;
+
   public void init(TrimProperties properties) {
     // on heap memory
     String memoryAllocateProportion = properties.getProperty("datanode_memory_proportion", null);
@@ -233,6 +236,22 @@ public class DataNodeMemoryConfig {
     directBufferMemoryManager =
         offHeapMemoryManager.getOrCreateMemoryManager(
             "DirectBuffer", totalDirectBufferMemorySizeLimit);
+
+    // off-heap TVLists get the off-heap memory left by direct buffers unless configured, and the
+    // memtable memory on heap only when the off-heap memory is unknown
+    long offHeapMemtableMemorySize =
+        Long.parseLong(properties.getProperty("offheap_memtable_memory_size_in_byte", "0"));
+    if (offHeapMemtableMemorySize <= 0) {
+      offHeapMemtableMemorySize =
+          offHeapMemoryManager.getTotalMemorySizeInBytes() == 0
+              ? memtableMemoryManager.getTotalMemorySizeInBytes()
+              : (long)
+                  (offHeapMemoryManager.getTotalMemorySizeInBytes()
+                      * (1 - getMaxDirectBufferOffHeapMemorySizeProportion()));
+    }
+    offHeapMemtableMemoryManager =
+        offHeapMemoryManager.getOrCreateMemoryManager(
+            "OffHeapMemtable", offHeapMemtableMemorySize);
   }
 
   @SuppressWarnings("squid:S3518")
@@ -681,4 +700,8 @@ public class DataNodeMemoryConfig {
   public MemoryManager getDirectBufferMemoryManager() {
     return directBufferMemoryManager;
   }
+
+  public MemoryManager getOffHeapMemtableMemoryManager() {
+    return offHeapMemtableMemoryManager;
+  }
 }
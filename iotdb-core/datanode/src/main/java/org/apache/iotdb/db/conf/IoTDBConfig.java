@@ -329,8 +329,33 @@ public class IoTDBConfig {
   /** How many threads can concurrently flush. When <= 0, use CPU core number. */
   private int flushThreadCount = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads can concurrently encode the series of flushing memtables. When it is 1, each
+   * flush task encodes its series in a single thread.
+   */
+  private int flushEncodingThreadCount = 1;
+
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * How many chunks following the one being read are loaded into the ChunkCache in advance by a
+   * series scan. When <= 0, chunks are only read when they are needed.
+   */
+  private int chunkPrefetchNumInSeriesScan = 0;
+
+  /** How many threads can concurrently prefetch chunks. When <= 0, use CPU core number / 4. */
+  private int chunkPrefetchThreadCount =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+  /** Whether queries read sealed TsFiles through memory mapping instead of the file channel. */
+  private boolean enableMmapSealedTsFileRead = false;
+
+  /**
+   * Whether the device time index of a sealed TsFile is kept in the compact form, which interns
+   * devices in a dictionary shared by all files and bit-packs the start and end times.
+   */
+  private boolean enableCompactDeviceTimeIndex = false;
+
   private int mergeThresholdOfExplainAnalyze = 10;
 
   private int modeMapSizeThreshold = 10000;
@@ -401,6 +426,18 @@ public class IoTDBConfig {
    */
   private int tvListSortThreshold = 0;
 
+  /**
+   * Whether the working TVLists of non-aligned INT32, INT64, FLOAT and DOUBLE series keep their
+   * timestamps and values in direct memory instead of the Java heap
+   */
+  private boolean enableOffHeapMemTable = false;
+
+  /**
+   * Max size of the released off-heap TVList blocks kept for reuse. Blocks released beyond it are
+   * dropped so that their direct memory can be freed.
+   */
+  private long offHeapMemTablePoolSizeInByte = 64L * 1024 * 1024;
+
   /** Enable inner space compaction for sequence files */
   private volatile boolean enableSeqSpaceCompaction = true;
 
@@ -416,6 +453,24 @@ public class IoTDBConfig {
   /** The buffer for sort operation */
   private long sortBufferSize = 1024 * 1024L;
 
+  /**
+   * Whether to use hash join for the equi-joins of table model when neither input of the join is
+   * sorted on the join keys, instead of sorting both inputs for merge sort join.
+   */
+  private boolean enableHashJoin = false;
+
+  /**
+   * Whether to reorder the inner equi-joins of table model and choose their build sides by the row
+   * count estimated from the time indexes of the local TsFiles.
+   */
+  private boolean enableJoinReorder = false;
+
+  /**
+   * Whether hash aggregation of table model spills the groups to disk when the memory for query is
+   * not enough, the spilled data are merged with sort_buffer_size_in_bytes memory.
+   */
+  private boolean enableHashAggregationSpill = false;
+
   /**
    * The strategy of inner space compaction task. There are just one inner space compaction strategy
    * SIZE_TIRED_COMPACTION:
@@ -456,6 +511,16 @@ public class IoTDBConfig {
 
   private int maxLevelGapInInnerCompaction = 2;
 
+  /** The width of the time windows of the time_window inner seq selector in ms, 1 day by default */
+  private long timeWindowCompactionWindowSizeInMs = 86400000L;
+
+  /**
+   * Time windows of the time_window inner seq selector which ended earlier than this age in ms are
+   * frozen and never compacted again, 7 days by default. Non-positive value means no window is
+   * frozen.
+   */
+  private long timeWindowCompactionFrozenAgeInMs = 604800000L;
+
   /** The target tsfile size in compaction, 2 GB by default */
   private long targetCompactionFileSize = 2147483648L;
 
@@ -820,6 +885,15 @@ public class IoTDBConfig {
    */
   private boolean enableSeparateData = true;
 
+  /**
+   * Whether insertions only lock the time partitions they touch instead of the whole data region.
+   * Flush, close, deletion and load still lock the whole data region.
+   */
+  private boolean enablePartitionInsertLock = false;
+
+  /** The number of lock stripes shared by the time partitions of one data region. */
+  private int partitionInsertLockStripeNum = 16;
+
   /** the method to transform device path to device id, can be 'Plain' or 'SHA256' */
   private String deviceIDTransformationMethod = "Plain";
 
@@ -978,6 +1052,12 @@ public class IoTDBConfig {
   /** Maximum execution time of a DriverTask */
   private int driverTaskExecutionTimeSliceInMs = 200;
 
+  /**
+   * Whether each query worker thread polls DriverTasks from its own ready queue and steals from
+   * others when it's idle, instead of all of them polling one shared ready queue.
+   */
+  private boolean enableWorkStealingDriverScheduler = false;
+
   /** Maximum size of wal buffer used in IoTConsensus. Unit: byte */
   private long throttleThreshold = 200 * 1024 * 1024 * 1024L;
 
@@ -1060,6 +1140,7 @@ public class IoTDBConfig {
   private int maxPendingBatchesNum = 5;
   private double maxMemoryRatioForQueue = 0.6;
   private long regionMigrationSpeedLimitBytesPerSecond = 48 * 1024 * 1024L;
+  private int logDispatcherWorkerNum = 0;
 
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
@@ -1193,6 +1274,14 @@ public class IoTDBConfig {
     this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
   }
 
+  public int getLogDispatcherWorkerNum() {
+    return logDispatcherWorkerNum;
+  }
+
+  public void setLogDispatcherWorkerNum(int logDispatcherWorkerNum) {
+    this.logDispatcherWorkerNum = logDispatcherWorkerNum;
+  }
+
   public float getUdfMemoryBudgetInMB() {
     return udfMemoryBudgetInMB;
   }
@@ -1477,6 +1566,22 @@ public class IoTDBConfig {
     this.enableSeparateData = enableSeparateData;
   }
 
+  public boolean isEnablePartitionInsertLock() {
+    return enablePartitionInsertLock;
+  }
+
+  public void setEnablePartitionInsertLock(boolean enablePartitionInsertLock) {
+    this.enablePartitionInsertLock = enablePartitionInsertLock;
+  }
+
+  public int getPartitionInsertLockStripeNum() {
+    return partitionInsertLockStripeNum;
+  }
+
+  public void setPartitionInsertLockStripeNum(int partitionInsertLockStripeNum) {
+    this.partitionInsertLockStripeNum = partitionInsertLockStripeNum;
+  }
+
   public String getSystemDir() {
     return systemDir;
   }
@@ -1694,6 +1799,14 @@ public class IoTDBConfig {
     this.flushThreadCount = flushThreadCount;
   }
 
+  public int getFlushEncodingThreadCount() {
+    return flushEncodingThreadCount;
+  }
+
+  public void setFlushEncodingThreadCount(int flushEncodingThreadCount) {
+    this.flushEncodingThreadCount = flushEncodingThreadCount;
+  }
+
   public void setDegreeOfParallelism(int degreeOfParallelism) {
     if (degreeOfParallelism > 0) {
       this.degreeOfParallelism = degreeOfParallelism;
@@ -1704,6 +1817,40 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getChunkPrefetchNumInSeriesScan() {
+    return chunkPrefetchNumInSeriesScan;
+  }
+
+  public void setChunkPrefetchNumInSeriesScan(int chunkPrefetchNumInSeriesScan) {
+    this.chunkPrefetchNumInSeriesScan = chunkPrefetchNumInSeriesScan;
+  }
+
+  public int getChunkPrefetchThreadCount() {
+    return chunkPrefetchThreadCount;
+  }
+
+  public void setChunkPrefetchThreadCount(int chunkPrefetchThreadCount) {
+    if (chunkPrefetchThreadCount > 0) {
+      this.chunkPrefetchThreadCount = chunkPrefetchThreadCount;
+    }
+  }
+
+  public boolean isEnableMmapSealedTsFileRead() {
+    return enableMmapSealedTsFileRead;
+  }
+
+  public void setEnableMmapSealedTsFileRead(boolean enableMmapSealedTsFileRead) {
+    this.enableMmapSealedTsFileRead = enableMmapSealedTsFileRead;
+  }
+
+  public boolean isEnableCompactDeviceTimeIndex() {
+    return enableCompactDeviceTimeIndex;
+  }
+
+  public void setEnableCompactDeviceTimeIndex(boolean enableCompactDeviceTimeIndex) {
+    this.enableCompactDeviceTimeIndex = enableCompactDeviceTimeIndex;
+  }
+
   public void setMergeThresholdOfExplainAnalyze(int mergeThresholdOfExplainAnalyze) {
     this.mergeThresholdOfExplainAnalyze = mergeThresholdOfExplainAnalyze;
   }
@@ -2119,6 +2266,22 @@ public class IoTDBConfig {
     this.unseqMemtableFlushCheckInterval = unseqMemtableFlushCheckInterval;
   }
 
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
+  public long getOffHeapMemTablePoolSizeInByte() {
+    return offHeapMemTablePoolSizeInByte;
+  }
+
+  public void setOffHeapMemTablePoolSizeInByte(long offHeapMemTablePoolSizeInByte) {
+    this.offHeapMemTablePoolSizeInByte = offHeapMemTablePoolSizeInByte;
+  }
+
   public TVListSortAlgorithm getTvListSortAlgorithm() {
     return tvListSortAlgorithm;
   }
@@ -2732,6 +2895,22 @@ public class IoTDBConfig {
     this.maxLevelGapInInnerCompaction = maxLevelGapInInnerCompaction;
   }
 
+  public long getTimeWindowCompactionWindowSizeInMs() {
+    return timeWindowCompactionWindowSizeInMs;
+  }
+
+  public void setTimeWindowCompactionWindowSizeInMs(long timeWindowCompactionWindowSizeInMs) {
+    this.timeWindowCompactionWindowSizeInMs = timeWindowCompactionWindowSizeInMs;
+  }
+
+  public long getTimeWindowCompactionFrozenAgeInMs() {
+    return timeWindowCompactionFrozenAgeInMs;
+  }
+
+  public void setTimeWindowCompactionFrozenAgeInMs(long timeWindowCompactionFrozenAgeInMs) {
+    this.timeWindowCompactionFrozenAgeInMs = timeWindowCompactionFrozenAgeInMs;
+  }
+
   public long getInnerCompactionTotalFileSizeThresholdInByte() {
     return innerCompactionTotalFileSizeThresholdInByte;
   }
@@ -3267,6 +3446,14 @@ public class IoTDBConfig {
     this.driverTaskExecutionTimeSliceInMs = driverTaskExecutionTimeSliceInMs;
   }
 
+  public boolean isEnableWorkStealingDriverScheduler() {
+    return enableWorkStealingDriverScheduler;
+  }
+
+  public void setEnableWorkStealingDriverScheduler(boolean enableWorkStealingDriverScheduler) {
+    this.enableWorkStealingDriverScheduler = enableWorkStealingDriverScheduler;
+  }
+
   public static String getEnvironmentVariables() {
     return "\n\t"
         + IoTDBConstant.IOTDB_HOME
@@ -3951,6 +4138,30 @@ public class IoTDBConfig {
     return sortBufferSize;
   }
 
+  public boolean isEnableHashJoin() {
+    return enableHashJoin;
+  }
+
+  public void setEnableHashJoin(boolean enableHashJoin) {
+    this.enableHashJoin = enableHashJoin;
+  }
+
+  public boolean isEnableJoinReorder() {
+    return enableJoinReorder;
+  }
+
+  public void setEnableJoinReorder(boolean enableJoinReorder) {
+    this.enableJoinReorder = enableJoinReorder;
+  }
+
+  public boolean isEnableHashAggregationSpill() {
+    return enableHashAggregationSpill;
+  }
+
+  public void setEnableHashAggregationSpill(boolean enableHashAggregationSpill) {
+    this.enableHashAggregationSpill = enableHashAggregationSpill;
+  }
+
   public void setSortTmpDir(String sortTmpDir) {
     this.sortTmpDir = sortTmpDir;
   }
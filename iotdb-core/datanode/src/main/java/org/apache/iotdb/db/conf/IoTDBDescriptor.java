@@ -365,6 +365,17 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_threshold", Integer.toString(conf.getTvListSortThreshold()))));
 
+    conf.setEnableOffHeapMemTable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_offheap_memtable", Boolean.toString(conf.isEnableOffHeapMemTable()))));
+
+    conf.setOffHeapMemTablePoolSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "offheap_memtable_pool_size_in_byte",
+                Long.toString(conf.getOffHeapMemTablePoolSizeInByte()))));
+
     conf.setCheckPeriodWhenInsertBlocked(
         Integer.parseInt(
             properties.getProperty(
@@ -491,6 +502,16 @@ public class IoTDBDescriptor {
       conf.setFlushThreadCount(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setFlushEncodingThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_thread_count",
+                Integer.toString(conf.getFlushEncodingThreadCount()))));
+
+    if (conf.getFlushEncodingThreadCount() <= 0) {
+      conf.setFlushEncodingThreadCount(Runtime.getRuntime().availableProcessors());
+    }
+
     // start: index parameter setting
     conf.setIndexRootFolder(properties.getProperty("index_root_dir", conf.getIndexRootFolder()));
 
@@ -523,6 +544,30 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Runtime.getRuntime().availableProcessors() / 2);
     }
 
+    conf.setChunkPrefetchNumInSeriesScan(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_num_in_series_scan",
+                Integer.toString(conf.getChunkPrefetchNumInSeriesScan()))));
+
+    conf.setChunkPrefetchThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_thread_count",
+                Integer.toString(conf.getChunkPrefetchThreadCount()))));
+
+    conf.setEnableMmapSealedTsFileRead(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_mmap_sealed_tsfile_read",
+                Boolean.toString(conf.isEnableMmapSealedTsFileRead()))));
+
+    conf.setEnableCompactDeviceTimeIndex(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_compact_device_time_index",
+                Boolean.toString(conf.isEnableCompactDeviceTimeIndex()))));
+
     conf.setMergeThresholdOfExplainAnalyze(
         Integer.parseInt(
             properties.getProperty(
@@ -609,6 +654,18 @@ public class IoTDBDescriptor {
                 "max_level_gap_in_inner_compaction",
                 Integer.toString(conf.getMaxLevelGapInInnerCompaction()))));
 
+    conf.setTimeWindowCompactionWindowSizeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "time_window_compaction_window_size_in_ms",
+                Long.toString(conf.getTimeWindowCompactionWindowSizeInMs()))));
+
+    conf.setTimeWindowCompactionFrozenAgeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "time_window_compaction_frozen_age_in_ms",
+                Long.toString(conf.getTimeWindowCompactionFrozenAgeInMs()))));
+
     conf.setTargetChunkSize(
         Long.parseLong(
             properties.getProperty("target_chunk_size", Long.toString(conf.getTargetChunkSize()))));
@@ -835,6 +892,21 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "enable_separate_data", Boolean.toString(conf.isEnableSeparateData()))));
 
+    conf.setEnablePartitionInsertLock(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_partition_insert_lock",
+                Boolean.toString(conf.isEnablePartitionInsertLock()))));
+
+    conf.setPartitionInsertLockStripeNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "partition_insert_lock_stripe_num",
+                Integer.toString(conf.getPartitionInsertLockStripeNum()))));
+    if (conf.getPartitionInsertLockStripeNum() <= 0) {
+      conf.setPartitionInsertLockStripeNum(16);
+    }
+
     conf.setWindowEvaluationThreadCount(
         Integer.parseInt(
             properties.getProperty(
@@ -1044,6 +1116,21 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "sort_buffer_size_in_bytes", Long.toString(conf.getSortBufferSize()))));
 
+    conf.setEnableHashJoin(
+        Boolean.parseBoolean(
+            properties.getProperty("enable_hash_join", Boolean.toString(conf.isEnableHashJoin()))));
+
+    conf.setEnableJoinReorder(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_join_reorder", Boolean.toString(conf.isEnableJoinReorder()))));
+
+    conf.setEnableHashAggregationSpill(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_hash_aggregation_spill",
+                Boolean.toString(conf.isEnableHashAggregationSpill()))));
+
     // tmp filePath for sort operator
     conf.setSortTmpDir(properties.getProperty("sort_tmp_dir", conf.getSortTmpDir()));
 
@@ -1092,6 +1179,12 @@ public class IoTDBDescriptor {
                 "detail_container_min_degrade_memory_in_bytes",
                 String.valueOf(conf.getDetailContainerMinDegradeMemoryInBytes()))));
 
+    conf.setLogDispatcherWorkerNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_log_dispatcher_worker_num",
+                String.valueOf(conf.getLogDispatcherWorkerNum()))));
+
     loadIoTConsensusProps(properties);
     loadIoTConsensusV2Props(properties);
 
@@ -1431,6 +1524,28 @@ public class IoTDBDescriptor {
                     "max_level_gap_in_inner_compaction"))));
     configModified |= maxLevelGapInInnerCompaction != conf.getMaxLevelGapInInnerCompaction();
 
+    // update time_window_compaction_window_size_in_ms
+    long timeWindowCompactionWindowSizeInMs = conf.getTimeWindowCompactionWindowSizeInMs();
+    conf.setTimeWindowCompactionWindowSizeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "time_window_compaction_window_size_in_ms",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "time_window_compaction_window_size_in_ms"))));
+    configModified |=
+        timeWindowCompactionWindowSizeInMs != conf.getTimeWindowCompactionWindowSizeInMs();
+
+    // update time_window_compaction_frozen_age_in_ms
+    long timeWindowCompactionFrozenAgeInMs = conf.getTimeWindowCompactionFrozenAgeInMs();
+    conf.setTimeWindowCompactionFrozenAgeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "time_window_compaction_frozen_age_in_ms",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "time_window_compaction_frozen_age_in_ms"))));
+    configModified |=
+        timeWindowCompactionFrozenAgeInMs != conf.getTimeWindowCompactionFrozenAgeInMs();
+
     // update compaction_max_aligned_series_num_in_one_batch
     int compactionMaxAlignedSeriesNumInOneBatch = conf.getCompactionMaxAlignedSeriesNumInOneBatch();
     int newCompactionMaxAlignedSeriesNumInOneBatch =
@@ -2507,6 +2622,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "driver_task_execution_time_slice_in_ms",
                 Integer.toString(conf.getDriverTaskExecutionTimeSliceInMs()))));
+
+    conf.setEnableWorkStealingDriverScheduler(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_work_stealing_driver_scheduler",
+                Boolean.toString(conf.isEnableWorkStealingDriverScheduler()))));
   }
 
   /** Get default encode algorithm by data type */
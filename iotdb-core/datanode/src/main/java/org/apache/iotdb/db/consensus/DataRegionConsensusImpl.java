@@ -149,6 +149,7 @@ public class DataRegionConsensusImpl {
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setLogDispatcherWorkerNum(CONF.getLogDispatcherWorkerNum())
                           .build())
                   .build())
           .setPipeConsensusConfig(
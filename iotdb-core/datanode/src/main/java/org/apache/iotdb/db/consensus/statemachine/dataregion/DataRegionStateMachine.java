@@ -83,6 +83,12 @@ public class DataRegionStateMachine extends BaseStateMachine {
     return CommonDescriptor.getInstance().getConfig().isReadOnly();
   }
 
+  @Override
+  public boolean isConcurrentWriteSupported() {
+    // insertions of different time partitions do not block each other in the data region
+    return IoTDBDescriptor.getInstance().getConfig().isEnablePartitionInsertLock();
+  }
+
   @Override
   public boolean takeSnapshot(File snapshotDir) {
     try {
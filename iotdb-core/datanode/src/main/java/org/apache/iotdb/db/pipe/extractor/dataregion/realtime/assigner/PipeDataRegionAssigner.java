@@ -37,6 +37,7 @@ import org.apache.iotdb.db.pipe.event.realtime.PipeRealtimeEventFactory;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.PipeRealtimeDataRegionExtractor;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher.CachedSchemaPatternMatcher;
 import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher.PipeDataRegionMatcher;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher.TrieSchemaPatternMatcher;
 import org.apache.iotdb.db.pipe.metric.source.PipeAssignerMetrics;
 import org.apache.iotdb.db.pipe.metric.source.PipeDataRegionEventCounter;
 import org.apache.iotdb.db.storageengine.StorageEngine;
@@ -82,7 +83,10 @@ public class PipeDataRegionAssigner implements Closeable {
   }
 
   public PipeDataRegionAssigner(final String dataRegionId) {
-    this.matcher = new CachedSchemaPatternMatcher();
+    this.matcher =
+        PipeConfig.getInstance().isPipeExtractorMatcherTrieEnabled()
+            ? new TrieSchemaPatternMatcher()
+            : new CachedSchemaPatternMatcher();
     this.disruptor = new DisruptorQueue(this::assignToExtractor, this::onAssignedHook);
     this.dataRegionId = dataRegionId;
     PipeAssignerMetrics.getInstance().register(this);
@@ -240,15 +240,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     final Set<PipeRealtimeDataRegionExtractor> filteredExtractors = new HashSet<>();
 
     for (final PipeRealtimeDataRegionExtractor extractor : extractors) {
-      // Return if the extractor only extract deletion
-      if (!extractor.shouldExtractInsertion()) {
-        continue;
-      }
-
-      final TreePattern treePattern = extractor.getTreePattern();
-      if (Objects.isNull(treePattern)
-          || (treePattern.isTreeModelDataAllowedToBeCaptured()
-              && treePattern.mayOverlapWithDevice(device))) {
+      if (matchesDevice(extractor, device)) {
         filteredExtractors.add(extractor);
       }
     }
@@ -256,6 +248,19 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     return filteredExtractors;
   }
 
+  protected boolean matchesDevice(
+      final PipeRealtimeDataRegionExtractor extractor, final IDeviceID device) {
+    // Return if the extractor only extract deletion
+    if (!extractor.shouldExtractInsertion()) {
+      return false;
+    }
+
+    final TreePattern treePattern = extractor.getTreePattern();
+    return Objects.isNull(treePattern)
+        || (treePattern.isTreeModelDataAllowedToBeCaptured()
+            && treePattern.mayOverlapWithDevice(device));
+  }
+
   protected void matchTableModelEvent(
       final String databaseName,
       final IDeviceID tableName,
@@ -285,15 +290,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     final Set<PipeRealtimeDataRegionExtractor> filteredExtractors = new HashSet<>();
 
     for (final PipeRealtimeDataRegionExtractor extractor : extractors) {
-      // Return if the extractor only extract deletion
-      if (!extractor.shouldExtractInsertion()) {
-        continue;
-      }
-
-      final TablePattern tablePattern = extractor.getTablePattern();
-      if (matchesTablePattern(tablePattern, databaseNameAndTableName)
-          && (!extractor.isSkipIfNoPrivileges()
-              || notFilteredByAccess(extractor.getUserName(), databaseNameAndTableName))) {
+      if (matchesDatabaseAndTable(extractor, databaseNameAndTableName)) {
         filteredExtractors.add(extractor);
       }
     }
@@ -301,6 +298,19 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     return filteredExtractors;
   }
 
+  protected boolean matchesDatabaseAndTable(
+      final PipeRealtimeDataRegionExtractor extractor,
+      final Pair<String, IDeviceID> databaseNameAndTableName) {
+    // Return if the extractor only extract deletion
+    if (!extractor.shouldExtractInsertion()) {
+      return false;
+    }
+
+    return matchesTablePattern(extractor.getTablePattern(), databaseNameAndTableName)
+        && (!extractor.isSkipIfNoPrivileges()
+            || notFilteredByAccess(extractor.getUserName(), databaseNameAndTableName));
+  }
+
   private boolean matchesTablePattern(
       final TablePattern tablePattern, final Pair<String, IDeviceID> databaseNameAndTableName) {
     return Objects.isNull(tablePattern)
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher;
+
+import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.PrefixTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.PipeRealtimeDataRegionExtractor;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR_CHAR;
+
+/**
+ * Indexes {@link PipeRealtimeDataRegionExtractor}s by the literal prefix of their {@link
+ * TreePattern}, so that the candidates of a device can be found by walking the device path instead
+ * of checking every extractor.
+ *
+ * <p>The trie only narrows down the candidates: it may return extractors that do not match the
+ * device, and the caller should verify them with the pattern. It is not thread-safe and should be
+ * guarded by the lock of the matcher.
+ */
+class TreePatternTrie {
+
+  private final Node root = new Node();
+  private final Map<PipeRealtimeDataRegionExtractor, String[]> extractorToPrefix = new HashMap<>();
+
+  public void add(final PipeRealtimeDataRegionExtractor extractor) {
+    final String[] prefix = getLiteralPrefix(extractor.getTreePattern());
+    if (extractorToPrefix.putIfAbsent(extractor, prefix) != null) {
+      return;
+    }
+
+    Node node = root;
+    node.subtreeExtractors.add(extractor);
+    for (final String piece : prefix) {
+      node = node.children.computeIfAbsent(piece, k -> new Node());
+      node.subtreeExtractors.add(extractor);
+    }
+    node.extractors.add(extractor);
+  }
+
+  public void remove(final PipeRealtimeDataRegionExtractor extractor) {
+    final String[] prefix = extractorToPrefix.remove(extractor);
+    if (prefix == null) {
+      return;
+    }
+
+    final List<Node> path = new ArrayList<>(prefix.length + 1);
+    Node node = root;
+    path.add(node);
+    for (final String piece : prefix) {
+      node = node.children.get(piece);
+      path.add(node);
+    }
+    node.extractors.remove(extractor);
+
+    for (int i = path.size() - 1; i >= 0; --i) {
+      final Node current = path.get(i);
+      current.subtreeExtractors.remove(extractor);
+      // Prune the nodes that no longer hold any extractor
+      if (i > 0 && current.subtreeExtractors.isEmpty()) {
+        path.get(i - 1).children.remove(prefix[i - 1]);
+      }
+    }
+  }
+
+  /**
+   * @return the extractors whose patterns may overlap with the device. Every matched extractor is
+   *     included, but some of them may not match.
+   */
+  public Set<PipeRealtimeDataRegionExtractor> getCandidates(final IDeviceID device) {
+    final Set<PipeRealtimeDataRegionExtractor> candidates = new HashSet<>(root.extractors);
+
+    final String[] pieces = split(device.toString());
+    Node node = root;
+    for (int i = 0; i < pieces.length - 1; ++i) {
+      node = node.children.get(pieces[i]);
+      if (node == null) {
+        return candidates;
+      }
+      candidates.addAll(node.extractors);
+    }
+
+    // The last node of a prefix pattern is matched by "startsWith", and patterns deeper than the
+    // device may still overlap with it, so all the subtrees starting with the last piece are taken
+    final String lastPiece = pieces[pieces.length - 1];
+    for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+      if (child.getKey().startsWith(lastPiece)) {
+        candidates.addAll(child.getValue().subtreeExtractors);
+      }
+    }
+    return candidates;
+  }
+
+  public void clear() {
+    root.children.clear();
+    root.extractors.clear();
+    root.subtreeExtractors.clear();
+    extractorToPrefix.clear();
+  }
+
+  /**
+   * The literal prefix consists of the nodes that a matched device must have. For a {@link
+   * PrefixTreePattern} the last node is excluded since it is matched by "startsWith". For an {@link
+   * IoTDBTreePattern} the prefix ends before the first wildcard or quoted node.
+   */
+  private static String[] getLiteralPrefix(final TreePattern pattern) {
+    if (pattern == null || pattern.getPattern() == null) {
+      return new String[0];
+    }
+
+    final String[] pieces = split(pattern.getPattern());
+    if (pattern instanceof PrefixTreePattern) {
+      return Arrays.copyOf(pieces, pieces.length - 1);
+    }
+    if (pattern instanceof IoTDBTreePattern) {
+      int length = 0;
+      while (length < pieces.length
+          && pieces[length].indexOf('*') < 0
+          && pieces[length].indexOf('`') < 0) {
+        ++length;
+      }
+      return Arrays.copyOf(pieces, length);
+    }
+    return new String[0];
+  }
+
+  private static String[] split(final String path) {
+    final List<String> pieces = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i < path.length(); ++i) {
+      if (path.charAt(i) == PATH_SEPARATOR_CHAR) {
+        pieces.add(path.substring(start, i));
+        start = i + 1;
+      }
+    }
+    pieces.add(path.substring(start));
+    return pieces.toArray(new String[0]);
+  }
+
+  private static class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+
+    /** Extractors whose literal prefixes end at this node. */
+    private final Set<PipeRealtimeDataRegionExtractor> extractors = new HashSet<>();
+
+    /** Extractors whose literal prefixes end at this node or any of its descendants. */
+    private final Set<PipeRealtimeDataRegionExtractor> subtreeExtractors = new HashSet<>();
+  }
+}
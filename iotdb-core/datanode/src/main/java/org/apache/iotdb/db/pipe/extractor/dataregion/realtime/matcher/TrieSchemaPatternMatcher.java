@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher;
+
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.PipeRealtimeDataRegionExtractor;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.Pair;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link CachedSchemaPatternMatcher} which indexes the tree patterns of the extractors with a
+ * {@link TreePatternTrie}, so that a cache miss only checks the extractors sharing the path of the
+ * device instead of all the extractors.
+ *
+ * <p>Registering or deregistering an extractor updates the cached entries in place rather than
+ * invalidating both caches, so pipe changes do not cause a burst of cache misses on the insert
+ * path.
+ */
+public class TrieSchemaPatternMatcher extends CachedSchemaPatternMatcher {
+
+  private final TreePatternTrie treePatternTrie = new TreePatternTrie();
+
+  // Table patterns are regular expressions, which can not be indexed by path. Only the extractors
+  // that may capture table model data are checked on a miss of the table cache.
+  private final Set<PipeRealtimeDataRegionExtractor> tableModelExtractors = new HashSet<>();
+
+  @Override
+  public void register(final PipeRealtimeDataRegionExtractor extractor) {
+    lock.writeLock().lock();
+    try {
+      if (!extractors.add(extractor)) {
+        return;
+      }
+
+      if (mayCaptureTreeModelData(extractor)) {
+        treePatternTrie.add(extractor);
+        for (final Map.Entry<IDeviceID, Set<PipeRealtimeDataRegionExtractor>> entry :
+            deviceToExtractorsCache.asMap().entrySet()) {
+          if (matchesDevice(extractor, entry.getKey())) {
+            entry.getValue().add(extractor);
+          }
+        }
+      }
+
+      if (mayCaptureTableModelData(extractor)) {
+        tableModelExtractors.add(extractor);
+        for (final Map.Entry<Pair<String, IDeviceID>, Set<PipeRealtimeDataRegionExtractor>> entry :
+            databaseAndTableToExtractorsCache.asMap().entrySet()) {
+          if (matchesDatabaseAndTable(extractor, entry.getKey())) {
+            entry.getValue().add(extractor);
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void deregister(final PipeRealtimeDataRegionExtractor extractor) {
+    lock.writeLock().lock();
+    try {
+      if (!extractors.remove(extractor)) {
+        return;
+      }
+
+      treePatternTrie.remove(extractor);
+      tableModelExtractors.remove(extractor);
+      deviceToExtractorsCache.asMap().values().forEach(set -> set.remove(extractor));
+      databaseAndTableToExtractorsCache.asMap().values().forEach(set -> set.remove(extractor));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  protected Set<PipeRealtimeDataRegionExtractor> filterExtractorsByDevice(final IDeviceID device) {
+    final Set<PipeRealtimeDataRegionExtractor> filteredExtractors = new HashSet<>();
+
+    for (final PipeRealtimeDataRegionExtractor extractor : treePatternTrie.getCandidates(device)) {
+      if (matchesDevice(extractor, device)) {
+        filteredExtractors.add(extractor);
+      }
+    }
+
+    return filteredExtractors;
+  }
+
+  @Override
+  protected Set<PipeRealtimeDataRegionExtractor> filterExtractorsByDatabaseAndTable(
+      final Pair<String, IDeviceID> databaseNameAndTableName) {
+    final Set<PipeRealtimeDataRegionExtractor> filteredExtractors = new HashSet<>();
+
+    for (final PipeRealtimeDataRegionExtractor extractor : tableModelExtractors) {
+      if (matchesDatabaseAndTable(extractor, databaseNameAndTableName)) {
+        filteredExtractors.add(extractor);
+      }
+    }
+
+    return filteredExtractors;
+  }
+
+  private static boolean mayCaptureTreeModelData(final PipeRealtimeDataRegionExtractor extractor) {
+    final TreePattern treePattern = extractor.getTreePattern();
+    return extractor.shouldExtractInsertion()
+        && (Objects.isNull(treePattern) || treePattern.isTreeModelDataAllowedToBeCaptured());
+  }
+
+  private static boolean mayCaptureTableModelData(final PipeRealtimeDataRegionExtractor extractor) {
+    final TablePattern tablePattern = extractor.getTablePattern();
+    return extractor.shouldExtractInsertion()
+        && (Objects.isNull(tablePattern) || tablePattern.isTableModelDataAllowedToBeCaptured());
+  }
+
+  @Override
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      super.clear();
+      treePatternTrie.clear();
+      tableModelExtractors.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -52,6 +53,10 @@ public class PipeDataNodeReceiverMetrics implements IMetricSet {
   private Timer transferConfigPlanTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer transferCompressedTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer transferSliceTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer writeByCoordinatorTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer writeByRegionExecutorTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Counter writeByCoordinatorPointsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter writeByRegionExecutorPointsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   private static final String RECEIVER = "pipeDataNodeReceiver";
 
@@ -137,9 +142,26 @@ public class PipeDataNodeReceiverMetrics implements IMetricSet {
     transferSliceTimer.updateNanos(costTimeInNanos);
   }
 
+  public void recordWriteByCoordinatorTimer(final long costTimeInNanos) {
+    writeByCoordinatorTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordWriteByRegionExecutorTimer(final long costTimeInNanos) {
+    writeByRegionExecutorTimer.updateNanos(costTimeInNanos);
+  }
+
+  public void recordWriteByCoordinatorPoints(final long points) {
+    writeByCoordinatorPointsCounter.inc(points);
+  }
+
+  public void recordWriteByRegionExecutorPoints(final long points) {
+    writeByRegionExecutorPointsCounter.inc(points);
+  }
+
   @Override
   public void bindTo(final AbstractMetricService metricService) {
     bindToTimer(metricService);
+    bindToCounter(metricService);
   }
 
   private void bindToTimer(final AbstractMetricService metricService) {
@@ -303,6 +325,41 @@ public class PipeDataNodeReceiverMetrics implements IMetricSet {
             RECEIVER,
             Tag.TYPE.toString(),
             "transferSlice");
+    writeByCoordinatorTimer =
+        metricService.getOrCreateTimer(
+            Metric.PIPE_DATANODE_RECEIVER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            RECEIVER,
+            Tag.TYPE.toString(),
+            "writeByCoordinator");
+    writeByRegionExecutorTimer =
+        metricService.getOrCreateTimer(
+            Metric.PIPE_DATANODE_RECEIVER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            RECEIVER,
+            Tag.TYPE.toString(),
+            "writeByRegionExecutor");
+  }
+
+  private void bindToCounter(final AbstractMetricService metricService) {
+    writeByCoordinatorPointsCounter =
+        metricService.getOrCreateCounter(
+            Metric.PIPE_DATANODE_RECEIVER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            RECEIVER,
+            Tag.TYPE.toString(),
+            "writeByCoordinatorPoints");
+    writeByRegionExecutorPointsCounter =
+        metricService.getOrCreateCounter(
+            Metric.PIPE_DATANODE_RECEIVER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            RECEIVER,
+            Tag.TYPE.toString(),
+            "writeByRegionExecutorPoints");
   }
 
   @Override
@@ -331,6 +388,10 @@ public class PipeDataNodeReceiverMetrics implements IMetricSet {
     transferConfigPlanTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     transferCompressedTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     transferSliceTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    writeByCoordinatorTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    writeByRegionExecutorTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    writeByCoordinatorPointsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    writeByRegionExecutorPointsCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
     metricService.remove(
         MetricType.TIMER,
@@ -472,6 +533,34 @@ public class PipeDataNodeReceiverMetrics implements IMetricSet {
         RECEIVER,
         Tag.TYPE.toString(),
         "transferSlice");
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.PIPE_DATANODE_RECEIVER.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.TYPE.toString(),
+        "writeByCoordinator");
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.PIPE_DATANODE_RECEIVER.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.TYPE.toString(),
+        "writeByRegionExecutor");
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.PIPE_DATANODE_RECEIVER.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.TYPE.toString(),
+        "writeByCoordinatorPoints");
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.PIPE_DATANODE_RECEIVER.toString(),
+        Tag.NAME.toString(),
+        RECEIVER,
+        Tag.TYPE.toString(),
+        "writeByRegionExecutorPoints");
   }
 
   public static PipeDataNodeReceiverMetrics getInstance() {
@@ -92,6 +92,7 @@ import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.plan.statement.StatementType;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertMultiTabletsStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.LoadTsFileStatement;
@@ -186,6 +187,12 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
       PipeConfig.getInstance().getPipeReceiverActualToEstimatedMemoryRatio();
   private PipeMemoryBlock allocatedMemoryBlock;
 
+  // Writes the tablets with validated schemas straight into the local data regions
+  private final PipeReceiverFastWriter fastWriter =
+      PipeConfig.getInstance().isPipeReceiverFastWriteEnabled()
+          ? new PipeReceiverFastWriter()
+          : null;
+
   static {
     try {
       folderManager =
@@ -1014,6 +1021,62 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
   }
 
   private TSStatus executeStatementForTreeModel(final Statement statement) {
+    if (!(statement instanceof InsertBaseStatement)) {
+      return executeStatementForTreeModelByCoordinator(statement);
+    }
+
+    final InsertBaseStatement insertStatement = (InsertBaseStatement) statement;
+    final long startTime = System.nanoTime();
+    if (Objects.nonNull(fastWriter)) {
+      final TSStatus fastWriteStatus =
+          fastWriter.tryWrite(insertStatement, username, shouldMarkAsPipeRequest.get());
+      if (Objects.nonNull(fastWriteStatus)) {
+        PipeDataNodeReceiverMetrics.getInstance()
+            .recordWriteByRegionExecutorTimer(System.nanoTime() - startTime);
+        if (fastWriteStatus.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          PipeDataNodeReceiverMetrics.getInstance()
+              .recordWriteByRegionExecutorPoints(getPointCount(insertStatement));
+        }
+        return fastWriteStatus;
+      }
+    }
+
+    final TSStatus status = executeStatementForTreeModelByCoordinator(statement);
+    PipeDataNodeReceiverMetrics.getInstance()
+        .recordWriteByCoordinatorTimer(System.nanoTime() - startTime);
+    if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()
+        || status.getCode() == TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+      PipeDataNodeReceiverMetrics.getInstance()
+          .recordWriteByCoordinatorPoints(getPointCount(insertStatement));
+    }
+    return status;
+  }
+
+  private static long getPointCount(final InsertBaseStatement statement) {
+    if (statement instanceof InsertTabletStatement) {
+      final InsertTabletStatement tablet = (InsertTabletStatement) statement;
+      return (long) tablet.getRowCount() * tablet.getMeasurements().length;
+    }
+    if (statement instanceof InsertMultiTabletsStatement) {
+      long pointCount = 0;
+      for (final InsertTabletStatement tablet :
+          ((InsertMultiTabletsStatement) statement).getInsertTabletStatementList()) {
+        pointCount += getPointCount(tablet);
+      }
+      return pointCount;
+    }
+    if (statement instanceof InsertRowsStatement) {
+      long pointCount = 0;
+      for (final InsertRowStatement row :
+          ((InsertRowsStatement) statement).getInsertRowStatementList()) {
+        pointCount += row.getMeasurements().length;
+      }
+      return pointCount;
+    }
+    return Objects.nonNull(statement.getMeasurements()) ? statement.getMeasurements().length : 0;
+  }
+
+  private TSStatus executeStatementForTreeModelByCoordinator(final Statement statement) {
     return Coordinator.getInstance()
         .executeForTreeModel(
             shouldMarkAsPipeRequest.get() ? new PipeEnrichedStatement(statement) : statement,
@@ -1091,6 +1154,10 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
       }
     }
 
+    if (Objects.nonNull(fastWriter)) {
+      fastWriter.invalidateAll();
+    }
+
     super.handleExit();
   }
 
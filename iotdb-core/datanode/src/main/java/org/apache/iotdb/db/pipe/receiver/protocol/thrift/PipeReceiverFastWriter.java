@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.thrift;
+
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionExecutionResult;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionWriteExecutor;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.AnalyzeUtils;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.analyze.IPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.WritePlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.pipe.PipeEnrichedInsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertMultiTabletsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TreeDeviceSchemaCacheManager;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertBaseStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertMultiTabletsStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the tree model tablets received by {@link IoTDBDataNodeReceiver} straight into the local
+ * data regions through {@link RegionWriteExecutor}, skipping the analyze, plan and dispatch stages
+ * of the coordinator.
+ *
+ * <p>The schemas are read from {@link TreeDeviceSchemaCacheManager}, so a batch is only written
+ * directly if all its measurements are cached there with the same data types and alignment. Since
+ * that cache is invalidated on deleting or altering timeseries and on template changes, the writes
+ * after those changes go through the coordinator again. The data partitions are cached by the
+ * devices of the incoming batches. If any schema misses the cache, or any target region is not
+ * hosted by this data node, {@link #tryWrite(InsertBaseStatement, String, boolean)} returns {@code
+ * null} and the caller should fall back to the coordinator.
+ */
+class PipeReceiverFastWriter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PipeReceiverFastWriter.class);
+
+  private static final PlanNodeId FAST_WRITE_PLAN_NODE_ID = new PlanNodeId("");
+
+  private final TreeDeviceSchemaCacheManager schemaCacheManager;
+  private final IPartitionFetcher partitionFetcher;
+  private final RegionWriteExecutor regionWriteExecutor;
+  private final Cache<List<PartialPath>, DataPartitionEntry> dataPartitionCache =
+      Caffeine.newBuilder()
+          .maximumSize(PipeConfig.getInstance().getPipeReceiverFastWriteCacheSize())
+          .expireAfterWrite(
+              PipeConfig.getInstance().getPipeReceiverFastWriteCacheExpireMs(),
+              TimeUnit.MILLISECONDS)
+          .build();
+
+  PipeReceiverFastWriter() {
+    this(
+        TreeDeviceSchemaCacheManager.getInstance(),
+        ClusterPartitionFetcher.getInstance(),
+        new RegionWriteExecutor());
+  }
+
+  @TestOnly
+  PipeReceiverFastWriter(
+      final TreeDeviceSchemaCacheManager schemaCacheManager,
+      final IPartitionFetcher partitionFetcher,
+      final RegionWriteExecutor regionWriteExecutor) {
+    this.schemaCacheManager = schemaCacheManager;
+    this.partitionFetcher = partitionFetcher;
+    this.regionWriteExecutor = regionWriteExecutor;
+  }
+
+  /**
+   * @return the status of the write, or {@code null} if the statement can not be written directly
+   *     and nothing has been written
+   */
+  TSStatus tryWrite(
+      final InsertBaseStatement statement,
+      final String userName,
+      final boolean shouldMarkAsPipeRequest) {
+    final List<InsertTabletStatement> tablets = getTreeModelTablets(statement);
+    if (tablets == null || !fillMeasurementSchemas(tablets)) {
+      return null;
+    }
+
+    final List<PartialPath> devicePaths = getDevicePaths(tablets);
+    final List<WritePlanNode> splits;
+    try {
+      statement.semanticCheck();
+
+      final DataPartition dataPartition =
+          dataPartitionCache
+              .get(devicePaths, k -> new DataPartitionEntry())
+              .getOrFetchDataPartition(tablets, userName);
+      if (dataPartition == null) {
+        return null;
+      }
+      final Analysis analysis = new Analysis();
+      analysis.setDataPartitionInfo(dataPartition);
+      splits = constructInsertNode(tablets).splitByPartition(analysis);
+    } catch (final Exception e) {
+      LOGGER.debug("Failed to prepare the fast write of statement {}, fall back.", statement, e);
+      return null;
+    }
+
+    for (final WritePlanNode split : splits) {
+      if (!isHostedLocally(split.getRegionReplicaSet())) {
+        return null;
+      }
+    }
+
+    final List<TSStatus> failureStatusList = new ArrayList<>();
+    for (final WritePlanNode split : splits) {
+      final RegionExecutionResult result =
+          regionWriteExecutor.execute(
+              ConsensusGroupId.Factory.createFromTConsensusGroupId(
+                  split.getRegionReplicaSet().getRegionId()),
+              shouldMarkAsPipeRequest ? new PipeEnrichedInsertNode((InsertNode) split) : split);
+      final TSStatus status = result.getStatus();
+      if (!result.isAccepted()
+          || (status != null && status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode())) {
+        failureStatusList.add(
+            status != null
+                ? status
+                : RpcUtils.getStatus(TSStatusCode.EXECUTE_STATEMENT_ERROR, result.getMessage()));
+      }
+    }
+
+    if (failureStatusList.isEmpty()) {
+      return RpcUtils.SUCCESS_STATUS;
+    }
+    // The cached partitions may be outdated, let the retry go through the coordinator
+    dataPartitionCache.invalidate(devicePaths);
+    return failureStatusList.size() == 1
+        ? failureStatusList.get(0)
+        : RpcUtils.getStatus(failureStatusList);
+  }
+
+  void invalidateAll() {
+    dataPartitionCache.invalidateAll();
+  }
+
+  /**
+   * Fill the measurement schemas of the tablets from the schema cache of this data node.
+   *
+   * @return {@code false} if any of the schemas misses the cache or differs from the tablet, e.g.
+   *     the measurement is a logical view or has another data type
+   */
+  boolean fillMeasurementSchemas(final List<InsertTabletStatement> tablets) {
+    final MeasurementSchema[][] measurementSchemasList = new MeasurementSchema[tablets.size()][];
+    schemaCacheManager.takeReadLock();
+    try {
+      for (int i = 0; i < tablets.size(); i++) {
+        final InsertTabletStatement tablet = tablets.get(i);
+        final String[] measurements = tablet.getMeasurements();
+        final TSDataType[] dataTypes = tablet.getDataTypes();
+        if (measurements == null
+            || dataTypes == null
+            || dataTypes.length != measurements.length
+            || tablet.hasFailedMeasurements()) {
+          return false;
+        }
+        final MeasurementSchema[] measurementSchemas =
+            schemaCacheManager.getMeasurementSchemasWithoutTemplate(
+                tablet.getDevicePath(), measurements, tablet.isAligned());
+        if (measurementSchemas == null) {
+          return false;
+        }
+        for (int j = 0; j < measurements.length; j++) {
+          if (measurementSchemas[j].getType() != dataTypes[j]) {
+            return false;
+          }
+        }
+        measurementSchemasList[i] = measurementSchemas;
+      }
+    } finally {
+      schemaCacheManager.releaseReadLock();
+    }
+
+    for (int i = 0; i < tablets.size(); i++) {
+      tablets.get(i).setMeasurementSchemas(measurementSchemasList[i]);
+    }
+    return true;
+  }
+
+  private static List<InsertTabletStatement> getTreeModelTablets(
+      final InsertBaseStatement statement) {
+    final List<InsertTabletStatement> tablets;
+    if (statement instanceof InsertTabletStatement) {
+      tablets = Collections.singletonList((InsertTabletStatement) statement);
+    } else if (statement instanceof InsertMultiTabletsStatement) {
+      tablets = ((InsertMultiTabletsStatement) statement).getInsertTabletStatementList();
+    } else {
+      return null;
+    }
+
+    if (tablets.isEmpty()) {
+      return null;
+    }
+    for (final InsertTabletStatement tablet : tablets) {
+      if (tablet.isWriteToTable() || tablet.getRowCount() == 0) {
+        return null;
+      }
+    }
+    return tablets;
+  }
+
+  private static List<PartialPath> getDevicePaths(final List<InsertTabletStatement> tablets) {
+    final List<PartialPath> devicePaths = new ArrayList<>(tablets.size());
+    for (final InsertTabletStatement tablet : tablets) {
+      devicePaths.add(tablet.getDevicePath());
+    }
+    return devicePaths;
+  }
+
+  private static InsertMultiTabletsNode constructInsertNode(
+      final List<InsertTabletStatement> tablets) {
+    final InsertMultiTabletsNode insertMultiTabletsNode =
+        new InsertMultiTabletsNode(FAST_WRITE_PLAN_NODE_ID);
+    for (int i = 0; i < tablets.size(); i++) {
+      final InsertTabletStatement tablet = tablets.get(i);
+      insertMultiTabletsNode.addInsertTabletNode(
+          new InsertTabletNode(
+              insertMultiTabletsNode.getPlanNodeId(),
+              tablet.getDevicePath(),
+              tablet.isAligned(),
+              tablet.getMeasurements(),
+              tablet.getDataTypes(),
+              tablet.getMeasurementSchemas(),
+              tablet.getTimes(),
+              tablet.getBitMaps(),
+              tablet.getColumns(),
+              tablet.getRowCount()),
+          i);
+    }
+    return insertMultiTabletsNode;
+  }
+
+  // Same as the host chosen by the dispatcher for a write fragment instance
+  private static boolean isHostedLocally(final TRegionReplicaSet replicaSet) {
+    return replicaSet != null
+        && !replicaSet.getDataNodeLocations().isEmpty()
+        && replicaSet.getDataNodeLocations().get(0).getDataNodeId()
+            == IoTDBDescriptor.getInstance().getConfig().getDataNodeId();
+  }
+
+  /** The fetched partition together with the time partitions it covers, never modified. */
+  private static class FetchedDataPartition {
+
+    private static final FetchedDataPartition EMPTY =
+        new FetchedDataPartition(Collections.emptyMap(), null);
+
+    private final Map<IDeviceID, Set<TTimePartitionSlot>> timePartitionSlots;
+    private final DataPartition dataPartition;
+
+    private FetchedDataPartition(
+        final Map<IDeviceID, Set<TTimePartitionSlot>> timePartitionSlots,
+        final DataPartition dataPartition) {
+      this.timePartitionSlots = timePartitionSlots;
+      this.dataPartition = dataPartition;
+    }
+  }
+
+  private class DataPartitionEntry {
+
+    // Shared by the receivers writing the same devices, so both fields are published at once
+    private volatile FetchedDataPartition fetched = FetchedDataPartition.EMPTY;
+
+    /** Only fetches the partitions when the tablets reach time partitions not seen before. */
+    private DataPartition getOrFetchDataPartition(
+        final List<InsertTabletStatement> tablets, final String userName) {
+      final FetchedDataPartition current = fetched;
+      final Map<IDeviceID, List<TTimePartitionSlot>> requiredTimePartitionSlots = new HashMap<>();
+      boolean hasNewTimePartition = false;
+      for (final InsertTabletStatement tablet : tablets) {
+        final IDeviceID deviceID = tablet.getDevicePath().getIDeviceIDAsFullDevice();
+        final List<TTimePartitionSlot> timePartitionSlots = tablet.getTimePartitionSlots();
+        requiredTimePartitionSlots
+            .computeIfAbsent(deviceID, k -> new ArrayList<>())
+            .addAll(timePartitionSlots);
+        final Set<TTimePartitionSlot> fetchedSlots = current.timePartitionSlots.get(deviceID);
+        hasNewTimePartition |=
+            fetchedSlots == null || !fetchedSlots.containsAll(timePartitionSlots);
+      }
+      if (!hasNewTimePartition) {
+        return current.dataPartition;
+      }
+
+      // Fetch all the seen time partitions again, so that the cached partition covers them all
+      final Map<IDeviceID, Set<TTimePartitionSlot>> timePartitionSlotsToFetch = new HashMap<>();
+      current.timePartitionSlots.forEach(
+          (deviceID, slots) -> timePartitionSlotsToFetch.put(deviceID, new HashSet<>(slots)));
+      requiredTimePartitionSlots.forEach(
+          (deviceID, slots) ->
+              timePartitionSlotsToFetch
+                  .computeIfAbsent(deviceID, k -> new HashSet<>())
+                  .addAll(slots));
+
+      final DataPartition fetchedDataPartition =
+          partitionFetcher.getOrCreateDataPartition(
+              AnalyzeUtils.computeDataPartitionParams(timePartitionSlotsToFetch, null), userName);
+      if (fetchedDataPartition.isEmpty()) {
+        return null;
+      }
+      fetched = new FetchedDataPartition(timePartitionSlotsToFetch, fetchedDataPartition);
+      return fetchedDataPartition;
+    }
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.exchange.sink;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager.SinkListener;
 import org.apache.iotdb.db.queryengine.execution.exchange.SharedTsBlockQueue;
 import org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet;
+import org.apache.iotdb.db.queryengine.metric.DataExchangeCountMetricSet;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -57,6 +58,8 @@ public class LocalSinkChannel implements ISinkChannel {
 
   private static final DataExchangeCostMetricSet DATA_EXCHANGE_COST_METRIC_SET =
       DataExchangeCostMetricSet.getInstance();
+  private static final DataExchangeCountMetricSet DATA_EXCHANGE_COUNT_METRIC_SET =
+      DataExchangeCountMetricSet.getInstance();
 
   private static final long INSTANCE_SIZE =
       RamUsageEstimator.shallowSizeOfInstance(LocalSinkChannel.class)
@@ -155,6 +158,11 @@ public class LocalSinkChannel implements ISinkChannel {
           blocked = queue.add(tsBlock);
         }
       }
+      // the channel between fragment instances saves the serde of the remote SinkChannel, while
+      // the channel between pipelines of one fragment instance has no localFragmentInstanceId
+      if (localFragmentInstanceId != null) {
+        DATA_EXCHANGE_COUNT_METRIC_SET.recordLocalTsBlock(tsBlock.getSizeInBytes());
+      }
     } finally {
       DATA_EXCHANGE_COST_METRIC_SET.recordDataExchangeCost(
           SINK_HANDLE_SEND_TSBLOCK_LOCAL, System.nanoTime() - startTime);
@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /** A thread-safe memory pool. */
@@ -113,12 +114,56 @@ public class MemoryPool {
     }
   }
 
+  /**
+   * Memory reserved by a fragment instance. Besides the bytes reserved by each plan node, a
+   * fragment instance holds a local reservation chunk, which has been allocated from the pool but
+   * not reserved by any plan node yet. Like a thread-local allocation buffer, most reservations of
+   * the fragment instance are served by the chunk with a CAS on its own counter, instead of
+   * updating the memory block shared by all the queries.
+   */
+  private static class FragmentInstanceMemory {
+
+    /** planNodeId -> bytesReserved. */
+    private final Map<String, AtomicLong> planNodeReservations = new ConcurrentHashMap<>();
+
+    private final AtomicLong localBytes = new AtomicLong(0L);
+
+    /**
+     * Set when the fragment instance is deregistered, after which the freed bytes go back to the
+     * pool directly, since the local reservation chunk can no longer be reclaimed.
+     */
+    private volatile boolean closed = false;
+
+    private boolean tryTakeLocalBytes(long bytes) {
+      long current = localBytes.get();
+      while (current >= bytes) {
+        if (localBytes.compareAndSet(current, current - bytes)) {
+          return true;
+        }
+        current = localBytes.get();
+      }
+      return false;
+    }
+  }
+
+  /** Upper bound of the local reservation chunk of a fragment instance. */
+  private static final long MAX_LOCAL_RESERVATION_CHUNK_IN_BYTES = 1024L * 1024L;
+
   private final String id;
   private final IMemoryBlock memoryBlock;
   private final long maxBytesPerFragmentInstance;
 
-  /** queryId -> fragmentInstanceId -> planNodeId -> bytesReserved. */
-  private final Map<String, Map<String, Map<String, Long>>> queryMemoryReservations =
+  /**
+   * Bytes allocated by a fragment instance from the pool at a time besides the bytes to reserve,
+   * and the local reservation chunk keeps at most twice of it after freeing.
+   */
+  private final long localReservationChunkInBytes;
+
+  /** Total bytes of the local reservation chunks of all the fragment instances. */
+  private final AtomicLong localReservedBytes = new AtomicLong(0L);
+
+  /** queryId -> fragmentInstanceId -> memory reserved by the fragment instance. */
+  private final Map<String, Map<String, FragmentInstanceMemory>> queryMemoryReservations =
       new ConcurrentHashMap<>();
 
   private final Queue<MemoryReservationFuture<Void>> memoryReservationFutures =
@@ -139,6 +184,8 @@ public class MemoryPool {
         maxBytesPerFragmentInstance,
         this.memoryBlock.getTotalMemorySizeInBytes());
     this.maxBytesPerFragmentInstance = maxBytesPerFragmentInstance;
+    this.localReservationChunkInBytes =
+        Math.min(MAX_LOCAL_RESERVATION_CHUNK_IN_BYTES, maxBytesPerFragmentInstance / 64);
   }
 
   public String getId() {
@@ -150,7 +197,7 @@ public class MemoryPool {
   }
 
   public long getRemainingBytes() {
-    return memoryBlock.getFreeMemoryInBytes();
+    return memoryBlock.getFreeMemoryInBytes() + localReservedBytes.get();
   }
 
   public int getQueryMemoryReservationSize() {
@@ -170,8 +217,9 @@ public class MemoryPool {
     synchronized (queryMemoryReservations) {
       queryMemoryReservations
           .computeIfAbsent(queryId, x -> new ConcurrentHashMap<>())
-          .computeIfAbsent(fragmentInstanceId, x -> new ConcurrentHashMap<>())
-          .putIfAbsent(planNodeId, 0L);
+          .computeIfAbsent(fragmentInstanceId, x -> new FragmentInstanceMemory())
+          .planNodeReservations
+          .putIfAbsent(planNodeId, new AtomicLong(0L));
     }
   }
 
@@ -186,15 +234,16 @@ public class MemoryPool {
    */
   public void deRegisterFragmentInstanceFromQueryMemoryMap(
       String queryId, String fragmentInstanceId, boolean forceDeregister) {
-    Map<String, Map<String, Long>> queryRelatedMemory = queryMemoryReservations.get(queryId);
+    Map<String, FragmentInstanceMemory> queryRelatedMemory = queryMemoryReservations.get(queryId);
     if (queryRelatedMemory != null) {
-      Map<String, Long> fragmentRelatedMemory = queryRelatedMemory.get(fragmentInstanceId);
+      FragmentInstanceMemory fragmentRelatedMemory = queryRelatedMemory.get(fragmentInstanceId);
       boolean hasPotentialMemoryLeak = false;
       // fragmentRelatedMemory could be null if the FI has not reserved any memory(For example,
       // next() of root operator returns no data)
       if (fragmentRelatedMemory != null) {
         hasPotentialMemoryLeak =
-            fragmentRelatedMemory.values().stream().anyMatch(value -> value != 0L);
+            fragmentRelatedMemory.planNodeReservations.values().stream()
+                .anyMatch(value -> value.get() != 0L);
       }
       if (!forceDeregister && hasPotentialMemoryLeak) {
         // If hasPotentialMemoryLeak is true, it means that LocalSourceChannel/LocalSourceHandles
@@ -209,11 +258,19 @@ public class MemoryPool {
           queryMemoryReservations.remove(queryId);
         }
       }
+      if (fragmentRelatedMemory != null) {
+        // mark closed before draining, so that a concurrent free either sees it closed or adds its
+        // bytes before they are drained
+        fragmentRelatedMemory.closed = true;
+        if (returnLocalBytes(fragmentRelatedMemory, 0L) > 0) {
+          notifyMemoryReservationFutures();
+        }
+      }
       if (hasPotentialMemoryLeak) {
         // hasPotentialMemoryLeak means that fragmentRelatedMemory is not null
-        List<Map.Entry<String, Long>> invalidEntryList =
-            fragmentRelatedMemory.entrySet().stream()
-                .filter(entry -> entry.getValue() != 0L)
+        List<Map.Entry<String, AtomicLong>> invalidEntryList =
+            fragmentRelatedMemory.planNodeReservations.entrySet().stream()
+                .filter(entry -> entry.getValue().get() != 0L)
                 .collect(Collectors.toList());
         throw new MemoryLeakException(
             String.format(
@@ -263,11 +320,14 @@ public class MemoryPool {
     } else {
       LOGGER.debug(
           "Blocked reserve request: {} bytes memory for planNodeId{}", bytesToReserve, planNodeId);
-      rollbackReserve(queryId, fragmentInstanceId, planNodeId, bytesToReserve);
       result =
           MemoryReservationFuture.create(
               queryId, fragmentInstanceId, planNodeId, bytesToReserve, maxBytesCanReserve);
       memoryReservationFutures.add((MemoryReservationFuture<Void>) result);
+      // a concurrent free which saw no waiting future may have kept its bytes local, take them back
+      // so that this future does not wait for the next free
+      reclaimLocalBytes();
+      notifyMemoryReservationFutures();
       return new Pair<>(result, Boolean.FALSE);
     }
   }
@@ -288,12 +348,7 @@ public class MemoryPool {
         maxBytesPerFragmentInstance,
         bytesToReserve);
 
-    if (tryReserve(queryId, fragmentInstanceId, planNodeId, bytesToReserve, maxBytesCanReserve)) {
-      return true;
-    } else {
-      rollbackReserve(queryId, fragmentInstanceId, planNodeId, bytesToReserve);
-      return false;
-    }
+    return tryReserve(queryId, fragmentInstanceId, planNodeId, bytesToReserve, maxBytesCanReserve);
   }
 
   /**
@@ -325,27 +380,51 @@ public class MemoryPool {
     Validate.notNull(queryId, "queryId can not be null.");
     Validate.isTrue(bytes > 0L);
 
+    FragmentInstanceMemory fragmentInstanceMemory;
+    AtomicLong planNodeReservation;
     try {
-      queryMemoryReservations
-          .get(queryId)
-          .get(fragmentInstanceId)
-          .computeIfPresent(
-              planNodeId,
-              (k, reservedMemory) -> {
-                if (reservedMemory < bytes) {
-                  throw new IllegalArgumentException("Free more memory than has been reserved.");
-                }
-                return reservedMemory - bytes;
-              });
+      fragmentInstanceMemory = queryMemoryReservations.get(queryId).get(fragmentInstanceId);
+      planNodeReservation = fragmentInstanceMemory.planNodeReservations.get(planNodeId);
     } catch (NullPointerException e) {
       throw new IllegalArgumentException("RelatedMemoryReserved can't be null when freeing memory");
     }
+    if (planNodeReservation != null) {
+      long reservedMemory = planNodeReservation.get();
+      do {
+        if (reservedMemory < bytes) {
+          throw new IllegalArgumentException("Free more memory than has been reserved.");
+        }
+      } while (!planNodeReservation.weakCompareAndSet(reservedMemory, reservedMemory - bytes)
+          && (reservedMemory = planNodeReservation.get()) >= 0);
+    }
 
-    memoryBlock.release(bytes);
+    if (fragmentInstanceMemory.closed) {
+      memoryBlock.release(bytes);
+      notifyMemoryReservationFutures();
+      return;
+    }
+    // the freed bytes go back to the local reservation chunk of the fragment instance
+    fragmentInstanceMemory.localBytes.addAndGet(bytes);
+    localReservedBytes.addAndGet(bytes);
+    if (fragmentInstanceMemory.closed) {
+      // deregistered concurrently, the bytes may be added after the chunk is drained
+      returnLocalBytes(fragmentInstanceMemory, 0L);
+      notifyMemoryReservationFutures();
+      return;
+    }
 
     if (memoryReservationFutures.isEmpty()) {
+      if (fragmentInstanceMemory.localBytes.get() > 2 * localReservationChunkInBytes) {
+        returnLocalBytes(fragmentInstanceMemory, localReservationChunkInBytes);
+      }
       return;
     }
+    // someone is waiting for memory, do not keep any local memory
+    returnLocalBytes(fragmentInstanceMemory, 0L);
+    notifyMemoryReservationFutures();
+  }
+
+  private void notifyMemoryReservationFutures() {
     Iterator<MemoryReservationFuture<Void>> iterator = memoryReservationFutures.iterator();
     while (iterator.hasNext()) {
       MemoryReservationFuture<Void> future = iterator.next();
@@ -354,59 +433,113 @@ public class MemoryPool {
           iterator.remove();
           continue;
         }
-        long bytesToReserve = future.getBytesToReserve();
-        String curQueryId = future.getQueryId();
-        String curFragmentInstanceId = future.getFragmentInstanceId();
-        String curPlanNodeId = future.getPlanNodeId();
-        long maxBytesCanReserve = future.getMaxBytesCanReserve();
         if (tryReserve(
-            curQueryId, curFragmentInstanceId, curPlanNodeId, bytesToReserve, maxBytesCanReserve)) {
+            future.getQueryId(),
+            future.getFragmentInstanceId(),
+            future.getPlanNodeId(),
+            future.getBytesToReserve(),
+            future.getMaxBytesCanReserve())) {
           future.set(null);
           iterator.remove();
-        } else {
-          rollbackReserve(curQueryId, curFragmentInstanceId, curPlanNodeId, bytesToReserve);
         }
       }
     }
   }
 
   public long getQueryMemoryReservedBytes(String queryId) {
-    if (!queryMemoryReservations.containsKey(queryId)) {
+    Map<String, FragmentInstanceMemory> queryRelatedMemory = queryMemoryReservations.get(queryId);
+    if (queryRelatedMemory == null) {
       return 0L;
     }
     long sum = 0;
-    for (Map<String, Long> map : queryMemoryReservations.get(queryId).values()) {
-      sum = sum + map.values().stream().reduce(0L, Long::sum);
+    for (FragmentInstanceMemory fragmentInstanceMemory : queryRelatedMemory.values()) {
+      for (AtomicLong planNodeReservation : fragmentInstanceMemory.planNodeReservations.values()) {
+        sum += planNodeReservation.get();
+      }
     }
     return sum;
   }
 
+  /** Bytes reserved by the plan nodes, excluding the local reservation chunks. */
   public long getReservedBytes() {
-    return memoryBlock.getUsedMemoryInBytes();
+    return memoryBlock.getUsedMemoryInBytes() - localReservedBytes.get();
   }
 
+  /**
+   * Try to reserve the memory. The reservation is taken from the local reservation chunk of the
+   * fragment instance first, then from the pool, and nothing is reserved if it fails.
+   */
   public boolean tryReserve(
       String queryId,
       String fragmentInstanceId,
       String planNodeId,
       long bytesToReserve,
       long maxBytesCanReserve) {
-    long tryUsedBytes = memoryBlock.forceAllocateWithoutLimitation(bytesToReserve);
-    long queryRemainingBytes =
-        maxBytesCanReserve
-            - queryMemoryReservations
-                .get(queryId)
-                .get(fragmentInstanceId)
-                .merge(planNodeId, bytesToReserve, Long::sum);
-    return tryUsedBytes <= memoryBlock.getTotalMemorySizeInBytes() && queryRemainingBytes >= 0;
+    FragmentInstanceMemory fragmentInstanceMemory =
+        queryMemoryReservations.get(queryId).get(fragmentInstanceId);
+    AtomicLong planNodeReservation =
+        fragmentInstanceMemory.planNodeReservations.computeIfAbsent(
+            planNodeId, k -> new AtomicLong(0L));
+    if (planNodeReservation.addAndGet(bytesToReserve) > maxBytesCanReserve) {
+      planNodeReservation.addAndGet(-bytesToReserve);
+      return false;
+    }
+
+    if (fragmentInstanceMemory.tryTakeLocalBytes(bytesToReserve)) {
+      localReservedBytes.addAndGet(-bytesToReserve);
+      return true;
+    }
+    // refill the local reservation chunk, or allocate exactly the bytes to reserve if the pool is
+    // nearly exhausted
+    if (localReservationChunkInBytes > 0
+        && memoryBlock.allocate(bytesToReserve + localReservationChunkInBytes)) {
+      fragmentInstanceMemory.localBytes.addAndGet(localReservationChunkInBytes);
+      localReservedBytes.addAndGet(localReservationChunkInBytes);
+      if (fragmentInstanceMemory.closed) {
+        returnLocalBytes(fragmentInstanceMemory, 0L);
+      }
+      return true;
+    }
+    if (memoryBlock.allocate(bytesToReserve)
+        || (reclaimLocalBytes() > 0 && memoryBlock.allocate(bytesToReserve))) {
+      return true;
+    }
+    planNodeReservation.addAndGet(-bytesToReserve);
+    return false;
   }
 
-  private void rollbackReserve(
-      String queryId, String fragmentInstanceId, String planNodeId, long bytesToReserve) {
-    queryMemoryReservations
-        .get(queryId)
-        .get(fragmentInstanceId)
-        .merge(planNodeId, -bytesToReserve, Long::sum);
-    memoryBlock.release(bytesToReserve);
+  /**
+   * Return the local reservation chunk of the fragment instance to the pool.
+   *
+   * @param bytesToKeep bytes kept in the local reservation chunk
+   * @return bytes returned to the pool
+   */
+  private long returnLocalBytes(FragmentInstanceMemory fragmentInstanceMemory, long bytesToKeep) {
+    long current = fragmentInstanceMemory.localBytes.get();
+    while (current > bytesToKeep) {
+      if (fragmentInstanceMemory.localBytes.compareAndSet(current, bytesToKeep)) {
+        long bytesToReturn = current - bytesToKeep;
+        localReservedBytes.addAndGet(-bytesToReturn);
+        memoryBlock.release(bytesToReturn);
+        return bytesToReturn;
+      }
+      current = fragmentInstanceMemory.localBytes.get();
+    }
+    return 0L;
+  }
+
+  /** Return the local reservation chunks of all the fragment instances when memory runs out. */
+  private long reclaimLocalBytes() {
+    if (localReservedBytes.get() == 0L) {
+      return 0L;
+    }
+    long reclaimedBytes = 0L;
+    for (Map<String, FragmentInstanceMemory> queryRelatedMemory :
+        queryMemoryReservations.values()) {
+      for (FragmentInstanceMemory fragmentInstanceMemory : queryRelatedMemory.values()) {
+        reclaimedBytes += returnLocalBytes(fragmentInstanceMemory, 0L);
+      }
+    }
+    return reclaimedBytes;
   }
 }
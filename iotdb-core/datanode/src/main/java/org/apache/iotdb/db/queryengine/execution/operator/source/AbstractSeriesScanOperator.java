@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 
@@ -49,6 +50,11 @@ public abstract class AbstractSeriesScanOperator extends AbstractDataSourceOpera
     return finished;
   }
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return seriesScanUtil == null ? NOT_BLOCKED : seriesScanUtil.isBlocked();
+  }
+
   @SuppressWarnings("squid:S112")
   @Override
   public boolean hasNext() throws Exception {
@@ -77,7 +83,8 @@ public abstract class AbstractSeriesScanOperator extends AbstractDataSourceOpera
 
       } while (System.nanoTime() - start < maxRuntime
           && !resultTsBlockBuilder.isFull()
-          && retainedTsBlock == null);
+          && retainedTsBlock == null
+          && seriesScanUtil.isBlocked().isDone());
 
       finished = (resultTsBlockBuilder.isEmpty() && retainedTsBlock == null && noMoreData);
 
@@ -98,6 +105,10 @@ public abstract class AbstractSeriesScanOperator extends AbstractDataSourceOpera
 
   protected boolean readChunkData() throws IOException {
     while (seriesScanUtil.hasNextChunk()) {
+      if (!seriesScanUtil.isBlocked().isDone()) {
+        // the chunk is still being prefetched, yield the thread instead of waiting for the IO
+        return true;
+      }
       if (readPageData()) {
         return true;
       }
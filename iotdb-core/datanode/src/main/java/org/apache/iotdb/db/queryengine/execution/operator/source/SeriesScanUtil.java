@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source;
 
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -28,6 +29,7 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCach
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.IPrefetchableChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
@@ -35,6 +37,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeRead
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
@@ -58,16 +61,22 @@ import org.apache.tsfile.write.UnSupportedDataTypeException;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.function.ToLongFunction;
 
 import static com.google.common.base.Preconditions.checkState;
+import static org.apache.iotdb.db.queryengine.execution.operator.Operator.NOT_BLOCKED;
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_MERGE_READER_ALIGNED;
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.BUILD_TSBLOCK_FROM_MERGE_READER_NONALIGNED;
 
@@ -100,6 +109,11 @@ public class SeriesScanUtil implements Accountable {
   private IChunkMetadata firstChunkMetadata;
   private final PriorityQueue<IChunkMetadata> cachedChunkMetadata;
 
+  // chunk prefetch, the chunks are loaded into ChunkCache in the order they are unpacked
+  private final int chunkPrefetchNum;
+  private final Deque<IChunkMetadata> chunksToPrefetch;
+  private final Map<IChunkMetadata, ListenableFuture<Void>> prefetchingChunks;
+
   // page cache
   private VersionPageReader firstPageReader;
   private final List<VersionPageReader> seqPageReaders;
@@ -160,6 +174,12 @@ public class SeriesScanUtil implements Accountable {
         new PriorityQueue<>(
             orderUtils.comparingLong(
                 chunkMetadata -> orderUtils.getOrderTime(chunkMetadata.getStatistics())));
+    this.chunkPrefetchNum =
+        IoTDBDescriptor.getInstance().getMemoryConfig().isMetaDataCacheEnable()
+            ? IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchNumInSeriesScan()
+            : 0;
+    this.chunksToPrefetch = new ArrayDeque<>();
+    this.prefetchingChunks = new IdentityHashMap<>();
 
     // init PageReader materializer
     this.seqPageReaders = new LinkedList<>();
@@ -413,6 +433,83 @@ public class SeriesScanUtil implements Accountable {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+    addChunksToPrefetch(chunkMetadataList);
+  }
+
+  private void addChunksToPrefetch(List<IChunkMetadata> chunkMetadataList) {
+    if (chunkPrefetchNum <= 0) {
+      return;
+    }
+    // chunks of a file are in ascending time order
+    for (int i = 0; i < chunkMetadataList.size(); i++) {
+      IChunkMetadata chunkMetadata =
+          chunkMetadataList.get(orderUtils.getAscending() ? i : chunkMetadataList.size() - 1 - i);
+      if (chunkMetadata.getChunkLoader() instanceof IPrefetchableChunkLoader) {
+        chunksToPrefetch.add(chunkMetadata);
+      }
+    }
+    prefetchChunks();
+  }
+
+  private void prefetchChunks() {
+    while (prefetchingChunks.size() < chunkPrefetchNum && !chunksToPrefetch.isEmpty()) {
+      IChunkMetadata chunkMetadata = chunksToPrefetch.poll();
+      prefetchingChunks.put(
+          chunkMetadata,
+          ((IPrefetchableChunkLoader) chunkMetadata.getChunkLoader()).prefetchChunk(chunkMetadata));
+    }
+  }
+
+  /**
+   * Stop tracking the prefetch of the chunk as it is going to be read or skipped, and prefetch the
+   * following ones.
+   */
+  private void consumePrefetchedChunk(IChunkMetadata chunkMetadata, boolean read) {
+    if (chunkPrefetchNum <= 0
+        || chunkMetadata == null
+        || !(chunkMetadata.getChunkLoader() instanceof IPrefetchableChunkLoader)) {
+      return;
+    }
+    ListenableFuture<Void> future = prefetchingChunks.remove(chunkMetadata);
+    if (future == null) {
+      // not prefetched yet, it is usually at the head of chunksToPrefetch
+      Iterator<IChunkMetadata> iterator = chunksToPrefetch.iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next() == chunkMetadata) {
+          iterator.remove();
+          break;
+        }
+      }
+      if (read) {
+        SERIES_SCAN_COST_METRIC_SET.recordChunkPrefetch(false);
+      }
+    } else if (read) {
+      SERIES_SCAN_COST_METRIC_SET.recordChunkPrefetch(future.isDone());
+    } else {
+      SERIES_SCAN_COST_METRIC_SET.recordUnusedChunkPrefetch();
+    }
+    prefetchChunks();
+  }
+
+  /** Cancel the outstanding prefetches, the chunks will not be read by this scan any more. */
+  public void close() {
+    for (ListenableFuture<Void> future : prefetchingChunks.values()) {
+      future.cancel(false);
+    }
+    prefetchingChunks.clear();
+    chunksToPrefetch.clear();
+  }
+
+  /**
+   * The scan is blocked if the chunk to be read next is still being prefetched, reading it now
+   * would wait for the IO in the query thread.
+   */
+  public ListenableFuture<?> isBlocked() {
+    if (firstChunkMetadata == null || prefetchingChunks.isEmpty()) {
+      return NOT_BLOCKED;
+    }
+    ListenableFuture<Void> future = prefetchingChunks.get(firstChunkMetadata);
+    return future == null ? NOT_BLOCKED : future;
   }
 
   private boolean currentChunkOverlapped() {
@@ -442,6 +539,7 @@ public class SeriesScanUtil implements Accountable {
   }
 
   public void skipCurrentChunk() {
+    consumePrefetchedChunk(firstChunkMetadata, false);
     firstChunkMetadata = null;
   }
 
@@ -576,6 +674,7 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
+    consumePrefetchedChunk(chunkMetaData, true);
     List<IPageReader> pageReaderList =
         FileLoaderUtils.loadPageReaderList(chunkMetaData, scanOptions.getGlobalTimeFilter());
     long timestampInFileName = FileLoaderUtils.getTimestampInFileName(chunkMetaData);
@@ -182,6 +182,10 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     AlignedFullPath alignedPath =
         constructAlignedPath(deviceEntry, measurementColumnNames, measurementSchemas, allSensors);
 
+    if (this.seriesScanUtil != null) {
+      // the scan of the previous device is done
+      this.seriesScanUtil.close();
+    }
     this.seriesScanUtil =
         new AlignedSeriesScanUtil(
             alignedPath,
@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.operator.AbstractOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.JoinHash;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.MAX_RESERVED_MEMORY;
+
+/**
+ * Base of the build/probe hash join operators. All the data of the right child is consumed into a
+ * {@link JoinHash} first, then the left child is streamed through and probes the hash. Neither
+ * child needs to be sorted on the join keys.
+ */
+public abstract class AbstractHashJoinOperator extends AbstractOperator {
+  protected final Operator leftChild;
+  protected final int[] leftJoinKeyPositions;
+  protected final int[] leftOutputSymbolIdx;
+
+  protected final Operator rightChild;
+  protected final int[] rightOutputSymbolIdx;
+
+  protected final JoinHash joinHash;
+  protected boolean buildFinished = false;
+
+  protected TsBlock probeBlock;
+  protected int probeIndex;
+  // the first matched build row of each row in probeBlock
+  protected int[] probeFirstRows;
+  protected boolean probeFinished = false;
+
+  protected boolean finished = false;
+
+  protected final TsBlockBuilder resultBuilder;
+
+  protected final MemoryReservationManager memoryReservationManager;
+  protected long usedMemory;
+
+  protected AbstractHashJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes) {
+    this.operatorContext = operatorContext;
+    this.leftChild = leftChild;
+    this.leftJoinKeyPositions = leftJoinKeyPositions;
+    this.leftOutputSymbolIdx = leftOutputSymbolIdx;
+    this.rightChild = rightChild;
+    this.rightOutputSymbolIdx = rightOutputSymbolIdx;
+    this.joinHash = new JoinHash(joinKeyTypes, rightJoinKeyPositions, NOOP);
+
+    this.memoryReservationManager =
+        operatorContext
+            .getDriverContext()
+            .getFragmentInstanceContext()
+            .getMemoryReservationContext();
+
+    this.resultBuilder = new TsBlockBuilder(dataTypes);
+  }
+
+  /**
+   * Append the join result of current probe row, starting from the build row {@link
+   * #probeFirstRows} points to.
+   *
+   * @return true if all the results of current probe row are appended, false if the result builder
+   *     is full and current probe row should be continued in next round
+   */
+  protected abstract boolean processProbeRow();
+
+  /**
+   * Invoked after the left child is consumed up, used by the joins which output rows of the build
+   * side without any match.
+   *
+   * @return true if there is nothing more to output
+   */
+  protected boolean processAfterProbe() {
+    return true;
+  }
+
+  /**
+   * @return true if the result only depends on the build side now, e.g. an inner join with empty
+   *     build side
+   */
+  protected boolean canSkipProbe() {
+    return false;
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return retainedTsBlock != null || !finished;
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNext();
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (!buildFinished) {
+      return rightChild.isBlocked();
+    }
+    if (probeFinished || probeBlockNotEmpty()) {
+      return NOT_BLOCKED;
+    }
+    return leftChild.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (retainedTsBlock != null) {
+      return getResultFromRetainedTsBlock();
+    }
+
+    if (!buildFinished) {
+      build();
+      return null;
+    }
+
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+    while (!resultBuilder.isFull() && System.nanoTime() - start < maxRuntime) {
+      if (!probeFinished) {
+        if (!probeBlockNotEmpty() && !prepareProbeBlock()) {
+          // left child returns nothing this time
+          break;
+        }
+        if (!probeFinished) {
+          if (processProbeRow()) {
+            probeIndex++;
+          }
+          continue;
+        }
+      }
+      if (processAfterProbe()) {
+        finished = true;
+        break;
+      }
+    }
+
+    if (resultBuilder.isEmpty()) {
+      return null;
+    }
+
+    resultTsBlock =
+        resultBuilder.build(
+            new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+    resultBuilder.reset();
+    return checkTsBlockSizeAndGetResult();
+  }
+
+  /** Consume one block of the right child into the hash. */
+  private void build() throws Exception {
+    if (rightChild.hasNextWithTimer()) {
+      TsBlock block = rightChild.nextWithTimer();
+      if (block != null && !block.isEmpty()) {
+        joinHash.addBlock(block);
+        updateUsedMemory();
+      }
+    } else {
+      buildFinished = true;
+      probeFinished = canSkipProbe();
+    }
+  }
+
+  /**
+   * @return false if no block is got from left child this time, true if a new probe block is got or
+   *     the left child is consumed up
+   */
+  private boolean prepareProbeBlock() throws Exception {
+    if (!leftChild.isBlocked().isDone()) {
+      return false;
+    }
+    if (leftChild.hasNextWithTimer()) {
+      TsBlock block = leftChild.nextWithTimer();
+      if (block == null || block.isEmpty()) {
+        return false;
+      }
+      probeBlock = block;
+      probeIndex = 0;
+      probeFirstRows = joinHash.findFirstRows(block, leftJoinKeyPositions);
+    } else {
+      probeFinished = true;
+      probeBlock = null;
+      probeFirstRows = null;
+    }
+    return true;
+  }
+
+  protected boolean probeBlockNotEmpty() {
+    return probeBlock != null && probeIndex < probeBlock.getPositionCount();
+  }
+
+  private void updateUsedMemory() {
+    long memorySize = joinHash.getEstimatedSize();
+    long delta = memorySize - usedMemory;
+    if (delta > 0) {
+      memoryReservationManager.reserveMemoryCumulatively(delta);
+      operatorContext.recordSpecifiedInfo(MAX_RESERVED_MEMORY, Long.toString(memorySize));
+    } else if (delta < 0) {
+      memoryReservationManager.releaseMemoryCumulatively(-delta);
+    }
+    usedMemory = memorySize;
+  }
+
+  protected void appendProbeRow() {
+    for (int i = 0; i < leftOutputSymbolIdx.length; i++) {
+      ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(i);
+      if (probeBlock.getColumn(leftOutputSymbolIdx[i]).isNull(probeIndex)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.write(probeBlock.getColumn(leftOutputSymbolIdx[i]), probeIndex);
+      }
+    }
+  }
+
+  protected void appendNullProbeRow() {
+    for (int i = 0; i < leftOutputSymbolIdx.length; i++) {
+      resultBuilder.getColumnBuilder(i).appendNull();
+    }
+  }
+
+  protected void appendBuildRow(int row) {
+    TsBlock block = joinHash.getBlock(row);
+    int position = joinHash.getPosition(row);
+    for (int i = 0; i < rightOutputSymbolIdx.length; i++) {
+      ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(leftOutputSymbolIdx.length + i);
+      if (block.getColumn(rightOutputSymbolIdx[i]).isNull(position)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.write(block.getColumn(rightOutputSymbolIdx[i]), position);
+      }
+    }
+  }
+
+  protected void appendNullBuildRow() {
+    for (int i = 0; i < rightOutputSymbolIdx.length; i++) {
+      resultBuilder.getColumnBuilder(leftOutputSymbolIdx.length + i).appendNull();
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (leftChild != null) {
+      leftChild.close();
+    }
+    if (rightChild != null) {
+      rightChild.close();
+    }
+    if (usedMemory > 0) {
+      memoryReservationManager.releaseMemoryCumulatively(usedMemory);
+      usedMemory = 0;
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return Math.max(
+        Math.max(
+            leftChild.calculateMaxPeekMemoryWithCounter(),
+            rightChild.calculateMaxPeekMemoryWithCounter()),
+        calculateRetainedSizeAfterCallingNext() + calculateMaxReturnSize());
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return leftChild.calculateMaxReturnSize()
+        + leftChild.calculateRetainedSizeAfterCallingNext()
+        + rightChild.calculateMaxReturnSize()
+        + rightChild.calculateRetainedSizeAfterCallingNext()
+        + maxReturnSize;
+  }
+}
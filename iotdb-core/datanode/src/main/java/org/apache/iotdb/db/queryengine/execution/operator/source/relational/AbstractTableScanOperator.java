@@ -154,7 +154,8 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
       } while (System.nanoTime() - start < maxRuntime
           && !measurementDataBuilder.isFull()
-          && measurementDataBlock == null);
+          && measurementDataBlock == null
+          && seriesScanUtil.isBlocked().isDone());
 
       // current device' data is consumed up
       if (measurementDataBuilder.isEmpty()
@@ -316,6 +317,10 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     DeviceEntry deviceEntry = this.deviceEntries.get(this.currentDeviceIndex);
     AlignedFullPath alignedPath =
         constructAlignedPath(deviceEntry, measurementColumnNames, measurementSchemas, allSensors);
+    if (this.seriesScanUtil != null) {
+      // the scan of the previous device is done
+      this.seriesScanUtil.close();
+    }
     this.seriesScanUtil =
         new AlignedSeriesScanUtil(
             alignedPath,
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/** Hash join for INNER, LEFT and FULL join, the right child is the build side. */
+public class HashJoinOperator extends AbstractHashJoinOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HashJoinOperator.class);
+
+  private final JoinNode.JoinType joinType;
+
+  // the build row to continue with if current probe row is not finished in last round
+  private int nextMatchedRow = -1;
+  private boolean probeRowInProgress = false;
+
+  // build rows which have matched any probe row, only used in FULL join
+  private final BitSet matchedBuildRows;
+  private int unmatchedBuildRowIndex = 0;
+
+  public HashJoinOperator(
+      OperatorContext operatorContext,
+      JoinNode.JoinType joinType,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes) {
+    super(
+        operatorContext,
+        leftChild,
+        leftJoinKeyPositions,
+        leftOutputSymbolIdx,
+        rightChild,
+        rightJoinKeyPositions,
+        rightOutputSymbolIdx,
+        joinKeyTypes,
+        dataTypes);
+    checkArgument(
+        joinType == JoinNode.JoinType.INNER
+            || joinType == JoinNode.JoinType.LEFT
+            || joinType == JoinNode.JoinType.FULL,
+        "Unsupported join type of HashJoinOperator: %s",
+        joinType);
+    this.joinType = joinType;
+    this.matchedBuildRows = joinType == JoinNode.JoinType.FULL ? new BitSet() : null;
+  }
+
+  @Override
+  protected boolean canSkipProbe() {
+    // no row of the left child can appear in the result of an inner join with empty right child
+    return joinType == JoinNode.JoinType.INNER && joinHash.getRowCount() == 0;
+  }
+
+  @Override
+  protected boolean processProbeRow() {
+    int row;
+    if (probeRowInProgress) {
+      row = nextMatchedRow;
+    } else {
+      row = probeFirstRows[probeIndex];
+      if (row < 0) {
+        if (joinType != JoinNode.JoinType.INNER) {
+          appendProbeRow();
+          appendNullBuildRow();
+          resultBuilder.declarePosition();
+        }
+        return true;
+      }
+    }
+
+    while (row >= 0) {
+      if (resultBuilder.isFull()) {
+        probeRowInProgress = true;
+        nextMatchedRow = row;
+        return false;
+      }
+      appendProbeRow();
+      appendBuildRow(row);
+      resultBuilder.declarePosition();
+      if (matchedBuildRows != null) {
+        matchedBuildRows.set(row);
+      }
+      row = joinHash.getNextRow(row);
+    }
+    probeRowInProgress = false;
+    return true;
+  }
+
+  @Override
+  protected boolean processAfterProbe() {
+    if (joinType != JoinNode.JoinType.FULL) {
+      return true;
+    }
+
+    // append the right rows which never match any left row with empty left
+    int rowCount = joinHash.getRowCount();
+    while (unmatchedBuildRowIndex < rowCount && !resultBuilder.isFull()) {
+      if (!matchedBuildRows.get(unmatchedBuildRowIndex)) {
+        appendNullProbeRow();
+        appendBuildRow(unmatchedBuildRowIndex);
+        resultBuilder.declarePosition();
+      }
+      unmatchedBuildRowIndex++;
+    }
+    return unmatchedBuildRowIndex >= rowCount;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(leftChild)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(rightChild)
+        + RamUsageEstimator.sizeOf(leftOutputSymbolIdx)
+        + RamUsageEstimator.sizeOf(rightOutputSymbolIdx)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + resultBuilder.getRetainedSizeInBytes();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hash semi join, the right child is the build side. Output all the rows of the left child with the
+ * SemiJoin result appended as the last column.
+ */
+public class HashSemiJoinOperator extends AbstractHashJoinOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HashSemiJoinOperator.class);
+
+  private final int outputColumnNum;
+
+  public HashSemiJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int leftJoinKeyPosition,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int rightJoinKeyPosition,
+      Type joinKeyType,
+      List<TSDataType> dataTypes) {
+    super(
+        operatorContext,
+        leftChild,
+        new int[] {leftJoinKeyPosition},
+        leftOutputSymbolIdx,
+        rightChild,
+        new int[] {rightJoinKeyPosition},
+        new int[0],
+        Collections.singletonList(joinKeyType),
+        dataTypes);
+    outputColumnNum = dataTypes.size();
+  }
+
+  @Override
+  protected boolean processProbeRow() {
+    appendProbeRow();
+    ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(outputColumnNum - 1);
+    if (probeFirstRows[probeIndex] >= 0) {
+      columnBuilder.writeBoolean(true);
+    } else if (joinHash.getRowCount() > 0
+        && (joinHash.containsNullJoinKey()
+            || probeBlock.getColumn(leftJoinKeyPositions[0]).isNull(probeIndex))) {
+      // x IN (subquery) is NULL rather than false if x is NULL or the subquery returns NULL, unless
+      // the subquery returns nothing. This behaves like MySQL and Trino.
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBoolean(false);
+    }
+    resultBuilder.declarePosition();
+    return true;
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(leftChild)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(rightChild)
+        + RamUsageEstimator.sizeOf(leftOutputSymbolIdx)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + resultBuilder.getRetainedSizeInBytes();
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.Utils.UNSUPPORTED_TYPE_MESSAGE;
+
+public class ApproxCountDistinctAccumulator implements TableAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ApproxCountDistinctAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  private final HyperLogLog hyperLogLog = new HyperLogLog();
+
+  public ApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + hyperLogLog.getEstimatedSize();
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new ApproxCountDistinctAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments, AggregationMask mask) {
+    Column column = arguments[0];
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          addValue(hyperLogLog, seriesDataType, column, i);
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          addValue(hyperLogLog, seriesDataType, column, position);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      hyperLogLog.merge(HyperLogLog.deserialize(argument.getBinary(i).getValues(), 0));
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+
+    if (hyperLogLog.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(hyperLogLog.serialize()));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    columnBuilder.writeLong(hyperLogLog.cardinality());
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void reset() {
+    hyperLogLog.reset();
+  }
+
+  /** Add the value at the position of column into the sketch. */
+  public static void addValue(
+      HyperLogLog hyperLogLog, TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case BOOLEAN:
+        hyperLogLog.addLong(column.getBoolean(position) ? 1 : 0);
+        break;
+      case INT32:
+      case DATE:
+        hyperLogLog.addLong(column.getInt(position));
+        break;
+      case INT64:
+      case TIMESTAMP:
+        hyperLogLog.addLong(column.getLong(position));
+        break;
+      case FLOAT:
+        hyperLogLog.addDouble(column.getFloat(position));
+        break;
+      case DOUBLE:
+        hyperLogLog.addDouble(column.getDouble(position));
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        hyperLogLog.addBytes(column.getBinary(position).getValues());
+        break;
+      default:
+        throw new UnsupportedOperationException(String.format(UNSUPPORTED_TYPE_MESSAGE, dataType));
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.Utils.UNSUPPORTED_TYPE_MESSAGE;
+
+public class ApproxPercentileAccumulator implements TableAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  private final TDigest digest = new TDigest();
+  // taken from the second argument, NaN before any input
+  private double percentage = Double.NaN;
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + digest.getEstimatedSize();
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new ApproxPercentileAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments, AggregationMask mask) {
+    Column column = arguments[0];
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          percentage = getPercentage(percentage, arguments[1], i);
+          digest.add(getDoubleValue(seriesDataType, column, i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          percentage = getPercentage(percentage, arguments[1], position);
+          digest.add(getDoubleValue(seriesDataType, column, position));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      byte[] bytes = argument.getBinary(i).getValues();
+      percentage = BytesUtils.bytesToDouble(bytes, 0);
+      digest.merge(TDigest.deserialize(bytes, Double.BYTES));
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(serialize(percentage, digest)));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    if (digest.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentage));
+    }
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
+  @Override
+  public void reset() {
+    digest.reset();
+    percentage = Double.NaN;
+  }
+
+  // percentage | digest
+  public static byte[] serialize(double percentage, TDigest digest) {
+    byte[] bytes = new byte[Double.BYTES + digest.getSerializedSize()];
+    BytesUtils.doubleToBytes(percentage, bytes, 0);
+    digest.serialize(bytes, Double.BYTES);
+    return bytes;
+  }
+
+  /**
+   * The percentage should be a constant, so it is read only once.
+   *
+   * @param current the percentage read before, NaN if not read yet
+   */
+  public static double getPercentage(double current, Column percentageColumn, int position) {
+    if (!Double.isNaN(current)) {
+      return current;
+    }
+    if (percentageColumn.isNull(position)) {
+      throw new SemanticException("Percentage of approx_percentile should not be null");
+    }
+    double percentage = percentageColumn.getDouble(position);
+    if (percentage < 0 || percentage > 1) {
+      throw new SemanticException(
+          String.format(
+              "Percentage of approx_percentile should be in [0, 1], but is %s", percentage));
+    }
+    return percentage;
+  }
+
+  public static double getDoubleValue(TSDataType dataType, Column column, int position) {
+    switch (dataType) {
+      case INT32:
+        return column.getInt(position);
+      case INT64:
+        return column.getLong(position);
+      case FLOAT:
+        return column.getFloat(position);
+      case DOUBLE:
+        return column.getDouble(position);
+      default:
+        throw new UnsupportedOperationException(String.format(UNSUPPORTED_TYPE_MESSAGE, dataType));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values in a fixed size of memory. With the
+ * default precision there are 2048 one-byte registers, and the standard error of the estimation is
+ * about 2.3%. Two sketches of the same precision can be merged by taking the max of each register,
+ * so the sketch is used as the intermediate result of approx_count_distinct.
+ */
+public class HyperLogLog {
+
+  public static final int DEFAULT_PRECISION = 11;
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HyperLogLog.class);
+
+  private static final HashFunction BINARY_HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    checkArgument(precision >= 4 && precision <= 16, "precision should be in [4, 16]");
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public void addLong(long value) {
+    addHash(mix64(value));
+  }
+
+  public void addDouble(double value) {
+    // treat 0.0 and -0.0 as the same value
+    addHash(mix64(Double.doubleToLongBits(value == 0.0 ? 0.0 : value)));
+  }
+
+  public void addBytes(byte[] value) {
+    addHash(BINARY_HASH_FUNCTION.hashBytes(value).asLong());
+  }
+
+  private void addHash(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // count the leading zeros of the remaining bits, the sentinel bit bounds the value
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    checkArgument(precision == other.precision, "Cannot merge HyperLogLog of different precisions");
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  public long cardinality() {
+    int m = registers.length;
+    double sum = 0;
+    int zeroRegisters = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeroRegisters++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeroRegisters > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = m * Math.log((double) m / zeroRegisters);
+    }
+    return Math.round(estimate);
+  }
+
+  public boolean isEmpty() {
+    for (byte register : registers) {
+      if (register != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void reset() {
+    Arrays.fill(registers, (byte) 0);
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + RamUsageEstimator.sizeOf(registers);
+  }
+
+  // precision | registers
+  public int getSerializedSize() {
+    return 1 + registers.length;
+  }
+
+  public void serialize(byte[] bytes, int offset) {
+    bytes[offset] = (byte) precision;
+    System.arraycopy(registers, 0, bytes, offset + 1, registers.length);
+  }
+
+  public byte[] serialize() {
+    byte[] bytes = new byte[getSerializedSize()];
+    serialize(bytes, 0);
+    return bytes;
+  }
+
+  public static HyperLogLog deserialize(byte[] bytes, int offset) {
+    HyperLogLog hyperLogLog = new HyperLogLog(bytes[offset]);
+    System.arraycopy(bytes, offset + 1, hyperLogLog.registers, 0, hyperLogLog.registers.length);
+    return hyperLogLog;
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+  /** Mix function of SplitMix64, spreads the bits of sequential values like timestamps. */
+  private static long mix64(long value) {
+    value += 0x9e3779b97f4a7c15L;
+    value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+    value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+    return value ^ (value >>> 31);
+  }
+}
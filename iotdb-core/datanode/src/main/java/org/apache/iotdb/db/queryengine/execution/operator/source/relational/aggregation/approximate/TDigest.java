@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Merging t-digest estimating quantiles in a bounded size of memory. Values are buffered and then
+ * merged into centroids whose sizes are limited by the arcsine scale function, so that centroids
+ * near the tails stay small and the estimation of extreme quantiles like p99 is accurate. The
+ * number of centroids is bounded by the compression, and two digests can be merged by adding the
+ * centroids of one into the other.
+ */
+public class TDigest {
+
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(TDigest.class);
+
+  private final double compression;
+
+  // merged centroids sorted by mean
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+
+  // values not merged yet
+  private final double[] bufferMeans;
+  private final double[] bufferWeights;
+  private int bufferCount;
+
+  private double totalWeight;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    checkArgument(compression >= 10, "compression should not be less than 10");
+    this.compression = compression;
+    int maxCentroidCount = (int) Math.ceil(compression * Math.PI / 2) + 1;
+    this.means = new double[maxCentroidCount];
+    this.weights = new double[maxCentroidCount];
+    this.bufferMeans = new double[maxCentroidCount * 2];
+    this.bufferWeights = new double[maxCentroidCount * 2];
+  }
+
+  public void add(double value) {
+    add(value, 1);
+  }
+
+  public void add(double value, double weight) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (bufferCount == bufferMeans.length) {
+      compress();
+    }
+    bufferMeans[bufferCount] = value;
+    bufferWeights[bufferCount] = weight;
+    bufferCount++;
+    totalWeight += weight;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  public void merge(TDigest other) {
+    other.compress();
+    for (int i = 0; i < other.centroidCount; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    // the centroids are inside [other.min, other.max], but the exact bounds are kept
+    if (other.centroidCount > 0) {
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+    }
+  }
+
+  /** Merge the buffered values into centroids. */
+  private void compress() {
+    if (bufferCount == 0) {
+      return;
+    }
+    int count = centroidCount + bufferCount;
+    double[] allMeans = new double[count];
+    double[] allWeights = new double[count];
+    System.arraycopy(means, 0, allMeans, 0, centroidCount);
+    System.arraycopy(weights, 0, allWeights, 0, centroidCount);
+    System.arraycopy(bufferMeans, 0, allMeans, centroidCount, bufferCount);
+    System.arraycopy(bufferWeights, 0, allWeights, centroidCount, bufferCount);
+    sortByMean(allMeans, allWeights);
+
+    int last = 0;
+    means[0] = allMeans[0];
+    weights[0] = allWeights[0];
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(0) + 1);
+    for (int i = 1; i < count; i++) {
+      if (weightSoFar + weights[last] + allWeights[i] <= weightLimit) {
+        weights[last] += allWeights[i];
+        means[last] += (allMeans[i] - means[last]) * allWeights[i] / weights[last];
+      } else {
+        weightSoFar += weights[last];
+        weightLimit = totalWeight * quantileOfScale(scaleOfQuantile(weightSoFar / totalWeight) + 1);
+        last++;
+        ensureCentroidCapacity(last + 1);
+        means[last] = allMeans[i];
+        weights[last] = allWeights[i];
+      }
+    }
+    centroidCount = last + 1;
+    bufferCount = 0;
+  }
+
+  private void ensureCentroidCapacity(int capacity) {
+    // heavy centroids merged from other digests may exceed the usual bound
+    if (capacity > means.length) {
+      int newLength = Math.max(capacity, means.length + (means.length >> 1));
+      means = Arrays.copyOf(means, newLength);
+      weights = Arrays.copyOf(weights, newLength);
+    }
+  }
+
+  private double scaleOfQuantile(double quantile) {
+    return compression / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+  }
+
+  private double quantileOfScale(double scale) {
+    double radian = scale * 2 * Math.PI / compression;
+    if (radian >= Math.PI / 2) {
+      return 1;
+    }
+    return (Math.sin(radian) + 1) / 2;
+  }
+
+  /**
+   * Estimate the value at the given quantile by interpolating between adjacent centroids.
+   *
+   * @return NaN if no value is added
+   */
+  public double quantile(double quantile) {
+    checkArgument(quantile >= 0 && quantile <= 1, "quantile should be in [0, 1]");
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (centroidCount == 1) {
+      return means[0];
+    }
+
+    double index = quantile * totalWeight;
+    if (index <= weights[0] / 2) {
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < centroidCount - 1; i++) {
+      double delta = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + delta > index) {
+        double leftDistance = index - weightSoFar;
+        double rightDistance = weightSoFar + delta - index;
+        return (means[i] * rightDistance + means[i + 1] * leftDistance) / delta;
+      }
+      weightSoFar += delta;
+    }
+    double lastHalfWeight = weights[centroidCount - 1] / 2;
+    double lastMean = means[centroidCount - 1];
+    return Math.min(max, lastMean + (max - lastMean) * (index - weightSoFar) / lastHalfWeight);
+  }
+
+  public boolean isEmpty() {
+    return totalWeight == 0;
+  }
+
+  public void reset() {
+    centroidCount = 0;
+    bufferCount = 0;
+    totalWeight = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(means)
+        + RamUsageEstimator.sizeOf(weights)
+        + RamUsageEstimator.sizeOf(bufferMeans)
+        + RamUsageEstimator.sizeOf(bufferWeights);
+  }
+
+  // compression | min | max | centroidCount | (mean | weight) * centroidCount
+  public int getSerializedSize() {
+    compress();
+    return Double.BYTES * 3 + Integer.BYTES + Double.BYTES * 2 * centroidCount;
+  }
+
+  public void serialize(byte[] bytes, int offset) {
+    compress();
+    BytesUtils.doubleToBytes(compression, bytes, offset);
+    offset += Double.BYTES;
+    BytesUtils.doubleToBytes(min, bytes, offset);
+    offset += Double.BYTES;
+    BytesUtils.doubleToBytes(max, bytes, offset);
+    offset += Double.BYTES;
+    BytesUtils.intToBytes(centroidCount, bytes, offset);
+    offset += Integer.BYTES;
+    for (int i = 0; i < centroidCount; i++) {
+      BytesUtils.doubleToBytes(means[i], bytes, offset);
+      offset += Double.BYTES;
+      BytesUtils.doubleToBytes(weights[i], bytes, offset);
+      offset += Double.BYTES;
+    }
+  }
+
+  public static TDigest deserialize(byte[] bytes, int offset) {
+    TDigest digest = new TDigest(BytesUtils.bytesToDouble(bytes, offset));
+    offset += Double.BYTES;
+    digest.min = BytesUtils.bytesToDouble(bytes, offset);
+    offset += Double.BYTES;
+    digest.max = BytesUtils.bytesToDouble(bytes, offset);
+    offset += Double.BYTES;
+    int centroidCount = BytesUtils.bytesToInt(bytes, offset);
+    offset += Integer.BYTES;
+    digest.ensureCentroidCapacity(centroidCount);
+    for (int i = 0; i < centroidCount; i++) {
+      digest.means[i] = BytesUtils.bytesToDouble(bytes, offset);
+      offset += Double.BYTES;
+      digest.weights[i] = BytesUtils.bytesToDouble(bytes, offset);
+      offset += Double.BYTES;
+      digest.totalWeight += digest.weights[i];
+    }
+    digest.centroidCount = centroidCount;
+    return digest;
+  }
+
+  private static void sortByMean(double[] means, double[] weights) {
+    Integer[] order = new Integer[means.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(means[a], means[b]));
+    double[] sortedMeans = new double[means.length];
+    double[] sortedWeights = new double[weights.length];
+    for (int i = 0; i < order.length; i++) {
+      sortedMeans[i] = means[order[i]];
+      sortedWeights[i] = weights[order[i]];
+    }
+    System.arraycopy(sortedMeans, 0, means, 0, means.length);
+    System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+  }
+}
@@ -40,6 +40,7 @@ public class GroupedAggregator {
   private final GroupedAccumulator accumulator;
   private final AggregationNode.Step step;
   private final TSDataType outputType;
+  private final TSDataType intermediateType;
   private final int[] inputChannels;
   private final OptionalInt maskChannel;
 
@@ -47,11 +48,13 @@ public class GroupedAggregator {
       GroupedAccumulator accumulator,
       AggregationNode.Step step,
       TSDataType outputType,
+      TSDataType intermediateType,
       List<Integer> inputChannels,
       OptionalInt maskChannel) {
     this.accumulator = requireNonNull(accumulator, "accumulator is null");
     this.step = requireNonNull(step, "step is null");
-    this.outputType = requireNonNull(outputType, "intermediateType is null");
+    this.outputType = requireNonNull(outputType, "outputType is null");
+    this.intermediateType = requireNonNull(intermediateType, "intermediateType is null");
     this.inputChannels = Ints.toArray(requireNonNull(inputChannels, "inputChannels is null"));
     this.maskChannel = requireNonNull(maskChannel, "maskChannel is null");
     checkArgument(
@@ -63,6 +66,10 @@ public class GroupedAggregator {
     return outputType;
   }
 
+  public TSDataType getIntermediateType() {
+    return intermediateType;
+  }
+
   public void processBlock(int groupCount, int[] groupIds, TsBlock block) {
     accumulator.setGroupCount(groupCount);
     Column[] arguments = block.getColumns(inputChannels);
@@ -85,6 +92,12 @@ public class GroupedAggregator {
     }
   }
 
+  /** Merge the intermediate results, e.g. the ones spilled to disk, into the groups. */
+  public void processIntermediate(int groupCount, int[] groupIds, Column intermediate) {
+    accumulator.setGroupCount(groupCount);
+    accumulator.addIntermediate(groupIds, intermediate);
+  }
+
   public void evaluate(int groupId, ColumnBuilder columnBuilder) {
     if (step.isOutputPartial()) {
       accumulator.evaluateIntermediate(groupId, columnBuilder);
@@ -93,6 +106,11 @@ public class GroupedAggregator {
     }
   }
 
+  /** Output the intermediate result of the group regardless of the step. */
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    accumulator.evaluateIntermediate(groupId, columnBuilder);
+  }
+
   public void prepareFinal() {
     accumulator.prepareFinal();
   }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AggregationMask;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.ObjectBigArray;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxCountDistinctAccumulator.addValue;
+
+public class GroupedApproxCountDistinctAccumulator implements GroupedAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(GroupedApproxCountDistinctAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  // created when the first value of the group arrives
+  private final ObjectBigArray<HyperLogLog> hyperLogLogs = new ObjectBigArray<>();
+  private long hyperLogLogsSize = 0;
+
+  public GroupedApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + hyperLogLogs.sizeOf() + hyperLogLogsSize;
+  }
+
+  @Override
+  public void setGroupCount(long groupCount) {
+    hyperLogLogs.ensureCapacity(groupCount);
+  }
+
+  @Override
+  public void addInput(int[] groupIds, Column[] arguments, AggregationMask mask) {
+    Column column = arguments[0];
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          addValue(getOrCreate(groupIds[i]), seriesDataType, column, i);
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          addValue(getOrCreate(groupIds[position]), seriesDataType, column, position);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(int[] groupIds, Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      getOrCreate(groupIds[i]).merge(HyperLogLog.deserialize(argument.getBinary(i).getValues(), 0));
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxCountDistinct should be BinaryColumn");
+
+    HyperLogLog hyperLogLog = hyperLogLogs.get(groupId);
+    if (hyperLogLog == null) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(new Binary(hyperLogLog.serialize()));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(int groupId, ColumnBuilder columnBuilder) {
+    HyperLogLog hyperLogLog = hyperLogLogs.get(groupId);
+    columnBuilder.writeLong(hyperLogLog == null ? 0 : hyperLogLog.cardinality());
+  }
+
+  @Override
+  public void prepareFinal() {}
+
+  @Override
+  public void reset() {
+    hyperLogLogs.reset();
+    hyperLogLogsSize = 0;
+  }
+
+  private HyperLogLog getOrCreate(int groupId) {
+    HyperLogLog hyperLogLog = hyperLogLogs.get(groupId);
+    if (hyperLogLog == null) {
+      hyperLogLog = new HyperLogLog();
+      hyperLogLogs.set(groupId, hyperLogLog);
+      hyperLogLogsSize += hyperLogLog.getEstimatedSize();
+    }
+    return hyperLogLog;
+  }
+}
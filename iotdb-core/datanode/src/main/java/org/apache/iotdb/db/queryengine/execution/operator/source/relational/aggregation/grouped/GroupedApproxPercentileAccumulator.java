@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AggregationMask;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.ObjectBigArray;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BytesUtils;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.getDoubleValue;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.getPercentage;
+
+public class GroupedApproxPercentileAccumulator implements GroupedAccumulator {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(GroupedApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  // created when the first value of the group arrives
+  private final ObjectBigArray<TDigest> digests = new ObjectBigArray<>();
+  private long digestsSize = 0;
+  // the percentage is a constant shared by all the groups, NaN before any input
+  private double percentage = Double.NaN;
+
+  public GroupedApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + digests.sizeOf() + digestsSize;
+  }
+
+  @Override
+  public void setGroupCount(long groupCount) {
+    digests.ensureCapacity(groupCount);
+  }
+
+  @Override
+  public void addInput(int[] groupIds, Column[] arguments, AggregationMask mask) {
+    Column column = arguments[0];
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          percentage = getPercentage(percentage, arguments[1], i);
+          getOrCreate(groupIds[i]).add(getDoubleValue(seriesDataType, column, i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          percentage = getPercentage(percentage, arguments[1], position);
+          getOrCreate(groupIds[position]).add(getDoubleValue(seriesDataType, column, position));
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(int[] groupIds, Column argument) {
+    checkArgument(
+        argument instanceof BinaryColumn
+            || (argument instanceof RunLengthEncodedColumn
+                && ((RunLengthEncodedColumn) argument).getValue() instanceof BinaryColumn),
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (argument.isNull(i)) {
+        continue;
+      }
+      byte[] bytes = argument.getBinary(i).getValues();
+      percentage = BytesUtils.bytesToDouble(bytes, 0);
+      getOrCreate(groupIds[i]).merge(TDigest.deserialize(bytes, Double.BYTES));
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of ApproxPercentile should be BinaryColumn");
+
+    TDigest digest = digests.get(groupId);
+    if (digest == null) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeBinary(
+          new Binary(ApproxPercentileAccumulator.serialize(percentage, digest)));
+    }
+  }
+
+  @Override
+  public void evaluateFinal(int groupId, ColumnBuilder columnBuilder) {
+    TDigest digest = digests.get(groupId);
+    if (digest == null) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentage));
+    }
+  }
+
+  @Override
+  public void prepareFinal() {}
+
+  @Override
+  public void reset() {
+    digests.reset();
+    digestsSize = 0;
+    percentage = Double.NaN;
+  }
+
+  private TDigest getOrCreate(int groupId) {
+    TDigest digest = digests.get(groupId);
+    if (digest == null) {
+      digest = new TDigest();
+      digests.set(groupId, digest);
+      digestsSize += digest.getEstimatedSize();
+    }
+    return digest;
+  }
+}
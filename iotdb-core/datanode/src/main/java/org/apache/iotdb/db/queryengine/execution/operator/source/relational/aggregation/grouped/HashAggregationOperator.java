@@ -19,12 +19,15 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
 
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.queryengine.exception.MemoryNotEnoughException;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.AbstractOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.HashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.InMemoryHashAggregationBuilder;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.SpillableHashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
 
@@ -37,6 +40,7 @@ import org.apache.tsfile.utils.RamUsageEstimator;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.CURRENT_USED_MEMORY;
@@ -58,7 +62,10 @@ public class HashAggregationOperator extends AbstractOperator {
   private final long maxPartialMemory;
 
   private final boolean spillEnabled;
+  // memory used to merge the spilled data
   private final long unspillMemoryLimit;
+  // folder of the spilled files, only used when spill is enabled
+  private final String spillFolderPath;
 
   private HashAggregationBuilder aggregationBuilder;
 
@@ -79,6 +86,32 @@ public class HashAggregationOperator extends AbstractOperator {
       long maxPartialMemory,
       boolean spillEnabled,
       long unspillMemoryLimit) {
+    this(
+        operatorContext,
+        child,
+        groupByTypes,
+        groupByChannels,
+        aggregators,
+        step,
+        expectedGroups,
+        maxPartialMemory,
+        spillEnabled,
+        unspillMemoryLimit,
+        null);
+  }
+
+  public HashAggregationOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      List<GroupedAggregator> aggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      long maxPartialMemory,
+      boolean spillEnabled,
+      long unspillMemoryLimit,
+      String spillFolderPath) {
     super.operatorContext = operatorContext;
     this.child = child;
     this.groupByTypes = ImmutableList.copyOf(groupByTypes);
@@ -89,6 +122,9 @@ public class HashAggregationOperator extends AbstractOperator {
     this.maxPartialMemory = maxPartialMemory;
     this.spillEnabled = spillEnabled;
     this.unspillMemoryLimit = unspillMemoryLimit;
+    checkArgument(
+        !spillEnabled || spillFolderPath != null, "spillFolderPath is required if spill enabled");
+    this.spillFolderPath = spillFolderPath;
     this.memoryReservationManager =
         operatorContext
             .getDriverContext()
@@ -114,7 +150,18 @@ public class HashAggregationOperator extends AbstractOperator {
 
     if (aggregationBuilder == null) {
       if (spillEnabled) {
-        throw new UnsupportedOperationException();
+        aggregationBuilder =
+            new SpillableHashAggregationBuilder(
+                aggregators,
+                step,
+                expectedGroups,
+                groupByTypes,
+                groupByChannels,
+                operatorContext,
+                maxPartialMemory,
+                spillFolderPath,
+                unspillMemoryLimit,
+                NOOP);
       } else {
         aggregationBuilder =
             new InMemoryHashAggregationBuilder(
@@ -152,16 +199,26 @@ public class HashAggregationOperator extends AbstractOperator {
     }
   }
 
-  private void updateOccupiedMemorySize() {
+  private void updateOccupiedMemorySize() throws IoTDBException {
     long memorySize = aggregationBuilder.getEstimatedSize();
     operatorContext.recordSpecifiedInfo(CURRENT_USED_MEMORY, Long.toString(memorySize));
     long delta = memorySize - previousRetainedSize;
+    previousRetainedSize = memorySize;
     if (delta > 0) {
-      memoryReservationManager.reserveMemoryCumulatively(delta);
+      try {
+        memoryReservationManager.reserveMemoryCumulatively(delta);
+      } catch (MemoryNotEnoughException e) {
+        if (!spillEnabled) {
+          throw e;
+        }
+        // the denied memory is still recorded in memoryReservationManager, it will be released
+        // after the groups in memory are spilled
+        ((SpillableHashAggregationBuilder) aggregationBuilder).spill();
+        updateOccupiedMemorySize();
+      }
     } else if (delta < 0) {
       memoryReservationManager.releaseMemoryCumulatively(-delta);
     }
-    previousRetainedSize = memorySize;
   }
 
   private TsBlock getOutput() {
@@ -195,6 +252,7 @@ public class HashAggregationOperator extends AbstractOperator {
   @Override
   public void close() throws Exception {
     child.close();
+    closeAggregationBuilder();
     aggregators.forEach(GroupedAggregator::close);
   }
 
@@ -217,7 +275,9 @@ public class HashAggregationOperator extends AbstractOperator {
 
   @Override
   public long calculateRetainedSizeAfterCallingNext() {
-    return child.calculateMaxReturnSize() + child.calculateRetainedSizeAfterCallingNext();
+    return child.calculateMaxReturnSize()
+        + child.calculateRetainedSizeAfterCallingNext()
+        + (spillEnabled ? unspillMemoryLimit : 0);
   }
 
   @Override
@@ -193,12 +193,6 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return getGroupCount() * Integer.BYTES;
   }
 
-  public void setSpillOutput() {
-    for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // groupedAggregator.setSpillOutput();
-    }
-  }
-
   public int getKeyChannels() {
     return groupByChannels.length;
   }
@@ -221,12 +215,47 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return !groupIds.hasNext();
   }
 
-  public List<Type> buildSpillTypes() {
-    ArrayList<Type> types = new ArrayList<>(groupByOutputTypes);
-    for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // types.add(groupedAggregator.getSpillType());
+  /** Types of the spilled data: group by columns followed by the intermediate results. */
+  public List<TSDataType> buildSpillTypes() {
+    return Stream.concat(
+            groupByOutputTypes.stream().map(InternalTypeManager::getTSDataType),
+            groupedAggregators.stream().map(GroupedAggregator::getIntermediateType))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Build the group by columns and the intermediate results of all the groups, which can be merged
+   * back by {@link GroupedAggregator#processIntermediate}.
+   */
+  public List<TsBlock> buildSpillResult() {
+    List<TsBlock> result = new ArrayList<>();
+    TsBlockBuilder spillBuilder = new TsBlockBuilder(buildSpillTypes());
+    for (int groupId = 0, groupCount = groupByHash.getGroupCount();
+        groupId < groupCount;
+        groupId++) {
+      groupByHash.appendValuesTo(groupId, spillBuilder);
+      for (int i = 0; i < groupedAggregators.size(); i++) {
+        groupedAggregators
+            .get(i)
+            .evaluateIntermediate(
+                groupId, spillBuilder.getColumnBuilder(groupByChannels.length + i));
+      }
+      spillBuilder.declarePosition();
+      if (spillBuilder.isFull()) {
+        result.add(
+            spillBuilder.build(
+                new RunLengthEncodedColumn(
+                    TableScanOperator.TIME_COLUMN_TEMPLATE, spillBuilder.getPositionCount())));
+        spillBuilder.reset();
+      }
+    }
+    if (!spillBuilder.isEmpty()) {
+      result.add(
+          spillBuilder.build(
+              new RunLengthEncodedColumn(
+                  TableScanOperator.TIME_COLUMN_TEMPLATE, spillBuilder.getPositionCount())));
     }
-    return types;
+    return result;
   }
 
   public int getCapacity() {
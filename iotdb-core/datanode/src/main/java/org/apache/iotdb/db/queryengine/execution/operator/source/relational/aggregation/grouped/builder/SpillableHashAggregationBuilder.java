@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.utils.datastructure.MergeSortHeap;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.db.utils.datastructure.SortKey;
+import org.apache.iotdb.db.utils.sort.SortBufferManager;
+import org.apache.iotdb.db.utils.sort.SortReader;
+import org.apache.iotdb.db.utils.sort.TableDiskSpiller;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileDescriptor;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparatorForTable;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_LAST;
+
+/**
+ * Hash aggregation which can spill the groups to disk. Groups are aggregated in an {@link
+ * InMemoryHashAggregationBuilder} until {@link #spill()} is invoked, which sorts the groups by the
+ * group by columns and writes their intermediate results into a new file. When building the result,
+ * the remaining groups are spilled too, then all the files are merge-read and the intermediate
+ * results of the same group are merged before evaluation.
+ */
+public class SpillableHashAggregationBuilder implements HashAggregationBuilder {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(SpillableHashAggregationBuilder.class);
+
+  private static final String SPILLED_BYTES = "SpilledBytes";
+  private static final String SPILLED_FILE_NUMBER = "SpilledFileNumber";
+
+  private final InMemoryHashAggregationBuilder inMemoryBuilder;
+  private final List<GroupedAggregator> groupedAggregators;
+  private final int groupByChannelNum;
+  private final OperatorContext operatorContext;
+
+  private final TableDiskSpiller diskSpiller;
+  // the spilled data are sorted by the group by columns, so this is also used to judge equality
+  private final Comparator<SortKey> groupComparator;
+  private final long unspillMemoryLimit;
+
+  // for merging the spilled data
+  private SortBufferManager sortBufferManager;
+  private List<SortReader> sortReaders;
+  private MergeSortHeap mergeSortHeap;
+  private final TsBlockBuilder mergeInputBuilder;
+  private final TsBlockBuilder resultBuilder;
+  private final int maxGroupNumInOneBatch;
+
+  public SpillableHashAggregationBuilder(
+      List<GroupedAggregator> groupedAggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      OperatorContext operatorContext,
+      long maxPartialMemory,
+      String folderPath,
+      long unspillMemoryLimit,
+      UpdateMemory updateMemory) {
+    this.inMemoryBuilder =
+        new InMemoryHashAggregationBuilder(
+            groupedAggregators,
+            step,
+            expectedGroups,
+            groupByTypes,
+            groupByChannels,
+            Optional.empty(),
+            operatorContext,
+            maxPartialMemory,
+            updateMemory);
+    this.groupedAggregators = groupedAggregators;
+    this.groupByChannelNum = groupByTypes.size();
+    this.operatorContext = operatorContext;
+
+    List<TSDataType> spillTypes = inMemoryBuilder.buildSpillTypes();
+    this.diskSpiller =
+        new TableDiskSpiller(folderPath, folderPath + operatorContext.getOperatorId(), spillTypes);
+    List<TSDataType> groupByDataTypes = spillTypes.subList(0, groupByChannelNum);
+    this.groupComparator =
+        getComparatorForTable(
+            groupByDataTypes.stream().map(t -> ASC_NULLS_LAST).collect(Collectors.toList()),
+            IntStream.range(0, groupByChannelNum).boxed().collect(Collectors.toList()),
+            groupByDataTypes);
+    this.unspillMemoryLimit = unspillMemoryLimit;
+
+    this.mergeInputBuilder = new TsBlockBuilder(spillTypes);
+    this.resultBuilder = new TsBlockBuilder(inMemoryBuilder.buildTypes());
+    this.maxGroupNumInOneBatch =
+        TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber();
+  }
+
+  @Override
+  public void processBlock(TsBlock block) {
+    inMemoryBuilder.processBlock(block);
+  }
+
+  /**
+   * Sort the groups in memory and write them into a new file, then reset the in-memory hash. The
+   * memory used by the in-memory hash is released after this.
+   */
+  public void spill() throws IoTDBException {
+    if (inMemoryBuilder.getGroupCount() == 0) {
+      return;
+    }
+    List<SortKey> sortKeys = new ArrayList<>((int) inMemoryBuilder.getGroupCount());
+    for (TsBlock tsBlock : inMemoryBuilder.buildSpillResult()) {
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        sortKeys.add(new SortKey(tsBlock, i));
+      }
+    }
+    sortKeys.sort(groupComparator);
+    diskSpiller.spillSortedData(sortKeys);
+    inMemoryBuilder.reset();
+
+    operatorContext.recordSpecifiedInfo(
+        SPILLED_BYTES, Long.toString(diskSpiller.getSpilledBytes()));
+    operatorContext.recordSpecifiedInfo(
+        SPILLED_FILE_NUMBER, Integer.toString(diskSpiller.getFileSize()));
+  }
+
+  public boolean hasSpilledData() {
+    return diskSpiller.hasSpilledData();
+  }
+
+  @Override
+  public TsBlock buildResult() {
+    if (!diskSpiller.hasSpilledData()) {
+      return inMemoryBuilder.buildResult();
+    }
+    try {
+      if (mergeSortHeap == null) {
+        // all the groups are merged from disk, including the ones still in memory
+        spill();
+        prepareMerge();
+      }
+      return mergeOneBatch();
+    } catch (IoTDBException e) {
+      throw new IoTDBRuntimeException(e, e.getErrorCode());
+    }
+  }
+
+  private void prepareMerge() throws IoTDBException {
+    // each reader holds at least one TsBlock, otherwise the merge can not go on
+    int maxTsBlockSizeInBytes =
+        TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+    sortBufferManager =
+        new SortBufferManager(
+            maxTsBlockSizeInBytes,
+            Math.max(
+                unspillMemoryLimit,
+                (long) (diskSpiller.getFileSize() + 2) * maxTsBlockSizeInBytes));
+    for (int i = 0; i < diskSpiller.getFileSize(); i++) {
+      sortBufferManager.allocateOneSortBranch();
+    }
+    sortReaders = diskSpiller.getReaders(sortBufferManager);
+    mergeSortHeap = new MergeSortHeap(sortReaders.size(), groupComparator);
+    for (int i = 0; i < sortReaders.size(); i++) {
+      pushNextMergeSortKey(i);
+    }
+  }
+
+  /**
+   * Merge at most {@link #maxGroupNumInOneBatch} groups from the spilled files. The intermediate
+   * results of the same group are adjacent in the merged data, so each group gets a group id in
+   * order and the aggregators are reset after each batch.
+   */
+  private TsBlock mergeOneBatch() throws IoTDBException {
+    mergeInputBuilder.reset();
+    int[] groupIds = new int[maxGroupNumInOneBatch];
+    int groupCount = 0;
+    MergeSortKey lastKey = null;
+    while (!mergeSortHeap.isEmpty()) {
+      MergeSortKey mergeSortKey = mergeSortHeap.peek();
+      if (lastKey == null || groupComparator.compare(lastKey, mergeSortKey) != 0) {
+        if (groupCount == maxGroupNumInOneBatch) {
+          break;
+        }
+        groupCount++;
+      }
+      mergeSortHeap.poll();
+
+      int position = mergeInputBuilder.getPositionCount();
+      if (position == groupIds.length) {
+        groupIds = Arrays.copyOf(groupIds, groupIds.length * 2);
+      }
+      groupIds[position] = groupCount - 1;
+      appendRow(mergeSortKey, mergeInputBuilder.getValueColumnBuilders());
+      mergeInputBuilder.declarePosition();
+      lastKey = mergeSortKey;
+
+      pushNextMergeSortKey(mergeSortKey.inputChannelIndex);
+    }
+
+    TsBlock input =
+        mergeInputBuilder.build(
+            new RunLengthEncodedColumn(
+                TableScanOperator.TIME_COLUMN_TEMPLATE, mergeInputBuilder.getPositionCount()));
+    if (input.getPositionCount() < groupIds.length) {
+      groupIds = Arrays.copyOf(groupIds, input.getPositionCount());
+    }
+    for (int i = 0; i < groupedAggregators.size(); i++) {
+      groupedAggregators
+          .get(i)
+          .processIntermediate(groupCount, groupIds, input.getColumn(groupByChannelNum + i));
+    }
+
+    resultBuilder.reset();
+    ColumnBuilder[] columnBuilders = resultBuilder.getValueColumnBuilders();
+    int groupId = -1;
+    for (int position = 0; position < input.getPositionCount(); position++) {
+      if (groupIds[position] == groupId) {
+        continue;
+      }
+      groupId = groupIds[position];
+      for (int i = 0; i < groupByChannelNum; i++) {
+        Column column = input.getColumn(i);
+        if (column.isNull(position)) {
+          columnBuilders[i].appendNull();
+        } else {
+          columnBuilders[i].write(column, position);
+        }
+      }
+      for (int i = 0; i < groupedAggregators.size(); i++) {
+        groupedAggregators.get(i).evaluate(groupId, columnBuilders[groupByChannelNum + i]);
+      }
+      resultBuilder.declarePosition();
+    }
+    groupedAggregators.forEach(GroupedAggregator::reset);
+
+    return resultBuilder.build(
+        new RunLengthEncodedColumn(
+            TableScanOperator.TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+  }
+
+  private void pushNextMergeSortKey(int readerIndex) throws IoTDBException {
+    SortReader sortReader = sortReaders.get(readerIndex);
+    if (sortReader.hasNext()) {
+      MergeSortKey mergeSortKey = sortReader.next();
+      mergeSortKey.inputChannelIndex = readerIndex;
+      mergeSortHeap.push(mergeSortKey);
+    } else {
+      sortBufferManager.releaseOneSortBranch();
+    }
+  }
+
+  private static void appendRow(SortKey sortKey, ColumnBuilder[] columnBuilders) {
+    for (int i = 0; i < columnBuilders.length; i++) {
+      Column column = sortKey.tsBlock.getColumn(i);
+      if (column.isNull(sortKey.rowIndex)) {
+        columnBuilders[i].appendNull();
+      } else {
+        columnBuilders[i].write(column, sortKey.rowIndex);
+      }
+    }
+  }
+
+  @Override
+  public boolean finished() {
+    if (!diskSpiller.hasSpilledData()) {
+      return inMemoryBuilder.finished();
+    }
+    return mergeSortHeap != null && mergeSortHeap.isEmpty();
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return inMemoryBuilder.getEstimatedSize();
+  }
+
+  @Override
+  public boolean isFull() {
+    return inMemoryBuilder.isFull();
+  }
+
+  @Override
+  public void updateMemory() {
+    inMemoryBuilder.updateMemory();
+  }
+
+  @Override
+  public void reset() {
+    inMemoryBuilder.reset();
+  }
+
+  @Override
+  public void close() {
+    inMemoryBuilder.close();
+    if (sortReaders != null) {
+      for (SortReader sortReader : sortReaders) {
+        try {
+          sortReader.close();
+        } catch (IoTDBException e) {
+          LOGGER.warn("Fail to close fileChannel", e);
+        }
+      }
+      sortReaders = null;
+    }
+    // the spilled files are deleted with the tmp folder of the driver
+    diskSpiller.reset();
+  }
+}
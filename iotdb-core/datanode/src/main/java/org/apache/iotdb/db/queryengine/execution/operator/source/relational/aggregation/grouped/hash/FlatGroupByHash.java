@@ -131,6 +131,26 @@ public class FlatGroupByHash implements GroupByHash {
     return getNonDictionaryPageWork(columns);
   }
 
+  @Override
+  public int[] findGroupIds(Column[] page) {
+    int positionCount = page[0].getPositionCount();
+    int[] groupIds = new int[positionCount];
+    if (positionCount == 0) {
+      return groupIds;
+    }
+
+    Column[] columns = getColumnsFromPage(page);
+    long[] hashes = getHashesBufferArray();
+    for (int lastPosition = 0; lastPosition < positionCount; lastPosition += hashes.length) {
+      int batchSize = min(positionCount - lastPosition, hashes.length);
+      flatHash.computeHashes(columns, hashes, lastPosition, batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        groupIds[lastPosition + i] = flatHash.getGroupId(columns, lastPosition + i, hashes[i]);
+      }
+    }
+    return groupIds;
+  }
+
   @Override
   public int getCapacity() {
     return flatHash.getCapacity();
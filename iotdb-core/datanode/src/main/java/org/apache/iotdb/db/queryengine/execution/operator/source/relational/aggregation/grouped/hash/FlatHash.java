@@ -223,6 +223,17 @@ public final class FlatHash {
     }
   }
 
+  /**
+   * @return the group id of the row at position, or -1 if the row has not been put into the hash
+   */
+  public int getGroupId(Column[] columns, int position, long hash) {
+    int index = getIndex(columns, position, hash);
+    if (index < 0) {
+      return -1;
+    }
+    return bytesToInt(getRecords(index), getRecordOffset(index) + recordGroupIdOffset);
+  }
+
   public int putIfAbsent(Column[] columns, int position, long hash) {
     int index = getIndex(columns, position, hash);
     if (index >= 0) {
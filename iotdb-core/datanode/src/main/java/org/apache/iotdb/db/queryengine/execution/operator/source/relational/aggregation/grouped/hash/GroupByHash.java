@@ -54,6 +54,12 @@ public interface GroupByHash {
    */
   int[] getGroupIds(Column[] groupedColumns);
 
+  /**
+   * Look up the group ids of the incoming rows without adding new groups. The group id of a row
+   * which does not belong to any existing group is -1.
+   */
+  int[] findGroupIds(Column[] groupedColumns);
+
   long getRawHash(int groupId);
 
   @VisibleForTesting
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.DEFAULT_GROUP_NUMBER;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.createGroupByHash;
+
+/**
+ * Hash table of the build side of a hash join. Rows of the build side are kept in the TsBlocks they
+ * arrive in, and the rows having the same join keys are chained together by the group id of the
+ * join keys in a {@link GroupByHash}. Rows whose join keys contain NULL are kept but never chained,
+ * since they can not match any row.
+ */
+public class JoinHash {
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(JoinHash.class);
+
+  private static final int INITIAL_ROW_CAPACITY = 1024;
+
+  private final GroupByHash groupByHash;
+  private final int[] joinKeyPositions;
+
+  private final List<TsBlock> blocks = new ArrayList<>();
+  private long blocksRetainedSize;
+
+  // group id -> first row of the group, -1 if the group has no rows
+  private int[] groupHeads = new int[DEFAULT_GROUP_NUMBER];
+  // row -> next row of the same group, -1 if it is the last one
+  private int[] nextRows = new int[INITIAL_ROW_CAPACITY];
+  // row -> index of its block in blocks
+  private int[] rowBlockIndexes = new int[INITIAL_ROW_CAPACITY];
+  // row -> position of the row in its block
+  private int[] rowPositions = new int[INITIAL_ROW_CAPACITY];
+  private int rowCount;
+  private boolean hasNullJoinKey;
+
+  public JoinHash(List<Type> joinKeyTypes, int[] joinKeyPositions, UpdateMemory updateMemory) {
+    this.groupByHash = createGroupByHash(joinKeyTypes, false, DEFAULT_GROUP_NUMBER, updateMemory);
+    this.joinKeyPositions = joinKeyPositions;
+    Arrays.fill(groupHeads, -1);
+  }
+
+  public void addBlock(TsBlock block) {
+    int positionCount = block.getPositionCount();
+    if (positionCount == 0) {
+      return;
+    }
+    int blockIndex = blocks.size();
+    blocks.add(block);
+    blocksRetainedSize += block.getRetainedSizeInBytes();
+
+    Column[] joinKeyColumns = getJoinKeyColumns(block);
+    int[] groupIds = groupByHash.getGroupIds(joinKeyColumns);
+    ensureGroupCapacity(groupByHash.getGroupCount());
+    ensureRowCapacity(rowCount + positionCount);
+
+    for (int position = 0; position < positionCount; position++) {
+      int row = rowCount + position;
+      rowBlockIndexes[row] = blockIndex;
+      rowPositions[row] = position;
+      if (hasNull(joinKeyColumns, position)) {
+        nextRows[row] = -1;
+        hasNullJoinKey = true;
+      } else {
+        int groupId = groupIds[position];
+        nextRows[row] = groupHeads[groupId];
+        groupHeads[groupId] = row;
+      }
+    }
+    rowCount += positionCount;
+  }
+
+  /**
+   * @return the first row of the build side matching each row of the probe block, -1 if there is no
+   *     matching row
+   */
+  public int[] findFirstRows(TsBlock probeBlock, int[] probeJoinKeyPositions) {
+    Column[] joinKeyColumns = getColumns(probeBlock, probeJoinKeyPositions);
+    int[] rows = groupByHash.findGroupIds(joinKeyColumns);
+    for (int position = 0; position < rows.length; position++) {
+      int groupId = rows[position];
+      rows[position] = groupId < 0 || hasNull(joinKeyColumns, position) ? -1 : groupHeads[groupId];
+    }
+    return rows;
+  }
+
+  /**
+   * @return next row having the same join keys with the given row, -1 if there is no more row
+   */
+  public int getNextRow(int row) {
+    return nextRows[row];
+  }
+
+  public TsBlock getBlock(int row) {
+    return blocks.get(rowBlockIndexes[row]);
+  }
+
+  public int getPosition(int row) {
+    return rowPositions[row];
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public boolean containsNullJoinKey() {
+    return hasNullJoinKey;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + groupByHash.getEstimatedSize()
+        + blocksRetainedSize
+        + RamUsageEstimator.sizeOf(groupHeads)
+        + RamUsageEstimator.sizeOf(nextRows)
+        + RamUsageEstimator.sizeOf(rowBlockIndexes)
+        + RamUsageEstimator.sizeOf(rowPositions);
+  }
+
+  private Column[] getJoinKeyColumns(TsBlock block) {
+    return getColumns(block, joinKeyPositions);
+  }
+
+  private static Column[] getColumns(TsBlock block, int[] positions) {
+    Column[] columns = new Column[positions.length];
+    for (int i = 0; i < positions.length; i++) {
+      columns[i] = block.getColumn(positions[i]);
+    }
+    return columns;
+  }
+
+  private static boolean hasNull(Column[] columns, int position) {
+    for (Column column : columns) {
+      if (column.isNull(position)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void ensureGroupCapacity(int groupCount) {
+    if (groupCount > groupHeads.length) {
+      int oldLength = groupHeads.length;
+      groupHeads = Arrays.copyOf(groupHeads, Math.max(groupCount, oldLength * 2));
+      Arrays.fill(groupHeads, oldLength, groupHeads.length, -1);
+    }
+  }
+
+  private void ensureRowCapacity(int capacity) {
+    if (capacity > nextRows.length) {
+      int newLength = Math.max(capacity, nextRows.length * 2);
+      nextRows = Arrays.copyOf(nextRows, newLength);
+      rowBlockIndexes = Arrays.copyOf(rowBlockIndexes, newLength);
+      rowPositions = Arrays.copyOf(rowPositions, newLength);
+    }
+  }
+}
@@ -63,7 +63,7 @@ public abstract class AbstractDriverThread extends Thread implements Closeable {
     try {
       while (!closed && !Thread.currentThread().isInterrupted()) {
         try {
-          next = queue.poll();
+          next = poll(queue);
         } catch (InterruptedException e) {
           logger.warn("Executor {} failed to poll driver task from queue", this.getName());
           Thread.currentThread().interrupt();
@@ -122,6 +122,15 @@ public abstract class AbstractDriverThread extends Thread implements Closeable {
     }
   }
 
+  /**
+   * Get the next task to process from the queue.
+   *
+   * @throws InterruptedException if interrupted while waiting for a task
+   */
+  protected DriverTask poll(IndexedBlockingQueue<DriverTask> queue) throws InterruptedException {
+    return queue.poll();
+  }
+
   /**
    * Processing a task.
    *
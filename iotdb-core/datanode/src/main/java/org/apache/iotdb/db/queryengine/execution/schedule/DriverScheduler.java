@@ -42,6 +42,7 @@ import org.apache.iotdb.db.queryengine.execution.schedule.queue.IndexedBlockingR
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.L1PriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
 import org.apache.iotdb.db.storageengine.rescon.quotas.DataNodeThrottleQuotaManager;
@@ -97,7 +98,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new MultilevelPriorityQueue(LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
+        config.isEnableWorkStealingDriverScheduler()
+            ? new WorkStealingMultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask(), WORKER_THREAD_NUM)
+            : new MultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(
             QUERY_MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
@@ -123,13 +128,14 @@ public class DriverScheduler implements IDriverScheduler, IService {
                 IndexedBlockingQueue<DriverTask> queue,
                 ThreadProducer producer) {
               DriverTaskThread newThread =
-                  new DriverTaskThread(threadName, workerGroups, readyQueue, scheduler, this);
+                  new DriverTaskThread(
+                      threadName, workerGroups, readyQueue, scheduler, this, index);
               threads.set(index, newThread);
               newThread.start();
             }
           };
       AbstractDriverThread t =
-          new DriverTaskThread(threadName, workerGroups, readyQueue, scheduler, producer);
+          new DriverTaskThread(threadName, workerGroups, readyQueue, scheduler, producer, i);
       threads.add(t);
       t.start();
     }
@@ -61,14 +61,33 @@ public class DriverTaskThread extends AbstractDriverThread {
 
   private final Ticker ticker;
 
+  /** Index of this thread among all the workers polling the same queue. */
+  private final int workerIndex;
+
   public DriverTaskThread(
       String workerId,
       ThreadGroup tg,
       IndexedBlockingQueue<DriverTask> queue,
       ITaskScheduler scheduler,
       ThreadProducer producer) {
+    this(workerId, tg, queue, scheduler, producer, 0);
+  }
+
+  public DriverTaskThread(
+      String workerId,
+      ThreadGroup tg,
+      IndexedBlockingQueue<DriverTask> queue,
+      ITaskScheduler scheduler,
+      ThreadProducer producer,
+      int workerIndex) {
     super(workerId, tg, queue, scheduler, producer);
     this.ticker = Ticker.systemTicker();
+    this.workerIndex = workerIndex;
+  }
+
+  @Override
+  protected DriverTask poll(IndexedBlockingQueue<DriverTask> queue) throws InterruptedException {
+    return queue.poll(workerIndex);
   }
 
   @Override
@@ -75,6 +75,18 @@ public abstract class IndexedBlockingQueue<E extends IDIndexedAccessible> {
     return output;
   }
 
+  /**
+   * Get and remove an element for the worker with the given index. The queue is shared by all the
+   * workers by default, so it's the same as {@link #poll()}.
+   *
+   * @param workerIndex the index of the worker polling the queue.
+   * @return the element to be processed by the worker.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public E poll(int workerIndex) throws InterruptedException {
+    return poll();
+  }
+
   /**
    * Push an element to the queue. The new element position is determined by the implementation. If
    * the queue size has been reached the maxCapacity, or the queue has already contained an element
@@ -155,7 +167,7 @@ public abstract class IndexedBlockingQueue<E extends IDIndexedAccessible> {
    *
    * @return the current queue size.
    */
-  public final synchronized int size() {
+  public synchronized int size() {
     return size;
   }
 
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -42,14 +43,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
   /** the upper limit one Task can contribute to its level in one scheduled time. */
   static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-  private final PriorityQueue<DriverTask>[] levelWaitingSplits;
-
-  /**
-   * This queue is independent of the other priority queues and has the highest priority. It is used
-   * to assign the highest execution priority to tasks like "ShowQuery," without considering
-   * cumulative execution time.
-   */
-  private final PriorityQueue<DriverTask> highestPriorityLevelQueue;
+  private final WaitingTasks waitingTasks;
 
   /**
    * Total amount of time each LEVEL has occupied, which decides which level we will take task from.
@@ -72,19 +66,59 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
     super(maxCapacity, queryHolder);
     this.levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
     this.levelMinScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
-    this.levelWaitingSplits = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
-    this.highestPriorityLevelQueue =
-        new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    this.waitingTasks = new WaitingTasks();
     for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
       levelScheduledTime[level] = new AtomicLong();
       levelMinScheduledTime[level] = new AtomicLong(-1);
-      levelWaitingSplits[level] = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
     }
     this.levelTimeMultiplier = levelTimeMultiplier;
   }
 
   // region overridden functions
 
+  @Override
+  public void pushToQueue(DriverTask task) {
+    pushToQueue(waitingTasks, task);
+  }
+
+  @Override
+  protected DriverTask pollFirst() {
+    return pollFirst(waitingTasks);
+  }
+
+  @Override
+  protected DriverTask remove(DriverTask driverTask) {
+    checkArgument(driverTask != null, "driverTask is null");
+    return waitingTasks.remove(driverTask) ? driverTask : null;
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return waitingTasks.isEmpty();
+  }
+
+  @Override
+  protected boolean contains(DriverTask driverTask) {
+    return waitingTasks.contains(driverTask);
+  }
+
+  @Override
+  protected DriverTask get(DriverTask driverTask) {
+    // We do not support get() for MultilevelPriorityQueue since it is inefficient and not
+    // necessary.
+    throw new UnsupportedOperationException(
+        "MultilevelPriorityQueue does not support access element by get.");
+  }
+
+  @Override
+  protected void clearAllElements() {
+    waitingTasks.clear();
+  }
+
+  // endregion
+
+  // region helper functions
+
   /**
    * During periods of time when a level has no waiting splits, it will not accumulate scheduled
    * time and will fall behind relative to other levels.
@@ -94,19 +128,20 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    *
    * <p>To prevent this we set the scheduled time for levels which were empty to the expected
    * scheduled time.
+   *
+   * <p>This implementation needn't be thread-safe.
    */
-  @Override
-  public void pushToQueue(DriverTask task) {
+  protected void pushToQueue(WaitingTasks waitingTasks, DriverTask task) {
     checkArgument(task != null, "DriverTask to be pushed is null");
     // Push tasks with the highest priority(Currently, only ShowQuery related tasks) into
     // highestPriorityLevelQueue directly.
     if (task.isHighestPriority()) {
-      highestPriorityLevelQueue.offer(task);
+      waitingTasks.highestPriorityLevelQueue.offer(task);
       return;
     }
 
     int level = task.getPriority().getLevel();
-    if (levelWaitingSplits[level].isEmpty()) {
+    if (isLevelEmpty(level)) {
       // Accesses to levelScheduledTime are not synchronized, so we have a data race
       // here - our level time math will be off. However, the staleness is bounded by
       // the fact that only running splits that complete during this computation
@@ -116,25 +151,29 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
       long delta = levelExpectedTime - levelScheduledTime[level].get();
       levelScheduledTime[level].addAndGet(delta);
     }
-    levelWaitingSplits[level].offer(task);
+    waitingTasks.levelWaitingSplits[level].offer(task);
   }
 
-  @Override
-  protected DriverTask pollFirst() {
+  /**
+   * Get and remove the first task of the given waiting tasks, which must not be empty.
+   *
+   * <p>This implementation needn't be thread-safe.
+   */
+  protected DriverTask pollFirst(WaitingTasks waitingTasks) {
     // Always choose tasks in the highestPriorityLevelQueue first.
-    if (!highestPriorityLevelQueue.isEmpty()) {
-      return highestPriorityLevelQueue.poll();
+    if (!waitingTasks.highestPriorityLevelQueue.isEmpty()) {
+      return waitingTasks.highestPriorityLevelQueue.poll();
     }
 
     DriverTask result;
     while (true) {
-      result = chooseLevelAndTask();
+      result = chooseLevelAndTask(waitingTasks);
       if (result.updatePriority()) {
         // result.updatePriority() returns true means that the Priority of DriverTaskHandle the
         // result belongs to has changed.
         // All the DriverTasks of one DriverTaskHandle should be in the same level.
         // We push the result into the queue and choose another DriverTask.
-        pushToQueue(result);
+        pushToQueue(waitingTasks, result);
         continue;
       }
       int selectedLevel = result.getPriority().getLevel();
@@ -143,66 +182,36 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
     }
   }
 
-  @Override
-  protected DriverTask remove(DriverTask driverTask) {
-    checkArgument(driverTask != null, "driverTask is null");
-    if (highestPriorityLevelQueue.remove(driverTask)) {
-      return driverTask;
-    }
-    for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
-      if (level.remove(driverTask)) {
-        return driverTask;
-      }
-    }
-    return null;
-  }
-
-  @Override
-  protected boolean isEmpty() {
-    if (!highestPriorityLevelQueue.isEmpty()) {
-      return false;
-    }
-    for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
-      if (!level.isEmpty()) {
-        return false;
+  /**
+   * Get and remove the first task of the given level in the given waiting tasks, or null if there
+   * is none left in the level after the priorities are updated.
+   *
+   * <p>This implementation needn't be thread-safe.
+   */
+  protected DriverTask pollFirst(WaitingTasks waitingTasks, int level) {
+    while (true) {
+      DriverTask result = waitingTasks.levelWaitingSplits[level].poll();
+      if (result == null) {
+        return null;
       }
-    }
-    return true;
-  }
-
-  @Override
-  protected boolean contains(DriverTask driverTask) {
-    if (highestPriorityLevelQueue.contains(driverTask)) {
-      return true;
-    }
-    for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
-      if (level.contains(driverTask)) {
-        return true;
+      if (result.updatePriority()) {
+        // the task may move to another level, see pollFirst(WaitingTasks)
+        pushToQueue(waitingTasks, result);
+        continue;
       }
+      levelMinScheduledTime[level].set(result.getPriority().getLevelScheduledTime());
+      return result;
     }
-    return false;
-  }
-
-  @Override
-  protected DriverTask get(DriverTask driverTask) {
-    // We do not support get() for MultilevelPriorityQueue since it is inefficient and not
-    // necessary.
-    throw new UnsupportedOperationException(
-        "MultilevelPriorityQueue does not support access element by get.");
   }
 
-  @Override
-  protected void clearAllElements() {
-    highestPriorityLevelQueue.clear();
-    for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
-      level.clear();
-    }
+  /**
+   * Whether there is no waiting task in the level. The staleness of the result is benign, see
+   * {@link #pushToQueue(WaitingTasks, DriverTask)}.
+   */
+  protected boolean isLevelEmpty(int level) {
+    return waitingTasks.isLevelEmpty(level);
   }
 
-  // endregion
-
-  // region helper functions
-
   /**
    * We attempt to give each level a target amount of scheduled time, which is configurable using
    * levelTimeMultiplier.
@@ -211,12 +220,28 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    * the objective of minimizing deviation from the target scheduled time. From this level, we pick
    * the DriverTask with the lowest scheduled time.
    */
-  private DriverTask chooseLevelAndTask() {
+  private DriverTask chooseLevelAndTask(WaitingTasks waitingTasks) {
+    int selectedLevel = chooseLevel(level -> !waitingTasks.levelWaitingSplits[level].isEmpty());
+    // selected level == -1 means that the queue is empty and this method is only called when the
+    // queue is not empty.
+    checkState(selectedLevel != -1, "selected level can not equal to -1");
+    DriverTask result = waitingTasks.levelWaitingSplits[selectedLevel].poll();
+    checkState(result != null, "result driverTask cannot be null");
+    return result;
+  }
+
+  /**
+   * Select the level that has the lowest ratio of actual to the target time among the levels
+   * which have waiting tasks.
+   *
+   * @return the selected level, or -1 if no level has waiting tasks
+   */
+  protected int chooseLevel(IntPredicate hasWaitingTasks) {
     long targetScheduledTime = getLevel0TargetTime();
     double worstRatio = 1;
     int selectedLevel = -1;
     for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-      if (!levelWaitingSplits[level].isEmpty()) {
+      if (hasWaitingTasks.test(level)) {
         long levelTime = levelScheduledTime[level].get();
         double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
         if (selectedLevel == -1 || ratio > worstRatio) {
@@ -227,13 +252,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
       targetScheduledTime /= levelTimeMultiplier;
     }
-
-    // selected level == -1 means that the queue is empty and this method is only called when the
-    // queue is not empty.
-    checkState(selectedLevel != -1, "selected level can not equal to -1");
-    DriverTask result = levelWaitingSplits[selectedLevel].poll();
-    checkState(result != null, "result driverTask cannot be null");
-    return result;
+    return selectedLevel;
   }
 
   /**
@@ -246,7 +265,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    *
    * @return the expected scheduled time of LEVEL0
    */
-  private synchronized long getLevel0TargetTime() {
+  private long getLevel0TargetTime() {
     long level0TargetTime = levelScheduledTime[0].get();
     double currentMultiplier = levelTimeMultiplier;
 
@@ -334,6 +353,85 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   @TestOnly
   public PriorityQueue<DriverTask> getHighestPriorityLevelQueue() {
-    return highestPriorityLevelQueue;
+    return waitingTasks.highestPriorityLevelQueue;
+  }
+
+  /** The waiting tasks of the highest priority level and each level, which is not thread-safe. */
+  protected static class WaitingTasks {
+
+    private final PriorityQueue<DriverTask>[] levelWaitingSplits;
+
+    /**
+     * This queue is independent of the other priority queues and has the highest priority. It is
+     * used to assign the highest execution priority to tasks like "ShowQuery," without considering
+     * cumulative execution time.
+     */
+    private final PriorityQueue<DriverTask> highestPriorityLevelQueue;
+
+    @SuppressWarnings("unchecked")
+    protected WaitingTasks() {
+      this.levelWaitingSplits = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
+      this.highestPriorityLevelQueue =
+          new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+      for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+        levelWaitingSplits[level] =
+            new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+      }
+    }
+
+    protected boolean isEmpty() {
+      if (!highestPriorityLevelQueue.isEmpty()) {
+        return false;
+      }
+      for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
+        if (!level.isEmpty()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    protected boolean isLevelEmpty(int level) {
+      return levelWaitingSplits[level].isEmpty();
+    }
+
+    protected boolean hasHighestPriorityTask() {
+      return !highestPriorityLevelQueue.isEmpty();
+    }
+
+    protected DriverTask pollHighestPriorityTask() {
+      return highestPriorityLevelQueue.poll();
+    }
+
+    protected boolean remove(DriverTask driverTask) {
+      if (highestPriorityLevelQueue.remove(driverTask)) {
+        return true;
+      }
+      for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
+        if (level.remove(driverTask)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    protected boolean contains(DriverTask driverTask) {
+      if (highestPriorityLevelQueue.contains(driverTask)) {
+        return true;
+      }
+      for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
+        if (level.contains(driverTask)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    protected void clear() {
+      highestPriorityLevelQueue.clear();
+      for (PriorityQueue<DriverTask> level : levelWaitingSplits) {
+        level.clear();
+      }
+    }
   }
 }
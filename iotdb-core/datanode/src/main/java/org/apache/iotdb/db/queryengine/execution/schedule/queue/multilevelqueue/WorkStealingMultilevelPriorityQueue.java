@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue;
+
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.ID;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link MultilevelPriorityQueue} partitioned by workers. Each worker polls DriverTasks from its
+ * own local queue, and steals from other local queues only when they hold a task which should run
+ * first, so most of the polls don't contend with other workers.
+ *
+ * <p>A DriverTask is always pushed back to the local queue of the worker which ran it last time, so
+ * that it keeps running on the same thread and its data stays in the cache of the same core. New
+ * DriverTasks are distributed to the local queues in a round-robin way.
+ *
+ * <p>The level to poll from is chosen across all the local queues in the same way as {@link
+ * MultilevelPriorityQueue}. A worker polls a highest priority task of any local queue first, then
+ * a task of the chosen level, preferring its own local queue in both cases. The tasks in one level
+ * of a local queue are still ordered by their levelScheduledTime.
+ */
+public class WorkStealingMultilevelPriorityQueue extends MultilevelPriorityQueue {
+
+  private final LocalQueue[] localQueues;
+
+  private final AtomicInteger nextLocalQueueIndex = new AtomicInteger(0);
+
+  /** Number of tasks in all the local queues. */
+  private final AtomicInteger taskCount = new AtomicInteger(0);
+
+  /** Number of tasks which are polled out for running or blocked, see {@link #repush}. */
+  private final AtomicInteger reservedTaskCount = new AtomicInteger(0);
+
+  /** Workers wait on it when there is no task in any local queue. */
+  private final Lock idleLock = new ReentrantLock();
+
+  private final Condition notEmpty = idleLock.newCondition();
+  private final AtomicInteger idleWorkerCount = new AtomicInteger(0);
+
+  public WorkStealingMultilevelPriorityQueue(
+      double levelTimeMultiplier, int maxCapacity, DriverTask queryHolder, int workerNum) {
+    super(levelTimeMultiplier, maxCapacity, queryHolder);
+    checkArgument(workerNum > 0, "workerNum should be positive");
+    this.localQueues = new LocalQueue[workerNum];
+    for (int i = 0; i < workerNum; i++) {
+      localQueues[i] = new LocalQueue();
+    }
+  }
+
+  @Override
+  public DriverTask poll() throws InterruptedException {
+    return poll(0);
+  }
+
+  @Override
+  public DriverTask poll(int workerIndex) throws InterruptedException {
+    checkArgument(
+        workerIndex >= 0 && workerIndex < localQueues.length,
+        "workerIndex should be in [0, %s)",
+        localQueues.length);
+    while (true) {
+      DriverTask task = pollHighestPriorityTask(workerIndex);
+      if (task == null) {
+        int level = chooseLevel(l -> !isLevelEmpty(l));
+        if (level != -1) {
+          task = pollLevel(workerIndex, level);
+        }
+      }
+      if (task == null) {
+        // the chosen level may be emptied by other workers in the meantime
+        task = localQueues[workerIndex].poll();
+      }
+      if (task == null) {
+        task = steal(workerIndex);
+      }
+      if (task != null) {
+        taskCount.decrementAndGet();
+        reservedTaskCount.incrementAndGet();
+        task.setLastWorkerIndex(workerIndex);
+        return task;
+      }
+      awaitTask();
+    }
+  }
+
+  @Override
+  public void push(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    Preconditions.checkState(
+        taskCount.get() + reservedTaskCount.get() < capacity,
+        "The system can't allow more query tasks.");
+    getLocalQueue(task).push(task);
+    taskCount.incrementAndGet();
+    signalIdleWorker();
+  }
+
+  @Override
+  public void repush(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    getLocalQueue(task).push(task);
+    reservedTaskCount.decrementAndGet();
+    taskCount.incrementAndGet();
+    signalIdleWorker();
+  }
+
+  @Override
+  public void decreaseReservedSize() {
+    reservedTaskCount.decrementAndGet();
+  }
+
+  // the queryHolder is shared, so removing by id is still synchronized, which only happens when a
+  // task is aborted
+  @Override
+  public synchronized DriverTask remove(ID id) {
+    queryHolder.setId(id);
+    DriverTask output = remove(queryHolder);
+    if (output != null) {
+      taskCount.decrementAndGet();
+    }
+    return output;
+  }
+
+  @Override
+  public synchronized void clear() {
+    for (LocalQueue localQueue : localQueues) {
+      localQueue.clear();
+    }
+    taskCount.set(0);
+  }
+
+  @Override
+  public int size() {
+    // the count may be negative for a moment since a task is counted after it's pushed
+    return Math.max(0, taskCount.get());
+  }
+
+  @Override
+  protected DriverTask remove(DriverTask driverTask) {
+    checkArgument(driverTask != null, "driverTask is null");
+    for (LocalQueue localQueue : localQueues) {
+      if (localQueue.remove(driverTask)) {
+        return driverTask;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return taskCount.get() <= 0;
+  }
+
+  @Override
+  protected boolean contains(DriverTask driverTask) {
+    for (LocalQueue localQueue : localQueues) {
+      if (localQueue.contains(driverTask)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected boolean isLevelEmpty(int level) {
+    // the local queues are read without their locks, the staleness is benign as that in
+    // MultilevelPriorityQueue
+    for (LocalQueue localQueue : localQueues) {
+      if (!localQueue.waitingTasks.isLevelEmpty(level)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private LocalQueue getLocalQueue(DriverTask task) {
+    int workerIndex = task.getLastWorkerIndex();
+    if (workerIndex < 0) {
+      workerIndex = Math.floorMod(nextLocalQueueIndex.getAndIncrement(), localQueues.length);
+    }
+    return localQueues[workerIndex];
+  }
+
+  /** Poll a highest priority task of the own local queue, or else of another one. */
+  private DriverTask pollHighestPriorityTask(int workerIndex) {
+    for (int i = 0; i < localQueues.length; i++) {
+      LocalQueue localQueue = localQueues[(workerIndex + i) % localQueues.length];
+      // read without the lock first, the staleness is benign as that of isLevelEmpty
+      if (localQueue.waitingTasks.hasHighestPriorityTask()) {
+        DriverTask task = localQueue.pollHighestPriorityTask();
+        if (task != null) {
+          return task;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Poll a task of the level from the own local queue, or else from another one. */
+  private DriverTask pollLevel(int workerIndex, int level) {
+    for (int i = 0; i < localQueues.length; i++) {
+      LocalQueue localQueue = localQueues[(workerIndex + i) % localQueues.length];
+      if (!localQueue.waitingTasks.isLevelEmpty(level)) {
+        DriverTask task = localQueue.poll(level);
+        if (task != null) {
+          return task;
+        }
+      }
+    }
+    return null;
+  }
+
+  private DriverTask steal(int workerIndex) {
+    for (int i = 1; i < localQueues.length; i++) {
+      DriverTask task = localQueues[(workerIndex + i) % localQueues.length].poll();
+      if (task != null) {
+        return task;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Wait until some task is pushed. The worker is counted as idle before checking the task count,
+   * and a task is counted before checking the idle workers, so the pushing thread either sees the
+   * idle worker and signals it, or the worker sees the task and doesn't wait.
+   */
+  private void awaitTask() throws InterruptedException {
+    idleLock.lock();
+    try {
+      idleWorkerCount.incrementAndGet();
+      try {
+        while (taskCount.get() <= 0) {
+          notEmpty.await();
+        }
+      } finally {
+        idleWorkerCount.decrementAndGet();
+      }
+    } finally {
+      idleLock.unlock();
+    }
+  }
+
+  private void signalIdleWorker() {
+    if (idleWorkerCount.get() > 0) {
+      idleLock.lock();
+      try {
+        notEmpty.signal();
+      } finally {
+        idleLock.unlock();
+      }
+    }
+  }
+
+  /** The local queue of one worker, other workers only access it when stealing tasks. */
+  private class LocalQueue {
+
+    private final Lock lock = new ReentrantLock();
+    private final WaitingTasks waitingTasks = new WaitingTasks();
+
+    private DriverTask poll() {
+      lock.lock();
+      try {
+        return waitingTasks.isEmpty() ? null : pollFirst(waitingTasks);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private DriverTask pollHighestPriorityTask() {
+      lock.lock();
+      try {
+        return waitingTasks.pollHighestPriorityTask();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private DriverTask poll(int level) {
+      lock.lock();
+      try {
+        return pollFirst(waitingTasks, level);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void push(DriverTask task) {
+      lock.lock();
+      try {
+        pushToQueue(waitingTasks, task);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean remove(DriverTask task) {
+      lock.lock();
+      try {
+        return waitingTasks.remove(task);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean contains(DriverTask task) {
+      lock.lock();
+      try {
+        return waitingTasks.contains(task);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear() {
+      lock.lock();
+      try {
+        waitingTasks.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -61,6 +61,9 @@ public class DriverTask implements IDIndexedAccessible {
   private long lastEnterReadyQueueTime;
   private long lastEnterBlockQueueTime;
 
+  /** Index of the worker which polled this task last time, -1 if it has never been polled. */
+  private volatile int lastWorkerIndex = -1;
+
   private long estimatedMemorySize;
 
   /** Initialize a dummy instance for queryHolder. */
@@ -203,6 +206,14 @@ public class DriverTask implements IDIndexedAccessible {
     this.lastEnterBlockQueueTime = lastEnterBlockQueueTime;
   }
 
+  public int getLastWorkerIndex() {
+    return lastWorkerIndex;
+  }
+
+  public void setLastWorkerIndex(int lastWorkerIndex) {
+    this.lastWorkerIndex = lastWorkerIndex;
+  }
+
   /** a comparator of ddl, the less the ddl is, the low order it has. */
   public static class TimeoutComparator implements Comparator<DriverTask> {
 
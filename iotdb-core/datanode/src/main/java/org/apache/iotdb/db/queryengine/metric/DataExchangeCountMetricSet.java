@@ -26,6 +26,7 @@ import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeService
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
@@ -61,6 +62,11 @@ public class DataExchangeCountMetricSet implements IMetricSet {
   private static final String SHUFFLE_SINK_HANDLE_SIZE = "shuffle_sink_handle_size";
   private static final String SOURCE_HANDLE_SIZE = "source_handle_size";
 
+  // TsBlocks exchanged between fragment instances on this DataNode are passed by reference without
+  // serialization
+  private static final String LOCAL_TSBLOCK_NUM = "local_tsblock_num";
+  private static final String LOCAL_TSBLOCK_BYTES = "local_tsblock_bytes";
+
   private Histogram sendNewDataBlockNumCallerHistogram =
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram sendNewDataBlockNumServerHistogram =
@@ -71,6 +77,8 @@ public class DataExchangeCountMetricSet implements IMetricSet {
       DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram getDataBlockNumCallerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram getDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+  private Counter localTsBlockNumCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter localTsBlockBytesCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -122,6 +130,18 @@ public class DataExchangeCountMetricSet implements IMetricSet {
             GET_DATA_BLOCK_NUM,
             Tag.TYPE.toString(),
             SERVER);
+    localTsBlockNumCounter =
+        metricService.getOrCreateCounter(
+            Metric.DATA_EXCHANGE_LOCAL_SIZE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            LOCAL_TSBLOCK_NUM);
+    localTsBlockBytesCounter =
+        metricService.getOrCreateCounter(
+            Metric.DATA_EXCHANGE_LOCAL_SIZE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            LOCAL_TSBLOCK_BYTES);
     metricService.createAutoGauge(
         Metric.DATA_EXCHANGE_SIZE.toString(),
         MetricLevel.IMPORTANT,
@@ -146,6 +166,8 @@ public class DataExchangeCountMetricSet implements IMetricSet {
     onAcknowledgeDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
     getDataBlockNumCallerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
     getDataBlockNumServerHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+    localTsBlockNumCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    localTsBlockBytesCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
     Arrays.asList(SEND_NEW_DATA_BLOCK_NUM, ON_ACKNOWLEDGE_DATA_BLOCK_NUM, GET_DATA_BLOCK_NUM)
         .forEach(
             name ->
@@ -159,6 +181,14 @@ public class DataExchangeCountMetricSet implements IMetricSet {
                                 name,
                                 Tag.TYPE.toString(),
                                 caller)));
+    Arrays.asList(LOCAL_TSBLOCK_NUM, LOCAL_TSBLOCK_BYTES)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.COUNTER,
+                    Metric.DATA_EXCHANGE_LOCAL_SIZE.toString(),
+                    Tag.NAME.toString(),
+                    name));
     metricService.remove(
         MetricType.AUTO_GAUGE,
         Metric.DATA_EXCHANGE_SIZE.toString(),
@@ -196,6 +226,12 @@ public class DataExchangeCountMetricSet implements IMetricSet {
     }
   }
 
+  /** Record a TsBlock passed to another fragment instance on this DataNode without serde. */
+  public void recordLocalTsBlock(long sizeInBytes) {
+    localTsBlockNumCounter.inc();
+    localTsBlockBytesCounter.inc(sizeInBytes);
+  }
+
   public static DataExchangeCountMetricSet getInstance() {
     return INSTANCE;
   }
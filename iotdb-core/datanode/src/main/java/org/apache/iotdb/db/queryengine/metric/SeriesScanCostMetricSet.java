@@ -1504,6 +1504,79 @@ public class SeriesScanCostMetricSet implements IMetricSet {
                     type));
   }
 
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  // chunk prefetch
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  public static final String CHUNK_PREFETCH = "chunk_prefetch";
+  private static final String HIT = "hit";
+  private static final String MISS = "miss";
+  private static final String UNUSED = "unused";
+
+  // prefetched chunks which are loaded before read
+  private Counter chunkPrefetchHitCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  // chunks which are not prefetched or still being loaded when read
+  private Counter chunkPrefetchMissCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  // prefetched chunks which are skipped by the scan
+  private Counter chunkPrefetchUnusedCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
+  public void recordChunkPrefetch(boolean hit) {
+    if (hit) {
+      chunkPrefetchHitCounter.inc();
+    } else {
+      chunkPrefetchMissCounter.inc();
+    }
+  }
+
+  public void recordUnusedChunkPrefetch() {
+    chunkPrefetchUnusedCounter.inc();
+  }
+
+  /** Percentage of the chunks read by series scans which have been prefetched. */
+  public double getChunkPrefetchHitRatio() {
+    long hitCount = chunkPrefetchHitCounter.getCount();
+    long total = hitCount + chunkPrefetchMissCounter.getCount();
+    return total == 0 ? 0 : (double) hitCount * 100 / total;
+  }
+
+  private void bindChunkPrefetch(AbstractMetricService metricService) {
+    chunkPrefetchHitCounter =
+        metricService.getOrCreateCounter(
+            Metric.CHUNK_PREFETCH.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), HIT);
+    chunkPrefetchMissCounter =
+        metricService.getOrCreateCounter(
+            Metric.CHUNK_PREFETCH.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), MISS);
+    chunkPrefetchUnusedCounter =
+        metricService.getOrCreateCounter(
+            Metric.CHUNK_PREFETCH.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), UNUSED);
+    metricService.createAutoGauge(
+        Metric.CACHE_HIT_RATE.toString(),
+        MetricLevel.IMPORTANT,
+        this,
+        SeriesScanCostMetricSet::getChunkPrefetchHitRatio,
+        Tag.NAME.toString(),
+        CHUNK_PREFETCH);
+  }
+
+  private void unbindChunkPrefetch(AbstractMetricService metricService) {
+    chunkPrefetchHitCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    chunkPrefetchMissCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    chunkPrefetchUnusedCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
+    Arrays.asList(HIT, MISS, UNUSED)
+        .forEach(
+            type ->
+                metricService.remove(
+                    MetricType.COUNTER,
+                    Metric.CHUNK_PREFETCH.toString(),
+                    Tag.TYPE.toString(),
+                    type));
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE_HIT_RATE.toString(),
+        Tag.NAME.toString(),
+        CHUNK_PREFETCH);
+  }
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindBloomFilter(metricService);
@@ -1521,6 +1594,7 @@ public class SeriesScanCostMetricSet implements IMetricSet {
     bindInitChunkReader(metricService);
     bindTsBlockFromPageReader(metricService);
     bindBuildTsBlockFromMergeReader(metricService);
+    bindChunkPrefetch(metricService);
   }
 
   @Override
@@ -1539,6 +1613,7 @@ public class SeriesScanCostMetricSet implements IMetricSet {
     unbindInitChunkReader(metricService);
     unbindTsBlockFromPageReader(metricService);
     unbindBuildTsBlockFromMergeReader(metricService);
+    unbindChunkPrefetch(metricService);
   }
 
   public void recordSeriesScanCost(String type, long cost) {
@@ -297,6 +297,11 @@ public class ClusterPartitionFetcher implements IPartitionFetcher {
     partitionCache.invalidAllCache();
   }
 
+  /** Whether every data region of the cluster has a replica on the given DataNode. */
+  public boolean isEveryDataRegionReplicatedOn(final int dataNodeId) {
+    return partitionCache.isEveryDataRegionReplicatedOn(dataNodeId);
+  }
+
   @Override
   public SchemaPartition getOrCreateSchemaPartition(
       final String database, final List<IDeviceID> deviceIDs, final String userName) {
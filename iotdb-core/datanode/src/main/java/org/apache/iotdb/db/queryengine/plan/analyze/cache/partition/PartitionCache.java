@@ -20,6 +20,8 @@
 package org.apache.iotdb.db.queryengine.plan.analyze.cache.partition;
 
 import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.common.rpc.thrift.TSeriesPartitionSlot;
@@ -610,6 +612,41 @@ public class PartitionCache {
     }
   }
 
+  /**
+   * check whether every data region of the cluster has a replica on the dataNode, according to the
+   * cached regionReplicaSetMap
+   *
+   * @param dataNodeId the id of dataNode
+   * @return {@code false} if any data region has no replica on the dataNode, or no data region is
+   *     cached
+   */
+  public boolean isEveryDataRegionReplicatedOn(int dataNodeId) {
+    regionReplicaSetLock.readLock().lock();
+    try {
+      boolean hasDataRegion = false;
+      for (Map.Entry<TConsensusGroupId, TRegionReplicaSet> entry :
+          groupIdToReplicaSetMap.entrySet()) {
+        if (entry.getKey().getType() != TConsensusGroupType.DataRegion) {
+          continue;
+        }
+        hasDataRegion = true;
+        boolean isReplicated = false;
+        for (TDataNodeLocation dataNodeLocation : entry.getValue().getDataNodeLocations()) {
+          if (dataNodeLocation.getDataNodeId() == dataNodeId) {
+            isReplicated = true;
+            break;
+          }
+        }
+        if (!isReplicated) {
+          return false;
+        }
+      }
+      return hasDataRegion;
+    } finally {
+      regionReplicaSetLock.readLock().unlock();
+    }
+  }
+
   /** invalidate replicaSetCache */
   public void invalidReplicaSetCache() {
     regionReplicaSetLock.writeLock().lock();
@@ -45,4 +45,17 @@ public interface IDualKeyCacheStats {
 
   /** Return entries num of dual key cache */
   long entriesCount();
+
+  /**
+   * Return the count of new entries that have been admitted into the main space because they are
+   * accessed more frequently than the evicted victim. Always 0 unless the policy is W-TinyLFU.
+   */
+  long admissionCount();
+
+  /**
+   * Return the count of new entries that have been evicted when leaving the admission window,
+   * because they are accessed less frequently than the victim of the main space. Always 0 unless
+   * the policy is W-TinyLFU.
+   */
+  long rejectionCount();
 }
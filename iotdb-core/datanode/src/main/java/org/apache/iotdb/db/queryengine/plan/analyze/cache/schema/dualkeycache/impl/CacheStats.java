@@ -36,6 +36,9 @@ class CacheStats implements IDualKeyCacheStats {
   private final AtomicLong requestCount = new AtomicLong(0);
   private final AtomicLong hitCount = new AtomicLong(0);
 
+  private final AtomicLong admissionCount = new AtomicLong(0);
+  private final AtomicLong rejectionCount = new AtomicLong(0);
+
   CacheStats(long memoryCapacity) {
     this.memoryThreshold = (long) (memoryCapacity * MEMORY_THRESHOLD_RATIO);
   }
@@ -69,6 +72,14 @@ class CacheStats implements IDualKeyCacheStats {
     requestCount.getAndAdd(num);
   }
 
+  void recordAdmission() {
+    admissionCount.incrementAndGet();
+  }
+
+  void recordRejection() {
+    rejectionCount.incrementAndGet();
+  }
+
   void increaseEntryCount() {
     entriesCount.incrementAndGet();
   }
@@ -115,10 +126,22 @@ class CacheStats implements IDualKeyCacheStats {
     return entriesCount.get();
   }
 
+  @Override
+  public long admissionCount() {
+    return admissionCount.get();
+  }
+
+  @Override
+  public long rejectionCount() {
+    return rejectionCount.get();
+  }
+
   void reset() {
     resetMemoryUsageAndEntriesCount();
     hitCount.set(0);
     requestCount.set(0);
+    admissionCount.set(0);
+    rejectionCount.set(0);
   }
 
   void resetMemoryUsageAndEntriesCount() {
@@ -44,6 +44,7 @@ public class DualKeyCacheBuilder<FK, SK, V> {
 
   /** Initiate and return a dual key cache instance. */
   public IDualKeyCache<FK, SK, V> build() {
+    CacheStats cacheStats = new CacheStats(memoryCapacity);
     ICacheEntryManager<FK, SK, V, ?> cacheEntryManager = null;
     switch (policy) {
       case LRU:
@@ -52,11 +53,14 @@ public class DualKeyCacheBuilder<FK, SK, V> {
       case FIFO:
         cacheEntryManager = new FIFOCacheEntryManager<>();
         break;
+      case W_TINY_LFU:
+        cacheEntryManager = new WTinyLFUCacheEntryManager<>(cacheStats);
+        break;
     }
     return new DualKeyCacheImpl<>(
         cacheEntryManager,
         new CacheSizeComputerImpl<>(firstKeySizeComputer, secondKeySizeComputer, valueSizeComputer),
-        memoryCapacity);
+        cacheStats);
   }
 
   /** Define the cache eviction policy of dual key cache. */
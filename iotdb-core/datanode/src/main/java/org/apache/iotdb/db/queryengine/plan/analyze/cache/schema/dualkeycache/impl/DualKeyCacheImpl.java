@@ -54,10 +54,10 @@ class DualKeyCacheImpl<FK, SK, V, T extends ICacheEntry<SK, V>>
   DualKeyCacheImpl(
       final ICacheEntryManager<FK, SK, V, T> cacheEntryManager,
       final ICacheSizeComputer<FK, SK, V> sizeComputer,
-      final long memoryCapacity) {
+      final CacheStats cacheStats) {
     this.cacheEntryManager = cacheEntryManager;
     this.sizeComputer = sizeComputer;
-    this.cacheStats = new CacheStats(memoryCapacity);
+    this.cacheStats = cacheStats;
   }
 
   @Override
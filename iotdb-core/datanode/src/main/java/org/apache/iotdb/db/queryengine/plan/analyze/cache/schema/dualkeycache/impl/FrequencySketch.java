@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl;
+
+/**
+ * A count-min sketch with 4-bit counters, which estimates how many times a key has been accessed
+ * recently. All the counters are halved once the recorded accesses reach ten times the width, so
+ * that the keys which are no longer accessed fade out. This class is not thread safe.
+ */
+class FrequencySketch {
+
+  private static final int DEPTH = 4;
+  private static final int MAX_COUNT = 15;
+  // 2 bytes of table per counter column, so a sketch takes at most 8 MB
+  private static final int MAX_WIDTH = 1 << 22;
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  // clears the highest bit of each counter after the table is shifted right by one
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  // each long packs 16 counters, row i takes the counters [i * width, (i + 1) * width)
+  private long[] table;
+  private int width;
+  private int sampleSize;
+  private int additions = 0;
+
+  /** The width is the number of counters of each row, which must be a power of 2 of at least 16 */
+  FrequencySketch(int width) {
+    this.width = width;
+    this.table = new long[DEPTH * width / 16];
+    this.sampleSize = 10 * width;
+  }
+
+  int width() {
+    return width;
+  }
+
+  /**
+   * Widen the rows to the next power of 2 of the expected number of entries, the same as Caffeine
+   * does, so that each counter is not shared by too many keys. The recorded frequencies are dropped
+   * when the table is rebuilt.
+   */
+  void ensureCapacity(int expectedEntries) {
+    int newWidth =
+        Math.min(
+            MAX_WIDTH,
+            Integer.highestOneBit(Math.max(16, Math.min(MAX_WIDTH, expectedEntries) - 1)) << 1);
+    if (newWidth <= width) {
+      return;
+    }
+    width = newWidth;
+    table = new long[DEPTH * width / 16];
+    sampleSize = 10 * width;
+    additions = 0;
+  }
+
+  void increment(int hash) {
+    boolean added = false;
+    for (int i = 0; i < DEPTH; i++) {
+      int counterIndex = counterIndexOf(hash, i);
+      int tableIndex = counterIndex >>> 4;
+      int offset = (counterIndex & 15) << 2;
+      if (((table[tableIndex] >>> offset) & MAX_COUNT) != MAX_COUNT) {
+        table[tableIndex] += 1L << offset;
+        added = true;
+      }
+    }
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  int frequency(int hash) {
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < DEPTH; i++) {
+      int counterIndex = counterIndexOf(hash, i);
+      int count = (int) ((table[counterIndex >>> 4] >>> ((counterIndex & 15) << 2)) & MAX_COUNT);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  private int counterIndexOf(int hash, int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return row * width + ((int) h & (width - 1));
+  }
+
+  private void reset() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions >>>= 1;
+  }
+}
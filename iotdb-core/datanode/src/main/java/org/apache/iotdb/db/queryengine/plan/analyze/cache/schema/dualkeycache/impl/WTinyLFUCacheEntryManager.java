@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl;
+
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * This class implements the cache entry manager with W-TinyLFU policy. A new entry is put into a
+ * small LRU admission window, and the entries overflowing the window move to the main space, which
+ * is a segmented LRU of a probation and a protected part. When an entry has to be evicted, the
+ * latest entry coming from the window competes with the least recently used entry of the probation
+ * part, and the one accessed less frequently according to a {@link FrequencySketch} is evicted.
+ * Thus, a scan over many entries which are accessed only once can't flush the frequently accessed
+ * entries out of the cache.
+ *
+ * <p>The entries are spread over several slots, each of which is a W-TinyLFU with its own sketch
+ * and lock. The first eviction after a put happens in the slot of the put entry, where the new entry
+ * has just arrived. Otherwise, e.g. when an update enlarges the existing values, the victim slot is
+ * picked from a random start, and the protected entries are evicted only if no other slot has an
+ * entry in probation.
+ *
+ * @param <FK> The first key of cache value.
+ * @param <SK> The second key of cache value.
+ * @param <V> The cache value.
+ */
+class WTinyLFUCacheEntryManager<FK, SK, V>
+    implements ICacheEntryManager<FK, SK, V, WTinyLFUCacheEntryManager.WTinyLFUCacheEntry<SK, V>> {
+
+  private static final int SLOT_NUM = 32;
+
+  // the sketch of a slot grows with the number of its entries
+  private static final int INITIAL_SKETCH_WIDTH = 256;
+
+  // the percentage of the entries of a slot held by the admission window
+  private static final int WINDOW_PERCENTAGE = 1;
+
+  // the percentage of the entries of the main space held by the protected part
+  private static final int PROTECTED_PERCENTAGE = 80;
+
+  private final Slot[] slots = new Slot[SLOT_NUM];
+
+  private final Random idxGenerator = new Random();
+
+  @SuppressWarnings("java:S3077")
+  private volatile Slot<SK, V> lastPutSlot;
+
+  private final CacheStats cacheStats;
+
+  WTinyLFUCacheEntryManager(final CacheStats cacheStats) {
+    this.cacheStats = cacheStats;
+  }
+
+  @Override
+  public WTinyLFUCacheEntry<SK, V> createCacheEntry(
+      final SK secondKey,
+      final V value,
+      final ICacheEntryGroup<FK, SK, V, WTinyLFUCacheEntry<SK, V>> cacheEntryGroup) {
+    return new WTinyLFUCacheEntry<>(secondKey, value, cacheEntryGroup);
+  }
+
+  @Override
+  public void access(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+    final Slot<SK, V> slot = cacheEntry.slot;
+    if (slot != null) {
+      slot.access(cacheEntry);
+    }
+  }
+
+  @Override
+  public void put(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+    final Slot<SK, V> slot = getBelongedSlot(cacheEntry);
+    slot.add(cacheEntry);
+    lastPutSlot = slot;
+  }
+
+  @Override
+  public boolean invalidate(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+    final Slot<SK, V> slot = cacheEntry.slot;
+    return slot != null && slot.invalidate(cacheEntry);
+  }
+
+  @Override
+  public WTinyLFUCacheEntry<SK, V> evict() {
+    // only the eviction directly following a put prefers the slot of the put entry
+    final Slot<SK, V> preferredSlot = lastPutSlot;
+    if (preferredSlot != null) {
+      lastPutSlot = null;
+      final WTinyLFUCacheEntry<SK, V> cacheEntry = preferredSlot.evict(cacheStats, false);
+      if (cacheEntry != null) {
+        return cacheEntry;
+      }
+    }
+    final WTinyLFUCacheEntry<SK, V> cacheEntry = evictFromSlots(false);
+    return cacheEntry != null ? cacheEntry : evictFromSlots(true);
+  }
+
+  private WTinyLFUCacheEntry<SK, V> evictFromSlots(final boolean canEvictProtected) {
+    int startIndex = idxGenerator.nextInt(SLOT_NUM);
+    Slot<SK, V> slot;
+    WTinyLFUCacheEntry<SK, V> cacheEntry;
+    for (int i = 0; i < SLOT_NUM; i++) {
+      if (startIndex == SLOT_NUM) {
+        startIndex = 0;
+      }
+      slot = slots[startIndex];
+      if (slot != null) {
+        cacheEntry = slot.evict(cacheStats, canEvictProtected);
+        if (cacheEntry != null) {
+          return cacheEntry;
+        }
+      }
+      startIndex++;
+    }
+    return null;
+  }
+
+  @Override
+  public void cleanUp() {
+    synchronized (slots) {
+      for (int i = 0; i < SLOT_NUM; i++) {
+        slots[i] = null;
+      }
+      lastPutSlot = null;
+    }
+  }
+
+  private Slot<SK, V> getBelongedSlot(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+    final int slotIndex = Math.floorMod(cacheEntry.keyHash, SLOT_NUM);
+    Slot<SK, V> slot = slots[slotIndex];
+    if (slot == null) {
+      synchronized (slots) {
+        slot = slots[slotIndex];
+        if (slot == null) {
+          slot = new Slot<>();
+          slots[slotIndex] = slot;
+        }
+      }
+    }
+    return slot;
+  }
+
+  private enum Segment {
+    WINDOW,
+    PROBATION,
+    PROTECTED
+  }
+
+  static class WTinyLFUCacheEntry<SK, V> implements ICacheEntry<SK, V> {
+
+    private final SK secondKey;
+
+    @SuppressWarnings("java:S3077")
+    private volatile ICacheEntryGroup cacheEntryGroup;
+
+    private V value;
+
+    // computed in advance, since the belonged group is reset when this entry is evicted
+    private final int keyHash;
+
+    // the following fields are guarded by the belonged slot
+    @SuppressWarnings("java:S3077")
+    private volatile Slot<SK, V> slot;
+
+    private Segment segment;
+    // whether this entry has come from the window and not competed for admission yet
+    private boolean isCandidate = false;
+    private WTinyLFUCacheEntry<SK, V> pre;
+    private WTinyLFUCacheEntry<SK, V> next;
+    private boolean isInvalidated = false;
+
+    private WTinyLFUCacheEntry(
+        final SK secondKey, final V value, final ICacheEntryGroup cacheEntryGroup) {
+      this.secondKey = secondKey;
+      this.value = value;
+      this.cacheEntryGroup = cacheEntryGroup;
+      this.keyHash = cacheEntryGroup == null ? 0 : hashCode();
+    }
+
+    @Override
+    public SK getSecondKey() {
+      return secondKey;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public ICacheEntryGroup getBelongedGroup() {
+      return cacheEntryGroup;
+    }
+
+    @Override
+    public void setBelongedGroup(final ICacheEntryGroup belongedGroup) {
+      this.cacheEntryGroup = belongedGroup;
+    }
+
+    @Override
+    public void replaceValue(final V newValue) {
+      this.value = newValue;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final WTinyLFUCacheEntry<?, ?> that = (WTinyLFUCacheEntry<?, ?>) o;
+      return Objects.equals(secondKey, that.secondKey)
+          && Objects.equals(cacheEntryGroup, that.cacheEntryGroup);
+    }
+
+    @Override
+    public int hashCode() {
+      return cacheEntryGroup.hashCode() * 31 + secondKey.hashCode();
+    }
+  }
+
+  private static class Slot<SK, V> {
+
+    private final FrequencySketch sketch = new FrequencySketch(INITIAL_SKETCH_WIDTH);
+
+    private final EntryList<SK, V> window = new EntryList<>();
+    private final EntryList<SK, V> probation = new EntryList<>();
+    private final EntryList<SK, V> protectedList = new EntryList<>();
+
+    synchronized void add(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.slot = this;
+      sketch.increment(cacheEntry.keyHash);
+      cacheEntry.segment = Segment.WINDOW;
+      window.addToHead(cacheEntry);
+      final int total = window.size + probation.size + protectedList.size;
+      if (total > sketch.width()) {
+        sketch.ensureCapacity(total);
+      }
+      while (window.size > Math.max(1, total * WINDOW_PERCENTAGE / 100)) {
+        final WTinyLFUCacheEntry<SK, V> candidate = window.tail();
+        window.remove(candidate);
+        candidate.segment = Segment.PROBATION;
+        candidate.isCandidate = true;
+        probation.addToHead(candidate);
+      }
+    }
+
+    synchronized void access(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      if (cacheEntry.isInvalidated) {
+        // this cache entry has been evicted
+        return;
+      }
+      sketch.increment(cacheEntry.keyHash);
+      switch (cacheEntry.segment) {
+        case WINDOW:
+          window.moveToHead(cacheEntry);
+          break;
+        case PROBATION:
+          probation.remove(cacheEntry);
+          cacheEntry.isCandidate = false;
+          cacheEntry.segment = Segment.PROTECTED;
+          protectedList.addToHead(cacheEntry);
+          // keep the protected part within its share by demoting its LRU entries
+          final int protectedCapacity =
+              (probation.size + protectedList.size) * PROTECTED_PERCENTAGE / 100;
+          while (protectedList.size > Math.max(1, protectedCapacity)) {
+            final WTinyLFUCacheEntry<SK, V> demoted = protectedList.tail();
+            protectedList.remove(demoted);
+            demoted.segment = Segment.PROBATION;
+            probation.addToHead(demoted);
+          }
+          break;
+        case PROTECTED:
+          protectedList.moveToHead(cacheEntry);
+          break;
+        default:
+          break;
+      }
+    }
+
+    synchronized boolean invalidate(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      if (cacheEntry.isInvalidated) {
+        return false;
+      }
+      cacheEntry.isInvalidated = true;
+      listOf(cacheEntry).remove(cacheEntry);
+      return true;
+    }
+
+    synchronized WTinyLFUCacheEntry<SK, V> evict(
+        final CacheStats cacheStats, final boolean canEvictProtected) {
+      final WTinyLFUCacheEntry<SK, V> candidate = probation.head();
+      if (candidate != null && candidate.isCandidate) {
+        candidate.isCandidate = false;
+        WTinyLFUCacheEntry<SK, V> victim = probation.tail();
+        if (victim == candidate) {
+          victim = protectedList.tail();
+        }
+        if (victim != null) {
+          if (sketch.frequency(candidate.keyHash) > sketch.frequency(victim.keyHash)) {
+            cacheStats.recordAdmission();
+            return evict(victim);
+          }
+          cacheStats.recordRejection();
+          return evict(candidate);
+        }
+      }
+      if (probation.tail() != null) {
+        return evict(probation.tail());
+      }
+      if (!canEvictProtected) {
+        return null;
+      }
+      if (protectedList.tail() != null) {
+        return evict(protectedList.tail());
+      }
+      return window.tail() != null ? evict(window.tail()) : null;
+    }
+
+    private WTinyLFUCacheEntry<SK, V> evict(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.isInvalidated = true;
+      listOf(cacheEntry).remove(cacheEntry);
+      return cacheEntry;
+    }
+
+    private EntryList<SK, V> listOf(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      switch (cacheEntry.segment) {
+        case WINDOW:
+          return window;
+        case PROBATION:
+          return probation;
+        default:
+          return protectedList;
+      }
+    }
+  }
+
+  private static class EntryList<SK, V> {
+
+    // head.next is the most recently used entry
+    private final WTinyLFUCacheEntry<SK, V> head = new WTinyLFUCacheEntry<>(null, null, null);
+    private final WTinyLFUCacheEntry<SK, V> tail = new WTinyLFUCacheEntry<>(null, null, null);
+
+    private int size = 0;
+
+    EntryList() {
+      head.next = tail;
+      tail.pre = head;
+    }
+
+    void addToHead(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.next = head.next;
+      cacheEntry.pre = head;
+      head.next.pre = cacheEntry;
+      head.next = cacheEntry;
+      size++;
+    }
+
+    void remove(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      cacheEntry.pre.next = cacheEntry.next;
+      cacheEntry.next.pre = cacheEntry.pre;
+      cacheEntry.next = null;
+      cacheEntry.pre = null;
+      size--;
+    }
+
+    void moveToHead(final WTinyLFUCacheEntry<SK, V> cacheEntry) {
+      remove(cacheEntry);
+      addToHead(cacheEntry);
+    }
+
+    WTinyLFUCacheEntry<SK, V> head() {
+      return head.next == tail ? null : head.next;
+    }
+
+    WTinyLFUCacheEntry<SK, V> tail() {
+      return tail.pre == head ? null : tail.pre;
+    }
+  }
+}
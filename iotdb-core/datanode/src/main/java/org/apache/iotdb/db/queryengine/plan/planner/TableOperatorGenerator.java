@@ -84,6 +84,8 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.ExchangeOperato
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DefaultAggTableScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.InformationSchemaTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.LastQueryAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.MarkDistinctOperator;
@@ -236,6 +238,7 @@ import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.FIELD;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TIME;
 import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getAggregationTypeByFuncName;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getIntermediateType;
 import static org.apache.iotdb.db.queryengine.common.DataNodeEndPoints.isSameNode;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparatorForTable;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.InformationSchemaContentSupplierFactory.getSupplier;
@@ -1442,6 +1445,27 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       joinKeyTypes.add(leftJoinKeyType);
     }
 
+    if (node.isHashJoin()) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashJoinOperator.class.getSimpleName());
+      return new HashJoinOperator(
+          operatorContext,
+          node.getJoinType(),
+          leftChild,
+          leftJoinKeyPositions,
+          leftOutputSymbolIdx,
+          rightChild,
+          rightJoinKeyPositions,
+          rightOutputSymbolIdx,
+          joinKeyTypes,
+          dataTypes);
+    }
+
     if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.INNER) {
       OperatorContext operatorContext =
           context
@@ -1583,6 +1607,25 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         sourceJoinKeyType,
         context.getTypeProvider().getTableModelType(node.getFilteringSourceJoinSymbol()));
 
+    if (node.isHashJoin()) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashSemiJoinOperator.class.getSimpleName());
+      return new HashSemiJoinOperator(
+          operatorContext,
+          leftChild,
+          sourceJoinKeyPosition,
+          sourceOutputSymbolIdx,
+          rightChild,
+          filteringSourceJoinKeyPosition,
+          sourceJoinKeyType,
+          dataTypes);
+    }
+
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -1953,6 +1996,35 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
                 node.getPlanNodeId(),
                 HashAggregationOperator.class.getSimpleName());
 
+    // intermediate result of distinct aggregation can not be merged
+    boolean spillEnabled =
+        IoTDBDescriptor.getInstance().getConfig().isEnableHashAggregationSpill()
+            && node.getAggregations().values().stream()
+                .noneMatch(AggregationNode.Aggregation::isDistinct);
+    if (!spillEnabled) {
+      return new HashAggregationOperator(
+          operatorContext,
+          child,
+          groupByTypes,
+          groupByChannels,
+          aggregatorBuilder.build(),
+          node.getStep(),
+          DEFAULT_GROUP_NUMBER,
+          Long.MAX_VALUE,
+          false,
+          Long.MAX_VALUE);
+    }
+
+    String spillFolderPath =
+        IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
+            + File.separator
+            + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
+            + File.separator
+            + operatorContext.getDriverContext().getPipelineId()
+            + File.separator;
+    context.getDriverContext().setHaveTmpFile(true);
+    context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+
     return new HashAggregationOperator(
         operatorContext,
         child,
@@ -1962,8 +2034,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         node.getStep(),
         DEFAULT_GROUP_NUMBER,
         Long.MAX_VALUE,
-        false,
-        Long.MAX_VALUE);
+        true,
+        IoTDBDescriptor.getInstance().getConfig().getSortBufferSize(),
+        spillFolderPath);
   }
 
   private Comparator<SortKey> genGroupKeyComparator(
@@ -2020,6 +2093,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         accumulator,
         step,
         getTSDataType(typeProvider.getTableModelType(symbol)),
+        getTSDataType(
+            getIntermediateType(
+                functionName, aggregation.getResolvedFunction().getSignature().getArgumentTypes())),
         argumentChannels,
         maskChannel);
   }
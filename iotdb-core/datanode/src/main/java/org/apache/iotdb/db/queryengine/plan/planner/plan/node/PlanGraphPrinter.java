@@ -966,6 +966,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     List<String> boxValue = new ArrayList<>();
     boxValue.add(String.format("Join-%s", node.getPlanNodeId().getId()));
     boxValue.add(String.format("JoinType: %s", node.getJoinType()));
+    if (node.isHashJoin()) {
+      boxValue.add("HashJoin: true");
+    }
     boxValue.add(String.format("JoinCriteria: %s", node.getCriteria()));
     boxValue.add(String.format("LeftOutputSymbols: %s", node.getLeftOutputSymbols()));
     boxValue.add(String.format("RightOutputSymbols: %s", node.getRightOutputSymbols()));
@@ -984,6 +987,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     boxValue.add(String.format("SourceJoinSymbol: %s", node.getSourceJoinSymbol()));
     boxValue.add(
         String.format("FilteringSourceJoinSymbol: %s", node.getFilteringSourceJoinSymbol()));
+    if (node.isHashJoin()) {
+      boxValue.add("HashJoin: true");
+    }
     return render(node, boxValue, context);
   }
 
@@ -582,12 +582,30 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.MIN:
       case SqlConstant.MAX:
       case SqlConstant.MODE:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         if (argumentTypes.size() != 1) {
           throw new SemanticException(
               String.format(
                   "Aggregate functions [%s] should only have one argument", functionName));
         }
         break;
+      case SqlConstant.APPROX_PERCENTILE:
+        if (argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have two arguments", functionName));
+        } else if (!isSupportedMathNumericType(argumentTypes.get(0))) {
+          throw new SemanticException(
+              String.format(
+                  "First argument of Aggregate functions [%s] only supports numeric data types [INT32, INT64, FLOAT, DOUBLE]",
+                  functionName));
+        } else if (!DOUBLE.equals(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Second argument of Aggregate functions [%s] should be a DOUBLE percentage between 0 and 1",
+                  functionName));
+        }
+        break;
       case SqlConstant.COUNT_IF:
         if (argumentTypes.size() != 1 || !isBool(argumentTypes.get(0))) {
           throw new SemanticException(
@@ -641,6 +659,7 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.COUNT:
       case SqlConstant.COUNT_ALL:
       case SqlConstant.COUNT_IF:
+      case SqlConstant.APPROX_COUNT_DISTINCT:
         return INT64;
       case SqlConstant.FIRST_AGGREGATION:
       case SqlConstant.LAST_AGGREGATION:
@@ -661,6 +680,7 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return DOUBLE;
       default:
         // ignore
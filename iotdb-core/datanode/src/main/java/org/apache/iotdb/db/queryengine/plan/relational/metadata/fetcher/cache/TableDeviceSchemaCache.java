@@ -519,6 +519,14 @@ public class TableDeviceSchemaCache {
     return dualKeyCache.stats().requestCount();
   }
 
+  long getAdmissionCount() {
+    return dualKeyCache.stats().admissionCount();
+  }
+
+  long getRejectionCount() {
+    return dualKeyCache.stats().rejectionCount();
+  }
+
   long getMemoryUsage() {
     return dualKeyCache.stats().memoryUsage();
   }
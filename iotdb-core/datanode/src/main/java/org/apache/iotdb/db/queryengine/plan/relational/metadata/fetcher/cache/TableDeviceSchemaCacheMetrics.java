@@ -59,6 +59,24 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         "SchemaCache",
         Tag.TYPE.toString(),
         "all");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        tableDeviceSchemaCache,
+        TableDeviceSchemaCache::getAdmissionCount,
+        Tag.NAME.toString(),
+        "SchemaCache",
+        Tag.TYPE.toString(),
+        "admitted");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        tableDeviceSchemaCache,
+        TableDeviceSchemaCache::getRejectionCount,
+        Tag.NAME.toString(),
+        "SchemaCache",
+        Tag.TYPE.toString(),
+        "rejected");
     metricService.createAutoGauge(
         Metric.MEM.toString(),
         MetricLevel.IMPORTANT,
@@ -96,6 +114,20 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         "SchemaCache",
         Tag.TYPE.toString(),
         "all");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "SchemaCache",
+        Tag.TYPE.toString(),
+        "admitted");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "SchemaCache",
+        Tag.TYPE.toString(),
+        "rejected");
     metricService.remove(
         MetricType.AUTO_GAUGE,
         Metric.MEM.toString(),
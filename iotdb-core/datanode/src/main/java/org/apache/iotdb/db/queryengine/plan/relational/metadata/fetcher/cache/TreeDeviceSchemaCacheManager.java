@@ -166,6 +166,38 @@ public class TreeDeviceSchemaCacheManager {
     return tree;
   }
 
+  /**
+   * Get the cached schemas of all the given measurements of a device not using template.
+   *
+   * @param devicePath should not be measurementPath or AlignedPath
+   * @param measurements the measurements to get
+   * @param isAligned the expected alignment of the device
+   * @return {@code null} if the device or any of the measurements misses the cache, the alignment
+   *     of the device differs, or any of the measurements is a logical view
+   */
+  public MeasurementSchema[] getMeasurementSchemasWithoutTemplate(
+      final PartialPath devicePath, final String[] measurements, final boolean isAligned) {
+    final IDeviceSchema schema = tableDeviceSchemaCache.getDeviceSchema(devicePath.getNodes());
+    if (!(schema instanceof TreeDeviceNormalSchema)
+        || ((TreeDeviceNormalSchema) schema).isAligned() != isAligned) {
+      return null;
+    }
+    final TreeDeviceNormalSchema treeSchema = (TreeDeviceNormalSchema) schema;
+    final MeasurementSchema[] measurementSchemas = new MeasurementSchema[measurements.length];
+    for (int i = 0; i < measurements.length; i++) {
+      final SchemaCacheEntry entry =
+          Objects.nonNull(measurements[i]) ? treeSchema.getSchemaCacheEntry(measurements[i]) : null;
+      if (Objects.isNull(entry) || entry.isLogicalView()) {
+        return null;
+      }
+      measurementSchemas[i] = entry.getSchemaAsMeasurementSchema();
+      if (Objects.isNull(measurementSchemas[i])) {
+        return null;
+      }
+    }
+    return measurementSchemas;
+  }
+
   public List<Integer> computeWithoutTemplate(final ISchemaComputation schemaComputation) {
     final List<Integer> indexOfMissingMeasurements = new ArrayList<>();
     final String[] measurements = schemaComputation.getMeasurements();
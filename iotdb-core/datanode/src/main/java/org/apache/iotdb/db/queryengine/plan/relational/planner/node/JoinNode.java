@@ -56,6 +56,8 @@ public class JoinNode extends TwoChildProcessNode {
   // some filter like 'a.xx_column < b.yy_column'
   private final Optional<Expression> filter;
   private final Optional<Boolean> spillable;
+  // use hash join instead of merge sort join, the children are not sorted on the join keys then
+  private boolean hashJoin = false;
 
   // private final boolean maySkipOutputDuplicates;
   // private final Optional<Symbol> leftHashSymbol;
@@ -158,16 +160,19 @@ public class JoinNode extends TwoChildProcessNode {
   @Override
   public PlanNode replaceChildren(List<PlanNode> newChildren) {
     checkArgument(newChildren.size() == 2, "expected newChildren to contain 2 nodes for JoinNode");
-    return new JoinNode(
-        getPlanNodeId(),
-        joinType,
-        newChildren.get(0),
-        newChildren.get(1),
-        criteria,
-        leftOutputSymbols,
-        rightOutputSymbols,
-        filter,
-        spillable);
+    JoinNode joinNode =
+        new JoinNode(
+            getPlanNodeId(),
+            joinType,
+            newChildren.get(0),
+            newChildren.get(1),
+            criteria,
+            leftOutputSymbols,
+            rightOutputSymbols,
+            filter,
+            spillable);
+    joinNode.setHashJoin(hashJoin);
+    return joinNode;
   }
 
   @Override
@@ -191,6 +196,7 @@ public class JoinNode extends TwoChildProcessNode {
             rightOutputSymbols,
             filter,
             spillable);
+    joinNode.setHashJoin(hashJoin);
     joinNode.setLeftChild(null);
     joinNode.setRightChild(null);
     return joinNode;
@@ -221,6 +227,8 @@ public class JoinNode extends TwoChildProcessNode {
     for (Symbol rightOutputSymbol : rightOutputSymbols) {
       Symbol.serialize(rightOutputSymbol, byteBuffer);
     }
+
+    ReadWriteIOUtils.write(hashJoin, byteBuffer);
   }
 
   @Override
@@ -243,6 +251,8 @@ public class JoinNode extends TwoChildProcessNode {
     for (Symbol rightOutputSymbol : rightOutputSymbols) {
       Symbol.serialize(rightOutputSymbol, stream);
     }
+
+    ReadWriteIOUtils.write(hashJoin, stream);
   }
 
   public static JoinNode deserialize(ByteBuffer byteBuffer) {
@@ -266,8 +276,13 @@ public class JoinNode extends TwoChildProcessNode {
       rightOutputSymbols.add(Symbol.deserialize(byteBuffer));
     }
 
+    boolean hashJoin = ReadWriteIOUtils.readBool(byteBuffer);
+
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
-    return new JoinNode(planNodeId, joinType, criteria, leftOutputSymbols, rightOutputSymbols);
+    JoinNode joinNode =
+        new JoinNode(planNodeId, joinType, criteria, leftOutputSymbols, rightOutputSymbols);
+    joinNode.setHashJoin(hashJoin);
+    return joinNode;
   }
 
   public JoinType getJoinType() {
@@ -294,6 +309,14 @@ public class JoinNode extends TwoChildProcessNode {
     return spillable;
   }
 
+  public boolean isHashJoin() {
+    return hashJoin;
+  }
+
+  public void setHashJoin(boolean hashJoin) {
+    this.hashJoin = hashJoin;
+  }
+
   public boolean isCrossJoin() {
     return criteria.isEmpty() && !filter.isPresent() && joinType == INNER;
   }
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.process.TwoChildPr
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 
 import com.google.common.collect.ImmutableList;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -41,6 +42,8 @@ public class SemiJoinNode extends TwoChildProcessNode {
   private final Symbol sourceJoinSymbol;
   private final Symbol filteringSourceJoinSymbol;
   private final Symbol semiJoinOutput;
+  // use hash semi join instead of merge sort semi join, the children are not sorted then
+  private boolean hashJoin = false;
 
   public SemiJoinNode(
       PlanNodeId id,
@@ -88,6 +91,14 @@ public class SemiJoinNode extends TwoChildProcessNode {
     return semiJoinOutput;
   }
 
+  public boolean isHashJoin() {
+    return hashJoin;
+  }
+
+  public void setHashJoin(boolean hashJoin) {
+    this.hashJoin = hashJoin;
+  }
+
   @Override
   public List<Symbol> getOutputSymbols() {
     return ImmutableList.<Symbol>builder()
@@ -104,20 +115,31 @@ public class SemiJoinNode extends TwoChildProcessNode {
   @Override
   public PlanNode replaceChildren(List<PlanNode> newChildren) {
     checkArgument(newChildren.size() == 2, "expected newChildren to contain 2 nodes");
-    return new SemiJoinNode(
-        getPlanNodeId(),
-        newChildren.get(0),
-        newChildren.get(1),
-        sourceJoinSymbol,
-        filteringSourceJoinSymbol,
-        semiJoinOutput);
+    SemiJoinNode semiJoinNode =
+        new SemiJoinNode(
+            getPlanNodeId(),
+            newChildren.get(0),
+            newChildren.get(1),
+            sourceJoinSymbol,
+            filteringSourceJoinSymbol,
+            semiJoinOutput);
+    semiJoinNode.setHashJoin(hashJoin);
+    return semiJoinNode;
   }
 
   @Override
   public PlanNode clone() {
     // clone without children
-    return new SemiJoinNode(
-        getPlanNodeId(), null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+    SemiJoinNode semiJoinNode =
+        new SemiJoinNode(
+            getPlanNodeId(),
+            null,
+            null,
+            sourceJoinSymbol,
+            filteringSourceJoinSymbol,
+            semiJoinOutput);
+    semiJoinNode.setHashJoin(hashJoin);
+    return semiJoinNode;
   }
 
   @Override
@@ -143,13 +165,14 @@ public class SemiJoinNode extends TwoChildProcessNode {
 
     return Objects.equals(this.sourceJoinSymbol, other.sourceJoinSymbol)
         && Objects.equals(this.filteringSourceJoinSymbol, other.filteringSourceJoinSymbol)
-        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput);
+        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput)
+        && this.hashJoin == other.hashJoin;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        super.hashCode(), sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        super.hashCode(), sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput, hashJoin);
   }
 
   @Override
@@ -159,6 +182,7 @@ public class SemiJoinNode extends TwoChildProcessNode {
     Symbol.serialize(sourceJoinSymbol, byteBuffer);
     Symbol.serialize(filteringSourceJoinSymbol, byteBuffer);
     Symbol.serialize(semiJoinOutput, byteBuffer);
+    ReadWriteIOUtils.write(hashJoin, byteBuffer);
   }
 
   @Override
@@ -168,14 +192,19 @@ public class SemiJoinNode extends TwoChildProcessNode {
     Symbol.serialize(sourceJoinSymbol, stream);
     Symbol.serialize(filteringSourceJoinSymbol, stream);
     Symbol.serialize(semiJoinOutput, stream);
+    ReadWriteIOUtils.write(hashJoin, stream);
   }
 
   public static SemiJoinNode deserialize(ByteBuffer byteBuffer) {
     Symbol sourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol filteringSourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol semiJoinOutput = Symbol.deserialize(byteBuffer);
+    boolean hashJoin = ReadWriteIOUtils.readBool(byteBuffer);
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
-    return new SemiJoinNode(
-        planNodeId, null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+    SemiJoinNode semiJoinNode =
+        new SemiJoinNode(
+            planNodeId, null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+    semiJoinNode.setHashJoin(hashJoin);
+    return semiJoinNode;
   }
 }
@@ -48,6 +48,8 @@ public class DistributedOptimizeFactory {
                     new MergeLimitWithMergeSort(), new MergeLimitOverProjectWithMergeSort())),
             // eliminate unnecessary SortNode
             new SortElimination(),
+            // use hash join if neither child of the join is sorted on the join keys
+            new TransformSortJoinToHashJoin(),
             // other optimize rules
             new IterativeOptimizer(
                 plannerContext,
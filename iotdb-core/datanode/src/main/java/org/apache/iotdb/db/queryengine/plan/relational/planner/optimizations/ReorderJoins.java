@@ -0,0 +1,502 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeDeviceViewScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.BetweenPredicate;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SymbolReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.extractConjuncts;
+
+/**
+ * <b>Optimization phase:</b> Logical plan planning.
+ *
+ * <p>This rule must be applied before PushPredicateIntoTableScan, which adds the sorts on the join
+ * keys under the JoinNodes.
+ *
+ * <p>The inputs of a tree of INNER JoinNodes with equi-join criteria and without filter are joined
+ * in the order with the least total row count of the intermediate results, which is searched by
+ * dynamic programming over the connected subsets of the inputs. Both inputs of a JoinNode are
+ * joined on all the equivalence classes of the join keys they share, and the input with fewer rows
+ * is put on the right, which is the build side of hash join.
+ *
+ * <p>The row count of an input is estimated by {@link TableStatisticsProvider} from the table it
+ * scans and the time range of the time predicates on it. The tree is left unchanged if the row
+ * count of any input is unknown, or there are more than {@link #MAX_REORDERED_INPUTS} inputs.
+ */
+public class ReorderJoins implements PlanOptimizer {
+
+  // the number of the subsets of inputs grows exponentially
+  static final int MAX_REORDERED_INPUTS = 10;
+
+  private final TableStatisticsProvider statisticsProvider;
+
+  public ReorderJoins() {
+    this(new TsFileTableStatisticsProvider());
+  }
+
+  public ReorderJoins(TableStatisticsProvider statisticsProvider) {
+    this.statisticsProvider = statisticsProvider;
+  }
+
+  @Override
+  public PlanNode optimize(PlanNode plan, PlanOptimizer.Context context) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableJoinReorder()) {
+      return plan;
+    }
+
+    return plan.accept(new Rewriter(context.idAllocator()), Collections.emptyList());
+  }
+
+  /** The context is the conjuncts of the predicates above the node. */
+  private class Rewriter extends PlanVisitor<PlanNode, List<Expression>> {
+    private final QueryId queryId;
+
+    Rewriter(QueryId queryId) {
+      this.queryId = queryId;
+    }
+
+    @Override
+    public PlanNode visitPlan(PlanNode node, List<Expression> context) {
+      List<PlanNode> newChildren = new ArrayList<>(node.getChildren().size());
+      for (PlanNode child : node.getChildren()) {
+        newChildren.add(child.accept(this, Collections.emptyList()));
+      }
+      return replaceChildren(node, newChildren);
+    }
+
+    @Override
+    public PlanNode visitFilter(FilterNode node, List<Expression> context) {
+      PlanNode newNode = node.clone();
+      newNode.addChild(
+          node.getChild().accept(this, concat(context, extractConjuncts(node.getPredicate()))));
+      return newNode;
+    }
+
+    @Override
+    public PlanNode visitProject(ProjectNode node, List<Expression> context) {
+      // symbols are unique in the plan, so the predicates still refer to the same values below
+      PlanNode newNode = node.clone();
+      newNode.addChild(node.getChild().accept(this, context));
+      return newNode;
+    }
+
+    @Override
+    public PlanNode visitJoin(JoinNode node, List<Expression> context) {
+      if (!isReorderable(node)) {
+        return visitPlan(node, context);
+      }
+
+      List<PlanNode> sources = new ArrayList<>();
+      List<JoinNode.EquiJoinClause> clauses = new ArrayList<>();
+      flatten(node, sources, clauses);
+
+      Map<PlanNode, PlanNode> rewrittenSources = new IdentityHashMap<>();
+      for (PlanNode source : sources) {
+        rewrittenSources.put(source, source.accept(this, context));
+      }
+
+      JoinGraph joinGraph = JoinGraph.create(sources, clauses);
+      double[] rowCounts = new double[sources.size()];
+      boolean estimated = joinGraph != null && sources.size() <= MAX_REORDERED_INPUTS;
+      for (int i = 0; estimated && i < sources.size(); i++) {
+        OptionalDouble rowCount = estimateRowCount(sources.get(i), context);
+        estimated = rowCount.isPresent();
+        rowCounts[i] = estimated ? Math.max(1, rowCount.getAsDouble()) : 0;
+      }
+      if (!estimated) {
+        return replaceSources(node, rewrittenSources);
+      }
+
+      List<PlanNode> newSources = new ArrayList<>(sources.size());
+      for (PlanNode source : sources) {
+        newSources.add(rewrittenSources.get(source));
+      }
+      PlanNode root = new JoinEnumerator(joinGraph, newSources, rowCounts, queryId).enumerate();
+      if (root == null) {
+        return replaceSources(node, rewrittenSources);
+      }
+      if (!root.getOutputSymbols().equals(node.getOutputSymbols())) {
+        root =
+            new ProjectNode(
+                queryId.genPlanNodeId(), root, Assignments.identity(node.getOutputSymbols()));
+      }
+      return root;
+    }
+
+    /** Rebuilds the join tree in the original order with the rewritten inputs. */
+    private PlanNode replaceSources(PlanNode node, Map<PlanNode, PlanNode> rewrittenSources) {
+      PlanNode rewrittenSource = rewrittenSources.get(node);
+      if (rewrittenSource != null) {
+        return rewrittenSource;
+      }
+      List<PlanNode> newChildren = new ArrayList<>(node.getChildren().size());
+      for (PlanNode child : node.getChildren()) {
+        newChildren.add(replaceSources(child, rewrittenSources));
+      }
+      return replaceChildren(node, newChildren);
+    }
+  }
+
+  private static PlanNode replaceChildren(PlanNode node, List<PlanNode> newChildren) {
+    if (node instanceof JoinNode) {
+      // JoinNode is cloned with its children
+      return node.replaceChildren(newChildren);
+    }
+    PlanNode newNode = node.clone();
+    for (PlanNode child : newChildren) {
+      newNode.addChild(child);
+    }
+    return newNode;
+  }
+
+  private static boolean isReorderable(PlanNode node) {
+    if (!(node instanceof JoinNode)) {
+      return false;
+    }
+    JoinNode joinNode = (JoinNode) node;
+    return joinNode.getJoinType() == JoinNode.JoinType.INNER
+        && !joinNode.getCriteria().isEmpty()
+        && !joinNode.getFilter().isPresent();
+  }
+
+  /** Collects the inputs and the equi-join clauses of the join tree rooted at the node. */
+  private static void flatten(
+      PlanNode node, List<PlanNode> sources, List<JoinNode.EquiJoinClause> clauses) {
+    if (isReorderable(node)) {
+      JoinNode joinNode = (JoinNode) node;
+      clauses.addAll(joinNode.getCriteria());
+      flatten(joinNode.getLeftChild(), sources, clauses);
+      flatten(joinNode.getRightChild(), sources, clauses);
+    } else if (node instanceof ProjectNode
+        && ((ProjectNode) node).getAssignments().isIdentity()
+        && isReorderable(((ProjectNode) node).getChild())) {
+      // the identity projection only prunes the columns, which is done again after reordering
+      flatten(((ProjectNode) node).getChild(), sources, clauses);
+    } else {
+      sources.add(node);
+    }
+  }
+
+  private OptionalDouble estimateRowCount(PlanNode node, List<Expression> predicates) {
+    if (node instanceof FilterNode) {
+      return estimateRowCount(
+          ((FilterNode) node).getChild(),
+          concat(predicates, extractConjuncts(((FilterNode) node).getPredicate())));
+    }
+    if (node instanceof ProjectNode) {
+      return estimateRowCount(((ProjectNode) node).getChild(), predicates);
+    }
+    if (node instanceof DeviceTableScanNode && !(node instanceof TreeDeviceViewScanNode)) {
+      DeviceTableScanNode tableScanNode = (DeviceTableScanNode) node;
+      long[] timeRange = new long[] {Long.MIN_VALUE, Long.MAX_VALUE};
+      Optional<Symbol> timeColumn = tableScanNode.getTimeColumn();
+      if (timeColumn.isPresent()) {
+        for (Expression predicate : predicates) {
+          narrowTimeRange(predicate, timeColumn.get(), timeRange);
+        }
+      }
+      if (timeRange[0] > timeRange[1]) {
+        return OptionalDouble.of(0);
+      }
+      return statisticsProvider.getRowCount(
+          tableScanNode.getQualifiedObjectName(), timeRange[0], timeRange[1]);
+    }
+    return OptionalDouble.empty();
+  }
+
+  /** Narrows the time range [timeRange[0], timeRange[1]] by the predicate on the time column. */
+  private static void narrowTimeRange(Expression predicate, Symbol time, long[] timeRange) {
+    if (predicate instanceof BetweenPredicate) {
+      BetweenPredicate between = (BetweenPredicate) predicate;
+      if (isSymbol(between.getValue(), time)
+          && between.getMin() instanceof LongLiteral
+          && between.getMax() instanceof LongLiteral) {
+        timeRange[0] = Math.max(timeRange[0], ((LongLiteral) between.getMin()).getParsedValue());
+        timeRange[1] = Math.min(timeRange[1], ((LongLiteral) between.getMax()).getParsedValue());
+      }
+      return;
+    }
+    if (!(predicate instanceof ComparisonExpression)) {
+      return;
+    }
+    ComparisonExpression comparison = (ComparisonExpression) predicate;
+    ComparisonExpression.Operator operator;
+    long value;
+    if (isSymbol(comparison.getLeft(), time) && comparison.getRight() instanceof LongLiteral) {
+      operator = comparison.getOperator();
+      value = ((LongLiteral) comparison.getRight()).getParsedValue();
+    } else if (isSymbol(comparison.getRight(), time)
+        && comparison.getLeft() instanceof LongLiteral) {
+      operator = comparison.getOperator().flip();
+      value = ((LongLiteral) comparison.getLeft()).getParsedValue();
+    } else {
+      return;
+    }
+    switch (operator) {
+      case EQUAL:
+        timeRange[0] = Math.max(timeRange[0], value);
+        timeRange[1] = Math.min(timeRange[1], value);
+        break;
+      case LESS_THAN:
+        timeRange[1] = Math.min(timeRange[1], value == Long.MIN_VALUE ? value : value - 1);
+        break;
+      case LESS_THAN_OR_EQUAL:
+        timeRange[1] = Math.min(timeRange[1], value);
+        break;
+      case GREATER_THAN:
+        timeRange[0] = Math.max(timeRange[0], value == Long.MAX_VALUE ? value : value + 1);
+        break;
+      case GREATER_THAN_OR_EQUAL:
+        timeRange[0] = Math.max(timeRange[0], value);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static boolean isSymbol(Expression expression, Symbol symbol) {
+    return expression instanceof SymbolReference
+        && ((SymbolReference) expression).getName().equals(symbol.getName());
+  }
+
+  private static List<Expression> concat(List<Expression> first, List<Expression> second) {
+    if (first.isEmpty()) {
+      return second;
+    }
+    List<Expression> result = new ArrayList<>(first.size() + second.size());
+    result.addAll(first);
+    result.addAll(second);
+    return result;
+  }
+
+  /**
+   * The equivalence classes of the join keys. Each class is joined by equality, and has at most one
+   * symbol from each input.
+   */
+  private static class JoinGraph {
+    private final List<List<Symbol>> classes;
+    // the bitmask of the inputs that each class has symbols from
+    private final int[] classMasks;
+    private final Map<Symbol, Integer> symbolToSource;
+
+    private JoinGraph(
+        List<List<Symbol>> classes, int[] classMasks, Map<Symbol, Integer> symbolToSource) {
+      this.classes = classes;
+      this.classMasks = classMasks;
+      this.symbolToSource = symbolToSource;
+    }
+
+    /** Returns null if the inputs can not be reordered by the equivalence classes. */
+    static JoinGraph create(List<PlanNode> sources, List<JoinNode.EquiJoinClause> clauses) {
+      if (sources.size() > Integer.SIZE - 1) {
+        return null;
+      }
+      Map<Symbol, Integer> symbolToSource = new HashMap<>();
+      for (int i = 0; i < sources.size(); i++) {
+        for (Symbol symbol : sources.get(i).getOutputSymbols()) {
+          symbolToSource.put(symbol, i);
+        }
+      }
+
+      // union-find over the symbols of the clauses, in the order they appear
+      Map<Symbol, Symbol> parents = new LinkedHashMap<>();
+      for (JoinNode.EquiJoinClause clause : clauses) {
+        if (!symbolToSource.containsKey(clause.getLeft())
+            || !symbolToSource.containsKey(clause.getRight())) {
+          return null;
+        }
+        parents.putIfAbsent(clause.getLeft(), clause.getLeft());
+        parents.putIfAbsent(clause.getRight(), clause.getRight());
+        Symbol leftRoot = find(parents, clause.getLeft());
+        Symbol rightRoot = find(parents, clause.getRight());
+        if (!leftRoot.equals(rightRoot)) {
+          parents.put(rightRoot, leftRoot);
+        }
+      }
+
+      Map<Symbol, List<Symbol>> rootToClass = new LinkedHashMap<>();
+      for (Symbol symbol : parents.keySet()) {
+        rootToClass.computeIfAbsent(find(parents, symbol), k -> new ArrayList<>()).add(symbol);
+      }
+      List<List<Symbol>> classes = new ArrayList<>(rootToClass.values());
+      int[] classMasks = new int[classes.size()];
+      for (int i = 0; i < classes.size(); i++) {
+        for (Symbol symbol : classes.get(i)) {
+          int sourceMask = 1 << symbolToSource.get(symbol);
+          if ((classMasks[i] & sourceMask) != 0) {
+            // the equality of the two symbols of the same input can not be kept after reordering
+            return null;
+          }
+          classMasks[i] |= sourceMask;
+        }
+      }
+      return new JoinGraph(classes, classMasks, symbolToSource);
+    }
+
+    private static Symbol find(Map<Symbol, Symbol> parents, Symbol symbol) {
+      Symbol root = symbol;
+      while (!parents.get(root).equals(root)) {
+        root = parents.get(root);
+      }
+      return root;
+    }
+
+    boolean isConnected(int leftMask, int rightMask) {
+      for (int classMask : classMasks) {
+        if ((classMask & leftMask) != 0 && (classMask & rightMask) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    List<JoinNode.EquiJoinClause> getCriteria(int leftMask, int rightMask) {
+      List<JoinNode.EquiJoinClause> criteria = new ArrayList<>();
+      for (int i = 0; i < classes.size(); i++) {
+        if ((classMasks[i] & leftMask) == 0 || (classMasks[i] & rightMask) == 0) {
+          continue;
+        }
+        // the symbols of the class on the same side are already joined by equality
+        criteria.add(
+            new JoinNode.EquiJoinClause(
+                firstSymbolOf(classes.get(i), leftMask), firstSymbolOf(classes.get(i), rightMask)));
+      }
+      return criteria;
+    }
+
+    private Symbol firstSymbolOf(List<Symbol> symbols, int sourceMask) {
+      for (Symbol symbol : symbols) {
+        if ((sourceMask & (1 << symbolToSource.get(symbol))) != 0) {
+          return symbol;
+        }
+      }
+      throw new IllegalStateException("No symbol of the class comes from the inputs");
+    }
+  }
+
+  /**
+   * Searches the join order with the least cost by dynamic programming over the subsets of inputs.
+   * The cost of a join is the costs of its inputs plus their row counts, and its row count is the
+   * larger one of its inputs, as the inputs are mostly joined on time or tags.
+   */
+  private static class JoinEnumerator {
+    private final JoinGraph joinGraph;
+    private final List<PlanNode> sources;
+    private final QueryId queryId;
+
+    private final double[] rowCounts;
+    private final double[] costs;
+    // the subset of the inputs of the left child of the best join of each subset
+    private final int[] bestSplits;
+
+    JoinEnumerator(
+        JoinGraph joinGraph, List<PlanNode> sources, double[] sourceRowCounts, QueryId queryId) {
+      this.joinGraph = joinGraph;
+      this.sources = sources;
+      this.queryId = queryId;
+      int subsetCount = 1 << sources.size();
+      this.rowCounts = new double[subsetCount];
+      this.costs = new double[subsetCount];
+      this.bestSplits = new int[subsetCount];
+      for (int i = 0; i < sources.size(); i++) {
+        rowCounts[1 << i] = sourceRowCounts[i];
+      }
+    }
+
+    /** Returns null if the inputs are not connected by the join criteria. */
+    PlanNode enumerate() {
+      int fullMask = (1 << sources.size()) - 1;
+      for (int mask = 1; mask <= fullMask; mask++) {
+        int lowestBit = mask & -mask;
+        if (mask == lowestBit) {
+          continue;
+        }
+        rowCounts[mask] = Math.max(rowCounts[lowestBit], rowCounts[mask ^ lowestBit]);
+        costs[mask] = Double.POSITIVE_INFINITY;
+        // each split is visited once by keeping the lowest input on the left
+        for (int left = (mask - 1) & mask; left > 0; left = (left - 1) & mask) {
+          int right = mask ^ left;
+          if ((left & lowestBit) == 0
+              || Double.isInfinite(costs[left])
+              || Double.isInfinite(costs[right])
+              || !joinGraph.isConnected(left, right)) {
+            continue;
+          }
+          double cost = costs[left] + costs[right] + rowCounts[left] + rowCounts[right];
+          if (cost < costs[mask]) {
+            costs[mask] = cost;
+            bestSplits[mask] = left;
+          }
+        }
+      }
+      return Double.isInfinite(costs[fullMask]) ? null : build(fullMask);
+    }
+
+    private PlanNode build(int mask) {
+      if (Integer.bitCount(mask) == 1) {
+        return sources.get(Integer.numberOfTrailingZeros(mask));
+      }
+      int leftMask = bestSplits[mask];
+      int rightMask = mask ^ leftMask;
+      if (rowCounts[rightMask] > rowCounts[leftMask]) {
+        // the right child is the build side of hash join
+        int temp = leftMask;
+        leftMask = rightMask;
+        rightMask = temp;
+      }
+      PlanNode left = build(leftMask);
+      PlanNode right = build(rightMask);
+      return new JoinNode(
+          queryId.genPlanNodeId(),
+          JoinNode.JoinType.INNER,
+          left,
+          right,
+          joinGraph.getCriteria(leftMask, rightMask),
+          left.getOutputSymbols(),
+          right.getOutputSymbols(),
+          Optional.empty(),
+          Optional.empty());
+    }
+  }
+}
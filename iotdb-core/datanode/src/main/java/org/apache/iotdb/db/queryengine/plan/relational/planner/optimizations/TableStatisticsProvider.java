@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
+
+import java.util.OptionalDouble;
+
+/** Provides the statistics of tables used by the cost based optimizations. */
+public interface TableStatisticsProvider {
+
+  /**
+   * Estimates the number of rows of the table whose time is in [startTime, endTime].
+   *
+   * @return the estimated row count, or empty if the table can not be estimated
+   */
+  OptionalDouble getRowCount(QualifiedObjectName table, long startTime, long endTime);
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.CollectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.MergeSortNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SemiJoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * <b>Optimization phase:</b> Distributed plan planning.
+ *
+ * <p>The children of JoinNode and SemiJoinNode are sorted on the join keys for merge sort join. If
+ * the sort of neither child is eliminated, i.e. neither child is already sorted on the join keys,
+ * this rule removes the sorts and lets the join be executed as a hash join.
+ * <li>SortNode on the join keys is replaced by its child.
+ * <li>MergeSortNode on the join keys whose children are all SortNodes is replaced by CollectNode of
+ *     the children of the SortNodes.
+ */
+public class TransformSortJoinToHashJoin implements PlanOptimizer {
+
+  @Override
+  public PlanNode optimize(PlanNode plan, PlanOptimizer.Context context) {
+    if (!IoTDBDescriptor.getInstance().getConfig().isEnableHashJoin()) {
+      return plan;
+    }
+
+    return plan.accept(new Rewriter(context.idAllocator()), null);
+  }
+
+  private static class Rewriter extends PlanVisitor<PlanNode, Void> {
+    private final QueryId queryId;
+
+    Rewriter(QueryId queryId) {
+      this.queryId = queryId;
+    }
+
+    @Override
+    public PlanNode visitPlan(PlanNode node, Void context) {
+      PlanNode newNode = node.clone();
+      for (PlanNode child : node.getChildren()) {
+        newNode.addChild(child.accept(this, context));
+      }
+      return newNode;
+    }
+
+    @Override
+    public PlanNode visitJoin(JoinNode node, Void context) {
+      PlanNode leftChild = node.getLeftChild().accept(this, context);
+      PlanNode rightChild = node.getRightChild().accept(this, context);
+      if (!node.isCrossJoin()) {
+        List<Symbol> leftJoinKeys =
+            node.getCriteria().stream()
+                .map(JoinNode.EquiJoinClause::getLeft)
+                .collect(Collectors.toList());
+        List<Symbol> rightJoinKeys =
+            node.getCriteria().stream()
+                .map(JoinNode.EquiJoinClause::getRight)
+                .collect(Collectors.toList());
+        if (needSort(leftChild, leftJoinKeys) && needSort(rightChild, rightJoinKeys)) {
+          leftChild = removeSort(leftChild);
+          rightChild = removeSort(rightChild);
+          JoinNode joinNode = (JoinNode) node.replaceChildren(newChildren(leftChild, rightChild));
+          joinNode.setHashJoin(true);
+          return joinNode;
+        }
+      }
+      return node.replaceChildren(newChildren(leftChild, rightChild));
+    }
+
+    @Override
+    public PlanNode visitSemiJoin(SemiJoinNode node, Void context) {
+      PlanNode source = node.getSource().accept(this, context);
+      PlanNode filteringSource = node.getFilteringSource().accept(this, context);
+      if (needSort(source, Collections.singletonList(node.getSourceJoinSymbol()))
+          && needSort(
+              filteringSource, Collections.singletonList(node.getFilteringSourceJoinSymbol()))) {
+        source = removeSort(source);
+        filteringSource = removeSort(filteringSource);
+        SemiJoinNode semiJoinNode =
+            (SemiJoinNode) node.replaceChildren(newChildren(source, filteringSource));
+        semiJoinNode.setHashJoin(true);
+        return semiJoinNode;
+      }
+      return node.replaceChildren(newChildren(source, filteringSource));
+    }
+
+    private PlanNode removeSort(PlanNode node) {
+      if (node instanceof SortNode) {
+        return ((SortNode) node).getChild();
+      }
+      List<PlanNode> children = new ArrayList<>(node.getChildren().size());
+      for (PlanNode child : node.getChildren()) {
+        children.add(((SortNode) child).getChild());
+      }
+      return new CollectNode(queryId.genPlanNodeId(), children, node.getOutputSymbols());
+    }
+
+    private static List<PlanNode> newChildren(PlanNode leftChild, PlanNode rightChild) {
+      List<PlanNode> children = new ArrayList<>(2);
+      children.add(leftChild);
+      children.add(rightChild);
+      return children;
+    }
+  }
+
+  /** Whether the node is a sort on the join keys which is not eliminated. */
+  private static boolean needSort(PlanNode node, List<Symbol> joinKeys) {
+    if (node instanceof SortNode) {
+      return ((SortNode) node).getOrderingScheme().getOrderBy().equals(joinKeys);
+    }
+    if (node instanceof MergeSortNode
+        && ((MergeSortNode) node).getOrderingScheme().getOrderBy().equals(joinKeys)) {
+      for (PlanNode child : node.getChildren()) {
+        if (!(child instanceof SortNode)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.commons.schema.table.TsTable;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnSchema;
+import org.apache.iotdb.commons.utils.PathUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+
+/**
+ * Estimates the row count of a table from the TsFiles and memtables of the local data regions of
+ * its database. The data regions on other DataNodes are not visible, so no estimation is given
+ * unless every data region of the cluster has a replica on this DataNode. Otherwise a table whose
+ * data is mostly remote would look smaller than it is, and be put on the build side.
+ *
+ * <p>The size of a TsFile is evenly shared by the devices in it. The shares of the devices of a
+ * table are summed up together with the time range they cover, and scaled by the ratio of that time
+ * range overlapping the queried time range. The sum is divided by the estimated size of a row. For
+ * an unsealed TsFile, the rows of the devices of the table in its working and flushing memtables
+ * are added as they are. Only the relative row counts of the inputs of a query matter, so the
+ * estimation does not read any chunk metadata.
+ *
+ * <p>If the devices of any TsFile in the queried time range are unknown, because its time index is
+ * degraded to a FileTimeIndex, no estimation is given and the inputs of the query are not
+ * reordered.
+ *
+ * <p>The shares of sealed TsFiles are cached, because a sealed TsFile never changes. A compaction
+ * or a deletion of TsFiles creates new resources or marks the old ones deleted, and the entries of
+ * the resources no longer referenced are collected with them.
+ */
+public class TsFileTableStatisticsProvider implements TableStatisticsProvider {
+
+  // estimated size of an encoded and compressed value in TsFile
+  private static final int ESTIMATED_BYTES_PER_VALUE = 8;
+
+  private static final Cache<TsFileResource, Map<String, TableShare>> SEALED_FILE_SHARES =
+      Caffeine.newBuilder().weakKeys().maximumSize(100_000).build();
+
+  @Override
+  public OptionalDouble getRowCount(QualifiedObjectName table, long startTime, long endTime) {
+    String database = PathUtils.unQualifyDatabaseName(table.getDatabaseName());
+    TsTable tsTable = DataNodeTableCache.getInstance().getTable(database, table.getObjectName());
+    if (tsTable == null) {
+      return OptionalDouble.empty();
+    }
+
+    if (!ClusterPartitionFetcher.getInstance()
+        .isEveryDataRegionReplicatedOn(IoTDBDescriptor.getInstance().getConfig().getDataNodeId())) {
+      // only a part of the table is visible
+      return OptionalDouble.empty();
+    }
+
+    boolean hasLocalRegion = false;
+    double bytes = 0;
+    long memTableRows = 0;
+    for (DataRegion dataRegion : StorageEngine.getInstance().getAllDataRegions()) {
+      if (!database.equals(PathUtils.unQualifyDatabaseName(dataRegion.getDatabaseName()))) {
+        continue;
+      }
+      hasLocalRegion = true;
+      TsFileManager tsFileManager = dataRegion.getTsFileManager();
+      for (boolean sequence : new boolean[] {true, false}) {
+        for (TsFileResource resource : tsFileManager.getTsFileList(sequence, startTime, endTime)) {
+          OptionalDouble fileBytes =
+              estimateBytes(resource, table.getObjectName(), startTime, endTime);
+          if (!fileBytes.isPresent()) {
+            // the share of the table is unknown, leave the order of the inputs unchanged
+            return OptionalDouble.empty();
+          }
+          bytes += fileBytes.getAsDouble();
+          memTableRows += countMemTableRows(resource, table.getObjectName());
+        }
+      }
+    }
+    if (!hasLocalRegion) {
+      return OptionalDouble.empty();
+    }
+
+    int valueCountPerRow = 1;
+    for (TsTableColumnSchema columnSchema : tsTable.getColumnList()) {
+      if (columnSchema.getColumnCategory() == TsTableColumnCategory.FIELD) {
+        valueCountPerRow++;
+      }
+    }
+    return OptionalDouble.of(
+        bytes / ((double) ESTIMATED_BYTES_PER_VALUE * valueCountPerRow) + memTableRows);
+  }
+
+  /**
+   * @return empty if the devices of the TsFile are unknown
+   */
+  private static OptionalDouble estimateBytes(
+      TsFileResource resource, String tableName, long startTime, long endTime) {
+    if (resource.isDeleted()) {
+      return OptionalDouble.of(0);
+    }
+    Map<String, TableShare> shares;
+    if (resource.isClosed()) {
+      shares = SEALED_FILE_SHARES.get(resource, TsFileTableStatisticsProvider::computeShares);
+    } else {
+      shares = computeShares(resource);
+    }
+    if (shares == null) {
+      return OptionalDouble.empty();
+    }
+    TableShare share = shares.get(tableName);
+    return OptionalDouble.of(
+        share == null ? 0 : share.bytes * share.overlapRatio(startTime, endTime));
+  }
+
+  /**
+   * @return null if the devices of the TsFile are unknown, which is not cached
+   */
+  private static Map<String, TableShare> computeShares(TsFileResource resource) {
+    // the devices of a degraded FileTimeIndex can only be got by reading the resource file
+    if (resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE) {
+      return null;
+    }
+    Set<IDeviceID> devices = resource.getDevices();
+    if (devices.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    double bytesPerDevice = (double) resource.getTsFileSize() / devices.size();
+    Map<String, TableShare> shares = new HashMap<>();
+    for (IDeviceID device : devices) {
+      long deviceStartTime = resource.getStartTime(device).orElse(Long.MIN_VALUE);
+      long deviceEndTime = resource.getEndTime(device).orElse(Long.MAX_VALUE);
+      shares
+          .computeIfAbsent(device.getTableName(), k -> new TableShare())
+          .add(bytesPerDevice, deviceStartTime, deviceEndTime);
+    }
+    return shares;
+  }
+
+  /**
+   * Counts the rows of the devices of the table in the memtables of an unsealed TsFile. The devices
+   * of a table are aligned, so the count of a device is its row count.
+   */
+  private static long countMemTableRows(TsFileResource resource, String tableName) {
+    if (resource.isClosed() || resource.isDeleted()) {
+      return 0;
+    }
+    TsFileProcessor processor = resource.getProcessor();
+    if (processor == null) {
+      return 0;
+    }
+    List<IMemTable> memTables = new ArrayList<>(processor.getFlushingMemTable());
+    IMemTable workMemTable = processor.getWorkMemTable();
+    if (workMemTable != null) {
+      memTables.add(workMemTable);
+    }
+    long rows = 0;
+    for (IDeviceID device : resource.getDevices()) {
+      if (!tableName.equals(device.getTableName())) {
+        continue;
+      }
+      for (IMemTable memTable : memTables) {
+        IWritableMemChunkGroup memChunkGroup = memTable.getMemTableMap().get(device);
+        if (memChunkGroup != null) {
+          rows += memChunkGroup.count();
+        }
+      }
+    }
+    return rows;
+  }
+
+  /** The bytes of the devices of a table in a TsFile and the time range they cover. */
+  private static class TableShare {
+
+    private double bytes = 0;
+    private long startTime = Long.MAX_VALUE;
+    private long endTime = Long.MIN_VALUE;
+    // the end time of the devices in an unsealed TsFile may be not updated yet
+    private boolean unknownTimeRange = false;
+
+    private void add(double deviceBytes, long deviceStartTime, long deviceEndTime) {
+      bytes += deviceBytes;
+      if (deviceEndTime < deviceStartTime) {
+        unknownTimeRange = true;
+        return;
+      }
+      startTime = Math.min(startTime, deviceStartTime);
+      endTime = Math.max(endTime, deviceEndTime);
+    }
+
+    private double overlapRatio(long queryStartTime, long queryEndTime) {
+      if (unknownTimeRange || endTime < startTime) {
+        return 1;
+      }
+      long overlapStartTime = Math.max(startTime, queryStartTime);
+      long overlapEndTime = Math.min(endTime, queryEndTime);
+      if (overlapEndTime < overlapStartTime) {
+        return 0;
+      }
+      return ((double) overlapEndTime - overlapStartTime + 1) / ((double) endTime - startTime + 1);
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransform
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeEnum;
 
 public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTransformer {
   protected ArithmeticBinaryColumnTransformer(
@@ -34,6 +35,10 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
+    if (returnType.getTypeEnum() == TypeEnum.DOUBLE
+        && transformByKernel(leftColumn, rightColumn, builder, positionCount, null)) {
+      return;
+    }
     for (int i = 0; i < positionCount; i++) {
       if (!leftColumn.isNull(i) && !rightColumn.isNull(i)) {
         returnType.writeDouble(
@@ -54,6 +59,10 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
       ColumnBuilder builder,
       int positionCount,
       boolean[] selection) {
+    if (returnType.getTypeEnum() == TypeEnum.DOUBLE
+        && transformByKernel(leftColumn, rightColumn, builder, positionCount, selection)) {
+      return;
+    }
     for (int i = 0; i < positionCount; i++) {
       if (selection[i] && !leftColumn.isNull(i) && !rightColumn.isNull(i)) {
         returnType.writeDouble(
@@ -75,4 +84,17 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
   }
 
   protected abstract double transform(double d1, double d2);
+
+  /**
+   * Transform by the kernel specialized for the input types, which gives the same result as {@link
+   * #transform(double, double)} without converting every value through {@link Type}.
+   *
+   * @return false if there is no kernel for the input types
+   */
+  protected abstract boolean transformByKernel(
+      Column leftColumn,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection);
 }
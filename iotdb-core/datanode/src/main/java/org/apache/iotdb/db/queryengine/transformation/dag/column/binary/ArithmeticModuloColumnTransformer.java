@@ -21,6 +21,8 @@ package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
 
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.read.common.type.Type;
 
 public class ArithmeticModuloColumnTransformer extends ArithmeticBinaryColumnTransformer {
@@ -33,4 +35,21 @@ public class ArithmeticModuloColumnTransformer extends ArithmeticBinaryColumnTra
   protected double transform(double d1, double d2) {
     return d1 % d2;
   }
+
+  @Override
+  protected boolean transformByKernel(
+      Column leftColumn,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection) {
+    return ArithmeticModulusColumnKernel.transform(
+        leftTransformer.getType(),
+        leftColumn,
+        rightTransformer.getType(),
+        rightColumn,
+        builder,
+        positionCount,
+        selection);
+  }
 }
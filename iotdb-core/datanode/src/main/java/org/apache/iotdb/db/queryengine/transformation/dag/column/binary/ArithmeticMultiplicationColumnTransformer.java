@@ -21,6 +21,8 @@ package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
 
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.read.common.type.Type;
 
 public class ArithmeticMultiplicationColumnTransformer extends ArithmeticBinaryColumnTransformer {
@@ -34,4 +36,21 @@ public class ArithmeticMultiplicationColumnTransformer extends ArithmeticBinaryC
   protected double transform(double d1, double d2) {
     return d1 * d2;
   }
+
+  @Override
+  protected boolean transformByKernel(
+      Column leftColumn,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection) {
+    return ArithmeticMultiplicationColumnKernel.transform(
+        leftTransformer.getType(),
+        leftColumn,
+        rightTransformer.getType(),
+        rightColumn,
+        builder,
+        positionCount,
+        selection);
+  }
 }
@@ -49,6 +49,9 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
       builder.appendNull(positionCount);
       return;
     }
+    if (transformByKernel(leftColumn, rightColumn, builder, positionCount, null)) {
+      return;
+    }
     for (int i = 0; i < positionCount; i++) {
       if (!leftColumn.isNull(i) && !rightColumn.isNull(i)) {
         evaluateAndTransform(leftColumn, rightColumn, i, builder);
@@ -72,6 +75,9 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
       builder.appendNull(positionCount);
       return;
     }
+    if (transformByKernel(leftColumn, rightColumn, builder, positionCount, selection)) {
+      return;
+    }
     for (int i = 0; i < positionCount; i++) {
       if (selection[i] && !leftColumn.isNull(i) && !rightColumn.isNull(i)) {
         evaluateAndTransform(leftColumn, rightColumn, i, builder);
@@ -124,4 +130,17 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
    * @return result boolean value
    */
   protected abstract boolean transform(int flag);
+
+  /**
+   * Transform numeric inputs by the kernel specialized for their types, integers are compared
+   * without being converted to double.
+   *
+   * @return false if there is no kernel for the input types
+   */
+  protected abstract boolean transformByKernel(
+      Column leftColumn,
+      Column rightColumn,
+      ColumnBuilder builder,
+      int positionCount,
+      boolean[] selection);
 }
@@ -106,6 +106,28 @@ public abstract class ResourceByPathUtils {
       QueryContext context,
       long timeLowerBound);
 
+  /**
+   * Check whether the mem chunk may contain any point visible to the query, using the time range of
+   * the whole chunk. The TVLists out of the global time filter are already skipped when preparing
+   * them for the query, so this check adds the TTL lower bound and skips building the deletion
+   * lists of a chunk that returns no point.
+   *
+   * @param memChunk writable memchunk
+   * @param timeLowerBound time lower bound of the query
+   * @param globalTimeFilter global time filter
+   * @return false if no point of the mem chunk can be selected
+   */
+  protected boolean isMemChunkTimeRangeSatisfied(
+      IWritableMemChunk memChunk, long timeLowerBound, Filter globalTimeFilter) {
+    long maxTime = memChunk.getMaxTime();
+    if (maxTime < timeLowerBound) {
+      return false;
+    }
+    // should copy globalTimeFilter because GroupByMonthFilter is stateful
+    return globalTimeFilter == null
+        || globalTimeFilter.copy().satisfyStartEndTime(memChunk.getMinTime(), maxTime);
+  }
+
   /**
    * Prepare the TVList references for the query. We remember TVLists' row count here and determine
    * whether the TVLists needs sorting later during operator execution based on it. It need not
@@ -330,6 +352,9 @@ class AlignedResourceByPathUtils extends ResourceByPathUtils {
         return null;
       }
     }
+    if (!isMemChunkTimeRangeSatisfied(alignedMemChunk, timeLowerBound, globalTimeFilter)) {
+      return null;
+    }
 
     // prepare AlignedTVList for query. It should clone TVList if necessary.
     Map<TVList, Integer> alignedTvListQueryMap =
@@ -365,7 +390,8 @@ class AlignedResourceByPathUtils extends ResourceByPathUtils {
         getMeasurementSchema(),
         alignedTvListQueryMap,
         timeColumnDeletion,
-        valueColumnsDeletionList);
+        valueColumnsDeletionList,
+        globalTimeFilter);
   }
 
   public VectorMeasurementSchema getMeasurementSchema() {
@@ -514,6 +540,9 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
     }
     IWritableMemChunk memChunk =
         memTableMap.get(deviceID).getMemChunkMap().get(fullPath.getMeasurement());
+    if (!isMemChunkTimeRangeSatisfied(memChunk, timeLowerBound, globalTimeFilter)) {
+      return null;
+    }
     // prepare TVList for query. It should clone TVList if necessary.
     Map<TVList, Integer> tvListQueryMap =
         prepareTvListMapForQuery(context, memChunk, modsToMemtable == null, globalTimeFilter);
@@ -534,7 +563,8 @@ class MeasurementResourceByPathUtils extends ResourceByPathUtils {
         fullPath.getMeasurementSchema().getEncodingType(),
         tvListQueryMap,
         fullPath.getMeasurementSchema().getProps(),
-        deletionList);
+        deletionList,
+        globalTimeFilter);
   }
 
   @Override
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
@@ -76,6 +77,10 @@ public class CompactionMetrics implements IMetricSet {
   private final Map<String, Counter[]> readCounters = new ConcurrentHashMap<>();
 
   private CompactionMetrics() {
+    for (InnerSequenceCompactionSelector selector : InnerSequenceCompactionSelector.values()) {
+      innerSeqCompactionRewrittenBytesCounters.put(
+          selector, DoNothingMetricManager.DO_NOTHING_COUNTER);
+    }
     for (String type : TYPES) {
       readCounters.put(
           type,
@@ -295,6 +300,63 @@ public class CompactionMetrics implements IMetricSet {
 
   // endregion
 
+  // region inner sequence compaction write amplification
+  private static final String INNER_SEQ_COMPACTION_REWRITTEN_BYTES =
+      "inner_seq_compaction_rewritten_bytes";
+  private static final String SEALED_SEQ_FILE_BYTES = "sealed_seq_file_bytes";
+
+  // selector -> size of the source files of the finished inner seq compaction tasks
+  private final Map<InnerSequenceCompactionSelector, Counter>
+      innerSeqCompactionRewrittenBytesCounters = new ConcurrentHashMap<>();
+  private Counter sealedSeqFileBytesCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
+  private void bindWriteAmplificationInfo(AbstractMetricService metricService) {
+    for (InnerSequenceCompactionSelector selector : InnerSequenceCompactionSelector.values()) {
+      innerSeqCompactionRewrittenBytesCounters.put(
+          selector,
+          metricService.getOrCreateCounter(
+              INNER_SEQ_COMPACTION_REWRITTEN_BYTES,
+              MetricLevel.NORMAL,
+              Tag.NAME.toString(),
+              selector.toString().toLowerCase()));
+    }
+    sealedSeqFileBytesCounter =
+        metricService.getOrCreateCounter(
+            SEALED_SEQ_FILE_BYTES, MetricLevel.NORMAL, Tag.NAME.toString(), "compaction");
+  }
+
+  private void unbindWriteAmplificationInfo(AbstractMetricService metricService) {
+    for (InnerSequenceCompactionSelector selector : InnerSequenceCompactionSelector.values()) {
+      innerSeqCompactionRewrittenBytesCounters.put(
+          selector, DoNothingMetricManager.DO_NOTHING_COUNTER);
+      metricService.remove(
+          MetricType.COUNTER,
+          INNER_SEQ_COMPACTION_REWRITTEN_BYTES,
+          Tag.NAME.toString(),
+          selector.toString().toLowerCase());
+    }
+    sealedSeqFileBytesCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    metricService.remove(
+        MetricType.COUNTER, SEALED_SEQ_FILE_BYTES, Tag.NAME.toString(), "compaction");
+  }
+
+  /**
+   * Record the source files of a finished inner sequence compaction task. Divided by the sealed
+   * sequence file bytes, it is the write amplification of inner sequence compaction with the
+   * selector.
+   */
+  public void recordInnerSeqCompactionRewrittenBytes(
+      InnerSequenceCompactionSelector selector, long byteNum) {
+    innerSeqCompactionRewrittenBytesCounters.get(selector).inc(byteNum);
+  }
+
+  /** Record a sequence file sealed by flushing, which is the data ingested into sequence space. */
+  public void recordSealedSeqFileBytes(long byteNum) {
+    sealedSeqFileBytesCounter.inc(byteNum);
+  }
+
+  // endregion
+
   // region task info
   private Timer seqCompactionCostTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer unSeqCompactionCostTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
@@ -968,6 +1030,7 @@ public class CompactionMetrics implements IMetricSet {
     bindWriteInfo(metricService);
     bindReadInfo(metricService);
     bindPerformanceInfo(metricService);
+    bindWriteAmplificationInfo(metricService);
     bindCompactionTaskMemory(metricService);
     bindCompactionTaskSelection(metricService);
   }
@@ -978,6 +1041,7 @@ public class CompactionMetrics implements IMetricSet {
     unbindWriteInfo(metricService);
     unbindReadInfo(metricService);
     unbindPerformanceInfo(metricService);
+    unbindWriteAmplificationInfo(metricService);
     unbindCompactionTaskMemory(metricService);
     unbindCompactionTaskSelection(metricService);
   }
@@ -29,23 +29,31 @@ import org.apache.iotdb.metrics.metricsets.IMetricSet;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
-import java.util.Collections;
+import java.util.Arrays;
 
 public class OffHeapMemoryMetrics implements IMetricSet {
   private static final DataNodeMemoryConfig memoryConfig =
       IoTDBDescriptor.getInstance().getMemoryConfig();
 
   private static final String DIRECT_BUFFER = "DirectBuffer";
+  private static final String OFF_HEAP_MEMTABLE = "OffHeapMemtable";
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
+    bindMemoryManager(metricService, DIRECT_BUFFER, memoryConfig.getDirectBufferMemoryManager());
+    bindMemoryManager(
+        metricService, OFF_HEAP_MEMTABLE, memoryConfig.getOffHeapMemtableMemoryManager());
+  }
+
+  private void bindMemoryManager(
+      AbstractMetricService metricService, String name, MemoryManager memoryManager) {
     metricService.createAutoGauge(
         Metric.MEMORY_THRESHOLD_SIZE.toString(),
         MetricLevel.IMPORTANT,
-        memoryConfig.getDirectBufferMemoryManager(),
+        memoryManager,
         MemoryManager::getTotalMemorySizeInBytes,
         Tag.NAME.toString(),
-        DIRECT_BUFFER,
+        name,
         Tag.TYPE.toString(),
         GlobalMemoryMetrics.OFF_HEAP,
         Tag.LEVEL.toString(),
@@ -53,10 +61,10 @@ public class OffHeapMemoryMetrics implements IMetricSet {
     metricService.createAutoGauge(
         Metric.MEMORY_ACTUAL_SIZE.toString(),
         MetricLevel.IMPORTANT,
-        memoryConfig.getDirectBufferMemoryManager(),
+        memoryManager,
         MemoryManager::getUsedMemorySizeInBytes,
         Tag.NAME.toString(),
-        DIRECT_BUFFER,
+        name,
         Tag.TYPE.toString(),
         GlobalMemoryMetrics.OFF_HEAP,
         Tag.LEVEL.toString(),
@@ -65,7 +73,7 @@ public class OffHeapMemoryMetrics implements IMetricSet {
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
-    Collections.singletonList(DIRECT_BUFFER)
+    Arrays.asList(DIRECT_BUFFER, OFF_HEAP_MEMTABLE)
         .forEach(
             name -> {
               metricService.remove(
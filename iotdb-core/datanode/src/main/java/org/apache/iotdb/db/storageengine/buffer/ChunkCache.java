@@ -183,6 +183,21 @@ public class ChunkCache {
     }
   }
 
+  /**
+   * Load the chunk into the cache if it is absent, used by {@link ChunkPrefetcher}. If the chunk is
+   * being loaded by another thread, wait for it.
+   */
+  void prefetch(ChunkCacheKey chunkCacheKey, LongConsumer ioSizeRecorder) throws IOException {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    try {
+      lruCache.get(chunkCacheKey, new ChunkLoader(ioSizeRecorder));
+    } catch (IoTDBIORuntimeException e) {
+      throw e.getCause();
+    }
+  }
+
   private Chunk constructChunk(
       Chunk chunk, List<TimeRange> timeRangeList, Statistics chunkStatistic) {
     return new Chunk(
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache.ChunkCacheKey;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * Load chunks into the {@link ChunkCache} in advance on a dedicated IO pool, so that a series scan
+ * finds the chunks it is going to read in the cache instead of blocking its query thread on disk
+ * IO.
+ *
+ * <p>A failed prefetch is only logged, the chunk will be read again by the scan, which reports the
+ * error if it still exists. So the returned futures never fail.
+ */
+public class ChunkPrefetcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkPrefetcher.class);
+
+  private final ExecutorService prefetchPool;
+
+  private ChunkPrefetcher() {
+    prefetchPool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchThreadCount(),
+            ThreadName.CHUNK_PREFETCH.getName());
+  }
+
+  public static ChunkPrefetcher getInstance() {
+    return ChunkPrefetcherHolder.INSTANCE;
+  }
+
+  /**
+   * Load the chunks into the ChunkCache in order.
+   *
+   * <p>The task holds a reference of the file reader until it finishes, so that the reader opened
+   * by the task is closed with the last reference instead of being left open after the query has
+   * released the file. The chunks are not loaded any more once the query is done or the returned
+   * future is cancelled.
+   *
+   * @param resource the closed TsFile the chunks belong to
+   * @param chunkCacheKeys chunks to be loaded, e.g. the time chunk and value chunks of an aligned
+   *     chunk
+   * @return a future done when all the chunks are loaded
+   */
+  public ListenableFuture<Void> prefetch(
+      TsFileResource resource, List<ChunkCacheKey> chunkCacheKeys, QueryContext context) {
+    SettableFuture<Void> future = SettableFuture.create();
+    if (isQueryDone(context)) {
+      future.set(null);
+      return future;
+    }
+    LongConsumer ioSizeRecorder =
+        context.getQueryStatistics().getLoadChunkActualIOSize()::addAndGet;
+    FileReaderManager.getInstance().increaseFileReaderReference(resource, true);
+    try {
+      prefetchPool.execute(
+          () -> {
+            try {
+              for (ChunkCacheKey chunkCacheKey : chunkCacheKeys) {
+                if (future.isCancelled() || isQueryDone(context)) {
+                  break;
+                }
+                ChunkCache.getInstance().prefetch(chunkCacheKey, ioSizeRecorder);
+              }
+            } catch (Exception e) {
+              LOGGER.debug("Failed to prefetch chunks {}", chunkCacheKeys, e);
+            } finally {
+              FileReaderManager.getInstance().decreaseFileReaderReference(resource, true);
+              future.set(null);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      FileReaderManager.getInstance().decreaseFileReaderReference(resource, true);
+      future.set(null);
+    }
+    return future;
+  }
+
+  private static boolean isQueryDone(QueryContext context) {
+    return context instanceof FragmentInstanceContext
+        && ((FragmentInstanceContext) context).getStateMachine().getState().isDone();
+  }
+
+  /** singleton pattern. */
+  private static class ChunkPrefetcherHolder {
+
+    private static final ChunkPrefetcher INSTANCE = new ChunkPrefetcher();
+  }
+}
@@ -158,6 +158,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -174,6 +175,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -234,6 +236,17 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
 
+  /**
+   * Striped locks of time partitions, null unless partition-level insert lock is enabled. In that
+   * mode insertions hold the read lock of {@link #insertLock} plus the stripes of the time
+   * partitions they touch, while flush, close, deletion and load still hold the write lock of
+   * {@link #insertLock} and thus exclude all insertions.
+   */
+  private final StripedTimePartitionLock partitionInsertLock =
+      config.isEnablePartitionInsertLock()
+          ? new StripedTimePartitionLock(config.getPartitionInsertLockStripeNum())
+          : null;
+
   /** Condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
 
@@ -249,10 +262,12 @@ public class DataRegion implements IDataRegionForQuery {
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** sequence {@link TsFileProcessor}s which are closing. */
   private final Set<TsFileProcessor> closingSequenceTsFileProcessor = ConcurrentHashMap.newKeySet();
@@ -1056,7 +1071,7 @@ public class DataRegion implements IDataRegionForQuery {
     }
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRow");
+    BitSet lockedStripes = insertLock("InsertRow", insertRowNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1088,7 +1103,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -1218,7 +1233,7 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablet");
+    BitSet lockedStripes = insertLock("insertTablet", insertTabletNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1241,7 +1256,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -1565,7 +1580,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId, Map<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
@@ -2126,6 +2141,10 @@ public class DataRegion implements IDataRegionForQuery {
   public void readLock() {
     // apply read lock for SG insert lock to prevent inconsistent with concurrently writing memtable
     insertLock.readLock().lock();
+    if (partitionInsertLock != null) {
+      // insertions only hold the read lock of insert lock in this mode, exclude them by stripes
+      partitionInsertLock.readLockAll();
+    }
     // apply read lock for TsFileResource list
     tsFileManager.readLock();
   }
@@ -2134,6 +2153,9 @@ public class DataRegion implements IDataRegionForQuery {
   @Override
   public void readUnlock() {
     tsFileManager.readUnlock();
+    if (partitionInsertLock != null) {
+      partitionInsertLock.readUnlockAll();
+    }
     insertLock.readLock().unlock();
   }
 
@@ -2149,6 +2171,72 @@ public class DataRegion implements IDataRegionForQuery {
     insertLock.writeLock().unlock();
   }
 
+  /**
+   * Lock for an insertion. By default, this is the write lock of the insert lock. If
+   * partition-level insert lock is enabled, this is the read lock of the insert lock plus the
+   * stripes of the time partitions touched by the insertion.
+   *
+   * @return the locked stripes, which should be passed to {@link #insertUnlock(BitSet)}, or null if
+   *     the whole region is locked
+   */
+  private BitSet insertLock(String holder, InsertNode insertNode) {
+    if (partitionInsertLock == null) {
+      writeLock(holder);
+      return null;
+    }
+    BitSet stripes = new BitSet(partitionInsertLock.getStripeNum());
+    markInsertedTimePartitions(insertNode, stripes);
+    insertLock.readLock().lock();
+    partitionInsertLock.writeLock(stripes);
+    return stripes;
+  }
+
+  /** unlock the lock acquired by {@link #insertLock(String, InsertNode)} */
+  private void insertUnlock(BitSet lockedStripes) {
+    if (lockedStripes == null) {
+      writeUnlock();
+      return;
+    }
+    partitionInsertLock.writeUnlock(lockedStripes);
+    insertLock.readLock().unlock();
+  }
+
+  private void markInsertedTimePartitions(InsertNode insertNode, BitSet stripes) {
+    if (insertNode instanceof InsertRowNode) {
+      partitionInsertLock.markStripe(
+          stripes, TimePartitionUtils.getTimePartitionId(((InsertRowNode) insertNode).getTime()));
+    } else if (insertNode instanceof InsertTabletNode) {
+      InsertTabletNode insertTabletNode = (InsertTabletNode) insertNode;
+      long[] times = insertTabletNode.getTimes();
+      long lastTimePartitionId = Long.MIN_VALUE;
+      for (int i = 0; i < insertTabletNode.getRowCount(); i++) {
+        long timePartitionId = TimePartitionUtils.getTimePartitionId(times[i]);
+        // rows of a tablet are mostly in the same partition, skip repeated marking
+        if (timePartitionId != lastTimePartitionId) {
+          partitionInsertLock.markStripe(stripes, timePartitionId);
+          lastTimePartitionId = timePartitionId;
+        }
+      }
+    } else if (insertNode instanceof InsertRowsNode) {
+      for (InsertRowNode insertRowNode : ((InsertRowsNode) insertNode).getInsertRowNodeList()) {
+        markInsertedTimePartitions(insertRowNode, stripes);
+      }
+    } else if (insertNode instanceof InsertRowsOfOneDeviceNode) {
+      for (InsertRowNode insertRowNode :
+          ((InsertRowsOfOneDeviceNode) insertNode).getInsertRowNodeList()) {
+        markInsertedTimePartitions(insertRowNode, stripes);
+      }
+    } else if (insertNode instanceof InsertMultiTabletsNode) {
+      for (InsertTabletNode insertTabletNode :
+          ((InsertMultiTabletsNode) insertNode).getInsertTabletNodeList()) {
+        markInsertedTimePartitions(insertTabletNode, stripes);
+      }
+    } else {
+      // unknown insertion, lock all the stripes to be safe
+      stripes.set(0, partitionInsertLock.getStripeNum());
+    }
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -3217,7 +3305,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working sequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkSequenceTsFileProcessors() {
-    return workSequenceTsFileProcessors.values();
+    return new ArrayList<>(workSequenceTsFileProcessors.values());
   }
 
   public boolean removeTsFile(File fileToBeRemoved) {
@@ -3303,7 +3391,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working unsequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkUnsequenceTsFileProcessors() {
-    return workUnsequenceTsFileProcessors.values();
+    return new ArrayList<>(workUnsequenceTsFileProcessors.values());
   }
 
   public List<TsFileResource> getSequenceFileList() {
@@ -3356,7 +3444,7 @@ public class DataRegion implements IDataRegionForQuery {
       throws WriteProcessException, BatchProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRowsOfOneDevice");
+    BitSet lockedStripes = insertLock("InsertRowsOfOneDevice", insertRowsOfOneDeviceNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -3462,7 +3550,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException("Partial failed inserting rows of one device");
@@ -3473,7 +3561,7 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessRejectException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRows");
+    BitSet lockedStripes = insertLock("InsertRows", insertRowsNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -3542,7 +3630,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException("Partial failed inserting rows");
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -3556,7 +3644,7 @@ public class DataRegion implements IDataRegionForQuery {
 
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablets");
+    BitSet lockedStripes = insertLock("insertTablets", insertMultiTabletsNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -3602,7 +3690,7 @@ public class DataRegion implements IDataRegionForQuery {
       updateTsFileProcessorMetric(insertMultiTabletsNode, infoForMetrics);
 
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
 
     if (!insertMultiTabletsNode.getResults().isEmpty()) {
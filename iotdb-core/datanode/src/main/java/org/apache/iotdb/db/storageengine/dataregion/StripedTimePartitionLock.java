@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A fixed number of read write locks shared by all time partitions of a {@link DataRegion}. A time
+ * partition is mapped to one stripe by its id, so the seq and unseq {@link
+ * org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor}s of one partition are
+ * always guarded by the same stripe.
+ *
+ * <p>Writers lock the stripes of the partitions they touch exclusively, readers lock all stripes
+ * shared. Stripes are always acquired in ascending order to avoid deadlocks.
+ */
+public class StripedTimePartitionLock {
+
+  private final ReentrantReadWriteLock[] stripes;
+
+  public StripedTimePartitionLock(int stripeNum) {
+    if (stripeNum <= 0) {
+      throw new IllegalArgumentException("stripe number should be positive, got " + stripeNum);
+    }
+    stripes = new ReentrantReadWriteLock[stripeNum];
+    for (int i = 0; i < stripeNum; i++) {
+      stripes[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  public int getStripeNum() {
+    return stripes.length;
+  }
+
+  public int stripeOf(long timePartitionId) {
+    // time partition ids are mostly consecutive, mix the bits so that neighbours spread evenly
+    long hash = timePartitionId * 0x9E3779B97F4A7C15L;
+    return (int) ((hash >>> 32) % stripes.length);
+  }
+
+  /** Mark the stripe of the given time partition in the bit set. */
+  public void markStripe(BitSet stripeSet, long timePartitionId) {
+    stripeSet.set(stripeOf(timePartitionId));
+  }
+
+  /** Lock all the stripes marked in the bit set exclusively, in ascending order. */
+  public void writeLock(BitSet stripeSet) {
+    for (int i = stripeSet.nextSetBit(0); i >= 0; i = stripeSet.nextSetBit(i + 1)) {
+      stripes[i].writeLock().lock();
+    }
+  }
+
+  /** Unlock all the stripes marked in the bit set, in descending order. */
+  public void writeUnlock(BitSet stripeSet) {
+    for (int i = stripeSet.previousSetBit(stripes.length - 1);
+        i >= 0;
+        i = stripeSet.previousSetBit(i - 1)) {
+      stripes[i].writeLock().unlock();
+    }
+  }
+
+  /** Lock all the stripes shared, in ascending order. */
+  public void readLockAll() {
+    for (ReentrantReadWriteLock stripe : stripes) {
+      stripe.readLock().lock();
+    }
+  }
+
+  /** Unlock all the stripes shared, in descending order. */
+  public void readUnlockAll() {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      stripes[i].readLock().unlock();
+    }
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.SimpleCompactionLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.AbstractInnerSpaceEstimator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.CompactionEstimateUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator.FastCompactionInnerCompactionEstimator;
@@ -66,6 +67,8 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
   protected File logFile;
   protected boolean[] isHoldingWriteLock;
   protected AbstractInnerSpaceEstimator innerSpaceEstimator;
+  // null if the task is not selected by an inner sequence compaction selector
+  protected InnerSequenceCompactionSelector innerSequenceCompactionSelector;
 
   public InnerSpaceCompactionTask(
       long timePartition,
@@ -436,6 +439,12 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
         filesView.sourceFilesInLog, filesView.sequence);
 
     CompactionMetrics.getInstance().recordSummaryInfo(summary);
+    if (getCompactionTaskType() == CompactionTaskType.INNER_SEQ
+        && innerSequenceCompactionSelector != null) {
+      CompactionMetrics.getInstance()
+          .recordInnerSeqCompactionRewrittenBytes(
+              innerSequenceCompactionSelector, filesView.selectedFileSize);
+    }
   }
 
   protected void prepareTargetFiles() throws IOException {
@@ -719,6 +728,15 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     }
   }
 
+  /** Record the selector of this task, which tags the write amplification of the task. */
+  public void setInnerSequenceCompactionSelector(InnerSequenceCompactionSelector selector) {
+    this.innerSequenceCompactionSelector = selector;
+  }
+
+  public InnerSequenceCompactionSelector getInnerSequenceCompactionSelector() {
+    return innerSequenceCompactionSelector;
+  }
+
   @Override
   public CompactionTaskType getCompactionTaskType() {
     if (filesView.sequence) {
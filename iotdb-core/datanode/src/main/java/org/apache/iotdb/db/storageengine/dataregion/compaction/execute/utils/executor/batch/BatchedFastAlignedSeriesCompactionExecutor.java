@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PatternTreeMap;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.FastCompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils.AlignedSeriesBatchCompactionUtils;
@@ -37,11 +38,13 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.exe
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.flushcontroller.FollowedBatchedCompactionFlushController;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
@@ -61,6 +64,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class BatchedFastAlignedSeriesCompactionExecutor
     extends FastAlignedSeriesCompactionExecutor {
@@ -76,6 +82,8 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private final BatchCompactionPlan batchCompactionPlan;
   private final int batchSize =
       IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
+  private final int subTaskNum =
+      IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
 
   public BatchedFastAlignedSeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
@@ -106,12 +114,13 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         new AlignedSeriesBatchCompactionUtils.BatchColumnSelection(
             valueMeasurementSchemas, batchSize);
     this.sortedSourceFiles = sortedSourceFiles;
-    this.alignedChunkMetadataCache = new HashMap<>();
+    // following batches may be compacted in parallel, so the cache may be filled concurrently
+    this.alignedChunkMetadataCache = new ConcurrentHashMap<>();
     this.batchCompactionPlan = new BatchCompactionPlan();
   }
 
   private List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataListBySelectedValueColumn(
-      TsFileResource tsFileResource, List<IMeasurementSchema> selectedValueMeasurementSchemas)
+      TsFileResource tsFileResource, List<Integer> selectedColumnIndexList)
       throws IOException, IllegalPathException {
     // 1. get Full AlignedChunkMetadata from cache
     List<AbstractAlignedChunkMetadata> alignedChunkMetadataList = null;
@@ -128,7 +137,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     for (AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
       filteredAlignedChunkMetadataList.add(
           AlignedSeriesBatchCompactionUtils.filterAlignedChunkMetadataByIndex(
-              alignedChunkMetadata, batchColumnSelection.getSelectedColumnIndexList()));
+              alignedChunkMetadata, selectedColumnIndexList));
     }
     return filteredAlignedChunkMetadataList;
   }
@@ -146,13 +155,16 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private void compactFirstBatch()
       throws PageException, IllegalPathException, IOException, WriteProcessException {
     List<IMeasurementSchema> selectedMeasurementSchemas;
+    List<Integer> selectedColumnIndexList;
     if (!batchColumnSelection.hasNext()) {
       if (ignoreAllNullRows) {
         return;
       }
       selectedMeasurementSchemas = Collections.singletonList(timeSchema);
+      selectedColumnIndexList = Collections.emptyList();
     } else {
       batchColumnSelection.next();
+      selectedColumnIndexList = batchColumnSelection.getSelectedColumnIndexList();
       selectedMeasurementSchemas =
           new ArrayList<>(batchColumnSelection.getCurrentSelectedColumnSchemaList().size() + 1);
       selectedMeasurementSchemas.add(timeSchema);
@@ -169,6 +181,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
             deviceId,
             subTaskId,
             selectedMeasurementSchemas,
+            selectedColumnIndexList,
             summary,
             ignoreAllNullRows);
     executor.execute();
@@ -178,8 +191,17 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         batchCompactionPlan);
   }
 
+  /**
+   * The following batches only read the time chunks cached by the first batch and follow the
+   * recorded {@link BatchCompactionPlan}, so they are independent of each other. They are assigned
+   * to at most subTaskNum sub tasks and compacted in parallel, each sub task writes with its own
+   * chunk writer of the compaction writer. The chunk group of the device is still ended by the
+   * caller after all of them finish.
+   */
   private void compactLeftBatches()
       throws PageException, IllegalPathException, IOException, WriteProcessException {
+    List<List<IMeasurementSchema>> leftBatchSchemaList = new ArrayList<>();
+    List<List<Integer>> leftBatchColumnIndexList = new ArrayList<>();
     while (batchColumnSelection.hasNext()) {
       batchColumnSelection.next();
       List<IMeasurementSchema> currentBatchMeasurementSchemas =
@@ -187,19 +209,97 @@ public class BatchedFastAlignedSeriesCompactionExecutor
       currentBatchMeasurementSchemas.add(timeSchema);
       currentBatchMeasurementSchemas.addAll(
           batchColumnSelection.getCurrentSelectedColumnSchemaList());
-      FollowingBatchFastAlignedSeriesCompactionExecutor executor =
-          new FollowingBatchFastAlignedSeriesCompactionExecutor(
-              compactionWriter,
-              filterTimeseriesMetadataOffsetMap(currentBatchMeasurementSchemas),
-              readerCacheMap,
-              modificationCacheMap,
-              sortedSourceFiles,
-              deviceId,
-              subTaskId,
-              currentBatchMeasurementSchemas,
-              summary,
-              ignoreAllNullRows);
-      executor.execute();
+      leftBatchSchemaList.add(currentBatchMeasurementSchemas);
+      leftBatchColumnIndexList.add(batchColumnSelection.getSelectedColumnIndexList());
+    }
+
+    int parallelism = Math.min(leftBatchSchemaList.size(), subTaskNum);
+    if (parallelism <= 1) {
+      for (int i = 0; i < leftBatchSchemaList.size(); i++) {
+        compactFollowingBatch(
+            leftBatchSchemaList.get(i), leftBatchColumnIndexList.get(i), subTaskId, summary);
+      }
+      return;
+    }
+
+    // the aligned device is compacted by a single sub task, so all the chunk writers of the
+    // compaction writer are free here
+    List<Future<Void>> futures = new ArrayList<>(parallelism);
+    List<FastCompactionTaskSummary> taskSummaryList = new ArrayList<>(parallelism);
+    try {
+      for (int i = 0; i < parallelism; i++) {
+        int batchSubTaskId = i;
+        FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
+        taskSummaryList.add(taskSummary);
+        futures.add(
+            CompactionTaskManager.getInstance()
+                .submitSubTask(
+                    () -> {
+                      for (int batchIdx = batchSubTaskId;
+                          batchIdx < leftBatchSchemaList.size();
+                          batchIdx += parallelism) {
+                        compactFollowingBatch(
+                            leftBatchSchemaList.get(batchIdx),
+                            leftBatchColumnIndexList.get(batchIdx),
+                            batchSubTaskId,
+                            taskSummary);
+                      }
+                      return null;
+                    }));
+      }
+      for (int i = 0; i < parallelism; i++) {
+        futures.get(i).get();
+        summary.increase(taskSummaryList.get(i));
+      }
+    } catch (ExecutionException e) {
+      abortAllSubTasks(futures);
+      Throwable cause = e.getCause();
+      if (cause instanceof CompactionLastTimeCheckFailedException) {
+        throw (CompactionLastTimeCheckFailedException) cause;
+      }
+      if (cause instanceof StopReadTsFileByInterruptException) {
+        throw (StopReadTsFileByInterruptException) cause;
+      }
+      throw new IOException("[Compaction] SubCompactionTask meet errors ", e);
+    } catch (InterruptedException e) {
+      abortAllSubTasks(futures);
+      Thread.currentThread().interrupt();
+      throw new StopReadTsFileByInterruptException();
+    }
+  }
+
+  private void compactFollowingBatch(
+      List<IMeasurementSchema> currentBatchMeasurementSchemas,
+      List<Integer> selectedColumnIndexList,
+      int batchSubTaskId,
+      FastCompactionTaskSummary batchSummary)
+      throws PageException, IllegalPathException, IOException, WriteProcessException {
+    FollowingBatchFastAlignedSeriesCompactionExecutor executor =
+        new FollowingBatchFastAlignedSeriesCompactionExecutor(
+            compactionWriter,
+            filterTimeseriesMetadataOffsetMap(currentBatchMeasurementSchemas),
+            readerCacheMap,
+            modificationCacheMap,
+            sortedSourceFiles,
+            deviceId,
+            batchSubTaskId,
+            currentBatchMeasurementSchemas,
+            selectedColumnIndexList,
+            batchSummary,
+            ignoreAllNullRows);
+    executor.execute();
+  }
+
+  private void abortAllSubTasks(List<Future<Void>> futures) {
+    for (Future<Void> future : futures) {
+      future.cancel(true);
+    }
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (Exception ignored) {
+        // the first error has been thrown by the caller
+      }
     }
   }
 
@@ -218,6 +318,8 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private class FirstBatchFastAlignedSeriesCompactionExecutor
       extends FastAlignedSeriesCompactionExecutor {
 
+    private final List<Integer> selectedColumnIndexList;
+
     public FirstBatchFastAlignedSeriesCompactionExecutor(
         AbstractCompactionWriter compactionWriter,
         Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
@@ -228,6 +330,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         IDeviceID deviceId,
         int subTaskId,
         List<IMeasurementSchema> measurementSchemas,
+        List<Integer> selectedColumnIndexList,
         FastCompactionTaskSummary summary,
         boolean ignoreAllNullRows) {
       super(
@@ -241,6 +344,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
           measurementSchemas,
           summary,
           ignoreAllNullRows);
+      this.selectedColumnIndexList = selectedColumnIndexList;
       isBatchedCompaction = true;
     }
 
@@ -266,7 +370,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     @Override
     protected List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataList(
         TsFileResource resource) throws IOException, IllegalPathException {
-      return getAlignedChunkMetadataListBySelectedValueColumn(resource, measurementSchemas);
+      return getAlignedChunkMetadataListBySelectedValueColumn(resource, selectedColumnIndexList);
     }
 
     @Override
@@ -324,6 +428,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private class FollowingBatchFastAlignedSeriesCompactionExecutor
       extends FastAlignedSeriesCompactionExecutor {
 
+    private final List<Integer> selectedColumnIndexList;
     private FollowedBatchedCompactionFlushController flushController;
 
     public FollowingBatchFastAlignedSeriesCompactionExecutor(
@@ -336,6 +441,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         IDeviceID deviceId,
         int subTaskId,
         List<IMeasurementSchema> measurementSchemas,
+        List<Integer> selectedColumnIndexList,
         FastCompactionTaskSummary summary,
         boolean ignoreAllNullRows) {
       super(
@@ -349,6 +455,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
           measurementSchemas,
           summary,
           ignoreAllNullRows);
+      this.selectedColumnIndexList = selectedColumnIndexList;
       isBatchedCompaction = true;
     }
 
@@ -385,7 +492,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     @Override
     protected List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataList(
         TsFileResource resource) throws IOException, IllegalPathException {
-      return getAlignedChunkMetadataListBySelectedValueColumn(resource, measurementSchemas);
+      return getAlignedChunkMetadataListBySelectedValueColumn(resource, selectedColumnIndexList);
     }
 
     @Override
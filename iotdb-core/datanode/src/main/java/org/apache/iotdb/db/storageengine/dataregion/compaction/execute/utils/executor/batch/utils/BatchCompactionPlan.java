@@ -29,6 +29,7 @@ import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.utils.Pair;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -51,9 +52,19 @@ public class BatchCompactionPlan {
     Chunk chunk = cachedTimeChunks.get(key);
     if (chunk == null) {
       chunk = reader.readMemChunk(chunkMetadata);
+      chunk.getData().rewind();
+      return chunk;
     }
-    chunk.getData().rewind();
-    return chunk;
+    // following batches may be compacted in parallel, each of them reads the cached chunk by its
+    // own buffer position
+    ByteBuffer data = chunk.getData().duplicate();
+    data.rewind();
+    return new Chunk(
+        chunk.getHeader(),
+        data,
+        chunk.getDeleteIntervalList(),
+        chunk.getChunkStatistic(),
+        chunk.getEncryptParam());
   }
 
   public void addTimeChunkToCache(String file, long offset, Chunk chunk) {
@@ -23,12 +23,14 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerSeqSpaceSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.NewSizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SizeTieredCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.TimeWindowCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 
 @SuppressWarnings("squid:S6548")
 public enum InnerSequenceCompactionSelector {
   SIZE_TIERED_SINGLE_TARGET,
-  SIZE_TIERED_MULTI_TARGET;
+  SIZE_TIERED_MULTI_TARGET,
+  TIME_WINDOW;
 
   public static InnerSequenceCompactionSelector getInnerSequenceCompactionSelector(String name) {
     if (SIZE_TIERED_SINGLE_TARGET.toString().equalsIgnoreCase(name)) {
@@ -37,6 +39,9 @@ public enum InnerSequenceCompactionSelector {
     if (SIZE_TIERED_MULTI_TARGET.toString().equalsIgnoreCase(name)) {
       return SIZE_TIERED_MULTI_TARGET;
     }
+    if (TIME_WINDOW.toString().equalsIgnoreCase(name)) {
+      return TIME_WINDOW;
+    }
     throw new IllegalCompactionSelectorNameException("Illegal Compaction Selector " + name);
   }
 
@@ -51,6 +56,9 @@ public enum InnerSequenceCompactionSelector {
       case SIZE_TIERED_MULTI_TARGET:
         return new NewSizeTieredCompactionSelector(
             storageGroupName, dataRegionId, timePartition, true, tsFileManager, context);
+      case TIME_WINDOW:
+        return new TimeWindowCompactionSelector(
+            storageGroupName, dataRegionId, timePartition, tsFileManager, context);
       case SIZE_TIERED_SINGLE_TARGET:
       default:
         return new SizeTieredCompactionSelector(
@@ -50,11 +50,14 @@ public class FastCompactionInnerCompactionEstimator extends AbstractInnerSpaceEs
       return taskInfo.getModificationFileSize();
     }
     int batchSize = config.getCompactionMaxAlignedSeriesNumInOneBatch();
+    // the following batches of an aligned device are compacted by sub tasks in parallel
     long maxConcurrentSeriesNum =
         Math.max(
             config.getSubCompactionTaskNum(),
             Math.min(
-                batchSize <= 0 ? Integer.MAX_VALUE : batchSize,
+                batchSize <= 0
+                    ? Integer.MAX_VALUE
+                    : (long) batchSize * config.getSubCompactionTaskNum(),
                 taskInfo.getMaxConcurrentSeriesNum()));
     long averageChunkSize = taskInfo.getTotalFileSize() / taskInfo.getTotalChunkNum();
 
@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.TsFileResourceCandidate;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -156,6 +157,11 @@ public class NewSizeTieredCompactionSelector extends SizeTieredCompactionSelecto
     return levelTaskSelection.getSelectedTaskList();
   }
 
+  @Override
+  protected InnerSequenceCompactionSelector getInnerSequenceCompactionSelector() {
+    return InnerSequenceCompactionSelector.SIZE_TIERED_MULTI_TARGET;
+  }
+
   private class InnerSpaceCompactionTaskSelection {
     List<InnerSpaceCompactionTask> selectedTaskList = new ArrayList<>();
 
@@ -295,14 +301,17 @@ public class NewSizeTieredCompactionSelector extends SizeTieredCompactionSelecto
     }
 
     private InnerSpaceCompactionTask createInnerSpaceCompactionTask() {
-      return new InnerSpaceCompactionTask(
-          timePartition,
-          tsFileManager,
-          currentSelectedResources,
-          currentSkippedResources,
-          sequence,
-          createCompactionPerformer(),
-          tsFileManager.getNextCompactionTaskId());
+      InnerSpaceCompactionTask task =
+          new InnerSpaceCompactionTask(
+              timePartition,
+              tsFileManager,
+              currentSelectedResources,
+              currentSkippedResources,
+              sequence,
+              createCompactionPerformer(),
+              tsFileManager.getNextCompactionTaskId());
+      recordSelector(task);
+      return task;
     }
 
     private List<InnerSpaceCompactionTask> getSelectedTaskList() {
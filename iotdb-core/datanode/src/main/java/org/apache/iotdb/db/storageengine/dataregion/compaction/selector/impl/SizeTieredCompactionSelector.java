@@ -32,6 +32,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.ICompactionTaskComparator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerSeqSpaceSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerUnseqSpaceSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
@@ -257,12 +258,26 @@ public class SizeTieredCompactionSelector
   }
 
   private InnerSpaceCompactionTask createCompactionTask(List<TsFileResource> fileResources) {
-    return new InnerSpaceCompactionTask(
-        timePartition,
-        tsFileManager,
-        fileResources,
-        sequence,
-        createCompactionPerformer(),
-        tsFileManager.getNextCompactionTaskId());
+    InnerSpaceCompactionTask task =
+        new InnerSpaceCompactionTask(
+            timePartition,
+            tsFileManager,
+            fileResources,
+            sequence,
+            createCompactionPerformer(),
+            tsFileManager.getNextCompactionTaskId());
+    recordSelector(task);
+    return task;
+  }
+
+  protected InnerSequenceCompactionSelector getInnerSequenceCompactionSelector() {
+    return InnerSequenceCompactionSelector.SIZE_TIERED_SINGLE_TARGET;
+  }
+
+  /** Record the selector on a sequence task, the metrics of which are tagged with the selector. */
+  protected void recordSelector(InnerSpaceCompactionTask task) {
+    if (sequence) {
+      task.setInnerSequenceCompactionSelector(getInnerSequenceCompactionSelector());
+    }
   }
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TimeWindowCompactionSelector groups the sequence files of a time partition into time windows of
+ * {@link org.apache.iotdb.db.conf.IoTDBConfig#getTimeWindowCompactionWindowSizeInMs()} by their end
+ * time, and only compacts files of the same window together. As sequence files are ordered by time,
+ * the files of a window are continuous in the file list.
+ *
+ * <p>The window containing the current time is still being written, so its files are compacted only
+ * if there are at least {@link
+ * org.apache.iotdb.db.conf.IoTDBConfig#getInnerCompactionCandidateFileNum()} of them. Any two or
+ * more files of an older window are compacted, while the windows ended earlier than {@link
+ * org.apache.iotdb.db.conf.IoTDBConfig#getTimeWindowCompactionFrozenAgeInMs()} ago are frozen and
+ * never rewritten again. Compared with the size-tiered selector, the data of a window is rewritten
+ * a bounded number of times, which lowers the write amplification for time-ordered ingestion.
+ */
+public class TimeWindowCompactionSelector extends SizeTieredCompactionSelector {
+
+  public TimeWindowCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager,
+      CompactionScheduleContext context) {
+    super(storageGroupName, dataRegionId, timePartition, true, tsFileManager, context);
+  }
+
+  @Override
+  protected List<InnerSpaceCompactionTask> selectTaskBaseOnLevel() {
+    String timestampPrecision = CommonDescriptor.getInstance().getConfig().getTimestampPrecision();
+    long windowSize =
+        Math.max(
+            1,
+            CommonDateTimeUtils.convertMilliTimeWithPrecision(
+                config.getTimeWindowCompactionWindowSizeInMs(), timestampPrecision));
+    long frozenAge =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            config.getTimeWindowCompactionFrozenAgeInMs(), timestampPrecision);
+    long currentTime = CommonDateTimeUtils.currentTime();
+
+    List<List<TsFileResource>> selectedResourceList = new ArrayList<>();
+    List<TsFileResource> windowFiles = new ArrayList<>();
+    long windowStartTime = Long.MIN_VALUE;
+    for (TsFileResource resource : tsFileResources) {
+      if (cannotSelect(resource)) {
+        // files of a task should be continuous
+        selectInWindow(
+            windowFiles, windowStartTime, windowSize, frozenAge, currentTime, selectedResourceList);
+        windowFiles.clear();
+        continue;
+      }
+      long currentWindowStartTime =
+          Math.floorDiv(resource.getFileEndTime(), windowSize) * windowSize;
+      if (currentWindowStartTime != windowStartTime) {
+        selectInWindow(
+            windowFiles, windowStartTime, windowSize, frozenAge, currentTime, selectedResourceList);
+        windowFiles.clear();
+        windowStartTime = currentWindowStartTime;
+      }
+      windowFiles.add(resource);
+    }
+    selectInWindow(
+        windowFiles, windowStartTime, windowSize, frozenAge, currentTime, selectedResourceList);
+
+    List<InnerSpaceCompactionTask> tasks = new ArrayList<>(selectedResourceList.size());
+    for (List<TsFileResource> fileResources : selectedResourceList) {
+      InnerSpaceCompactionTask task =
+          new InnerSpaceCompactionTask(
+              timePartition,
+              tsFileManager,
+              fileResources,
+              sequence,
+              createCompactionPerformer(),
+              tsFileManager.getNextCompactionTaskId());
+      recordSelector(task);
+      tasks.add(task);
+    }
+    return tasks;
+  }
+
+  @Override
+  protected InnerSequenceCompactionSelector getInnerSequenceCompactionSelector() {
+    return InnerSequenceCompactionSelector.TIME_WINDOW;
+  }
+
+  private void selectInWindow(
+      List<TsFileResource> windowFiles,
+      long windowStartTime,
+      long windowSize,
+      long frozenAge,
+      long currentTime,
+      List<List<TsFileResource>> selectedResourceList) {
+    if (windowFiles.size() < 2) {
+      return;
+    }
+    long windowEndTime = windowStartTime + windowSize;
+    if (frozenAge > 0 && windowEndTime <= currentTime - frozenAge) {
+      return;
+    }
+    int minFileNum =
+        windowEndTime > currentTime ? Math.max(2, config.getInnerCompactionCandidateFileNum()) : 2;
+    long targetCompactionFileSize = config.getTargetCompactionFileSize();
+    int maxFileNum = config.getInnerCompactionTotalFileNumThreshold();
+
+    List<TsFileResource> selectedFiles = new ArrayList<>();
+    long selectedFileSize = 0L;
+    for (TsFileResource resource : windowFiles) {
+      if (!selectedFiles.isEmpty()
+          && (selectedFileSize + resource.getTsFileSize() > targetCompactionFileSize
+              || selectedFiles.size() >= maxFileNum)) {
+        if (selectedFiles.size() >= minFileNum) {
+          selectedResourceList.add(selectedFiles);
+        }
+        selectedFiles = new ArrayList<>();
+        selectedFileSize = 0L;
+      }
+      selectedFiles.add(resource);
+      selectedFileSize += resource.getTsFileSize();
+    }
+    if (selectedFiles.size() >= minFileNum) {
+      selectedResourceList.add(selectedFiles);
+    }
+  }
+
+  private boolean cannotSelect(TsFileResource resource) {
+    // files reaching the target size are never compacted again
+    return resource.getStatus() != TsFileResourceStatus.NORMAL
+        || !resource.getTsFileRepairStatus().isNormalCompactionCandidate()
+        || resource.getTsFileSize() >= config.getTargetCompactionFileSize();
+  }
+}
@@ -27,11 +27,14 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
 import java.util.Objects;
+import java.util.function.ToDoubleFunction;
 
 public class FlushManagerMetrics implements IMetricSet {
   private FlushManager flushManager;
 
   private static final String FLUSH = "flush";
+  private static final String FLUSH_SUB_TASK = "flush_sub_task";
+  private static final String FLUSH_ENCODING = "flush_encoding";
 
   public FlushManagerMetrics(FlushManager flushManager) {
     this.flushManager = flushManager;
@@ -57,6 +60,42 @@ public class FlushManagerMetrics implements IMetricSet {
         FLUSH,
         Tag.STATUS.toString(),
         "running");
+    bindStage(
+        metricService,
+        FLUSH_SUB_TASK,
+        FlushManager::getNumberOfPendingSubTasks,
+        FlushManager::getNumberOfWorkingSubTasks);
+    bindStage(
+        metricService,
+        FLUSH_ENCODING,
+        FlushManager::getNumberOfPendingEncodingTasks,
+        FlushManager::getNumberOfWorkingEncodingTasks);
+  }
+
+  /** Bind the waiting and running task number of one stage of the flush pipeline. */
+  private void bindStage(
+      AbstractMetricService metricService,
+      String stage,
+      ToDoubleFunction<FlushManager> waitingTaskNum,
+      ToDoubleFunction<FlushManager> runningTaskNum) {
+    metricService.createAutoGauge(
+        Metric.QUEUE.toString(),
+        MetricLevel.IMPORTANT,
+        flushManager,
+        waitingTaskNum,
+        Tag.NAME.toString(),
+        stage,
+        Tag.STATUS.toString(),
+        "waiting");
+    metricService.createAutoGauge(
+        Metric.QUEUE.toString(),
+        MetricLevel.IMPORTANT,
+        flushManager,
+        runningTaskNum,
+        Tag.NAME.toString(),
+        stage,
+        Tag.STATUS.toString(),
+        "running");
   }
 
   @Override
@@ -75,6 +114,17 @@ public class FlushManagerMetrics implements IMetricSet {
         FLUSH,
         Tag.STATUS.toString(),
         "running");
+    for (String stage : new String[] {FLUSH_SUB_TASK, FLUSH_ENCODING}) {
+      for (String status : new String[] {"waiting", "running"}) {
+        metricService.remove(
+            MetricType.AUTO_GAUGE,
+            Metric.QUEUE.toString(),
+            Tag.NAME.toString(),
+            stage,
+            Tag.STATUS.toString(),
+            status);
+      }
+    }
   }
 
   @Override
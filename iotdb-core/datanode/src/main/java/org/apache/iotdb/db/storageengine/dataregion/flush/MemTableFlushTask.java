@@ -26,6 +26,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IWritableMemChunk;
@@ -40,8 +41,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -60,6 +63,8 @@ public class MemTableFlushTask {
   private static final Logger LOGGER = LoggerFactory.getLogger(MemTableFlushTask.class);
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
+  private static final FlushEncodingPoolManager ENCODING_POOL_MANAGER =
+      FlushEncodingPoolManager.getInstance();
   private static final WritingMetrics WRITING_METRICS = WritingMetrics.getInstance();
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   /* storage group name -> last time */
@@ -82,6 +87,9 @@ public class MemTableFlushTask {
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
 
+  /** number of workers encoding the series of this memtable, 1 means encoding in encodingTask */
+  private final int encodingWorkerNum = config.getFlushEncodingThreadCount();
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -120,12 +128,13 @@ public class MemTableFlushTask {
 
     long estimatedTemporaryMemSize = 0L;
     if (SystemInfo.getInstance().isEncodingFasterThanIo()) {
+      // encoded series waiting to be handed to the io task also hold temporary memory
       estimatedTemporaryMemSize =
           memTable.getSeriesNumber() == 0
               ? 0
               : memTable.memSize()
                   / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+                  * (config.getIoTaskQueueSizeForFlushing() + getMaxInFlightEncodingTaskNum());
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
@@ -219,40 +228,10 @@ public class MemTableFlushTask {
               "Database {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
-          while (true) {
-
-            Object task;
-            try {
-              task = encodingTaskQueue.take();
-            } catch (InterruptedException e1) {
-              LOGGER.error("Take task into ioTaskQueue Interrupted");
-              Thread.currentThread().interrupt();
-              break;
-            }
-            if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
-              try {
-                ioTaskQueue.put(task);
-              } catch (
-                  @SuppressWarnings("squid:S2142")
-                  InterruptedException e) {
-                LOGGER.error(
-                    "Database {} memtable flushing to file {}, encoding task is interrupted.",
-                    storageGroup,
-                    writer.getFile().getName(),
-                    e);
-                // generally it is because the thread pool is shutdown so the task should be aborted
-                break;
-              }
-            } else if (task instanceof TaskEnd) {
-              break;
-            } else {
-              long starTime = System.currentTimeMillis();
-              IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              writableMemChunk.encode(ioTaskQueue);
-              long subTaskTime = System.currentTimeMillis() - starTime;
-              WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
-              memSerializeTime += subTaskTime;
-            }
+          if (encodingWorkerNum > 1) {
+            encodeInParallel();
+          } else {
+            encodeSerially();
           }
           try {
             ioTaskQueue.put(new TaskEnd());
@@ -270,6 +249,129 @@ public class MemTableFlushTask {
         }
       };
 
+  @SuppressWarnings("squid:S135")
+  private void encodeSerially() {
+    while (true) {
+
+      Object task;
+      try {
+        task = encodingTaskQueue.take();
+      } catch (InterruptedException e1) {
+        LOGGER.error("Take task into ioTaskQueue Interrupted");
+        Thread.currentThread().interrupt();
+        break;
+      }
+      if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+        try {
+          ioTaskQueue.put(task);
+        } catch (
+            @SuppressWarnings("squid:S2142")
+            InterruptedException e) {
+          LOGGER.error(
+              "Database {} memtable flushing to file {}, encoding task is interrupted.",
+              storageGroup,
+              writer.getFile().getName(),
+              e);
+          // generally it is because the thread pool is shutdown so the task should be aborted
+          break;
+        }
+      } else if (task instanceof TaskEnd) {
+        break;
+      } else {
+        long starTime = System.currentTimeMillis();
+        IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
+        writableMemChunk.encode(ioTaskQueue);
+        long subTaskTime = System.currentTimeMillis() - starTime;
+        WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+        memSerializeTime += subTaskTime;
+      }
+    }
+  }
+
+  /**
+   * Encode the series on the encoding pool. Tasks are kept in a window in the order they are taken
+   * from the encoding task queue and handed to the io task from the head of the window, so that
+   * chunk groups arrive in device order and chunks of a chunk group arrive in series order even if
+   * later series finish encoding first.
+   */
+  private void encodeInParallel() {
+    Deque<Object> window = new ArrayDeque<>();
+    long startTime = System.currentTimeMillis();
+    try {
+      while (true) {
+        Object task = encodingTaskQueue.take();
+        if (task instanceof TaskEnd) {
+          break;
+        }
+        if (task instanceof IWritableMemChunk) {
+          IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
+          window.addLast(ENCODING_POOL_MANAGER.submit(() -> encodeOneSeries(writableMemChunk)));
+        } else {
+          window.addLast(task);
+        }
+        handOverEncodedTasks(window, getMaxInFlightEncodingTaskNum());
+      }
+      handOverEncodedTasks(window, 0);
+    } catch (InterruptedException e) {
+      LOGGER.error(
+          "Database {} memtable flushing to file {}, encoding task is interrupted.",
+          storageGroup,
+          writer.getFile().getName(),
+          e);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof RuntimeException
+          ? (RuntimeException) cause
+          : new IllegalStateException(cause);
+    } finally {
+      for (Object task : window) {
+        if (task instanceof Future) {
+          ((Future<?>) task).cancel(true);
+        }
+      }
+      // the encoding stage costs the wall time of the whole parallel encoding
+      memSerializeTime = System.currentTimeMillis() - startTime;
+    }
+  }
+
+  /**
+   * Hand the finished tasks at the head of the window over to the io task. If the window holds more
+   * than maxInFlightNum tasks, wait for the head to finish.
+   */
+  @SuppressWarnings("unchecked")
+  private void handOverEncodedTasks(Deque<Object> window, int maxInFlightNum)
+      throws InterruptedException, ExecutionException {
+    while (!window.isEmpty()) {
+      Object head = window.peekFirst();
+      if (head instanceof Future) {
+        Future<List<Object>> encodedSeries = (Future<List<Object>>) head;
+        if (!encodedSeries.isDone() && window.size() <= maxInFlightNum) {
+          return;
+        }
+        for (Object chunkWriter : encodedSeries.get()) {
+          ioTaskQueue.put(chunkWriter);
+        }
+      } else {
+        ioTaskQueue.put(head);
+      }
+      window.pollFirst();
+    }
+  }
+
+  private List<Object> encodeOneSeries(IWritableMemChunk writableMemChunk) {
+    long starTime = System.currentTimeMillis();
+    BlockingQueue<Object> encodedChunks = new LinkedBlockingQueue<>();
+    writableMemChunk.encode(encodedChunks);
+    WRITING_METRICS.recordFlushSubTaskCost(
+        WritingMetrics.ENCODING_TASK, System.currentTimeMillis() - starTime);
+    return new ArrayList<>(encodedChunks);
+  }
+
+  private int getMaxInFlightEncodingTaskNum() {
+    return encodingWorkerNum > 1 ? encodingWorkerNum * 2 : 0;
+  }
+
   public static void recordFlushPointsMetricInternal(
       long totalPointsNum, String storageGroupName, String dataRegionId) {
     long currentTime = CommonDateTimeUtils.currentTime();
@@ -38,6 +38,7 @@ import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IPointReader;
 import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.TsPrimitiveType;
@@ -97,7 +98,36 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
       Map<TVList, Integer> alignedTvListQueryMap,
       List<TimeRange> timeColumnDeletion,
       List<List<TimeRange>> valueColumnsDeletionList) {
-    super(context);
+    this(
+        context,
+        columnIndexList,
+        schema,
+        alignedTvListQueryMap,
+        timeColumnDeletion,
+        valueColumnsDeletionList,
+        null);
+  }
+
+  /**
+   * The constructor for Aligned type.
+   *
+   * @param context query context
+   * @param columnIndexList column index list
+   * @param schema VectorMeasurementSchema
+   * @param alignedTvListQueryMap AlignedTvList map
+   * @param timeColumnDeletion The timeRange of deletionList
+   * @param valueColumnsDeletionList time value column deletionList
+   * @param globalTimeFilter global time filter of the query, may be null
+   */
+  public AlignedReadOnlyMemChunk(
+      QueryContext context,
+      List<Integer> columnIndexList,
+      IMeasurementSchema schema,
+      Map<TVList, Integer> alignedTvListQueryMap,
+      List<TimeRange> timeColumnDeletion,
+      List<List<TimeRange>> valueColumnsDeletionList,
+      Filter globalTimeFilter) {
+    super(context, globalTimeFilter);
     this.pageOffsetsList = new ArrayList<>();
     this.timeChunkName = schema.getMeasurementName();
     this.valueChunkNames = schema.getSubMeasurementsList();
@@ -148,6 +178,7 @@ public class AlignedReadOnlyMemChunk extends ReadOnlyMemChunk {
             floatPrecision,
             encodingList,
             context.isIgnoreAllNullRows());
+    timeValuePairIterator.setAlignedTVListOffsets(getTvListStartOffsets(alignedTvListQueryMap));
     int[] alignedTvListOffsets = timeValuePairIterator.getAlignedTVListOffsets();
 
     int pointsInChunk = 0;
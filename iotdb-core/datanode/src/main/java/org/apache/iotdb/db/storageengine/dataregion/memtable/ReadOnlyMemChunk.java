@@ -38,6 +38,7 @@ import org.apache.tsfile.read.TimeValuePair;
 import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IPointReader;
 import org.apache.tsfile.write.UnSupportedDataTypeException;
 import org.slf4j.Logger;
@@ -87,11 +88,15 @@ public class ReadOnlyMemChunk {
 
   private MergeSortTVListIterator timeValuePairIterator;
 
+  // global time filter of the query, used to skip the leading rows of sorted TVLists
+  protected final Filter globalTimeFilter;
+
   protected final int MAX_NUMBER_OF_POINTS_IN_PAGE =
       TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
 
-  protected ReadOnlyMemChunk(QueryContext context) {
+  protected ReadOnlyMemChunk(QueryContext context, Filter globalTimeFilter) {
     this.context = context;
+    this.globalTimeFilter = globalTimeFilter;
   }
 
   public ReadOnlyMemChunk(
@@ -103,7 +108,21 @@ public class ReadOnlyMemChunk {
       Map<String, String> props,
       List<TimeRange> deletionList)
       throws IOException, QueryProcessException {
+    this(context, measurementUid, dataType, encoding, tvListQueryMap, props, deletionList, null);
+  }
+
+  public ReadOnlyMemChunk(
+      QueryContext context,
+      String measurementUid,
+      TSDataType dataType,
+      TSEncoding encoding,
+      Map<TVList, Integer> tvListQueryMap,
+      Map<String, String> props,
+      List<TimeRange> deletionList,
+      Filter globalTimeFilter)
+      throws IOException, QueryProcessException {
     this.context = context;
+    this.globalTimeFilter = globalTimeFilter;
     this.measurementUid = measurementUid;
     this.dataType = dataType;
     int floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
@@ -149,6 +168,7 @@ public class ReadOnlyMemChunk {
     int[] deleteCursor = {0};
     List<TVList> tvLists = new ArrayList<>(tvListQueryMap.keySet());
     timeValuePairIterator = new MergeSortTVListIterator(tvLists, floatPrecision, encoding);
+    timeValuePairIterator.setTVListOffsets(getTvListStartOffsets(tvListQueryMap));
     int[] tvListOffsets = timeValuePairIterator.getTVListOffsets();
     while (timeValuePairIterator.hasNextTimeValuePair()) {
       if (pointsInChunk % MAX_NUMBER_OF_POINTS_IN_PAGE == 0) {
@@ -206,6 +226,49 @@ public class ReadOnlyMemChunk {
     cachedMetaData = metaData;
   }
 
+  /**
+   * Get the first row of each TVList that may satisfy the global time filter. The rows before it in
+   * a sorted TVList are never selected by the query, so they are skipped by binary search instead
+   * of being scanned. TVLists that are not sorted start from 0.
+   *
+   * @param tvListQueryMap TVLists and their row count during query
+   * @return start offsets in the iteration order of tvListQueryMap
+   */
+  protected int[] getTvListStartOffsets(Map<TVList, Integer> tvListQueryMap) {
+    int[] startOffsets = new int[tvListQueryMap.size()];
+    if (globalTimeFilter == null) {
+      return startOffsets;
+    }
+    // should copy globalTimeFilter because GroupByMonthFilter is stateful
+    Filter copyTimeFilter = globalTimeFilter.copy();
+    int i = 0;
+    for (Map.Entry<TVList, Integer> entry : tvListQueryMap.entrySet()) {
+      TVList tvList = entry.getKey();
+      int queryRowCount = entry.getValue();
+      if (tvList.isSorted() || queryRowCount <= tvList.seqRowCount()) {
+        startOffsets[i] = searchFirstSatisfiedRow(tvList, queryRowCount, copyTimeFilter);
+      }
+      i++;
+    }
+    return startOffsets;
+  }
+
+  // [Long.MIN_VALUE, time] only grows with time, so whether it may satisfy the filter is monotonic
+  // over the sorted rows.
+  private static int searchFirstSatisfiedRow(TVList tvList, int rowCount, Filter timeFilter) {
+    int low = 0;
+    int high = rowCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timeFilter.satisfyStartEndTime(Long.MIN_VALUE, tvList.getTime(mid))) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
   public TSDataType getDataType() {
     return dataType;
   }
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.storageengine.dataregion.read.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import org.apache.tsfile.read.TsFileSequenceReader;
@@ -147,7 +148,10 @@ public class FileReaderManager {
         tsFileReader = new UnClosedTsFileReader(filePath, ioSizeRecorder);
       } else {
         // already do the version check in TsFileSequenceReader's constructor
-        tsFileReader = new TsFileSequenceReader(filePath, ioSizeRecorder);
+        tsFileReader =
+            IoTDBDescriptor.getInstance().getConfig().isEnableMmapSealedTsFileRead()
+                ? new MmapTsFileSequenceReader(filePath, ioSizeRecorder)
+                : new TsFileSequenceReader(filePath, ioSizeRecorder);
       }
       readerMap.put(filePath, tsFileReader);
       return tsFileReader;
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.iotdb.db.utils.MmapUtil;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link TsFileInput} of a sealed TsFile, which maps the whole file into memory and copies the
+ * data from the page cache directly instead of reading it through the file channel.
+ *
+ * <p>Accessing a mapping after it's unmapped crashes the JVM, so the data is always copied out of
+ * the mapping, and the mapping is unmapped by the last one of {@link #close()} and the reads in
+ * progress. A read after closing fails like a closed file channel.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  /** A MappedByteBuffer can't be larger than 2GB, so a large file is mapped in regions. */
+  private static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+  private final String filePath;
+  private final long size;
+  private final long regionSize;
+  private final MappedByteBuffer[] regions;
+
+  private long position = 0;
+
+  /** Number of the reads in progress. */
+  private final AtomicInteger readingCount = new AtomicInteger(0);
+
+  private volatile boolean closed = false;
+  private final AtomicBoolean unmapped = new AtomicBoolean(false);
+
+  public MmapTsFileInput(String filePath) throws IOException {
+    this(filePath, DEFAULT_REGION_SIZE);
+  }
+
+  MmapTsFileInput(String filePath, long regionSize) throws IOException {
+    this.filePath = filePath;
+    this.regionSize = regionSize;
+    // the mappings stay valid after the channel is closed
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      this.size = channel.size();
+      this.regions = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+      try {
+        for (int i = 0; i < regions.length; i++) {
+          long regionStart = i * regionSize;
+          regions[i] =
+              channel.map(
+                  FileChannel.MapMode.READ_ONLY,
+                  regionStart,
+                  Math.min(regionSize, size - regionStart));
+        }
+      } catch (IOException e) {
+        unmap();
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    checkClosed();
+    return size;
+  }
+
+  @Override
+  public synchronized long position() throws IOException {
+    checkClosed();
+    return position;
+  }
+
+  @Override
+  public synchronized TsFileInput position(long newPosition) throws IOException {
+    checkClosed();
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Position should not be negative: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("Position should not be negative: " + position);
+    }
+    acquire();
+    try {
+      if (position >= size) {
+        return -1;
+      }
+      int readSize = (int) Math.min(dst.remaining(), size - position);
+      int remaining = readSize;
+      long current = position;
+      while (remaining > 0) {
+        ByteBuffer region = regions[(int) (current / regionSize)].duplicate();
+        int offset = (int) (current % regionSize);
+        int length = Math.min(remaining, region.capacity() - offset);
+        region.position(offset);
+        region.limit(offset + length);
+        dst.put(region);
+        remaining -= length;
+        current += length;
+      }
+      return readSize;
+    } finally {
+      release();
+    }
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() throws IOException {
+    checkClosed();
+    return new MmapInputStream();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    if (readingCount.get() == 0) {
+      unmap();
+    }
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  private void checkClosed() throws ClosedChannelException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  /**
+   * A read is counted before checking whether the input is closed, and close() marks the input as
+   * closed before checking the reads in progress, so either the read fails or the mapping is
+   * unmapped after it finishes.
+   */
+  private void acquire() throws ClosedChannelException {
+    readingCount.incrementAndGet();
+    if (closed) {
+      release();
+      throw new ClosedChannelException();
+    }
+  }
+
+  private void release() {
+    if (readingCount.decrementAndGet() == 0 && closed) {
+      unmap();
+    }
+  }
+
+  private void unmap() {
+    if (unmapped.compareAndSet(false, true)) {
+      for (MappedByteBuffer region : regions) {
+        MmapUtil.clean(region);
+      }
+    }
+  }
+
+  /** Reads from the position of the input and moves it, like the stream of a file channel. */
+  private class MmapInputStream extends InputStream {
+
+    @Override
+    public int read() throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(1);
+      return MmapTsFileInput.this.read(buffer) == 1 ? buffer.get(0) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      return MmapTsFileInput.this.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      synchronized (MmapTsFileInput.this) {
+        long skipped = Math.max(0, Math.min(n, size - position));
+        position += skipped;
+        return skipped;
+      }
+    }
+
+    @Override
+    public int available() throws IOException {
+      synchronized (MmapTsFileInput.this) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, size - position));
+      }
+    }
+  }
+}
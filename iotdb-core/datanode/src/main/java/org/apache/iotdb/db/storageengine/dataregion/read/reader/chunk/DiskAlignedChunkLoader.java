@@ -22,14 +22,16 @@ package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.ChunkPrefetcher;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.read.common.Chunk;
-import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
 import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
@@ -41,7 +43,7 @@ import java.util.List;
 
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.INIT_CHUNK_READER_ALIGNED_DISK;
 
-public class DiskAlignedChunkLoader implements IChunkLoader {
+public class DiskAlignedChunkLoader implements IPrefetchableChunkLoader {
 
   private final QueryContext context;
 
@@ -66,6 +68,34 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public ListenableFuture<Void> prefetchChunk(IChunkMetadata chunkMetadata) {
+    // the unclosed file is still being written, its chunks are read when needed
+    if (!resource.isClosed()) {
+      return Futures.immediateFuture(null);
+    }
+    AbstractAlignedChunkMetadata alignedChunkMetadata =
+        (AbstractAlignedChunkMetadata) chunkMetadata;
+    List<ChunkCache.ChunkCacheKey> chunkCacheKeys = new ArrayList<>();
+    chunkCacheKeys.add(
+        new ChunkCache.ChunkCacheKey(
+            resource.getTsFilePath(),
+            resource.getTsFileID(),
+            alignedChunkMetadata.getTimeChunkMetadata().getOffsetOfChunkHeader(),
+            true));
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null) {
+        chunkCacheKeys.add(
+            new ChunkCache.ChunkCacheKey(
+                resource.getTsFilePath(),
+                resource.getTsFileID(),
+                valueChunkMetadata.getOffsetOfChunkHeader(),
+                true));
+      }
+    }
+    return ChunkPrefetcher.getInstance().prefetch(resource, chunkCacheKeys, context);
+  }
+
   @Override
   public void close() throws IOException {
     // there is no resource need to be closed
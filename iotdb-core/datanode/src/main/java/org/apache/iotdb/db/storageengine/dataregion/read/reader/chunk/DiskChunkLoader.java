@@ -22,23 +22,26 @@ package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.ChunkPrefetcher;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.read.common.Chunk;
-import org.apache.tsfile.read.controller.IChunkLoader;
 import org.apache.tsfile.read.filter.basic.Filter;
 import org.apache.tsfile.read.reader.IChunkReader;
 import org.apache.tsfile.read.reader.chunk.ChunkReader;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.INIT_CHUNK_READER_NONALIGNED_DISK;
 
 /** To read one chunk from disk, and only used in iotdb server module. */
-public class DiskChunkLoader implements IChunkLoader {
+public class DiskChunkLoader implements IPrefetchableChunkLoader {
 
   private final QueryContext context;
 
@@ -63,6 +66,24 @@ public class DiskChunkLoader implements IChunkLoader {
             context);
   }
 
+  @Override
+  public ListenableFuture<Void> prefetchChunk(IChunkMetadata chunkMetadata) {
+    // the unclosed file is still being written, its chunks are read when needed
+    if (!resource.isClosed()) {
+      return Futures.immediateFuture(null);
+    }
+    return ChunkPrefetcher.getInstance()
+        .prefetch(
+            resource,
+            Collections.singletonList(
+                new ChunkCache.ChunkCacheKey(
+                    resource.getTsFilePath(),
+                    resource.getTsFileID(),
+                    chunkMetadata.getOffsetOfChunkHeader(),
+                    true)),
+            context);
+  }
+
   @Override
   public void close() {
     // do nothing
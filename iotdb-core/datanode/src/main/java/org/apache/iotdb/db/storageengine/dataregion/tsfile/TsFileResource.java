@@ -45,6 +45,8 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Modification
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.CompactDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.DeviceIdDictionary;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.PlainDeviceTimeIndex;
@@ -317,6 +319,7 @@ public class TsFileResource implements PersistentResource {
       // The first byte is VERSION_NUMBER, second byte is timeIndexType.
       ReadWriteIOUtils.readByte(inputStream);
       timeIndex = ITimeIndex.createTimeIndex(inputStream);
+      compactTimeIndexIfNecessary();
       maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
       minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
 
@@ -372,13 +375,30 @@ public class TsFileResource implements PersistentResource {
   }
 
   public void updateStartTime(IDeviceID device, long time) {
+    expandCompactTimeIndex();
     timeIndex.updateStartTime(device, time);
   }
 
   public void updateEndTime(IDeviceID device, long time) {
+    expandCompactTimeIndex();
     timeIndex.updateEndTime(device, time);
   }
 
+  /** Replace the ArrayDeviceTimeIndex with its compact form if it is enabled. */
+  private void compactTimeIndexIfNecessary() {
+    if (CONFIG.isEnableCompactDeviceTimeIndex()
+        && timeIndex.getTimeIndexType() == ITimeIndex.ARRAY_DEVICE_TIME_INDEX_TYPE) {
+      timeIndex = CompactDeviceTimeIndex.compact((ArrayDeviceTimeIndex) timeIndex);
+    }
+  }
+
+  /** CompactDeviceTimeIndex is read-only, expand it before the time index is updated. */
+  private void expandCompactTimeIndex() {
+    if (timeIndex instanceof CompactDeviceTimeIndex) {
+      timeIndex = ((CompactDeviceTimeIndex) timeIndex).toArrayDeviceTimeIndex();
+    }
+  }
+
   public boolean resourceFileExists() {
     return file != null && fsFactory.getFile(file + RESOURCE_SUFFIX).exists();
   }
@@ -745,6 +765,7 @@ public class TsFileResource implements PersistentResource {
     pathToReadOnlyMemChunkMap = null;
     pathToTimeSeriesMetadataMap = null;
     timeIndex.close();
+    compactTimeIndexIfNecessary();
   }
 
   public TsFileProcessor getProcessor() {
@@ -1336,6 +1357,23 @@ public class TsFileResource implements PersistentResource {
     }
   }
 
+  /**
+   * Intern the devices of the CompactDeviceTimeIndex into the given dictionary, its memory cost
+   * does not change.
+   *
+   * @return the number of devices in the CompactDeviceTimeIndex, or 0 if there is none
+   */
+  public int reinternCompactTimeIndex(DeviceIdDictionary dictionary) {
+    ITimeIndex currentTimeIndex = timeIndex;
+    if (!(currentTimeIndex instanceof CompactDeviceTimeIndex)) {
+      return 0;
+    }
+    CompactDeviceTimeIndex compactTimeIndex =
+        ((CompactDeviceTimeIndex) currentTimeIndex).reintern(dictionary);
+    timeIndex = compactTimeIndex;
+    return compactTimeIndex.getDevices().size();
+  }
+
   /** the DeviceTimeIndex degrade to FileTimeIndex and release memory */
   public long degradeTimeIndex() {
     TimeIndexLevel timeIndexLevel = TimeIndexLevel.valueOf(getTimeIndexType());
@@ -1368,6 +1406,7 @@ public class TsFileResource implements PersistentResource {
   }
 
   public void updateEndTime(Map<IDeviceID, Long> lastTimeForEachDevice) {
+    expandCompactTimeIndex();
     for (Map.Entry<IDeviceID, Long> entry : lastTimeForEachDevice.entrySet()) {
       timeIndex.updateEndTime(entry.getKey(), entry.getValue());
     }
@@ -0,0 +1,496 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.exception.load.PartitionViolationException;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.FilePathUtils;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only device time index of a sealed TsFile.
+ *
+ * <p>Devices are replaced by their ids in the {@link DeviceIdDictionary} shared by all files and
+ * kept in a sorted int array, which is binary searched for lookups. The start time of each device
+ * is stored as its offset from the min start time of the file, and the end time as its offset from
+ * the start time of the device, both bit-packed with the width of the largest offset.
+ *
+ * <p>It is serialized exactly as an {@link ArrayDeviceTimeIndex}, so resource files do not change.
+ * Callers going through {@link TsFileResource} get an {@link ArrayDeviceTimeIndex} back before any
+ * update.
+ */
+public class CompactDeviceTimeIndex extends ArrayDeviceTimeIndex {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CompactDeviceTimeIndex.class);
+
+  private static final long[] EMPTY_TIMES = new long[0];
+
+  private final DeviceIdDictionary dictionary;
+
+  /** sorted ids of devices in this file */
+  private final int[] deviceIds;
+
+  private final int startOffsetBitWidth;
+
+  /** start time - min start time, in the order of deviceIds */
+  private final long[] packedStartOffsets;
+
+  private final int durationBitWidth;
+
+  /** end time - start time, in the order of deviceIds */
+  private final long[] packedDurations;
+
+  private CompactDeviceTimeIndex(
+      DeviceIdDictionary dictionary,
+      int[] deviceIds,
+      long minStartTime,
+      long maxEndTime,
+      int startOffsetBitWidth,
+      long[] packedStartOffsets,
+      int durationBitWidth,
+      long[] packedDurations) {
+    super(Collections.emptyMap(), EMPTY_TIMES, EMPTY_TIMES);
+    this.dictionary = dictionary;
+    this.deviceIds = deviceIds;
+    this.minStartTime = minStartTime;
+    this.maxEndTime = maxEndTime;
+    this.startOffsetBitWidth = startOffsetBitWidth;
+    this.packedStartOffsets = packedStartOffsets;
+    this.durationBitWidth = durationBitWidth;
+    this.packedDurations = packedDurations;
+  }
+
+  /**
+   * @return the compact form of the given index, or the given index itself if it is empty or still
+   *     has a device whose end time is before its start time, e.g. an unsealed one
+   */
+  public static ArrayDeviceTimeIndex compact(ArrayDeviceTimeIndex timeIndex) {
+    return compact(timeIndex, DeviceIdDictionary.getInstance());
+  }
+
+  static ArrayDeviceTimeIndex compact(
+      ArrayDeviceTimeIndex timeIndex, DeviceIdDictionary dictionary) {
+    if (timeIndex instanceof CompactDeviceTimeIndex) {
+      return timeIndex;
+    }
+    Map<IDeviceID, Integer> deviceToIndex = timeIndex.getDeviceToIndex();
+    long[] startTimes = timeIndex.getStartTimes();
+    long[] endTimes = timeIndex.getEndTimes();
+    int deviceNum = deviceToIndex.size();
+    if (deviceNum == 0) {
+      return timeIndex;
+    }
+
+    // high 32 bits: device id, low 32 bits: index in startTimes and endTimes
+    long[] idAndIndexes = new long[deviceNum];
+    long minStart = Long.MAX_VALUE;
+    long maxEnd = Long.MIN_VALUE;
+    int i = 0;
+    for (Map.Entry<IDeviceID, Integer> entry : deviceToIndex.entrySet()) {
+      int index = entry.getValue();
+      if (endTimes[index] < startTimes[index]) {
+        return timeIndex;
+      }
+      minStart = Math.min(minStart, startTimes[index]);
+      maxEnd = Math.max(maxEnd, endTimes[index]);
+      idAndIndexes[i++] = ((long) dictionary.getOrCreateId(entry.getKey()) << 32) | index;
+    }
+    Arrays.sort(idAndIndexes);
+
+    int[] deviceIds = new int[deviceNum];
+    long[] startOffsets = new long[deviceNum];
+    long[] durations = new long[deviceNum];
+    long startOffsetBits = 0;
+    long durationBits = 0;
+    for (i = 0; i < deviceNum; i++) {
+      int index = (int) idAndIndexes[i];
+      deviceIds[i] = (int) (idAndIndexes[i] >>> 32);
+      // both differences are non-negative, they are read back as unsigned values
+      startOffsets[i] = startTimes[index] - minStart;
+      durations[i] = endTimes[index] - startTimes[index];
+      startOffsetBits |= startOffsets[i];
+      durationBits |= durations[i];
+    }
+    int startOffsetBitWidth = Long.SIZE - Long.numberOfLeadingZeros(startOffsetBits);
+    int durationBitWidth = Long.SIZE - Long.numberOfLeadingZeros(durationBits);
+    return new CompactDeviceTimeIndex(
+        dictionary,
+        deviceIds,
+        minStart,
+        maxEnd,
+        startOffsetBitWidth,
+        pack(startOffsets, startOffsetBitWidth),
+        durationBitWidth,
+        pack(durations, durationBitWidth));
+  }
+
+  /** The same index with its devices interned into the given dictionary. */
+  public CompactDeviceTimeIndex reintern(DeviceIdDictionary newDictionary) {
+    if (newDictionary == dictionary) {
+      return this;
+    }
+    // never empty, so it is compacted again
+    return (CompactDeviceTimeIndex) compact(toArrayDeviceTimeIndex(), newDictionary);
+  }
+
+  /** Expand to a mutable {@link ArrayDeviceTimeIndex} with the same content. */
+  public ArrayDeviceTimeIndex toArrayDeviceTimeIndex() {
+    return new ArrayDeviceTimeIndex(getDeviceToIndex(), getStartTimes(), getEndTimes());
+  }
+
+  private static long[] pack(long[] values, int bitWidth) {
+    long[] packed = new long[(int) (((long) values.length * bitWidth + Long.SIZE - 1) / Long.SIZE)];
+    if (bitWidth == 0) {
+      return packed;
+    }
+    for (int i = 0; i < values.length; i++) {
+      long bitIndex = (long) i * bitWidth;
+      int word = (int) (bitIndex >>> 6);
+      int offset = (int) (bitIndex & 63);
+      packed[word] |= values[i] << offset;
+      if (offset + bitWidth > Long.SIZE) {
+        packed[word + 1] |= values[i] >>> (Long.SIZE - offset);
+      }
+    }
+    return packed;
+  }
+
+  private static long unpack(long[] packed, int bitWidth, int i) {
+    if (bitWidth == 0) {
+      return 0;
+    }
+    long bitIndex = (long) i * bitWidth;
+    int word = (int) (bitIndex >>> 6);
+    int offset = (int) (bitIndex & 63);
+    long value = packed[word] >>> offset;
+    if (offset + bitWidth > Long.SIZE) {
+      value |= packed[word + 1] << (Long.SIZE - offset);
+    }
+    return bitWidth == Long.SIZE ? value : value & ((1L << bitWidth) - 1);
+  }
+
+  private long startTimeAt(int position) {
+    return minStartTime + unpack(packedStartOffsets, startOffsetBitWidth, position);
+  }
+
+  private long endTimeAt(int position) {
+    return startTimeAt(position) + unpack(packedDurations, durationBitWidth, position);
+  }
+
+  /**
+   * @return the position of the device in deviceIds, or a negative value if it is not in this file
+   */
+  private int positionOf(IDeviceID deviceId) {
+    int id = dictionary.getId(deviceId);
+    return id < 0 ? -1 : Arrays.binarySearch(deviceIds, id);
+  }
+
+  @Override
+  public void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(getTimeIndexType(), outputStream);
+    ReadWriteIOUtils.write(deviceIds.length, outputStream);
+    for (int i = 0; i < deviceIds.length; i++) {
+      ReadWriteIOUtils.write(startTimeAt(i), outputStream);
+      ReadWriteIOUtils.write(endTimeAt(i), outputStream);
+    }
+    for (int i = 0; i < deviceIds.length; i++) {
+      dictionary.getDevice(deviceIds[i]).serialize(outputStream);
+      ReadWriteIOUtils.write(i, outputStream);
+    }
+  }
+
+  @Override
+  public ArrayDeviceTimeIndex deserialize(InputStream inputStream) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public ArrayDeviceTimeIndex deserialize(ByteBuffer buffer) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public void close() {
+    // already compact
+  }
+
+  @Override
+  public Set<IDeviceID> getDevices() {
+    return new DeviceSet();
+  }
+
+  @Override
+  public Set<IDeviceID> getDevices(String tsFilePath, TsFileResource tsFileResource) {
+    return getDevices();
+  }
+
+  /** Materializes the index, only for callers that need the arrays themselves. */
+  @Override
+  public Map<IDeviceID, Integer> getDeviceToIndex() {
+    Map<IDeviceID, Integer> deviceToIndex = new ConcurrentHashMap<>(deviceIds.length * 4 / 3 + 1);
+    for (int i = 0; i < deviceIds.length; i++) {
+      deviceToIndex.put(dictionary.getDevice(deviceIds[i]), i);
+    }
+    return deviceToIndex;
+  }
+
+  @Override
+  public long[] getStartTimes() {
+    long[] startTimes = new long[deviceIds.length];
+    for (int i = 0; i < deviceIds.length; i++) {
+      startTimes[i] = startTimeAt(i);
+    }
+    return startTimes;
+  }
+
+  @Override
+  public long[] getEndTimes() {
+    long[] endTimes = new long[deviceIds.length];
+    for (int i = 0; i < deviceIds.length; i++) {
+      endTimes[i] = endTimeAt(i);
+    }
+    return endTimes;
+  }
+
+  @Override
+  public boolean endTimeEmpty() {
+    // end times are never before start times, so they can't be all Long.MIN_VALUE unless the file
+    // only has data at Long.MIN_VALUE
+    return maxEndTime == Long.MIN_VALUE;
+  }
+
+  @Override
+  public boolean stillLives(long ttlLowerBound) {
+    return ttlLowerBound == Long.MAX_VALUE || maxEndTime >= ttlLowerBound;
+  }
+
+  @Override
+  public long calculateRamSize() {
+    return INSTANCE_SIZE
+        + RamUsageEstimator.sizeOf(deviceIds)
+        + RamUsageEstimator.sizeOf(packedStartOffsets)
+        + RamUsageEstimator.sizeOf(packedDurations);
+  }
+
+  @Override
+  public long getTimePartition(String tsFilePath) {
+    try {
+      if (deviceIds.length > 0) {
+        return TimePartitionUtils.getTimePartitionId(startTimeAt(0));
+      }
+      String[] filePathSplits = FilePathUtils.splitTsFilePath(tsFilePath);
+      return Long.parseLong(filePathSplits[filePathSplits.length - 2]);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  @Override
+  public long getTimePartitionWithCheck(String tsFilePath) throws PartitionViolationException {
+    try {
+      return getTimePartitionWithCheck();
+    } catch (PartitionViolationException e) {
+      throw new PartitionViolationException(tsFilePath);
+    }
+  }
+
+  @Override
+  public boolean isSpanMultiTimePartitions() {
+    try {
+      getTimePartitionWithCheck();
+      return false;
+    } catch (PartitionViolationException e) {
+      return true;
+    }
+  }
+
+  private long getTimePartitionWithCheck() throws PartitionViolationException {
+    if (deviceIds.length == 0) {
+      throw new PartitionViolationException();
+    }
+    // every device lies in [minStartTime, maxEndTime]
+    long partitionId = TimePartitionUtils.getTimePartitionId(minStartTime);
+    if (partitionId != TimePartitionUtils.getTimePartitionId(maxEndTime)) {
+      throw new PartitionViolationException();
+    }
+    return partitionId;
+  }
+
+  @Override
+  public void updateStartTime(IDeviceID deviceId, long time) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public void updateEndTime(IDeviceID deviceId, long time) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public void putStartTime(IDeviceID deviceId, long time) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public void putEndTime(IDeviceID deviceId, long time) {
+    throw new UnsupportedOperationException("CompactDeviceTimeIndex is read-only");
+  }
+
+  @Override
+  public Optional<Long> getStartTime(IDeviceID deviceId) {
+    int position = positionOf(deviceId);
+    return position < 0 ? Optional.empty() : Optional.of(startTimeAt(position));
+  }
+
+  @Override
+  public Optional<Long> getEndTime(IDeviceID deviceId) {
+    int position = positionOf(deviceId);
+    return position < 0 ? Optional.empty() : Optional.of(endTimeAt(position));
+  }
+
+  @Override
+  public boolean checkDeviceIdExist(IDeviceID deviceId) {
+    return positionOf(deviceId) >= 0;
+  }
+
+  @Override
+  public boolean definitelyNotContains(IDeviceID device) {
+    return positionOf(device) < 0;
+  }
+
+  @Override
+  public boolean isDeviceAlive(IDeviceID device, long ttl) {
+    if (ttl == Long.MAX_VALUE) {
+      return true;
+    }
+    int position = positionOf(device);
+    return position >= 0 && endTimeAt(position) >= CommonDateTimeUtils.currentTime() - ttl;
+  }
+
+  @Override
+  public long[] getStartAndEndTime(IDeviceID deviceId) {
+    int position = positionOf(deviceId);
+    return position < 0 ? null : new long[] {startTimeAt(position), endTimeAt(position)};
+  }
+
+  @Override
+  public Pair<Long, Long> getPossibleStartTimeAndEndTime(
+      PartialPath devicePattern, Set<IDeviceID> deviceMatchInfo) {
+    boolean hasMatchedDevice = false;
+    long startTime = Long.MAX_VALUE;
+    long endTime = Long.MIN_VALUE;
+    for (int i = 0; i < deviceIds.length; i++) {
+      IDeviceID device = dictionary.getDevice(deviceIds[i]);
+      try {
+        if (deviceMatchInfo.contains(device)) {
+          hasMatchedDevice = true;
+        } else if (devicePattern.matchFullPath(new PartialPath(device))) {
+          deviceMatchInfo.add(device);
+          hasMatchedDevice = true;
+        } else {
+          continue;
+        }
+        startTime = Math.min(startTime, startTimeAt(i));
+        endTime = Math.max(endTime, endTimeAt(i));
+      } catch (IllegalPathException e) {
+        // won't reach here
+      }
+    }
+
+    return hasMatchedDevice ? new Pair<>(startTime, endTime) : null;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(" DeviceNum = ").append(deviceIds.length);
+    builder.append(" StartOffsetBitWidth = ").append(startOffsetBitWidth);
+    builder.append(" DurationBitWidth = ").append(durationBitWidth);
+    builder.append(" Devices = [");
+    for (int i = 0; i < deviceIds.length; i++) {
+      builder
+          .append(" device = ")
+          .append(dictionary.getDevice(deviceIds[i]))
+          .append(", startTime = ")
+          .append(startTimeAt(i))
+          .append(", endTime = ")
+          .append(endTimeAt(i));
+    }
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /** Read-only view of the devices in this file. */
+  private class DeviceSet extends AbstractSet<IDeviceID> {
+
+    @Override
+    public Iterator<IDeviceID> iterator() {
+      return new Iterator<IDeviceID>() {
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+          return position < deviceIds.length;
+        }
+
+        @Override
+        public IDeviceID next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return dictionary.getDevice(deviceIds[position++]);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof IDeviceID && positionOf((IDeviceID) o) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return deviceIds.length;
+    }
+  }
+}
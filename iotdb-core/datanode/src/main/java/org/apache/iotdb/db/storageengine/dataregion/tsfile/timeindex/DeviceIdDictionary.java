@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the devices of all {@link CompactDeviceTimeIndex}es, so that each file only keeps an int
+ * id per device and every distinct IDeviceID is held on heap once.
+ *
+ * <p>Ids are not released one by one, as a query may still look devices up through the index of a
+ * file which has been degraded or removed, and a reused id would return another device. Instead,
+ * {@link org.apache.iotdb.db.storageengine.rescon.memory.TsFileResourceManager} charges the size of
+ * the dictionary to the time index memory, and once most of its ids are dead, {@link #renew()}s it
+ * and interns the devices of the live files again. Each index keeps the dictionary it was built
+ * with, so the indexes still in use by queries stay valid until they are collected.
+ */
+public class DeviceIdDictionary {
+
+  private static final int INIT_CAPACITY = 1024;
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(DeviceIdDictionary.class);
+
+  private static final long ENTRY_SIZE =
+      RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY
+          + RamUsageEstimator.shallowSizeOfInstance(Integer.class);
+
+  // initialized after the sizes above, which the constructor uses
+  private static volatile DeviceIdDictionary instance = new DeviceIdDictionary();
+
+  private final Map<IDeviceID, Integer> deviceToId = new ConcurrentHashMap<>();
+
+  /**
+   * id -> device. Rewritten after every new device so that readers going through the volatile
+   * reference see the element written before it.
+   */
+  private volatile IDeviceID[] idToDevice = new IDeviceID[INIT_CAPACITY];
+
+  private int size = 0;
+
+  private volatile long ramSize =
+      INSTANCE_SIZE + RamUsageEstimator.shallowSizeOf(new IDeviceID[INIT_CAPACITY]);
+
+  DeviceIdDictionary() {}
+
+  /**
+   * @return the id of the device, the device is assigned a new id if it has not been seen before
+   */
+  public int getOrCreateId(IDeviceID device) {
+    Integer id = deviceToId.get(device);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = deviceToId.get(device);
+      if (id != null) {
+        return id;
+      }
+      IDeviceID[] devices = idToDevice;
+      long newRamSize = ramSize + ENTRY_SIZE + device.ramBytesUsed();
+      if (size == devices.length) {
+        newRamSize -= RamUsageEstimator.shallowSizeOf(devices);
+        devices = Arrays.copyOf(devices, devices.length * 2);
+        newRamSize += RamUsageEstimator.shallowSizeOf(devices);
+      }
+      devices[size] = device;
+      idToDevice = devices;
+      deviceToId.put(device, size);
+      ramSize = newRamSize;
+      return size++;
+    }
+  }
+
+  /**
+   * @return the id of the device, or -1 if the device has never been interned
+   */
+  public int getId(IDeviceID device) {
+    Integer id = deviceToId.get(device);
+    return id == null ? -1 : id;
+  }
+
+  public IDeviceID getDevice(int id) {
+    return idToDevice[id];
+  }
+
+  public int size() {
+    return deviceToId.size();
+  }
+
+  /** the estimated heap size of the dictionary, including the interned devices */
+  public long getRamSize() {
+    return ramSize;
+  }
+
+  @TestOnly
+  public synchronized void clear() {
+    deviceToId.clear();
+    idToDevice = new IDeviceID[INIT_CAPACITY];
+    size = 0;
+    ramSize = INSTANCE_SIZE + RamUsageEstimator.shallowSizeOf(idToDevice);
+  }
+
+  public static DeviceIdDictionary getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replace the shared dictionary by an empty one, indexes compacted from now on intern their
+   * devices into the new one.
+   *
+   * @return the new dictionary
+   */
+  public static synchronized DeviceIdDictionary renew() {
+    instance = new DeviceIdDictionary();
+    return instance;
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.MmapUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * Allocate the blocks of off-heap TVLists in direct memory. A block holds {@link
+ * PrimitiveArrayManager#ARRAY_SIZE} elements of 4 or 8 bytes, the same as a primitive array of
+ * on-heap TVLists. Blocks are cut from slabs of {@link #SLAB_SIZE_IN_BYTES}, so that direct memory
+ * is requested from the JVM in large pieces.
+ *
+ * <p>Each slab counts its used blocks, and new blocks are taken from slabs which already have used
+ * blocks first. A slab is charged to the off-heap memtable memory of {@link SystemInfo} as a whole
+ * while any of its blocks is used. When none is used anymore, the slab is kept for reuse if the
+ * slabs kept so far do not exceed offheap_memtable_pool_size_in_byte, otherwise its direct memory
+ * is freed at once. So the retained direct memory is the charged slabs plus at most the pool size.
+ */
+public class OffHeapSlabAllocator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapSlabAllocator.class);
+
+  public static final int SLAB_SIZE_IN_BYTES = 1024 * 1024;
+
+  /** slabs of 4-byte elements */
+  private static final SlabPool INT_SLABS = new SlabPool(Integer.BYTES);
+
+  /** slabs of 8-byte elements */
+  private static final SlabPool LONG_SLABS = new SlabPool(Long.BYTES);
+
+  /** total size of the slabs not freed yet, including the ones kept for reuse */
+  private static final AtomicLong SLAB_BYTES = new AtomicLong(0);
+
+  /** total size of the slabs without used blocks kept for reuse */
+  private static final AtomicLong POOLED_BYTES = new AtomicLong(0);
+
+  /** total size of the blocks held by TVLists */
+  private static final AtomicLong USED_BYTES = new AtomicLong(0);
+
+  private OffHeapSlabAllocator() {
+    // Empty constructor
+  }
+
+  /**
+   * Get a free block of a slab in use, of a kept slab or of a new slab.
+   *
+   * @param elementSize 4 or 8
+   * @return a block of ARRAY_SIZE * elementSize bytes in native order, its content is undefined
+   */
+  public static Block allocate(int elementSize) {
+    return getSlabPool(elementSize).allocate();
+  }
+
+  /** Bring back a block to its slab. The block should not be accessed after released. */
+  public static void release(Block block) {
+    block.slab.pool.release(block);
+  }
+
+  /** Add size to the pooled bytes unless the pool of both element sizes would be too large. */
+  private static boolean tryPool(long size) {
+    long poolSize = IoTDBDescriptor.getInstance().getConfig().getOffHeapMemTablePoolSizeInByte();
+    while (true) {
+      long pooledBytes = POOLED_BYTES.get();
+      if (pooledBytes + size > poolSize) {
+        return false;
+      }
+      if (POOLED_BYTES.compareAndSet(pooledBytes, pooledBytes + size)) {
+        return true;
+      }
+    }
+  }
+
+  private static SlabPool getSlabPool(int elementSize) {
+    switch (elementSize) {
+      case Integer.BYTES:
+        return INT_SLABS;
+      case Long.BYTES:
+        return LONG_SLABS;
+      default:
+        throw new IllegalArgumentException("Unsupported element size: " + elementSize);
+    }
+  }
+
+  public static long getSlabBytes() {
+    return SLAB_BYTES.get();
+  }
+
+  public static long getPooledBytes() {
+    return POOLED_BYTES.get();
+  }
+
+  public static long getUsedBytes() {
+    return USED_BYTES.get();
+  }
+
+  /** A block of a slab. Its buffer is a slice of the slab, and stays the same when reused. */
+  public static final class Block {
+
+    private final Slab slab;
+    private final ByteBuffer buffer;
+
+    private Block(Slab slab, ByteBuffer buffer) {
+      this.slab = slab;
+      this.buffer = buffer;
+    }
+
+    public ByteBuffer getBuffer() {
+      return buffer;
+    }
+  }
+
+  private static class Slab {
+
+    private final SlabPool pool;
+    private final ByteBuffer memory;
+    private final int blockCount;
+    private final ArrayDeque<Block> freeBlocks;
+
+    private Slab(SlabPool pool, int blockSize, int blockCount) {
+      this.pool = pool;
+      this.memory = ByteBuffer.allocateDirect(blockSize * blockCount);
+      this.blockCount = blockCount;
+      this.freeBlocks = new ArrayDeque<>(blockCount);
+      for (int i = 0; i < blockCount; i++) {
+        memory.limit((i + 1) * blockSize).position(i * blockSize);
+        freeBlocks.add(new Block(this, memory.slice().order(ByteOrder.nativeOrder())));
+      }
+    }
+
+    private boolean isFull() {
+      return freeBlocks.isEmpty();
+    }
+
+    private boolean isUnused() {
+      return freeBlocks.size() == blockCount;
+    }
+  }
+
+  /** Slabs of one element size. */
+  private static class SlabPool {
+
+    private final int blockSize;
+    private final int blockCount;
+
+    /** slabs with both used and free blocks, blocks are allocated from them first */
+    private final Set<Slab> partialSlabs = new LinkedHashSet<>();
+
+    /** slabs without used blocks kept for reuse */
+    private final ArrayDeque<Slab> pooledSlabs = new ArrayDeque<>();
+
+    private SlabPool(int elementSize) {
+      this.blockSize = ARRAY_SIZE * elementSize;
+      this.blockCount = Math.max(1, SLAB_SIZE_IN_BYTES / blockSize);
+    }
+
+    private synchronized Block allocate() {
+      Slab slab;
+      if (!partialSlabs.isEmpty()) {
+        slab = partialSlabs.iterator().next();
+      } else {
+        slab = pooledSlabs.poll();
+        if (slab != null) {
+          POOLED_BYTES.addAndGet(-slab.memory.capacity());
+        } else {
+          slab = new Slab(this, blockSize, blockCount);
+          long slabBytes = SLAB_BYTES.addAndGet(slab.memory.capacity());
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Allocated an off-heap slab, total size of slabs: {}", slabBytes);
+          }
+        }
+        SystemInfo.getInstance().addOffHeapMemtableMemoryCost(slab.memory.capacity());
+        partialSlabs.add(slab);
+      }
+      Block block = slab.freeBlocks.poll();
+      if (slab.isFull()) {
+        partialSlabs.remove(slab);
+      }
+      USED_BYTES.addAndGet(blockSize);
+      return block;
+    }
+
+    private void release(Block block) {
+      Slab slab = block.slab;
+      boolean isPooled;
+      synchronized (this) {
+        boolean wasFull = slab.isFull();
+        slab.freeBlocks.push(block);
+        USED_BYTES.addAndGet(-blockSize);
+        if (!slab.isUnused()) {
+          if (wasFull) {
+            partialSlabs.add(slab);
+          }
+          return;
+        }
+        partialSlabs.remove(slab);
+        isPooled = tryPool(slab.memory.capacity());
+        if (isPooled) {
+          pooledSlabs.push(slab);
+        } else {
+          SLAB_BYTES.addAndGet(-slab.memory.capacity());
+        }
+      }
+      // SystemInfo may lock itself, so it is called after leaving the lock of the pool to keep the
+      // locks from being nested in either order
+      SystemInfo.getInstance().decreaseOffHeapMemtableMemoryCost(slab.memory.capacity());
+      if (!isPooled) {
+        // the slab is referenced by neither the pool nor its blocks anymore
+        MmapUtil.clean(slab.memory);
+      }
+    }
+  }
+}
@@ -49,6 +49,8 @@ public class PrimitiveArrayManager {
 
   public static final TVListSortAlgorithm TVLIST_SORT_ALGORITHM = CONFIG.getTvListSortAlgorithm();
 
+  public static final boolean ENABLE_OFF_HEAP_MEMTABLE = CONFIG.isEnableOffHeapMemTable();
+
   /**
    * The actual used memory will be 50% larger than the statistic, so we need to limit the size of
    * POOLED_ARRAYS_MEMORY_THRESHOLD, make it smaller than its actual allowed value.
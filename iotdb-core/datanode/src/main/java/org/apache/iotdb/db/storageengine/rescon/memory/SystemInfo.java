@@ -62,6 +62,7 @@ public class SystemInfo {
   private long flushingMemTablesCost = 0L;
   private IMemoryBlock walBufferQueueMemoryBlock;
   private IMemoryBlock directBufferMemoryBlock;
+  private IMemoryBlock offHeapMemtableMemoryBlock;
   private IMemoryBlock compactionMemoryBlock;
   private final AtomicLong seqInnerSpaceCompactionMemoryCost = new AtomicLong(0L);
   private final AtomicLong unseqInnerSpaceCompactionMemoryCost = new AtomicLong(0L);
@@ -92,6 +93,10 @@ public class SystemInfo {
         memoryConfig
             .getDirectBufferMemoryManager()
             .exactAllocate("DirectBuffer", MemoryBlockType.DYNAMIC);
+    offHeapMemtableMemoryBlock =
+        memoryConfig
+            .getOffHeapMemtableMemoryManager()
+            .exactAllocate("OffHeapMemtable", MemoryBlockType.DYNAMIC);
     loadWriteMemory();
   }
 
@@ -117,9 +122,10 @@ public class SystemInfo {
     }
     reportedStorageGroupMemCostMap.put(dataRegionInfo, currentDataRegionMemCost);
     dataRegionInfo.setLastReportedSize(currentDataRegionMemCost);
-    if (totalStorageGroupMemCost < FLUSH_THRESHOLD) {
+    long memTableCost = getMemTableCostForThresholds();
+    if (memTableCost < FLUSH_THRESHOLD) {
       return true;
-    } else if (totalStorageGroupMemCost < REJECT_THRESHOLD) {
+    } else if (memTableCost < REJECT_THRESHOLD) {
       logger.debug(
           "The total database mem costs are too large, call for flushing. "
               + "Current sg cost is {}",
@@ -135,12 +141,12 @@ public class SystemInfo {
           REJECT_THRESHOLD);
       rejected = true;
       if (chooseMemTablesToMarkFlush(tsFileProcessor)) {
-        if (totalStorageGroupMemCost < memorySizeForMemtable) {
+        if (memTableCost < memorySizeForMemtable) {
           return true;
         } else {
           throw new WriteProcessRejectException(
               "Total database MemCost "
-                  + totalStorageGroupMemCost
+                  + memTableCost
                   + " is over than memorySizeForWriting "
                   + memorySizeForMemtable);
         }
@@ -168,8 +174,8 @@ public class SystemInfo {
       reportedStorageGroupMemCostMap.put(dataRegionInfo, currentDataRegionMemCost);
     }
 
-    if (totalStorageGroupMemCost >= FLUSH_THRESHOLD
-        && totalStorageGroupMemCost < REJECT_THRESHOLD) {
+    long memTableCost = getMemTableCostForThresholds();
+    if (memTableCost >= FLUSH_THRESHOLD && memTableCost < REJECT_THRESHOLD) {
       logger.debug(
           "SG ({}) released memory (delta: {}) but still exceeding flush proportion (totalSgMemCost: {}), call flush.",
           dataRegionInfo.getDataRegion().getDatabaseName(),
@@ -184,7 +190,7 @@ public class SystemInfo {
       }
       logCurrentTotalSGMemory();
       rejected = false;
-    } else if (totalStorageGroupMemCost >= REJECT_THRESHOLD) {
+    } else if (memTableCost >= REJECT_THRESHOLD) {
       logger.warn(
           "SG ({}) released memory (delta: {}), but system is still in reject status (totalSgMemCost: {}).",
           dataRegionInfo.getDataRegion().getDatabaseName(),
@@ -227,6 +233,54 @@ public class SystemInfo {
     return directBufferMemoryBlock.getUsedMemoryInBytes();
   }
 
+  /** Called by {@link OffHeapSlabAllocator} when a slab of off-heap TVLists gets used blocks. */
+  public void addOffHeapMemtableMemoryCost(long size) {
+    offHeapMemtableMemoryBlock.forceAllocateWithoutLimitation(size);
+  }
+
+  /**
+   * Called by {@link OffHeapSlabAllocator} when no block of a slab is used anymore. The slab may
+   * be released after the memtables which held it have been reported, so the reject status is
+   * checked again here.
+   */
+  public void decreaseOffHeapMemtableMemoryCost(long size) {
+    offHeapMemtableMemoryBlock.release(size);
+    if (rejected) {
+      synchronized (this) {
+        if (rejected && getMemTableCostForThresholds() < REJECT_THRESHOLD) {
+          logger.info(
+              "Off-heap memtable memory released (delta: {}), set system to normal status.",
+              size);
+          rejected = false;
+        }
+      }
+    }
+  }
+
+  public long getOffHeapMemtableMemoryCost() {
+    return offHeapMemtableMemoryBlock.getUsedMemoryInBytes();
+  }
+
+  /**
+   * The memtable cost to compare with the thresholds. Without off-heap TVLists it is the total
+   * cost of the databases. Otherwise the blocks of off-heap TVLists are taken out of the total
+   * cost, and the slabs in use are scaled from the off-heap memtable memory to the memtable memory
+   * on heap, so that each part is limited by its own budget. The larger one of both is returned.
+   */
+  private long getMemTableCostForThresholds() {
+    if (!PrimitiveArrayManager.ENABLE_OFF_HEAP_MEMTABLE) {
+      return totalStorageGroupMemCost;
+    }
+    long onHeapCost =
+        Math.max(0, totalStorageGroupMemCost - OffHeapSlabAllocator.getUsedBytes());
+    long offHeapCost =
+        (long)
+            ((double) offHeapMemtableMemoryBlock.getUsedMemoryInBytes()
+                / offHeapMemtableMemoryBlock.getTotalMemorySizeInBytes()
+                * memorySizeForMemtable);
+    return Math.max(onHeapCost, offHeapCost);
+  }
+
   public boolean addCompactionFileNum(int fileNum, long timeOutInSecond)
       throws InterruptedException, CompactionFileCountExceededException {
     if (fileNum > totalFileLimitForCompactionTask) {
@@ -421,7 +475,12 @@ public class SystemInfo {
     boolean isCurrentTsFileProcessorSelected = false;
     long memCost = 0;
     long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
-    while (activeMemSize - memCost > FLUSH_THRESHOLD) {
+    // flushing a memtable is assumed to free both parts of the cost in proportion
+    double costRatio =
+        totalStorageGroupMemCost == 0
+            ? 1
+            : (double) getMemTableCostForThresholds() / totalStorageGroupMemCost;
+    while ((activeMemSize - memCost) * costRatio > FLUSH_THRESHOLD) {
       if (allTsFileProcessors.isEmpty()
           || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
         return false;
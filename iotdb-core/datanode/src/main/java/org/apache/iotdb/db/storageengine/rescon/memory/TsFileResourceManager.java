@@ -25,6 +25,9 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.CompactDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.DeviceIdDictionary;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
 
 import org.slf4j.Logger;
@@ -48,6 +51,16 @@ public class TsFileResourceManager {
   // degraded time index number
   private long degradedTimeIndexNum = 0;
 
+  // the DeviceIdDictionary is not rebuilt while it is smaller than this
+  private static final int MIN_DEVICE_ID_DICTIONARY_SIZE_TO_REBUILD = 1024;
+
+  // memory of the DeviceIdDictionary charged to the memory block
+  private long deviceIdDictionaryMemCost = 0;
+
+  // number of devices in the compact time indexes of the registered files, which is no less than
+  // the number of live ids in the DeviceIdDictionary
+  private long compactDeviceNum = 0;
+
   private TsFileResourceManager() {
     memoryBlock =
         MEMORY_CONFIG
@@ -72,6 +85,8 @@ public class TsFileResourceManager {
     if (!sealedTsFileResources.contains(tsFileResource)) {
       sealedTsFileResources.add(tsFileResource);
       memoryBlock.forceAllocateWithoutLimitation(tsFileResource.calculateRamSize());
+      compactDeviceNum += getCompactDeviceNum(tsFileResource);
+      updateDeviceIdDictionaryMemCost();
       chooseTsFileResourceToDegrade();
     }
   }
@@ -80,6 +95,7 @@ public class TsFileResourceManager {
   public synchronized void removeTsFileResource(TsFileResource tsFileResource) {
     if (sealedTsFileResources.contains(tsFileResource)) {
       sealedTsFileResources.remove(tsFileResource);
+      compactDeviceNum -= getCompactDeviceNum(tsFileResource);
       if (TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType())
           == TimeIndexLevel.FILE_TIME_INDEX) {
         memoryBlock.release(tsFileResource.calculateRamSize());
@@ -87,6 +103,7 @@ public class TsFileResourceManager {
       } else {
         memoryBlock.release(tsFileResource.calculateRamSize());
       }
+      updateDeviceIdDictionaryMemCost();
     }
   }
 
@@ -100,13 +117,63 @@ public class TsFileResourceManager {
         resource.degradeTimeIndex();
         return;
       }
+      compactDeviceNum -= getCompactDeviceNum(resource);
       long memoryReduce = resource.degradeTimeIndex();
       degradedTimeIndexNum++;
       releaseTimeIndexMemCost(memoryReduce);
+      updateDeviceIdDictionaryMemCost();
       sealedTsFileResources.add(resource);
     }
   }
 
+  /**
+   * Charge the growth of the DeviceIdDictionary, which the compact time index of a file may have
+   * added devices to when the file was sealed or loaded. The dictionary is rebuilt first if most of
+   * its ids are no longer used by the registered files.
+   */
+  private void updateDeviceIdDictionaryMemCost() {
+    rebuildDeviceIdDictionaryIfNecessary();
+    DeviceIdDictionary dictionary = DeviceIdDictionary.getInstance();
+    if (dictionary.size() == 0) {
+      // nothing is interned unless the compact time index is enabled
+      return;
+    }
+    long dictionaryRamSize = dictionary.getRamSize();
+    if (dictionaryRamSize > deviceIdDictionaryMemCost) {
+      memoryBlock.forceAllocateWithoutLimitation(dictionaryRamSize - deviceIdDictionaryMemCost);
+      deviceIdDictionaryMemCost = dictionaryRamSize;
+    }
+  }
+
+  /**
+   * Ids of removed or degraded files are not released one by one, so replace the dictionary by one
+   * holding only the devices of the registered files once more than half of its ids are dead, and
+   * release the memory charged for the old one.
+   */
+  private void rebuildDeviceIdDictionaryIfNecessary() {
+    int dictionarySize = DeviceIdDictionary.getInstance().size();
+    if (dictionarySize < MIN_DEVICE_ID_DICTIONARY_SIZE_TO_REBUILD
+        || dictionarySize <= 2 * compactDeviceNum) {
+      return;
+    }
+    DeviceIdDictionary dictionary = DeviceIdDictionary.renew();
+    compactDeviceNum = 0;
+    for (TsFileResource tsFileResource : sealedTsFileResources) {
+      compactDeviceNum += tsFileResource.reinternCompactTimeIndex(dictionary);
+    }
+    memoryBlock.release(deviceIdDictionaryMemCost);
+    deviceIdDictionaryMemCost = 0;
+    logger.debug(
+        "Rebuild the DeviceIdDictionary of {} devices, {} devices are left",
+        dictionarySize,
+        dictionary.size());
+  }
+
+  private static int getCompactDeviceNum(TsFileResource tsFileResource) {
+    ITimeIndex timeIndex = tsFileResource.getTimeIndex();
+    return timeIndex instanceof CompactDeviceTimeIndex ? timeIndex.getDevices().size() : 0;
+  }
+
   /** once degradation is triggered, the total memory for timeIndex should reduce */
   private void releaseTimeIndexMemCost(long memCost) {
     memoryBlock.release(memCost);
@@ -126,10 +193,12 @@ public class TsFileResourceManager {
         sealedTsFileResources.add(tsFileResource);
         return;
       }
+      compactDeviceNum -= getCompactDeviceNum(tsFileResource);
       long memoryReduce = tsFileResource.degradeTimeIndex();
       logger.debug("Degrade tsfile resource {}", tsFileResource.getTsFilePath());
       degradedTimeIndexNum++;
       releaseTimeIndexMemCost(memoryReduce);
+      updateDeviceIdDictionaryMemCost();
       // add the polled tsFileResource to the priority queue
       sealedTsFileResources.add(tsFileResource);
     }
@@ -153,6 +222,8 @@ public class TsFileResourceManager {
     this.sealedTsFileResources.clear();
     this.memoryBlock.setUsedMemoryInBytes(0);
     this.degradedTimeIndexNum = 0;
+    this.deviceIdDictionaryMemCost = 0;
+    this.compactDeviceNum = 0;
   }
 
   public static TsFileResourceManager getInstance() {
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapSlabAllocator;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapSlabAllocator.Block;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A column of an off-heap TVList, the counterpart of a list of primitive arrays. Element i is in
+ * block i / ARRAY_SIZE at i % ARRAY_SIZE, and every block is allocated by {@link
+ * OffHeapSlabAllocator}. The time column also appends the rows of its TVList, which is the same for
+ * all the value types.
+ */
+class OffHeapBlocks {
+
+  /** Copies src[srcPos, srcPos + length) of the values to [destIndex, destIndex + length). */
+  @FunctionalInterface
+  interface ValueWriter {
+    void write(int srcPos, int destIndex, int length);
+  }
+
+  private final int elementSize;
+  private final int shift;
+  private final List<Block> handles = new ArrayList<>();
+
+  /** buffers of the handles, read and written without going through the handles */
+  private final List<ByteBuffer> blocks = new ArrayList<>();
+
+  OffHeapBlocks(int elementSize) {
+    this.elementSize = elementSize;
+    this.shift = Integer.numberOfTrailingZeros(elementSize);
+  }
+
+  void expand() {
+    add(OffHeapSlabAllocator.allocate(elementSize));
+  }
+
+  private void add(Block block) {
+    handles.add(block);
+    blocks.add(block.getBuffer());
+  }
+
+  int size() {
+    return blocks.size();
+  }
+
+  long getLong(int index) {
+    return blocks.get(index / ARRAY_SIZE).getLong((index % ARRAY_SIZE) << shift);
+  }
+
+  void setLong(int index, long value) {
+    blocks.get(index / ARRAY_SIZE).putLong((index % ARRAY_SIZE) << shift, value);
+  }
+
+  int getInt(int index) {
+    return blocks.get(index / ARRAY_SIZE).getInt((index % ARRAY_SIZE) << shift);
+  }
+
+  void setInt(int index, int value) {
+    blocks.get(index / ARRAY_SIZE).putInt((index % ARRAY_SIZE) << shift, value);
+  }
+
+  float getFloat(int index) {
+    return blocks.get(index / ARRAY_SIZE).getFloat((index % ARRAY_SIZE) << shift);
+  }
+
+  void setFloat(int index, float value) {
+    blocks.get(index / ARRAY_SIZE).putFloat((index % ARRAY_SIZE) << shift, value);
+  }
+
+  double getDouble(int index) {
+    return blocks.get(index / ARRAY_SIZE).getDouble((index % ARRAY_SIZE) << shift);
+  }
+
+  void setDouble(int index, double value) {
+    blocks.get(index / ARRAY_SIZE).putDouble((index % ARRAY_SIZE) << shift, value);
+  }
+
+  /** Copy src[srcPos, srcPos + length) to [destIndex, destIndex + length) of one block. */
+  void putLongs(long[] src, int srcPos, int destIndex, int length) {
+    ByteBuffer block = blocks.get(destIndex / ARRAY_SIZE);
+    LongBuffer view = block.asLongBuffer();
+    view.position(destIndex % ARRAY_SIZE);
+    view.put(src, srcPos, length);
+  }
+
+  void putInts(int[] src, int srcPos, int destIndex, int length) {
+    ByteBuffer block = blocks.get(destIndex / ARRAY_SIZE);
+    IntBuffer view = block.asIntBuffer();
+    view.position(destIndex % ARRAY_SIZE);
+    view.put(src, srcPos, length);
+  }
+
+  void putFloats(float[] src, int srcPos, int destIndex, int length) {
+    ByteBuffer block = blocks.get(destIndex / ARRAY_SIZE);
+    FloatBuffer view = block.asFloatBuffer();
+    view.position(destIndex % ARRAY_SIZE);
+    view.put(src, srcPos, length);
+  }
+
+  void putDoubles(double[] src, int srcPos, int destIndex, int length) {
+    ByteBuffer block = blocks.get(destIndex / ARRAY_SIZE);
+    DoubleBuffer view = block.asDoubleBuffer();
+    view.position(destIndex % ARRAY_SIZE);
+    view.put(src, srcPos, length);
+  }
+
+  /** Copy all the blocks of other, this should be empty. */
+  void copyFrom(OffHeapBlocks other) {
+    for (ByteBuffer otherBlock : other.blocks) {
+      Block block = OffHeapSlabAllocator.allocate(elementSize);
+      ByteBuffer src = otherBlock.duplicate();
+      src.clear();
+      ByteBuffer dest = block.getBuffer().duplicate();
+      dest.clear();
+      dest.put(src);
+      add(block);
+    }
+  }
+
+  void clear() {
+    for (Block block : handles) {
+      OffHeapSlabAllocator.release(block);
+    }
+    handles.clear();
+    blocks.clear();
+  }
+
+  /**
+   * Append a row to list, whose value has been written at list.rowCount. Called on the time
+   * column of list, after the expansion has been checked.
+   */
+  void appendRow(TVList list, long timestamp) {
+    int rowCount = list.rowCount;
+    list.maxTime = Math.max(list.maxTime, timestamp);
+    list.minTime = Math.min(list.minTime, timestamp);
+    setLong(rowCount, timestamp);
+    if (list.indices != null) {
+      list.indices.get(rowCount / ARRAY_SIZE)[rowCount % ARRAY_SIZE] = rowCount;
+    }
+    list.rowCount++;
+    if (list.sorted) {
+      if (rowCount > 0 && timestamp < getLong(rowCount - 1)) {
+        list.sorted = false;
+      } else {
+        list.seqRowCount++;
+      }
+    }
+  }
+
+  /**
+   * Append rows [start, end) to list, whose timestamps are time[start - timeIdxOffset, end -
+   * timeIdxOffset). The min and max time and the order of list should have been updated. Called on
+   * the time column of list, after the expansion has been checked.
+   */
+  void appendRows(
+      TVList list, long[] time, int timeIdxOffset, int start, int end, ValueWriter valueWriter) {
+    int idx = start;
+    while (idx < end) {
+      int rowCount = list.rowCount;
+      int elementIdx = rowCount % ARRAY_SIZE;
+      // copy into the last block as much as possible, then create a new one if there are more
+      int length = Math.min(end - idx, ARRAY_SIZE - elementIdx);
+      putLongs(time, idx - timeIdxOffset, rowCount, length);
+      valueWriter.write(idx, rowCount, length);
+      if (list.indices != null) {
+        int[] indexes = IntStream.range(rowCount, rowCount + length).toArray();
+        System.arraycopy(indexes, 0, list.indices.get(rowCount / ARRAY_SIZE), elementIdx, length);
+      }
+      idx += length;
+      list.rowCount += length;
+      if (idx < end) {
+        list.checkExpansion();
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BitMap;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/** LongTVList keeping its timestamps and values in direct memory. */
+public class OffHeapLongTVList extends TimLongTVList {
+  private final OffHeapBlocks timeBlocks = new OffHeapBlocks(Long.BYTES);
+  private final OffHeapBlocks valueBlocks = new OffHeapBlocks(Long.BYTES);
+
+  OffHeapLongTVList() {
+    super();
+  }
+
+  @Override
+  public OffHeapLongTVList clone() {
+    OffHeapLongTVList cloneList = new OffHeapLongTVList();
+    cloneAs(cloneList);
+    cloneBitMap(cloneList);
+    cloneList.timeBlocks.copyFrom(timeBlocks);
+    cloneList.valueBlocks.copyFrom(valueBlocks);
+    return cloneList;
+  }
+
+  @Override
+  public synchronized void putLong(long timestamp, long value) {
+    checkExpansion();
+    valueBlocks.setLong(rowCount, value);
+    timeBlocks.appendRow(this, timestamp);
+  }
+
+  @Override
+  public synchronized void putLongs(long[] time, long[] value, BitMap bitMap, int start, int end) {
+    checkExpansion();
+
+    // constraint: time.length + timeIdxOffset == value.length
+    int timeIdxOffset = 0;
+    if (bitMap != null && !bitMap.isAllUnmarked()) {
+      // time array is a reference, should clone necessary time array
+      long[] clonedTime = new long[end - start];
+      System.arraycopy(time, start, clonedTime, 0, end - start);
+      time = clonedTime;
+      timeIdxOffset = start;
+      // value array is a reference, should clone necessary value array
+      long[] clonedValue = new long[value.length];
+      System.arraycopy(value, 0, clonedValue, 0, value.length);
+      value = clonedValue;
+      // drop null at the end of value array
+      int nullCnt =
+          dropNullValThenUpdateMinMaxTimeAndSorted(time, value, bitMap, start, end, timeIdxOffset);
+      end -= nullCnt;
+    } else {
+      updateMinMaxTimeAndSorted(time, start, end);
+    }
+
+    long[] values = value;
+    timeBlocks.appendRows(
+        this,
+        time,
+        timeIdxOffset,
+        start,
+        end,
+        (srcPos, destIndex, length) -> valueBlocks.putLongs(values, srcPos, destIndex, length));
+  }
+
+  @Override
+  public long getLong(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return valueBlocks.getLong(getValueIndex(index));
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return timeBlocks.getLong(index);
+  }
+
+  @Override
+  protected void set(int index, long timestamp, int valueIndex) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    timeBlocks.setLong(index, timestamp);
+    setValueIndex(index / ARRAY_SIZE, index % ARRAY_SIZE, valueIndex);
+  }
+
+  @Override
+  protected int getArrayCount() {
+    return timeBlocks.size();
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((rowCount % ARRAY_SIZE) == 0) {
+      expandValues();
+      timeBlocks.expand();
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    if (indices != null) {
+      indices.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
+    }
+    valueBlocks.expand();
+    if (bitMap != null) {
+      bitMap.add(null);
+    }
+  }
+
+  @Override
+  protected void clearTime() {
+    timeBlocks.clear();
+  }
+
+  @Override
+  protected void clearValue() {
+    valueBlocks.clear();
+  }
+}
@@ -46,6 +46,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ENABLE_OFF_HEAP_MEMTABLE;
 import static org.apache.tsfile.utils.RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
 import static org.apache.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
@@ -101,15 +102,15 @@ public abstract class TVList implements WALEntryValue {
       case STRING:
         return BinaryTVList.newList();
       case FLOAT:
-        return FloatTVList.newList();
+        return ENABLE_OFF_HEAP_MEMTABLE ? new OffHeapFloatTVList() : FloatTVList.newList();
       case INT32:
       case DATE:
-        return IntTVList.newList();
+        return ENABLE_OFF_HEAP_MEMTABLE ? new OffHeapIntTVList() : IntTVList.newList();
       case INT64:
       case TIMESTAMP:
-        return LongTVList.newList();
+        return ENABLE_OFF_HEAP_MEMTABLE ? new OffHeapLongTVList() : LongTVList.newList();
       case DOUBLE:
-        return DoubleTVList.newList();
+        return ENABLE_OFF_HEAP_MEMTABLE ? new OffHeapDoubleTVList() : DoubleTVList.newList();
       case BOOLEAN:
         return BooleanTVList.newList();
       default:
@@ -142,7 +143,12 @@ public abstract class TVList implements WALEntryValue {
   }
 
   public long calculateRamSize() {
-    return timestamps.size() * tvListArrayMemCost();
+    return getArrayCount() * tvListArrayMemCost();
+  }
+
+  /** Number of the time arrays, each holds ARRAY_SIZE rows. */
+  protected int getArrayCount() {
+    return timestamps.size();
   }
 
   public synchronized boolean isSorted() {
@@ -202,10 +208,14 @@ public abstract class TVList implements WALEntryValue {
     int arrayIndex = index / ARRAY_SIZE;
     int elementIndex = index % ARRAY_SIZE;
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
+    setValueIndex(arrayIndex, elementIndex, valueIndex);
+  }
+
+  protected void setValueIndex(int arrayIndex, int elementIndex, int valueIndex) {
     // prepare indices for sorting
     if (indices == null) {
       indices = new ArrayList<>();
-      for (int i = 0; i < timestamps.size(); i++) {
+      for (int i = 0; i < getArrayCount(); i++) {
         indices.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
         int offset = i * ARRAY_SIZE;
         Arrays.setAll(indices.get(i), j -> offset + j);
@@ -240,7 +250,7 @@ public abstract class TVList implements WALEntryValue {
     // init bitMap if doesn't have
     if (bitMap == null) {
       bitMap = new ArrayList<>();
-      for (int i = 0; i < timestamps.size(); i++) {
+      for (int i = 0; i < getArrayCount(); i++) {
         bitMap.add(new BitMap(ARRAY_SIZE));
       }
     }
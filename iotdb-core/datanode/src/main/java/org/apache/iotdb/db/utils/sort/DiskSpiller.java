@@ -47,6 +47,7 @@ public abstract class DiskSpiller {
   private final String filePrefix;
 
   private int fileIndex;
+  private long spilledBytes;
   private boolean folderCreated = false;
   private final TsBlockSerde serde = new TsBlockSerde();
 
@@ -123,6 +124,7 @@ public abstract class DiskSpiller {
         length.flip();
         fileChannel.write(length);
         fileChannel.write(tsBlockBuffer);
+        spilledBytes += Integer.BYTES + tsBlockBuffer.capacity();
       }
     } catch (IOException e) {
       throw new IoTDBException(
@@ -178,6 +180,11 @@ public abstract class DiskSpiller {
     return fileIndex;
   }
 
+  /** Total bytes written to the spilled files, which is not cleared by {@link #reset()}. */
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
   public void reset() {
     fileIndex = 0;
   }
@@ -22,6 +22,8 @@ package org.apache.iotdb.db.metadata.cache;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.schema.view.LogicalViewSchema;
+import org.apache.iotdb.commons.schema.view.viewExpression.leaf.TimeSeriesViewOperand;
 import org.apache.iotdb.db.queryengine.common.schematree.ClusterSchemaTree;
 import org.apache.iotdb.db.queryengine.common.schematree.ISchemaTree;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.SchemaCacheEntry;
@@ -127,6 +129,45 @@ public class TreeDeviceSchemaCacheManagerTest {
     Assert.assertNull(schemaCacheEntryMap.get(new PartialPath("root.sg1.d1.s4")).getTagMap());
   }
 
+  @Test
+  public void testGetMeasurementSchemasWithoutTemplate() throws IllegalPathException {
+    final PartialPath device1 = new PartialPath("root.sg1.d1");
+    treeDeviceSchemaCacheManager.put((ClusterSchemaTree) generateSchemaTree1());
+
+    final MeasurementSchema[] measurementSchemas =
+        treeDeviceSchemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            device1, new String[] {"s3", "s1"}, false);
+    Assert.assertNotNull(measurementSchemas);
+    Assert.assertEquals(TSDataType.BOOLEAN, measurementSchemas[0].getType());
+    Assert.assertEquals(TSDataType.INT32, measurementSchemas[1].getType());
+
+    // Any missed measurement or alignment mismatch fails the whole device
+    Assert.assertNull(
+        treeDeviceSchemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            device1, new String[] {"s1", "s4"}, false));
+    Assert.assertNull(
+        treeDeviceSchemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            device1, new String[] {"s1"}, true));
+    Assert.assertNull(
+        treeDeviceSchemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            new PartialPath("root.sg1.d2"), new String[] {"s1"}, false));
+
+    // Logical views are not writable directly
+    final ClusterSchemaTree viewTree = new ClusterSchemaTree();
+    viewTree.appendSingleMeasurement(
+        new PartialPath("root.sg1.d1.v1"),
+        new LogicalViewSchema("v1", new TimeSeriesViewOperand("root.sg1.d1.s1")),
+        null,
+        null,
+        null,
+        false);
+    viewTree.setDatabases(Collections.singleton("root.sg1"));
+    treeDeviceSchemaCacheManager.put(viewTree);
+    Assert.assertNull(
+        treeDeviceSchemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            device1, new String[] {"s1", "v1"}, false));
+  }
+
   private ISchemaTree generateSchemaTree1() throws IllegalPathException {
     final ClusterSchemaTree schemaTree = new ClusterSchemaTree();
     final Map<String, String> s1TagMap = new HashMap<>();
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.im
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl.DualKeyCachePolicy;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -44,7 +45,7 @@ public class DualKeyCacheTest {
 
   @Parameterized.Parameters
   public static List<String> getTestModes() {
-    return Arrays.asList("FIFO", "LRU");
+    return Arrays.asList("FIFO", "LRU", "W_TINY_LFU");
   }
 
   @Test
@@ -124,6 +125,81 @@ public class DualKeyCacheTest {
     Assert.assertEquals(6, dualKeyCache.stats().hitCount());
   }
 
+  @Test
+  public void testScanResistance() {
+    Assume.assumeTrue(DualKeyCachePolicy.valueOf(policy) == DualKeyCachePolicy.W_TINY_LFU);
+    // about 200 entries can be cached
+    final IDualKeyCache<String, String, String> dualKeyCache =
+        new DualKeyCacheBuilder<String, String, String>()
+            .cacheEvictionPolicy(DualKeyCachePolicy.valueOf(policy))
+            .memoryCapacity(13000)
+            .firstKeySizeComputer(this::computeStringSize)
+            .secondKeySizeComputer(this::computeStringSize)
+            .valueSizeComputer(this::computeStringSize)
+            .build();
+    final int hotNum = 50;
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < hotNum; i++) {
+        if (dualKeyCache.get("db", "hot" + i) == null) {
+          dualKeyCache.put("db", "hot" + i, "v");
+        }
+      }
+    }
+    // a scan over many entries which are accessed only once
+    for (int i = 0; i < 2000; i++) {
+      if (dualKeyCache.get("db", "cold" + i) == null) {
+        dualKeyCache.put("db", "cold" + i, "v");
+      }
+    }
+
+    int hotHitNum = 0;
+    for (int i = 0; i < hotNum; i++) {
+      if (dualKeyCache.get("db", "hot" + i) != null) {
+        hotHitNum++;
+      }
+    }
+    Assert.assertTrue(hotHitNum >= hotNum * 0.9);
+    Assert.assertTrue(dualKeyCache.stats().rejectionCount() > 0);
+  }
+
+  @Test
+  public void testEvictThroughUpdate() {
+    Assume.assumeTrue(DualKeyCachePolicy.valueOf(policy) == DualKeyCachePolicy.W_TINY_LFU);
+    final IDualKeyCache<String, String, String> dualKeyCache =
+        new DualKeyCacheBuilder<String, String, String>()
+            .cacheEvictionPolicy(DualKeyCachePolicy.valueOf(policy))
+            .memoryCapacity(30000)
+            .firstKeySizeComputer(this::computeStringSize)
+            .secondKeySizeComputer(this::computeStringSize)
+            .valueSizeComputer(this::computeStringSize)
+            .build();
+    final int hotNum = 50;
+    final int coldNum = 400;
+    for (int i = 0; i < hotNum; i++) {
+      dualKeyCache.put("db", "hot" + i, "v");
+    }
+    for (int i = 0; i < coldNum; i++) {
+      dualKeyCache.put("db", "cold" + i, "v");
+    }
+    // the hot entries are promoted to the protected part
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < hotNum; i++) {
+        Assert.assertNotNull(dualKeyCache.get("db", "hot" + i));
+      }
+    }
+    final long entriesCount = dualKeyCache.stats().entriesCount();
+    Assert.assertEquals(hotNum + coldNum, entriesCount);
+
+    // enlarge the cold entries beyond the capacity, the eviction happens without any put
+    dualKeyCache.update("db", secondKey -> secondKey.startsWith("cold"), value -> 20);
+    Assert.assertTrue(dualKeyCache.stats().entriesCount() < entriesCount);
+    Assert.assertTrue(dualKeyCache.stats().memoryUsage() <= dualKeyCache.stats().capacity());
+
+    for (int i = 0; i < hotNum; i++) {
+      Assert.assertNotNull(dualKeyCache.get("db", "hot" + i));
+    }
+  }
+
   private int computeStringSize(String string) {
     return 8 + 8 + 4 + 2 * string.length();
   }
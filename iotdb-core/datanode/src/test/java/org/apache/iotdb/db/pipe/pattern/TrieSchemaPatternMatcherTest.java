@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.pattern;
+
+import org.apache.iotdb.commons.pipe.config.constant.PipeExtractorConstant;
+import org.apache.iotdb.commons.pipe.config.plugin.configuraion.PipeTaskRuntimeConfiguration;
+import org.apache.iotdb.commons.pipe.config.plugin.env.PipeTaskExtractorRuntimeEnvironment;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.pipe.event.realtime.PipeRealtimeEvent;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.PipeRealtimeDataRegionExtractor;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher.CachedSchemaPatternMatcher;
+import org.apache.iotdb.db.pipe.extractor.dataregion.realtime.matcher.TrieSchemaPatternMatcher;
+import org.apache.iotdb.db.pipe.pattern.CachedSchemaPatternMatcherTest.PipeRealtimeDataRegionFakeExtractor;
+import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class TrieSchemaPatternMatcherTest {
+
+  private static final List<String> PREFIX_PATTERNS =
+      Arrays.asList("root", "root.db1", "root.db1.d1", "root.db1.d1.s1", "root.db", "root.db2.d");
+  private static final List<String> IOTDB_PATTERNS =
+      Arrays.asList(
+          "root.**",
+          "root.db1.**",
+          "root.db1.d1.s1",
+          "root.*.d1.**",
+          "root.db2.d1.*",
+          "root.db1.`d.1`.**",
+          "root.db3");
+  private static final List<String> DEVICES =
+      Arrays.asList(
+          "root",
+          "root.db1",
+          "root.db10",
+          "root.db1.d1",
+          "root.db1.d11",
+          "root.db1.d1.s1",
+          "root.db1.d1.s1.x",
+          "root.db2",
+          "root.db2.d1",
+          "root.db2.d2",
+          "root.db3.d1",
+          "root.db4.d1",
+          "root.other.d1");
+  private static final String[][] MEASUREMENTS = {
+    new String[0], new String[] {"s1"}, new String[] {"s2", null}
+  };
+
+  private CachedSchemaPatternMatcher expectedMatcher;
+  private TrieSchemaPatternMatcher actualMatcher;
+  private int dataNodeId;
+
+  @Before
+  public void setUp() {
+    dataNodeId = IoTDBDescriptor.getInstance().getConfig().getDataNodeId();
+    IoTDBDescriptor.getInstance().getConfig().setDataNodeId(0);
+    expectedMatcher = new CachedSchemaPatternMatcher();
+    actualMatcher = new TrieSchemaPatternMatcher();
+  }
+
+  @After
+  public void tearDown() {
+    expectedMatcher.clear();
+    actualMatcher.clear();
+    IoTDBDescriptor.getInstance().getConfig().setDataNodeId(dataNodeId);
+  }
+
+  @Test
+  public void testMatchSameAsCachedMatcher() throws Exception {
+    final List<PipeRealtimeDataRegionExtractor> extractors = createExtractors();
+    for (final PipeRealtimeDataRegionExtractor extractor : extractors) {
+      expectedMatcher.register(extractor);
+      actualMatcher.register(extractor);
+    }
+
+    assertSameMatch();
+  }
+
+  @Test
+  public void testIncrementalRegisterAndDeregister() throws Exception {
+    final List<PipeRealtimeDataRegionExtractor> extractors = createExtractors();
+    final int half = extractors.size() / 2;
+    for (final PipeRealtimeDataRegionExtractor extractor : extractors.subList(0, half)) {
+      expectedMatcher.register(extractor);
+      actualMatcher.register(extractor);
+    }
+    // Warm up the caches, so that the following changes have to be applied to the cached entries
+    assertSameMatch();
+
+    for (final PipeRealtimeDataRegionExtractor extractor :
+        extractors.subList(half, extractors.size())) {
+      expectedMatcher.register(extractor);
+      actualMatcher.register(extractor);
+      assertSameMatch();
+    }
+
+    for (int i = 0; i < extractors.size(); i += 2) {
+      expectedMatcher.deregister(extractors.get(i));
+      actualMatcher.deregister(extractors.get(i));
+      assertSameMatch();
+    }
+
+    for (int i = 1; i < extractors.size(); i += 2) {
+      expectedMatcher.deregister(extractors.get(i));
+      actualMatcher.deregister(extractors.get(i));
+    }
+    Assert.assertEquals(0, actualMatcher.getRegisterCount());
+    for (final String device : DEVICES) {
+      Assert.assertTrue(actualMatcher.match(createEvent(device, new String[0])).isEmpty());
+    }
+  }
+
+  private void assertSameMatch() {
+    for (final String device : DEVICES) {
+      for (final String[] measurements : MEASUREMENTS) {
+        Assert.assertEquals(
+            device + Arrays.toString(measurements),
+            expectedMatcher.match(createEvent(device, measurements)),
+            actualMatcher.match(createEvent(device, measurements)));
+      }
+    }
+  }
+
+  private static PipeRealtimeEvent createEvent(final String device, final String[] measurements) {
+    return new PipeRealtimeEvent(
+        null,
+        null,
+        Collections.<IDeviceID, String[]>singletonMap(
+            new StringArrayDeviceID(device), measurements));
+  }
+
+  private static List<PipeRealtimeDataRegionExtractor> createExtractors() throws Exception {
+    final List<PipeRealtimeDataRegionExtractor> extractors = new ArrayList<>();
+    for (final String pattern : PREFIX_PATTERNS) {
+      extractors.add(createExtractor(PipeExtractorConstant.EXTRACTOR_PATTERN_KEY, pattern));
+    }
+    for (final String pattern : IOTDB_PATTERNS) {
+      extractors.add(createExtractor(PipeExtractorConstant.EXTRACTOR_PATH_KEY, pattern));
+    }
+    return extractors;
+  }
+
+  private static PipeRealtimeDataRegionExtractor createExtractor(
+      final String key, final String pattern) throws Exception {
+    final PipeRealtimeDataRegionExtractor extractor = new PipeRealtimeDataRegionFakeExtractor();
+    extractor.customize(
+        new PipeParameters(
+            new HashMap<String, String>() {
+              {
+                put(key, pattern);
+              }
+            }),
+        new PipeTaskRuntimeConfiguration(new PipeTaskExtractorRuntimeEnvironment("1", 1, 1, null)));
+    return extractor;
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.receiver.protocol.thrift;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionExecutionResult;
+import org.apache.iotdb.db.queryengine.execution.executor.RegionWriteExecutor;
+import org.apache.iotdb.db.queryengine.plan.analyze.IPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TreeDeviceSchemaCacheManager;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PipeReceiverFastWriterTest {
+
+  private static final String USER_NAME = "root";
+
+  private final long timePartitionInterval =
+      CommonDescriptor.getInstance().getConfig().getTimePartitionInterval();
+
+  private TreeDeviceSchemaCacheManager schemaCacheManager;
+  private IPartitionFetcher partitionFetcher;
+  private RegionWriteExecutor regionWriteExecutor;
+  private PipeReceiverFastWriter fastWriter;
+
+  @Before
+  public void setUp() throws IllegalPathException {
+    schemaCacheManager = mock(TreeDeviceSchemaCacheManager.class);
+    partitionFetcher = mock(IPartitionFetcher.class);
+    regionWriteExecutor = mock(RegionWriteExecutor.class);
+    fastWriter =
+        new PipeReceiverFastWriter(schemaCacheManager, partitionFetcher, regionWriteExecutor);
+
+    when(schemaCacheManager.getMeasurementSchemasWithoutTemplate(
+            eq(new PartialPath("root.sg.d1")), any(), eq(false)))
+        .thenAnswer(
+            invocation -> {
+              final String[] measurements = invocation.getArgument(1);
+              final MeasurementSchema[] measurementSchemas =
+                  new MeasurementSchema[measurements.length];
+              for (int i = 0; i < measurements.length; i++) {
+                measurementSchemas[i] =
+                    new MeasurementSchema(
+                        measurements[i],
+                        "s1".equals(measurements[i]) ? TSDataType.INT64 : TSDataType.DOUBLE);
+              }
+              return measurementSchemas;
+            });
+    mockDataPartition(IoTDBDescriptor.getInstance().getConfig().getDataNodeId());
+    mockRegionWriteResult(RpcUtils.SUCCESS_STATUS);
+  }
+
+  @Test
+  public void testFillMeasurementSchemas() throws IllegalPathException {
+    final InsertTabletStatement tablet = generateTablet(0);
+    Assert.assertTrue(fastWriter.fillMeasurementSchemas(Collections.singletonList(tablet)));
+    Assert.assertEquals(TSDataType.INT64, tablet.getMeasurementSchemas()[0].getType());
+    Assert.assertEquals(TSDataType.DOUBLE, tablet.getMeasurementSchemas()[1].getType());
+
+    // The data type differs from the schema cache
+    final InsertTabletStatement typeMismatchTablet = generateTablet(0);
+    typeMismatchTablet.getDataTypes()[1] = TSDataType.FLOAT;
+    Assert.assertFalse(
+        fastWriter.fillMeasurementSchemas(Collections.singletonList(typeMismatchTablet)));
+
+    // The tablet has failed measurements
+    final InsertTabletStatement failedTablet = generateTablet(0);
+    failedTablet.markFailedMeasurement(1, new Exception());
+    Assert.assertFalse(fastWriter.fillMeasurementSchemas(Collections.singletonList(failedTablet)));
+
+    // The schema cache misses, e.g. the series is deleted or is a logical view
+    final InsertTabletStatement missedTablet = generateTablet(0);
+    missedTablet.setDevicePath(new PartialPath("root.sg.d2"));
+    Assert.assertFalse(fastWriter.fillMeasurementSchemas(Collections.singletonList(missedTablet)));
+  }
+
+  @Test
+  public void testFallbackOnSchemaCacheMiss() throws IllegalPathException {
+    final InsertTabletStatement tablet = generateTablet(0);
+    tablet.setDevicePath(new PartialPath("root.sg.d2"));
+
+    Assert.assertNull(fastWriter.tryWrite(tablet, USER_NAME, false));
+    verify(partitionFetcher, never()).getOrCreateDataPartition(anyList(), anyString());
+    verify(regionWriteExecutor, never()).execute(any(), any());
+  }
+
+  @Test
+  public void testFetchDataPartitionOnlyOnNewTimePartition() throws IllegalPathException {
+    assertSuccess(fastWriter.tryWrite(generateTablet(0), USER_NAME, false));
+    verify(partitionFetcher, times(1)).getOrCreateDataPartition(anyList(), anyString());
+
+    // Same time partition, use the cached data partition
+    assertSuccess(fastWriter.tryWrite(generateTablet(10), USER_NAME, false));
+    verify(partitionFetcher, times(1)).getOrCreateDataPartition(anyList(), anyString());
+
+    // A new time partition, fetch again
+    assertSuccess(fastWriter.tryWrite(generateTablet(timePartitionInterval), USER_NAME, false));
+    verify(partitionFetcher, times(2)).getOrCreateDataPartition(anyList(), anyString());
+
+    // Both time partitions are covered now
+    assertSuccess(fastWriter.tryWrite(generateTablet(0), USER_NAME, false));
+    verify(partitionFetcher, times(2)).getOrCreateDataPartition(anyList(), anyString());
+    verify(regionWriteExecutor, times(4)).execute(any(), any());
+  }
+
+  @Test
+  public void testFallbackIfRegionNotHostedLocally() throws IllegalPathException {
+    mockDataPartition(IoTDBDescriptor.getInstance().getConfig().getDataNodeId() + 1);
+
+    Assert.assertNull(fastWriter.tryWrite(generateTablet(0), USER_NAME, false));
+    verify(regionWriteExecutor, never()).execute(any(), any());
+  }
+
+  @Test
+  public void testInvalidateCacheOnWriteFailure() throws IllegalPathException {
+    assertSuccess(fastWriter.tryWrite(generateTablet(0), USER_NAME, false));
+    verify(partitionFetcher, times(1)).getOrCreateDataPartition(anyList(), anyString());
+
+    mockRegionWriteResult(RpcUtils.getStatus(TSStatusCode.WRITE_PROCESS_ERROR));
+    final TSStatus status = fastWriter.tryWrite(generateTablet(0), USER_NAME, false);
+    Assert.assertNotNull(status);
+    Assert.assertEquals(TSStatusCode.WRITE_PROCESS_ERROR.getStatusCode(), status.getCode());
+
+    // The cached data partition is dropped after the failure
+    mockRegionWriteResult(RpcUtils.SUCCESS_STATUS);
+    assertSuccess(fastWriter.tryWrite(generateTablet(0), USER_NAME, false));
+    verify(partitionFetcher, times(2)).getOrCreateDataPartition(anyList(), anyString());
+  }
+
+  private void mockDataPartition(final int dataNodeId) {
+    final TRegionReplicaSet replicaSet =
+        new TRegionReplicaSet(
+            new TConsensusGroupId(TConsensusGroupType.DataRegion, 1),
+            Collections.singletonList(
+                new TDataNodeLocation()
+                    .setDataNodeId(dataNodeId)
+                    .setClientRpcEndPoint(new TEndPoint("127.0.0.1", 6667))));
+    final DataPartition dataPartition = mock(DataPartition.class);
+    when(dataPartition.getDataRegionReplicaSetForWriting(any(IDeviceID.class), anyList(), any()))
+        .thenAnswer(
+            invocation -> {
+              final List<TTimePartitionSlot> timePartitionSlots = invocation.getArgument(1);
+              return Collections.nCopies(timePartitionSlots.size(), replicaSet);
+            });
+    when(partitionFetcher.getOrCreateDataPartition(anyList(), anyString()))
+        .thenReturn(dataPartition);
+  }
+
+  private void mockRegionWriteResult(final TSStatus status) {
+    when(regionWriteExecutor.execute(any(), any(PlanNode.class)))
+        .thenReturn(
+            RegionExecutionResult.create(
+                status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+                status.getMessage(),
+                status));
+  }
+
+  private static void assertSuccess(final TSStatus status) {
+    Assert.assertNotNull(status);
+    Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), status.getCode());
+  }
+
+  private static InsertTabletStatement generateTablet(final long startTime)
+      throws IllegalPathException {
+    final InsertTabletStatement tablet = new InsertTabletStatement();
+    tablet.setDevicePath(new PartialPath("root.sg.d1"));
+    tablet.setMeasurements(new String[] {"s1", "s2"});
+    tablet.setDataTypes(new TSDataType[] {TSDataType.INT64, TSDataType.DOUBLE});
+    tablet.setTimes(new long[] {startTime, startTime + 1});
+    tablet.setColumns(new Object[] {new long[] {1, 2}, new double[] {1.0, 2.0}});
+    tablet.setRowCount(2);
+    tablet.setAligned(false);
+    return tablet;
+  }
+}
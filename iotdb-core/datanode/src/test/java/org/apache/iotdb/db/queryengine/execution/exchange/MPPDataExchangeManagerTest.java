@@ -24,6 +24,8 @@ import org.apache.iotdb.commons.client.ClientPoolFactory;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeMPPDataExchangeServiceClient;
 import org.apache.iotdb.commons.memory.MemoryManager;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.DownStreamChannelIndex;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.DownStreamChannelLocation;
@@ -35,6 +37,10 @@ import org.apache.iotdb.db.queryengine.execution.exchange.source.LocalSourceHand
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.queryengine.execution.memory.MemoryPool;
+import org.apache.iotdb.db.queryengine.metric.DataExchangeCountMetricSet;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 
 import org.junit.Assert;
@@ -158,4 +164,88 @@ public class MPPDataExchangeManagerTest {
         ((LocalSinkChannel) shuffleSinkHandle.getChannel(0)).getSharedTsBlockQueue(),
         ((LocalSourceHandle) localSourceHandle).getSharedTsBlockQueue());
   }
+
+  @Test
+  public void testSendThroughLocalSinkChannel() {
+    final TFragmentInstanceId localFragmentInstanceId = new TFragmentInstanceId("q0", 1, "0");
+    final TFragmentInstanceId remoteFragmentInstanceId = new TFragmentInstanceId("q0", 0, "0");
+    final String remotePlanNodeId = "exchange_0";
+    final String localPlanNodeId = "shuffleSink_0";
+    final long mockTsBlockSize = 512L;
+    final FragmentInstanceContext mockFragmentInstanceContext =
+        Mockito.mock(FragmentInstanceContext.class);
+
+    // Bind the metric set to a mock metric service to observe the counters of local TsBlocks.
+    AbstractMetricService mockMetricService =
+        Mockito.mock(AbstractMetricService.class, Mockito.RETURNS_MOCKS);
+    Counter localTsBlockNumCounter = Mockito.mock(Counter.class);
+    Counter localTsBlockBytesCounter = Mockito.mock(Counter.class);
+    Mockito.when(
+            mockMetricService.getOrCreateCounter(
+                Metric.DATA_EXCHANGE_LOCAL_SIZE.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                "local_tsblock_num"))
+        .thenReturn(localTsBlockNumCounter);
+    Mockito.when(
+            mockMetricService.getOrCreateCounter(
+                Metric.DATA_EXCHANGE_LOCAL_SIZE.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                "local_tsblock_bytes"))
+        .thenReturn(localTsBlockBytesCounter);
+    DataExchangeCountMetricSet.getInstance().bindTo(mockMetricService);
+
+    try {
+      LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+      MemoryManager memoryManager = Mockito.spy(new MemoryManager(10240L));
+      MemoryPool spyMemoryPool = Mockito.spy(new MemoryPool("test", memoryManager, 5120L));
+      Mockito.when(mockLocalMemoryManager.getQueryPool()).thenReturn(spyMemoryPool);
+
+      MPPDataExchangeManager mppDataExchangeManager =
+          new MPPDataExchangeManager(
+              mockLocalMemoryManager,
+              new TsBlockSerdeFactory(),
+              Executors.newSingleThreadExecutor(),
+              new IClientManager.Factory<TEndPoint, SyncDataNodeMPPDataExchangeServiceClient>()
+                  .createClientManager(
+                      new ClientPoolFactory.SyncDataNodeMPPDataExchangeServiceClientPoolFactory()));
+
+      ISinkHandle shuffleSinkHandle =
+          mppDataExchangeManager.createShuffleSinkHandle(
+              Collections.singletonList(
+                  new DownStreamChannelLocation(
+                      new TEndPoint(
+                          IoTDBDescriptor.getInstance().getConfig().getInternalAddress(),
+                          IoTDBDescriptor.getInstance().getConfig().getMppDataExchangePort()),
+                      remoteFragmentInstanceId,
+                      remotePlanNodeId)),
+              new DownStreamChannelIndex(0),
+              ShuffleSinkHandle.ShuffleStrategyEnum.PLAIN,
+              localFragmentInstanceId,
+              localPlanNodeId,
+              mockFragmentInstanceContext);
+      ISourceHandle localSourceHandle =
+          mppDataExchangeManager.createLocalSourceHandleForFragment(
+              remoteFragmentInstanceId,
+              remotePlanNodeId,
+              localPlanNodeId,
+              localFragmentInstanceId,
+              0,
+              t -> {});
+      // the sink channel can send after the source handle asks for TsBlocks
+      localSourceHandle.isBlocked();
+
+      Assert.assertTrue(shuffleSinkHandle.getChannel(0) instanceof LocalSinkChannel);
+      LocalSinkChannel localSinkChannel = (LocalSinkChannel) shuffleSinkHandle.getChannel(0);
+      Assert.assertTrue(localSinkChannel.isFull().isDone());
+      localSinkChannel.send(Utils.createMockTsBlock(mockTsBlockSize));
+      localSinkChannel.send(Utils.createMockTsBlock(mockTsBlockSize));
+
+      Mockito.verify(localTsBlockNumCounter, Mockito.times(2)).inc();
+      Mockito.verify(localTsBlockBytesCounter, Mockito.times(2)).inc(mockTsBlockSize);
+    } finally {
+      DataExchangeCountMetricSet.getInstance().unbindFrom(mockMetricService);
+    }
+  }
 }
@@ -307,4 +307,58 @@ public class MemoryPoolTest {
     Assert.assertTrue(f.isDone());
     Assert.assertFalse(f.isCancelled());
   }
+
+  @Test
+  public void testReserveFromLocalReservationChunk() {
+    // the local reservation chunk is 512 / 64 = 8 bytes
+    Assert.assertTrue(
+        pool.tryReserveForTest(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 4L, Long.MAX_VALUE));
+    Assert.assertEquals(4L, pool.getReservedBytes());
+    Assert.assertEquals(1020L, pool.getRemainingBytes());
+    // served by the local reservation chunk
+    Assert.assertTrue(
+        pool.tryReserveForTest(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 4L, Long.MAX_VALUE));
+    Assert.assertEquals(8L, pool.getQueryMemoryReservedBytes(QUERY_ID));
+    Assert.assertEquals(8L, pool.getReservedBytes());
+    Assert.assertEquals(1016L, pool.getRemainingBytes());
+
+    pool.free(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 8L);
+    Assert.assertEquals(0L, pool.getQueryMemoryReservedBytes(QUERY_ID));
+    Assert.assertEquals(0L, pool.getReservedBytes());
+    Assert.assertEquals(1024L, pool.getRemainingBytes());
+
+    pool.deRegisterFragmentInstanceFromQueryMemoryMap(QUERY_ID, FRAGMENT_INSTANCE_ID, false);
+    Assert.assertEquals(0L, pool.getQueryMemoryReservationSize());
+    Assert.assertEquals(1024L, pool.getRemainingBytes());
+  }
+
+  @Test
+  public void testReclaimLocalReservationChunks() {
+    pool.registerPlanNodeIdToQueryMemoryMap(QUERY_ID, "f1", "p1");
+    Assert.assertTrue(
+        pool.tryReserveForTest(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 4L, Long.MAX_VALUE));
+    // the local reservation chunk of f0 is reclaimed when memory runs out
+    Assert.assertTrue(pool.tryReserveForTest(QUERY_ID, "f1", "p1", 512L, Long.MAX_VALUE));
+    Assert.assertTrue(pool.tryReserveForTest(QUERY_ID, "f1", "p1", 508L, Long.MAX_VALUE));
+    Assert.assertEquals(1024L, pool.getReservedBytes());
+    Assert.assertEquals(0L, pool.getRemainingBytes());
+  }
+
+  @Test
+  public void testFreeToBlockedReservation() {
+    pool.registerPlanNodeIdToQueryMemoryMap(QUERY_ID, "f1", "p1");
+    Assert.assertTrue(
+        pool.tryReserveForTest(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 512L, Long.MAX_VALUE));
+    Assert.assertTrue(pool.tryReserveForTest(QUERY_ID, "f1", "p1", 500L, Long.MAX_VALUE));
+    ListenableFuture<Void> f = pool.reserve(QUERY_ID, "f1", "p1", 100L, Long.MAX_VALUE).left;
+    Assert.assertFalse(f.isDone());
+    Assert.assertEquals(1012L, pool.getReservedBytes());
+
+    // the freed bytes are not kept in the local reservation chunk of f0 since f1 is blocked
+    pool.free(QUERY_ID, FRAGMENT_INSTANCE_ID, PLAN_NODE_ID, 100L);
+    Assert.assertTrue(f.isDone());
+    Assert.assertEquals(1012L, pool.getReservedBytes());
+    Assert.assertEquals(1012L, pool.getQueryMemoryReservedBytes(QUERY_ID));
+    Assert.assertEquals(0L, pool.getMemoryReservationSize());
+  }
 }
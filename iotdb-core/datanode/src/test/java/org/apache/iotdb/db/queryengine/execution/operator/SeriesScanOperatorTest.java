@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -33,11 +34,15 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanOpera
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.buffer.ChunkPrefetcher;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.series.SeriesReaderTestUtil;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.Duration;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.write.WriteProcessException;
@@ -52,6 +57,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
@@ -59,6 +65,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -84,6 +91,55 @@ public class SeriesScanOperatorTest {
 
   @Test
   public void batchTest() throws Exception {
+    scanAndCheck();
+  }
+
+  @Test
+  public void batchTestWithChunkPrefetch() throws Exception {
+    int chunkPrefetchNum =
+        IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchNumInSeriesScan();
+    IoTDBDescriptor.getInstance().getConfig().setChunkPrefetchNumInSeriesScan(2);
+    ChunkCache.getInstance().clear();
+    try {
+      scanAndCheck();
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setChunkPrefetchNumInSeriesScan(chunkPrefetchNum);
+    }
+  }
+
+  @Test
+  public void noChunkPrefetchAfterQueryDone() throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      stateMachine.finished();
+
+      FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+      TsFileResource resource = seqResources.get(0);
+      ListenableFuture<Void> future =
+          ChunkPrefetcher.getInstance()
+              .prefetch(
+                  resource,
+                  Collections.singletonList(
+                      new ChunkCache.ChunkCacheKey(
+                          resource.getTsFilePath(), resource.getTsFileID(), 0L, true)),
+                  fragmentInstanceContext);
+      assertTrue(future.isDone());
+      // the query has released its files, the prefetch must not open a reader for them
+      assertFalse(FileReaderManager.getInstance().contains(resource, true));
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private void scanAndCheck() throws Exception {
     ExecutorService instanceNotificationExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
     try {
@@ -119,7 +175,12 @@ public class SeriesScanOperatorTest {
 
       int count = 0;
       while (seriesScanOperator.hasNext()) {
+        // wait for the prefetched chunk like the driver
+        seriesScanOperator.isBlocked().get();
         TsBlock tsBlock = seriesScanOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
         assertEquals(1, tsBlock.getValueColumnCount());
         assertTrue(tsBlock.getColumn(0) instanceof IntColumn);
         for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+
+import io.airlift.units.Duration;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.IntType;
+import org.apache.tsfile.utils.Binary;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.junit.Assert.assertEquals;
+
+public class HashJoinOperatorTest {
+
+  private static final ExecutorService instanceNotificationExecutor =
+      IoTDBThreadPoolFactory.newFixedThreadPool(1, "hashJoinOperator-test-instance-notification");
+
+  // left child: key, value
+  // ---------------------- TsBlock-1
+  // 1     l1
+  // 2     l2
+  // null  l3
+  // 3     l4
+  // ---------------------- TsBlock-2
+  // 2     l5
+  // 5     l6
+  private static final Integer[][] LEFT_KEYS = {{1, 2, null, 3}, {2, 5}};
+  private static final String[][] LEFT_VALUES = {{"l1", "l2", "l3", "l4"}, {"l5", "l6"}};
+
+  // right child: key, value
+  // ---------------------- TsBlock-1
+  // 2     20
+  // 3     30
+  // null  0
+  // ---------------------- TsBlock-2
+  // 2     21
+  // 4     40
+  private static final Integer[][] RIGHT_KEYS = {{2, 3, null}, {2, 4}};
+  private static final Integer[][] RIGHT_VALUES = {{20, 30, 0}, {21, 40}};
+
+  @AfterClass
+  public static void tearDown() {
+    instanceNotificationExecutor.shutdown();
+  }
+
+  @Test
+  public void innerJoinTest() throws Exception {
+    List<String> expected = Arrays.asList("2,l2,20", "2,l2,21", "2,l5,20", "2,l5,21", "3,l4,30");
+    assertEquals(expected, collect(createHashJoinOperator(JoinNode.JoinType.INNER, RIGHT_KEYS)));
+  }
+
+  @Test
+  public void innerJoinWithEmptyRightTest() throws Exception {
+    assertEquals(
+        Collections.emptyList(),
+        collect(createHashJoinOperator(JoinNode.JoinType.INNER, new Integer[0][])));
+  }
+
+  @Test
+  public void leftJoinTest() throws Exception {
+    List<String> expected =
+        Arrays.asList(
+            "1,l1,null",
+            "2,l2,20",
+            "2,l2,21",
+            "2,l5,20",
+            "2,l5,21",
+            "3,l4,30",
+            "5,l6,null",
+            "null,l3,null");
+    assertEquals(expected, collect(createHashJoinOperator(JoinNode.JoinType.LEFT, RIGHT_KEYS)));
+  }
+
+  @Test
+  public void fullJoinTest() throws Exception {
+    List<String> expected =
+        Arrays.asList(
+            "1,l1,null",
+            "2,l2,20",
+            "2,l2,21",
+            "2,l5,20",
+            "2,l5,21",
+            "3,l4,30",
+            "5,l6,null",
+            "null,l3,null",
+            "null,null,0",
+            "null,null,40");
+    assertEquals(expected, collect(createHashJoinOperator(JoinNode.JoinType.FULL, RIGHT_KEYS)));
+  }
+
+  @Test
+  public void semiJoinTest() throws Exception {
+    // right child contains NULL key, so the rows without match get NULL instead of false
+    List<String> expected =
+        Arrays.asList(
+            "1,l1,null", "2,l2,true", "2,l5,true", "3,l4,true", "5,l6,null", "null,l3,null");
+    assertEquals(expected, collect(createHashSemiJoinOperator(RIGHT_KEYS)));
+
+    expected =
+        Arrays.asList(
+            "1,l1,false", "2,l2,true", "2,l5,true", "3,l4,true", "5,l6,false", "null,l3,null");
+    assertEquals(expected, collect(createHashSemiJoinOperator(new Integer[][] {{2, 3}, {4}})));
+
+    // NULL IN (empty) is false
+    expected =
+        Arrays.asList(
+            "1,l1,false", "2,l2,false", "2,l5,false", "3,l4,false", "5,l6,false", "null,l3,false");
+    assertEquals(expected, collect(createHashSemiJoinOperator(new Integer[0][])));
+  }
+
+  private static List<String> collect(Operator operator) throws Exception {
+    List<String> result = new ArrayList<>();
+    try {
+      while (!operator.isFinished()) {
+        if (!operator.hasNext()) {
+          continue;
+        }
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          StringBuilder row = new StringBuilder();
+          for (int j = 0; j < tsBlock.getValueColumnCount(); j++) {
+            if (j > 0) {
+              row.append(',');
+            }
+            Column column = tsBlock.getColumn(j);
+            row.append(column.isNull(i) ? "null" : column.getObject(i).toString());
+          }
+          result.add(row.toString());
+        }
+      }
+    } finally {
+      operator.close();
+    }
+    // the output order of hash join is not defined
+    Collections.sort(result);
+    return result;
+  }
+
+  private static DriverContext createDriverContext(String joinOperatorName) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    driverContext.addOperatorContext(
+        1, new PlanNodeId("1"), TableScanOperator.class.getSimpleName());
+    driverContext.addOperatorContext(
+        2, new PlanNodeId("2"), TableScanOperator.class.getSimpleName());
+    driverContext.addOperatorContext(3, new PlanNodeId("3"), joinOperatorName);
+    driverContext
+        .getOperatorContexts()
+        .forEach(
+            operatorContext ->
+                operatorContext.setMaxRunTime(new Duration(500, TimeUnit.MILLISECONDS)));
+    return driverContext;
+  }
+
+  private static Operator createHashJoinOperator(
+      JoinNode.JoinType joinType, Integer[][] rightKeys) {
+    DriverContext driverContext = createDriverContext(HashJoinOperator.class.getSimpleName());
+    return new HashJoinOperator(
+        driverContext.getOperatorContexts().get(2),
+        joinType,
+        createLeftChild(driverContext.getOperatorContexts().get(0)),
+        new int[] {0},
+        new int[] {0, 1},
+        createRightChild(driverContext.getOperatorContexts().get(1), rightKeys),
+        new int[] {0},
+        new int[] {1},
+        Collections.singletonList(IntType.getInstance()),
+        Arrays.asList(TSDataType.INT32, TSDataType.TEXT, TSDataType.INT32));
+  }
+
+  private static Operator createHashSemiJoinOperator(Integer[][] rightKeys) {
+    DriverContext driverContext = createDriverContext(HashSemiJoinOperator.class.getSimpleName());
+    return new HashSemiJoinOperator(
+        driverContext.getOperatorContexts().get(2),
+        createLeftChild(driverContext.getOperatorContexts().get(0)),
+        0,
+        new int[] {0, 1},
+        createRightChild(driverContext.getOperatorContexts().get(1), rightKeys),
+        0,
+        IntType.getInstance(),
+        Arrays.asList(TSDataType.INT32, TSDataType.TEXT, TSDataType.BOOLEAN));
+  }
+
+  private static Operator createLeftChild(OperatorContext operatorContext) {
+    List<TsBlock> blocks = new ArrayList<>();
+    for (int i = 0; i < LEFT_KEYS.length; i++) {
+      TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT32, TSDataType.TEXT));
+      for (int j = 0; j < LEFT_KEYS[i].length; j++) {
+        if (LEFT_KEYS[i][j] == null) {
+          builder.getColumnBuilder(0).appendNull();
+        } else {
+          builder.getColumnBuilder(0).writeInt(LEFT_KEYS[i][j]);
+        }
+        builder
+            .getColumnBuilder(1)
+            .writeBinary(new Binary(LEFT_VALUES[i][j], TSFileConfig.STRING_CHARSET));
+        builder.declarePosition();
+      }
+      blocks.add(
+          builder.build(
+              new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, builder.getPositionCount())));
+    }
+    return new TsBlockListOperator(operatorContext, blocks);
+  }
+
+  private static Operator createRightChild(OperatorContext operatorContext, Integer[][] keys) {
+    List<TsBlock> blocks = new ArrayList<>();
+    for (int i = 0; i < keys.length; i++) {
+      TsBlockBuilder builder =
+          new TsBlockBuilder(Arrays.asList(TSDataType.INT32, TSDataType.INT32));
+      for (int j = 0; j < keys[i].length; j++) {
+        if (keys[i][j] == null) {
+          builder.getColumnBuilder(0).appendNull();
+        } else {
+          builder.getColumnBuilder(0).writeInt(keys[i][j]);
+        }
+        if (keys == RIGHT_KEYS) {
+          builder.getColumnBuilder(1).writeInt(RIGHT_VALUES[i][j]);
+        } else {
+          builder.getColumnBuilder(1).writeInt(keys[i][j]);
+        }
+        builder.declarePosition();
+      }
+      blocks.add(
+          builder.build(
+              new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, builder.getPositionCount())));
+    }
+    return new TsBlockListOperator(operatorContext, blocks);
+  }
+
+  private static class TsBlockListOperator implements Operator {
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private TsBlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.HyperLogLog;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxCountDistinctAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.BooleanColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApproximateAggregationTest {
+
+  private static final int GROUP_NUM = 2;
+  private static final int ROW_NUM = 10000;
+
+  @Test
+  public void testHyperLogLog() {
+    HyperLogLog left = new HyperLogLog();
+    HyperLogLog right = new HyperLogLog();
+    int distinct = 100000;
+    for (int i = 0; i < distinct; i++) {
+      // the values overlap and repeat
+      left.addLong(i % (distinct * 3 / 4));
+      right.addLong(distinct - 1 - i);
+    }
+    assertError(distinct * 3 / 4, left.cardinality(), 0.05);
+
+    HyperLogLog merged = HyperLogLog.deserialize(left.serialize(), 0);
+    merged.merge(right);
+    assertError(distinct, merged.cardinality(), 0.05);
+
+    HyperLogLog small = new HyperLogLog();
+    for (int i = 0; i < 10; i++) {
+      small.addBytes(String.valueOf(i % 5).getBytes());
+    }
+    assertEquals(5, small.cardinality());
+  }
+
+  @Test
+  public void testTDigest() {
+    TDigest left = new TDigest();
+    TDigest right = new TDigest();
+    for (int i = 0; i < 100000; i++) {
+      if (i % 2 == 0) {
+        left.add(i);
+      } else {
+        right.add(i);
+      }
+    }
+    byte[] bytes = new byte[right.getSerializedSize()];
+    right.serialize(bytes, 0);
+    left.merge(TDigest.deserialize(bytes, 0));
+
+    assertEquals(0, left.quantile(0), 0);
+    assertEquals(99999, left.quantile(1), 0);
+    assertEquals(50000, left.quantile(0.5), 1000);
+    assertEquals(99000, left.quantile(0.99), 100);
+    assertEquals(1000, left.quantile(0.01), 100);
+  }
+
+  @Test
+  public void testGroupedApproxCountDistinct() {
+    GroupedAccumulator partial1 = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+    GroupedAccumulator partial2 = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+    GroupedAccumulator fin = new GroupedApproxCountDistinctAccumulator(TSDataType.INT64);
+
+    // group 0 gets [0, ROW_NUM), group 1 gets [0, ROW_NUM / 2) twice
+    int[] groupIds = new int[ROW_NUM];
+    LongColumnBuilder values1 = new LongColumnBuilder(null, ROW_NUM);
+    LongColumnBuilder values2 = new LongColumnBuilder(null, ROW_NUM);
+    for (int i = 0; i < ROW_NUM; i++) {
+      groupIds[i] = i % GROUP_NUM;
+      values1.writeLong(i % GROUP_NUM == 0 ? i : i / 2);
+      values2.writeLong(i % GROUP_NUM == 0 ? i + 1 : i / 2);
+    }
+    partial1.setGroupCount(GROUP_NUM);
+    partial1.addInput(
+        groupIds, new Column[] {values1.build()}, AggregationMask.createSelectAll(ROW_NUM));
+    partial2.setGroupCount(GROUP_NUM);
+    partial2.addInput(
+        groupIds, new Column[] {values2.build()}, AggregationMask.createSelectAll(ROW_NUM));
+
+    fin.setGroupCount(GROUP_NUM);
+    fin.addIntermediate(new int[] {0, 1}, evaluateIntermediate(partial1));
+    fin.addIntermediate(new int[] {0, 1}, evaluateIntermediate(partial2));
+
+    LongColumnBuilder result = new LongColumnBuilder(null, GROUP_NUM);
+    fin.evaluateFinal(0, result);
+    fin.evaluateFinal(1, result);
+    Column column = result.build();
+    assertError(ROW_NUM, column.getLong(0), 0.05);
+    assertError(ROW_NUM / 2, column.getLong(1), 0.05);
+  }
+
+  @Test
+  public void testGroupedApproxPercentile() {
+    GroupedAccumulator partial1 = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    GroupedAccumulator partial2 = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    GroupedAccumulator fin = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+
+    int[] groupIds = new int[ROW_NUM];
+    ColumnBuilder values = new IntColumnBuilder(null, ROW_NUM);
+    for (int i = 0; i < ROW_NUM; i++) {
+      // only group 0 has values, group 1 stays null
+      groupIds[i] = 0;
+      values.writeInt(i);
+    }
+    Column column = values.build();
+    Column percentage =
+        new RunLengthEncodedColumn(
+            new DoubleColumnBuilder(null, 1).writeDouble(0.9).build(), ROW_NUM);
+
+    AggregationMask evenRows = AggregationMask.createSelectAll(ROW_NUM);
+    evenRows.applyMaskBlock(maskColumn(true));
+    AggregationMask oddRows = AggregationMask.createSelectAll(ROW_NUM);
+    oddRows.applyMaskBlock(maskColumn(false));
+
+    partial1.setGroupCount(GROUP_NUM);
+    partial1.addInput(groupIds, new Column[] {column, percentage}, evenRows);
+    partial2.setGroupCount(GROUP_NUM);
+    partial2.addInput(groupIds, new Column[] {column, percentage}, oddRows);
+
+    fin.setGroupCount(GROUP_NUM);
+    fin.addIntermediate(new int[] {0, 1}, evaluateIntermediate(partial1));
+    fin.addIntermediate(new int[] {0, 1}, evaluateIntermediate(partial2));
+
+    DoubleColumnBuilder result = new DoubleColumnBuilder(null, GROUP_NUM);
+    fin.evaluateFinal(0, result);
+    fin.evaluateFinal(1, result);
+    Column resultColumn = result.build();
+    assertEquals(ROW_NUM * 0.9, resultColumn.getDouble(0), ROW_NUM * 0.01);
+    assertTrue(resultColumn.isNull(1));
+  }
+
+  private static Column evaluateIntermediate(GroupedAccumulator accumulator) {
+    BinaryColumnBuilder builder = new BinaryColumnBuilder(null, GROUP_NUM);
+    for (int groupId = 0; groupId < GROUP_NUM; groupId++) {
+      accumulator.evaluateIntermediate(groupId, builder);
+    }
+    return builder.build();
+  }
+
+  private static Column maskColumn(boolean even) {
+    ColumnBuilder builder = new BooleanColumnBuilder(null, ROW_NUM);
+    for (int i = 0; i < ROW_NUM; i++) {
+      builder.writeBoolean((i % 2 == 0) == even);
+    }
+    return builder.build();
+  }
+
+  private static void assertError(long expected, long actual, double relativeError) {
+    assertTrue(
+        String.format("expected %d but was %d", expected, actual),
+        Math.abs(actual - expected) <= expected * relativeError);
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.HashAggregationOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.IntType;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AccumulatorFactory.createGroupedAccumulator;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+import static org.apache.iotdb.db.utils.EnvironmentUtils.cleanDir;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillableHashAggregationBuilderTest {
+
+  private static final String SPILL_FOLDER_PATH =
+      "target" + File.separator + "aggSpill" + File.separator;
+
+  private static final ExecutorService instanceNotificationExecutor =
+      IoTDBThreadPoolFactory.newFixedThreadPool(
+          1, "hashAggregationSpill-test-instance-notification");
+
+  // more groups than one merge batch
+  private static final int GROUP_NUM = 2500;
+  private static final int BLOCK_NUM = 3;
+
+  @After
+  public void tearDown() throws IOException {
+    cleanDir(SPILL_FOLDER_PATH);
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    instanceNotificationExecutor.shutdown();
+  }
+
+  @Test
+  public void spillAndMergeTest() throws Exception {
+    testAggregation(true);
+  }
+
+  @Test
+  public void noSpillTest() throws Exception {
+    testAggregation(false);
+  }
+
+  private void testAggregation(boolean spill) throws Exception {
+    SpillableHashAggregationBuilder builder = createBuilder();
+    try {
+      for (int i = 0; i < BLOCK_NUM; i++) {
+        builder.processBlock(buildInputBlock(i));
+        if (spill) {
+          builder.spill();
+        }
+      }
+      assertEquals(spill, builder.hasSpilledData());
+
+      // key -> {count, sum, avg}
+      Map<Integer, Object[]> result = new HashMap<>();
+      Object[] nullKeyResult = null;
+      do {
+        TsBlock tsBlock = builder.buildResult();
+        assertEquals(4, tsBlock.getValueColumnCount());
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          Object[] row =
+              new Object[] {
+                tsBlock.getColumn(1).getLong(i),
+                tsBlock.getColumn(2).getDouble(i),
+                tsBlock.getColumn(3).getDouble(i)
+              };
+          if (tsBlock.getColumn(0).isNull(i)) {
+            assertTrue(nullKeyResult == null);
+            nullKeyResult = row;
+          } else {
+            assertFalse(result.containsKey(tsBlock.getColumn(0).getInt(i)));
+            result.put(tsBlock.getColumn(0).getInt(i), row);
+          }
+        }
+      } while (!builder.finished());
+
+      assertEquals(GROUP_NUM, result.size());
+      for (int key = 0; key < GROUP_NUM; key++) {
+        Object[] row = result.get(key);
+        assertEquals((long) BLOCK_NUM, row[0]);
+        assertEquals(BLOCK_NUM * (key + 10000.0), (double) row[1], 0.0001);
+        assertEquals(key + 10000.0, (double) row[2], 0.0001);
+      }
+      // the row with NULL key in each block has value 1
+      assertTrue(nullKeyResult != null);
+      assertEquals((long) BLOCK_NUM, nullKeyResult[0]);
+      assertEquals(BLOCK_NUM, (double) nullKeyResult[1], 0.0001);
+      assertEquals(1.0, (double) nullKeyResult[2], 0.0001);
+    } finally {
+      builder.close();
+    }
+  }
+
+  /**
+   * Block i contains all the keys in different order, the value of key k is k + 10000 + (i - 1) *
+   * GROUP_NUM, so the avg of each key is k + 10000.
+   */
+  private static TsBlock buildInputBlock(int index) {
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT32, TSDataType.INT64));
+    for (int i = 0; i < GROUP_NUM; i++) {
+      int key = index % 2 == 0 ? i : GROUP_NUM - 1 - i;
+      builder.getColumnBuilder(0).writeInt(key);
+      builder.getColumnBuilder(1).writeLong(key + 10000L + (index - 1) * (long) GROUP_NUM);
+      builder.declarePosition();
+    }
+    builder.getColumnBuilder(0).appendNull();
+    builder.getColumnBuilder(1).writeLong(1L);
+    builder.declarePosition();
+    return builder.build(
+        new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, builder.getPositionCount()));
+  }
+
+  private static SpillableHashAggregationBuilder createBuilder() {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    driverContext.addOperatorContext(
+        1, new PlanNodeId("1"), HashAggregationOperator.class.getSimpleName());
+    OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+
+    List<GroupedAggregator> aggregators =
+        Arrays.asList(
+            createAggregator("count", TAggregationType.COUNT, TSDataType.INT64, TSDataType.INT64),
+            createAggregator("sum", TAggregationType.SUM, TSDataType.DOUBLE, TSDataType.DOUBLE),
+            createAggregator("avg", TAggregationType.AVG, TSDataType.DOUBLE, TSDataType.BLOB));
+
+    return new SpillableHashAggregationBuilder(
+        aggregators,
+        AggregationNode.Step.SINGLE,
+        100,
+        Collections.singletonList(IntType.getInstance()),
+        Collections.singletonList(0),
+        operatorContext,
+        Long.MAX_VALUE,
+        SPILL_FOLDER_PATH,
+        1024 * 1024L,
+        NOOP);
+  }
+
+  private static GroupedAggregator createAggregator(
+      String functionName,
+      TAggregationType aggregationType,
+      TSDataType outputType,
+      TSDataType intermediateType) {
+    return new GroupedAggregator(
+        createGroupedAccumulator(
+            functionName,
+            aggregationType,
+            Collections.singletonList(TSDataType.INT64),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true,
+            false),
+        AggregationNode.Step.SINGLE,
+        outputType,
+        intermediateType,
+        Collections.singletonList(1),
+        OptionalInt.empty());
+  }
+}
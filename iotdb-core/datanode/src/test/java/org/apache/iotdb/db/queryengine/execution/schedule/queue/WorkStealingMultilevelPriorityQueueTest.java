@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue;
+
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
+import org.apache.iotdb.db.queryengine.execution.schedule.DriverScheduler;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskId;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+public class WorkStealingMultilevelPriorityQueueTest {
+
+  @Test
+  public void testPollBlocked() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    List<DriverTask> res = new ArrayList<>();
+    Thread t1 =
+        new Thread(
+            () -> {
+              try {
+                res.add(queue.poll(1));
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    t1.start();
+    Thread.sleep(100);
+    Assert.assertEquals(Thread.State.WAITING, t1.getState());
+    // pushed to the local queue of worker 0 and stolen by worker 1
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    queue.push(e1);
+    t1.join(1000);
+    Assert.assertEquals(Thread.State.TERMINATED, t1.getState());
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(e1.getDriverTaskId(), res.get(0).getDriverTaskId());
+    Assert.assertEquals(1, res.get(0).getLastWorkerIndex());
+  }
+
+  @Test
+  public void testPollFromLocalQueueAndSteal() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    DriverTask e2 = mockDriverTask(mockDriverTaskId(1), false);
+    // new tasks are distributed in a round-robin way
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(2, queue.size());
+    Assert.assertSame(e2, queue.poll(1));
+    Assert.assertSame(e1, queue.poll(0));
+    Assert.assertEquals(0, queue.size());
+
+    // the tasks are pushed back to the local queue of the worker which ran them last time
+    queue.repush(e2);
+    queue.repush(e1);
+    Assert.assertSame(e1, queue.poll(0));
+    // worker 0 steals the task of worker 1 when its local queue is empty
+    Assert.assertSame(e2, queue.poll(0));
+    Assert.assertEquals(0, e2.getLastWorkerIndex());
+    queue.repush(e2);
+    Assert.assertSame(e2, queue.poll(0));
+  }
+
+  @Test
+  public void testPushExceedCapacity() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 2, new DriverTask(), 2);
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    DriverTask e2 = mockDriverTask(mockDriverTaskId(1), false);
+    DriverTask e3 = mockDriverTask(mockDriverTaskId(2), false);
+    queue.push(e1);
+    queue.push(e2);
+    // the space of polled tasks is reserved for them
+    queue.poll(0);
+    Assert.assertThrows(IllegalStateException.class, () -> queue.push(e3));
+    queue.decreaseReservedSize();
+    queue.push(e3);
+    Assert.assertEquals(2, queue.size());
+  }
+
+  @Test
+  public void testHighestPriority() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 1);
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    DriverTask e2 = mockDriverTask(mockDriverTaskId(1), true);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertSame(e2, queue.poll(0));
+    Assert.assertSame(e1, queue.poll(0));
+  }
+
+  @Test
+  public void testStealHighestPriority() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    DriverTask e2 = mockDriverTask(mockDriverTaskId(1), true);
+    queue.push(e1);
+    queue.push(e2);
+    // the highest priority task of worker 1 runs before the task of worker 0 itself
+    Assert.assertSame(e2, queue.poll(0));
+    Assert.assertSame(e1, queue.poll(0));
+  }
+
+  @Test
+  public void testStealUnderServedLevel() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    DriverTaskHandle level2Handle =
+        new DriverTaskHandle(1, queue, OptionalInt.of(Integer.MAX_VALUE));
+    level2Handle.addScheduledTimeInNanos(TimeUnit.SECONDS.toNanos(20));
+    DriverTask level2Task = mockDriverTask(mockDriverTaskId(0), level2Handle);
+    level2Task.updatePriority();
+    Assert.assertEquals(2, level2Task.getPriority().getLevel());
+    DriverTaskHandle level0Handle =
+        new DriverTaskHandle(2, queue, OptionalInt.of(Integer.MAX_VALUE));
+    DriverTask level0Task = mockDriverTask(mockDriverTaskId(1), level0Handle);
+    // level2Task is in the local queue of worker 0, and level0Task in that of worker 1
+    queue.push(level2Task);
+    queue.push(level0Task);
+    // level 2 gets more than its share of the scheduled time
+    level2Handle.addScheduledTimeInNanos(TimeUnit.SECONDS.toNanos(10));
+
+    Assert.assertSame(level0Task, queue.poll(0));
+    Assert.assertEquals(0, level0Task.getLastWorkerIndex());
+    Assert.assertSame(level2Task, queue.poll(0));
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    DriverTask e1 = mockDriverTask(mockDriverTaskId(0), false);
+    DriverTask e2 = mockDriverTask(mockDriverTaskId(1), false);
+    DriverTask e3 = mockDriverTask(mockDriverTaskId(2), false);
+    queue.push(e1);
+    queue.push(e2);
+    queue.push(e3);
+    Assert.assertNotNull(queue.remove(e2.getDriverTaskId()));
+    Assert.assertNull(queue.remove(e2.getDriverTaskId()));
+    Assert.assertEquals(2, queue.size());
+    queue.clear();
+    Assert.assertEquals(0, queue.size());
+  }
+
+  private DriverTask mockDriverTask(DriverTaskId driverTaskID, boolean isHighestPriority) {
+    DriverScheduler manager = DriverScheduler.getInstance();
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    DriverTaskHandle driverTaskHandle =
+        new DriverTaskHandle(
+            1,
+            (MultilevelPriorityQueue) manager.getReadyQueue(),
+            OptionalInt.of(Integer.MAX_VALUE));
+    Mockito.when(mockDriver.getDriverTaskId()).thenReturn(driverTaskID);
+    return new DriverTask(
+        mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, isHighestPriority);
+  }
+
+  private DriverTask mockDriverTask(DriverTaskId driverTaskID, DriverTaskHandle driverTaskHandle) {
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    Mockito.when(mockDriver.getDriverTaskId()).thenReturn(driverTaskID);
+    return new DriverTask(mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, false);
+  }
+
+  private DriverTaskId mockDriverTaskId(int pipelineId) {
+    QueryId queryId = new QueryId("test");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "inst-0");
+    return new DriverTaskId(instanceId, pipelineId);
+  }
+}
@@ -19,9 +19,11 @@
 
 package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeType;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.sink.IdentitySinkNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.PlanTester;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
@@ -29,6 +31,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.TableLogicalPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.distribute.TableDistributedPlanner;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.CollectNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ExchangeNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
@@ -50,6 +53,7 @@ import com.google.common.collect.ImmutableSet;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -621,6 +625,68 @@ public class JoinTest {
         false);
   }
 
+  // sort of neither child can be eliminated, use hash join instead of merge sort join
+  @Test
+  public void hashJoinTest() {
+    boolean enableHashJoin = IoTDBDescriptor.getInstance().getConfig().isEnableHashJoin();
+    IoTDBDescriptor.getInstance().getConfig().setEnableHashJoin(true);
+    try {
+      sql =
+          "SELECT t1.time, t1.tag1, t1.s1, t2.tag1, t2.s1 "
+              + "FROM table1 t1 JOIN table1 t2 ON t1.time = t2.time";
+      analysis = analyzeSQL(sql, TEST_MATADATA, QUERY_CONTEXT);
+      SymbolAllocator symbolAllocator = new SymbolAllocator();
+      logicalQueryPlan =
+          new TableLogicalPlanner(
+                  QUERY_CONTEXT, TEST_MATADATA, SESSION_INFO, symbolAllocator, DEFAULT_WARNING)
+              .plan(analysis);
+
+      /*
+       * IdentitySinkNode
+       *   └──OutputNode
+       *       └──JoinNode (HashJoin)
+       *           ├──ExchangeNode
+       *           └──ExchangeNode
+       *
+       * IdentitySinkNode
+       *   └──CollectNode
+       *       ├──ExchangeNode
+       *       ├──ExchangeNode
+       *       └──ExchangeNode
+       *
+       * IdentitySinkNode
+       *   └──DeviceTableScanNode
+       * ...
+       */
+      distributedQueryPlan =
+          new TableDistributedPlanner(
+                  analysis, symbolAllocator, logicalQueryPlan, TEST_MATADATA, null)
+              .plan();
+      identitySinkNode =
+          (IdentitySinkNode) distributedQueryPlan.getFragments().get(0).getPlanNodeTree();
+      outputNode = (OutputNode) getChildrenNode(identitySinkNode, 1);
+      assertTrue(getChildrenNode(outputNode, 1) instanceof JoinNode);
+      joinNode = (JoinNode) getChildrenNode(outputNode, 1);
+      assertTrue(joinNode.isHashJoin());
+      assertTrue(joinNode.getLeftChild() instanceof ExchangeNode);
+      assertTrue(joinNode.getRightChild() instanceof ExchangeNode);
+
+      for (int i = 1; i < distributedQueryPlan.getFragments().size(); i++) {
+        PlanNode root = distributedQueryPlan.getFragments().get(i).getPlanNodeTree();
+        PlanNode child = getChildrenNode(root, 1);
+        assertTrue(child instanceof CollectNode || child instanceof DeviceTableScanNode);
+      }
+
+      // the join type should survive serialization since the fragment is sent to other nodes
+      ByteBuffer buffer = ByteBuffer.allocate(4096);
+      joinNode.serialize(buffer);
+      buffer.flip();
+      assertTrue(((JoinNode) PlanNodeType.deserialize(buffer)).isHashJoin());
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setEnableHashJoin(enableHashJoin);
+    }
+  }
+
   // ========== unsupported test ===============
   @Test
   public void unsupportedJoinTest() {
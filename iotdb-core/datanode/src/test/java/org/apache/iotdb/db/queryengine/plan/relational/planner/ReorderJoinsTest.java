@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner;
+
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.PlanOptimizer;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.ReorderJoins;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.TableStatisticsProvider;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LongLiteral;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+import static org.apache.iotdb.db.queryengine.execution.warnings.WarningCollector.NOOP;
+import static org.apache.iotdb.db.queryengine.plan.relational.execution.querystats.PlanOptimizersStatsCollector.createPlanOptimizersStatsCollector;
+import static org.apache.tsfile.read.common.type.DoubleType.DOUBLE;
+import static org.apache.tsfile.read.common.type.TimestampType.TIMESTAMP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReorderJoinsTest {
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean enableJoinReorder;
+
+  private final QueryId queryId = new QueryId("test_query");
+  private final PlanOptimizer.Context context =
+      new PlanOptimizer.Context(
+          null,
+          null,
+          null,
+          null,
+          new SymbolAllocator(),
+          queryId,
+          NOOP,
+          createPlanOptimizersStatsCollector());
+
+  // t1 has the most rows, but only one row in time range [0, 100]
+  private final TableStatisticsProvider statisticsProvider =
+      (table, startTime, endTime) -> {
+        switch (table.getObjectName()) {
+          case "t1":
+            return OptionalDouble.of(startTime == 0 && endTime == 100 ? 1 : 1000);
+          case "t2":
+            return OptionalDouble.of(10);
+          case "t3":
+            return OptionalDouble.of(100);
+          default:
+            return OptionalDouble.empty();
+        }
+      };
+
+  @Before
+  public void setUp() {
+    enableJoinReorder = config.isEnableJoinReorder();
+    config.setEnableJoinReorder(true);
+  }
+
+  @After
+  public void tearDown() {
+    config.setEnableJoinReorder(enableJoinReorder);
+  }
+
+  @Test
+  public void testReorderBySize() {
+    DeviceTableScanNode t1 = tableScan("t1");
+    DeviceTableScanNode t2 = tableScan("t2");
+    DeviceTableScanNode t3 = tableScan("t3");
+    // (t1 JOIN t2 ON t1.time = t2.time) JOIN t3 ON t2.time = t3.time
+    JoinNode root = join(join(t1, t2, "t1_time", "t2_time"), t3, "t2_time", "t3_time");
+
+    PlanNode result = new ReorderJoins(statisticsProvider).optimize(root, context);
+
+    // t2 and t3 are joined first, and the smaller inputs are on the build side
+    assertTrue(result instanceof ProjectNode);
+    assertEquals(root.getOutputSymbols(), result.getOutputSymbols());
+    JoinNode newRoot = (JoinNode) ((ProjectNode) result).getChild();
+    assertEquals(t1.getPlanNodeId(), newRoot.getLeftChild().getPlanNodeId());
+    assertEquals(
+        Collections.singletonList(
+            new JoinNode.EquiJoinClause(Symbol.of("t1_time"), Symbol.of("t2_time"))),
+        newRoot.getCriteria());
+    JoinNode rightJoin = (JoinNode) newRoot.getRightChild();
+    assertEquals(t3.getPlanNodeId(), rightJoin.getLeftChild().getPlanNodeId());
+    assertEquals(t2.getPlanNodeId(), rightJoin.getRightChild().getPlanNodeId());
+    assertEquals(
+        Collections.singletonList(
+            new JoinNode.EquiJoinClause(Symbol.of("t3_time"), Symbol.of("t2_time"))),
+        rightJoin.getCriteria());
+  }
+
+  @Test
+  public void testReorderByTimePredicate() {
+    DeviceTableScanNode t1 = tableScan("t1");
+    DeviceTableScanNode t2 = tableScan("t2");
+    DeviceTableScanNode t3 = tableScan("t3");
+    // WHERE t1.time >= 0 AND t1.time <= 100
+    FilterNode root =
+        new FilterNode(
+            queryId.genPlanNodeId(),
+            join(join(t1, t2, "t1_time", "t2_time"), t3, "t2_time", "t3_time"),
+            IrUtils.and(
+                new ComparisonExpression(
+                    ComparisonExpression.Operator.GREATER_THAN_OR_EQUAL,
+                    Symbol.of("t1_time").toSymbolReference(),
+                    new LongLiteral("0")),
+                new ComparisonExpression(
+                    ComparisonExpression.Operator.LESS_THAN_OR_EQUAL,
+                    Symbol.of("t1_time").toSymbolReference(),
+                    new LongLiteral("100"))));
+
+    PlanNode result = new ReorderJoins(statisticsProvider).optimize(root, context);
+
+    // t1 becomes the smallest input, so t1 and t2 are joined first
+    assertTrue(result instanceof FilterNode);
+    JoinNode newRoot = (JoinNode) ((ProjectNode) ((FilterNode) result).getChild()).getChild();
+    assertEquals(t3.getPlanNodeId(), newRoot.getLeftChild().getPlanNodeId());
+    JoinNode rightJoin = (JoinNode) newRoot.getRightChild();
+    assertEquals(t2.getPlanNodeId(), rightJoin.getLeftChild().getPlanNodeId());
+    assertEquals(t1.getPlanNodeId(), rightJoin.getRightChild().getPlanNodeId());
+  }
+
+  @Test
+  public void testKeepOrderWithUnknownStatistics() {
+    DeviceTableScanNode t1 = tableScan("t1");
+    DeviceTableScanNode t4 = tableScan("t4");
+    DeviceTableScanNode t3 = tableScan("t3");
+    JoinNode root = join(join(t1, t4, "t1_time", "t4_time"), t3, "t4_time", "t3_time");
+
+    PlanNode result = new ReorderJoins(statisticsProvider).optimize(root, context);
+
+    JoinNode newRoot = (JoinNode) result;
+    assertEquals(t3.getPlanNodeId(), newRoot.getRightChild().getPlanNodeId());
+    JoinNode leftJoin = (JoinNode) newRoot.getLeftChild();
+    assertEquals(t1.getPlanNodeId(), leftJoin.getLeftChild().getPlanNodeId());
+    assertEquals(t4.getPlanNodeId(), leftJoin.getRightChild().getPlanNodeId());
+  }
+
+  @Test
+  public void testDisabled() {
+    config.setEnableJoinReorder(false);
+    JoinNode root =
+        join(
+            join(tableScan("t1"), tableScan("t2"), "t1_time", "t2_time"),
+            tableScan("t3"),
+            "t2_time",
+            "t3_time");
+
+    assertSame(root, new ReorderJoins(statisticsProvider).optimize(root, context));
+  }
+
+  private DeviceTableScanNode tableScan(String table) {
+    Symbol time = Symbol.of(table + "_time");
+    Symbol s1 = Symbol.of(table + "_s1");
+    Map<Symbol, ColumnSchema> assignments = new LinkedHashMap<>();
+    assignments.put(time, new ColumnSchema("time", TIMESTAMP, false, TsTableColumnCategory.TIME));
+    assignments.put(s1, new ColumnSchema("s1", DOUBLE, false, TsTableColumnCategory.FIELD));
+    return new DeviceTableScanNode(
+        queryId.genPlanNodeId(),
+        new QualifiedObjectName("db", table),
+        Arrays.asList(time, s1),
+        assignments,
+        new HashMap<>());
+  }
+
+  private JoinNode join(PlanNode left, PlanNode right, String leftKey, String rightKey) {
+    List<JoinNode.EquiJoinClause> criteria =
+        Collections.singletonList(
+            new JoinNode.EquiJoinClause(Symbol.of(leftKey), Symbol.of(rightKey)));
+    return new JoinNode(
+        queryId.genPlanNodeId(),
+        JoinNode.JoinType.INNER,
+        left,
+        right,
+        criteria,
+        left.getOutputSymbols(),
+        right.getOutputSymbols(),
+        Optional.empty(),
+        Optional.empty());
+  }
+}
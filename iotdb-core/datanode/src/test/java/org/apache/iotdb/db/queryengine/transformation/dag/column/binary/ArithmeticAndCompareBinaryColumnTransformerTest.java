@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.queryengine.transformation.dag.column.binary;
 
+import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.ConstantColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.IdentityColumnTransformer;
 
 import org.apache.tsfile.block.column.Column;
@@ -26,6 +28,7 @@ import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumn;
 import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.tsfile.read.common.type.Type;
 import org.apache.tsfile.read.common.type.TypeFactory;
@@ -34,6 +37,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 public class ArithmeticAndCompareBinaryColumnTransformerTest {
 
@@ -215,4 +219,138 @@ public class ArithmeticAndCompareBinaryColumnTransformerTest {
       Assert.assertEquals(leftInput[i] != rightInput[i], res.getBoolean(i));
     }
   }
+
+  @Test
+  public void testKernelWithNull() {
+    // INT32 column with nulls at odd positions and INT64 column without null
+    TsBlockBuilder builder =
+        new TsBlockBuilder(POSITION_COUNT, Arrays.asList(TSDataType.INT32, TSDataType.INT64));
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      if (i % 2 == 0) {
+        builder.getColumnBuilder(0).writeInt(leftInput[i]);
+      } else {
+        builder.getColumnBuilder(0).appendNull();
+      }
+      builder.getColumnBuilder(1).writeLong(rightInput[i] * 10L);
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    Type doubleType = TypeFactory.getType(TSDataType.DOUBLE);
+
+    BinaryColumnTransformer division =
+        new ArithmeticDivisionColumnTransformer(
+            doubleType,
+            identity(TSDataType.INT64, 1, tsBlock),
+            identity(TSDataType.INT32, 0, tsBlock));
+    division.addReferenceCount();
+    division.evaluate();
+    Column res = division.getColumn();
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      if (i % 2 == 0) {
+        Assert.assertEquals(rightInput[i] * 10.0 / leftInput[i], res.getDouble(i), 0.000001);
+      } else {
+        Assert.assertTrue(res.isNull(i));
+      }
+    }
+
+    BinaryColumnTransformer compare =
+        new CompareLessThanColumnTransformer(
+            booleanType,
+            identity(TSDataType.INT32, 0, tsBlock),
+            identity(TSDataType.INT64, 1, tsBlock));
+    compare.addReferenceCount();
+    boolean[] selection = new boolean[] {true, true, false, true};
+    compare.evaluateWithSelection(selection);
+    res = compare.getColumn();
+    Assert.assertTrue(res.getBoolean(0));
+    Assert.assertTrue(res.isNull(1));
+    Assert.assertTrue(res.isNull(2));
+    Assert.assertTrue(res.isNull(3));
+  }
+
+  @Test
+  public void testKernelWithConstant() {
+    Type doubleType = TypeFactory.getType(TSDataType.DOUBLE);
+    Type longType = TypeFactory.getType(TSDataType.INT64);
+    TsBlock tsBlock = buildLongTsBlock(new long[] {(1L << 53) + 1, 1L << 53, 1L, -1L});
+
+    ColumnTransformer constant =
+        new ConstantColumnTransformer(
+            longType, new LongColumn(1, Optional.empty(), new long[] {1L << 53}));
+    ((ConstantColumnTransformer) constant).initFromTsBlock(tsBlock);
+    constant.addReferenceCount();
+    // longs are compared exactly instead of being converted to double
+    BinaryColumnTransformer compare =
+        new CompareGreaterThanColumnTransformer(
+            booleanType, identity(TSDataType.INT64, 0, tsBlock), constant);
+    compare.addReferenceCount();
+    compare.evaluate();
+    Column res = compare.getColumn();
+    Assert.assertTrue(res.getBoolean(0));
+    Assert.assertFalse(res.getBoolean(1));
+    Assert.assertFalse(res.getBoolean(2));
+    Assert.assertFalse(res.getBoolean(3));
+
+    constant =
+        new ConstantColumnTransformer(
+            longType, new LongColumn(1, Optional.empty(), new long[] {3L}));
+    ((ConstantColumnTransformer) constant).initFromTsBlock(tsBlock);
+    constant.addReferenceCount();
+    BinaryColumnTransformer modulo =
+        new ArithmeticModuloColumnTransformer(
+            doubleType, constant, identity(TSDataType.INT64, 0, tsBlock));
+    modulo.addReferenceCount();
+    modulo.evaluate();
+    res = modulo.getColumn();
+    Assert.assertEquals(3.0, res.getDouble(0), 0.000001);
+    Assert.assertEquals(3.0, res.getDouble(1), 0.000001);
+    Assert.assertEquals(0.0, res.getDouble(2), 0.000001);
+    Assert.assertEquals(0.0, res.getDouble(3), 0.000001);
+  }
+
+  @Test
+  public void testKernelWithNaN() {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(2, Arrays.asList(TSDataType.DOUBLE, TSDataType.FLOAT));
+    builder.getTimeColumnBuilder().writeLong(0);
+    builder.getColumnBuilder(0).writeDouble(Double.NaN);
+    builder.getColumnBuilder(1).writeFloat(1.0f);
+    builder.declarePosition();
+    builder.getTimeColumnBuilder().writeLong(1);
+    builder.getColumnBuilder(0).writeDouble(1.0);
+    builder.getColumnBuilder(1).writeFloat(1.0f);
+    builder.declarePosition();
+    TsBlock tsBlock = builder.build();
+
+    BinaryColumnTransformer compare =
+        new CompareNonEqualColumnTransformer(
+            booleanType,
+            identity(TSDataType.DOUBLE, 0, tsBlock),
+            identity(TSDataType.FLOAT, 1, tsBlock));
+    compare.addReferenceCount();
+    compare.evaluate();
+    Column res = compare.getColumn();
+    Assert.assertFalse(res.getBoolean(0));
+    Assert.assertFalse(res.getBoolean(1));
+  }
+
+  private static TsBlock buildLongTsBlock(long[] values) {
+    TsBlockBuilder builder = new TsBlockBuilder(values.length, Arrays.asList(TSDataType.INT64));
+    for (int i = 0; i < values.length; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      builder.getColumnBuilder(0).writeLong(values[i]);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private static IdentityColumnTransformer identity(
+      TSDataType dataType, int columnIndex, TsBlock tsBlock) {
+    IdentityColumnTransformer transformer =
+        new IdentityColumnTransformer(TypeFactory.getType(dataType), columnIndex);
+    transformer.addReferenceCount();
+    transformer.initFromTsBlock(tsBlock);
+    return transformer;
+  }
 }
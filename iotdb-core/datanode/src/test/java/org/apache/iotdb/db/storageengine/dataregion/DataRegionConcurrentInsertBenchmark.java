@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multi-writer insert benchmark of one {@link DataRegion}. Every writer thread inserts tablets into
+ * its own time partition, and the throughput is compared between the region-wide insert lock and
+ * the partition-level insert lock for a growing number of writers. The writers call the data region
+ * directly, as SimpleConsensus does when the partition-level insert lock is enabled.
+ */
+public class DataRegionConcurrentInsertBenchmark {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String systemDir = TestConstant.OUTPUT_DATA_DIR.concat("info");
+  private static final int[] threadNums = {1, 2, 4, 8, 16, 32, 64};
+  private static final int numOfMeasurement = 10;
+  private static final int rowsPerTablet = 100;
+  private static final int tabletsPerThread = 2000;
+
+  public static void main(String[] args) throws Exception {
+    boolean defaultEnablePartitionInsertLock = config.isEnablePartitionInsertLock();
+    EnvironmentUtils.envSetUp();
+    try {
+      System.out.println("threads\tregion lock (points/s)\tpartition lock (points/s)");
+      for (int threadNum : threadNums) {
+        config.setEnablePartitionInsertLock(false);
+        double regionLockThroughput = bench("root.bench_region_" + threadNum, threadNum);
+        config.setEnablePartitionInsertLock(true);
+        double partitionLockThroughput = bench("root.bench_partition_" + threadNum, threadNum);
+        System.out.println(
+            String.format(
+                "%d\t%.0f\t%.0f", threadNum, regionLockThroughput, partitionLockThroughput));
+      }
+    } finally {
+      config.setEnablePartitionInsertLock(defaultEnablePartitionInsertLock);
+      EnvironmentUtils.cleanEnv();
+      EnvironmentUtils.cleanDir(TestConstant.OUTPUT_DATA_DIR);
+    }
+  }
+
+  /**
+   * @return inserted points per second
+   */
+  private static double bench(String database, int threadNum) throws Exception {
+    DataRegion dataRegion = new DataRegionTest.DummyDataRegion(systemDir, database);
+    CountDownLatch startLatch = new CountDownLatch(1);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    Thread[] writers = new Thread[threadNum];
+    for (int i = 0; i < threadNum; i++) {
+      int partition = i;
+      writers[i] =
+          new Thread(
+              () -> {
+                try {
+                  startLatch.await();
+                  for (int j = 0; j < tabletsPerThread; j++) {
+                    dataRegion.insertTablet(genInsertTabletNode(database, partition, j));
+                  }
+                } catch (Exception e) {
+                  failure.compareAndSet(null, e);
+                }
+              });
+      writers[i].start();
+    }
+    long startTime = System.nanoTime();
+    startLatch.countDown();
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    long costInNs = System.nanoTime() - startTime;
+    dataRegion.syncDeleteDataFiles();
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    long points = (long) threadNum * tabletsPerThread * rowsPerTablet * numOfMeasurement;
+    return points * 1_000_000_000d / costInNs;
+  }
+
+  private static InsertTabletNode genInsertTabletNode(String database, int partition, int batch)
+      throws Exception {
+    String[] measurements = new String[numOfMeasurement];
+    TSDataType[] dataTypes = new TSDataType[numOfMeasurement];
+    MeasurementSchema[] measurementSchemas = new MeasurementSchema[numOfMeasurement];
+    Object[] columns = new Object[numOfMeasurement];
+    for (int i = 0; i < numOfMeasurement; i++) {
+      measurements[i] = "s" + i;
+      dataTypes[i] = TSDataType.INT64;
+      measurementSchemas[i] =
+          new MeasurementSchema(measurements[i], dataTypes[i], TSEncoding.PLAIN);
+      long[] values = new long[rowsPerTablet];
+      for (int r = 0; r < rowsPerTablet; r++) {
+        values[r] = r;
+      }
+      columns[i] = values;
+    }
+    // each writer owns one time partition
+    long partitionStartTime = partition * TimePartitionUtils.getTimePartitionInterval();
+    long[] times = new long[rowsPerTablet];
+    for (int r = 0; r < rowsPerTablet; r++) {
+      times[r] = partitionStartTime + (long) batch * rowsPerTablet + r;
+    }
+    return new InsertTabletNode(
+        new QueryId("bench_write").genPlanNodeId(),
+        new PartialPath(database + ".d" + partition),
+        false,
+        measurements,
+        dataTypes,
+        measurementSchemas,
+        times,
+        null,
+        columns,
+        times.length);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
@@ -93,6 +94,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -1655,6 +1657,73 @@ public class DataRegionTest {
         dataRegion.getWorkSequenceTsFileProcessors().contains(tsFileResource.getProcessor()));
   }
 
+  @Test
+  public void testConcurrentInsertWithPartitionInsertLock() throws Exception {
+    boolean defaultEnablePartitionInsertLock = config.isEnablePartitionInsertLock();
+    config.setEnablePartitionInsertLock(true);
+    DataRegion partitionLockedRegion = null;
+    try {
+      partitionLockedRegion = new DummyDataRegion(systemDir, "root.partition_lock");
+      DataRegion region = partitionLockedRegion;
+      int threadNum = 4;
+      int rowNum = 100;
+      AtomicReference<Exception> failure = new AtomicReference<>();
+      Thread[] writers = new Thread[threadNum];
+      for (int i = 0; i < threadNum; i++) {
+        long partitionStartTime = i * TimePartitionUtils.getTimePartitionInterval();
+        writers[i] =
+            new Thread(
+                () -> {
+                  try {
+                    for (int j = 0; j < rowNum; j++) {
+                      TSRecord record =
+                          new TSRecord("root.partition_lock.d0", partitionStartTime + j);
+                      record.addTuple(
+                          DataPoint.getDataPoint(
+                              TSDataType.INT32, measurementId, String.valueOf(j)));
+                      region.insert(buildInsertRowNodeByTSRecord(record));
+                    }
+                  } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                  }
+                });
+        writers[i].start();
+      }
+      for (Thread writer : writers) {
+        writer.join();
+      }
+      Assert.assertNull(failure.get());
+      Assert.assertEquals(threadNum, region.getWorkSequenceTsFileProcessors().size());
+
+      region.syncCloseAllWorkingTsFileProcessors();
+      IDeviceID partitionLockedDevice =
+          IDeviceID.Factory.DEFAULT_FACTORY.create("root.partition_lock.d0");
+      QueryDataSource queryDataSource =
+          region.query(
+              Collections.singletonList(
+                  new NonAlignedFullPath(
+                      partitionLockedDevice,
+                      new MeasurementSchema(measurementId, TSDataType.INT32))),
+              partitionLockedDevice,
+              context,
+              null,
+              null);
+      Assert.assertEquals(threadNum, queryDataSource.getSeqResources().size());
+      for (TsFileResource resource : queryDataSource.getSeqResources()) {
+        Assert.assertTrue(resource.isClosed());
+        Assert.assertEquals(
+            rowNum - 1,
+            resource.getEndTime(partitionLockedDevice).orElse(0L)
+                - resource.getStartTime(partitionLockedDevice).orElse(0L));
+      }
+    } finally {
+      if (partitionLockedRegion != null) {
+        partitionLockedRegion.syncDeleteDataFiles();
+      }
+      config.setEnablePartitionInsertLock(defaultEnablePartitionInsertLock);
+    }
+  }
+
   public static class DummyDataRegion extends DataRegion {
 
     public DummyDataRegion(String systemInfoDir, String storageGroupName)
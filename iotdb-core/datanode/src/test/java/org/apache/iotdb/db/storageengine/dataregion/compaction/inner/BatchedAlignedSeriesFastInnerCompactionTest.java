@@ -47,8 +47,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 public class BatchedAlignedSeriesFastInnerCompactionTest extends AbstractCompactionTest {
 
@@ -418,6 +420,49 @@ public class BatchedAlignedSeriesFastInnerCompactionTest extends AbstractCompact
     validate(targetResource);
   }
 
+  @Test
+  public void testCompactionWithParallelFollowingBatches() throws Exception {
+    // 11 value columns are compacted in 6 batches, the following 5 batches are compacted by
+    // several sub tasks in parallel
+    List<String> measurements = new ArrayList<>();
+    List<Boolean> nullValues = new ArrayList<>();
+    for (int i = 0; i < 11; i++) {
+      measurements.add("s" + i);
+      nullValues.add(false);
+    }
+    TsFileResource unseqResource1 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            measurements,
+            new TimeRange[][] {
+              new TimeRange[] {new TimeRange(100, 200), new TimeRange(500, 600)},
+              new TimeRange[] {new TimeRange(700, 800)}
+            },
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            nullValues,
+            false);
+    unseqResource1
+        .getModFileForWrite()
+        .write(new TreeDeletionEntry(new MeasurementPath("root.testsg.d0", "s7"), 150));
+    unseqResource1.getModFileForWrite().close();
+    unseqResources.add(unseqResource1);
+
+    TsFileResource unseqResource2 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            measurements,
+            new TimeRange[] {new TimeRange(150, 450), new TimeRange(100000, 200000)},
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            nullValues,
+            false);
+    unseqResources.add(unseqResource2);
+
+    TsFileResource targetResource = performCompaction();
+    validate(targetResource);
+  }
+
   private TsFileResource performCompaction() throws Exception {
     tsFileManager.addAll(unseqResources, false);
     TsFileResource targetResource =
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.inner.sizetiered;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.performer.constant.InnerSeqCompactionPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.TimeWindowCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionTestFileWriter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.TimeRange;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+@RunWith(Parameterized.class)
+public class TimeWindowCompactionSelectorTest extends AbstractCompactionTest {
+
+  private long defaultWindowSize =
+      IoTDBDescriptor.getInstance().getConfig().getTimeWindowCompactionWindowSizeInMs();
+  private long defaultFrozenAge =
+      IoTDBDescriptor.getInstance().getConfig().getTimeWindowCompactionFrozenAgeInMs();
+  private int defaultFileNumLowerBound =
+      IoTDBDescriptor.getInstance().getConfig().getInnerCompactionCandidateFileNum();
+  private InnerSeqCompactionPerformer defaultPerformer =
+      IoTDBDescriptor.getInstance().getConfig().getInnerSeqCompactionPerformer();
+  private String performer;
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(
+        new Object[][] {
+          {"read_chunk"}, {"fast"},
+        });
+  }
+
+  public TimeWindowCompactionSelectorTest(String performer) {
+    this.performer = performer;
+  }
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setInnerSeqCompactionPerformer(
+            InnerSeqCompactionPerformer.getInnerSeqCompactionPerformer(performer));
+    IoTDBDescriptor.getInstance().getConfig().setTimeWindowCompactionWindowSizeInMs(1000);
+    IoTDBDescriptor.getInstance().getConfig().setTimeWindowCompactionFrozenAgeInMs(0);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTimeWindowCompactionWindowSizeInMs(defaultWindowSize);
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTimeWindowCompactionFrozenAgeInMs(defaultFrozenAge);
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setInnerCompactionCandidateFileNum(defaultFileNumLowerBound);
+    IoTDBDescriptor.getInstance().getConfig().setInnerSeqCompactionPerformer(defaultPerformer);
+  }
+
+  @Test
+  public void testNotCompactAcrossWindows() throws IOException {
+    // end times are 500, 1000, 1500, 2000, 2500 and 3000, which are in windows 0, 1000, 1000,
+    // 2000, 2000 and 3000
+    generateFiles(6);
+    List<InnerSpaceCompactionTask> tasks = select();
+    Assert.assertEquals(2, tasks.size());
+    Assert.assertEquals(
+        Arrays.asList(seqResources.get(1), seqResources.get(2)),
+        tasks.get(0).getSelectedTsFileResourceList());
+    Assert.assertEquals(
+        Arrays.asList(seqResources.get(3), seqResources.get(4)),
+        tasks.get(1).getSelectedTsFileResourceList());
+    for (InnerSpaceCompactionTask task : tasks) {
+      Assert.assertEquals(
+          InnerSequenceCompactionSelector.TIME_WINDOW, task.getInnerSequenceCompactionSelector());
+      Assert.assertTrue(task.start());
+    }
+    Assert.assertEquals(4, tsFileManager.getTsFileList(true).size());
+    // the compacted windows have only one file
+    Assert.assertTrue(select().isEmpty());
+  }
+
+  @Test
+  public void testSkipFrozenWindows() throws IOException {
+    generateFiles(6);
+    // windows ending at or before 2000 are frozen
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTimeWindowCompactionFrozenAgeInMs(System.currentTimeMillis() - 2000);
+    List<InnerSpaceCompactionTask> tasks = select();
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(
+        Arrays.asList(seqResources.get(3), seqResources.get(4)),
+        tasks.get(0).getSelectedTsFileResourceList());
+  }
+
+  @Test
+  public void testActiveWindowNeedsCandidateFileNum() throws IOException {
+    generateFiles(4);
+    // all the files are in the window containing the current time
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTimeWindowCompactionWindowSizeInMs(System.currentTimeMillis() * 2);
+    IoTDBDescriptor.getInstance().getConfig().setInnerCompactionCandidateFileNum(5);
+    Assert.assertTrue(select().isEmpty());
+
+    IoTDBDescriptor.getInstance().getConfig().setInnerCompactionCandidateFileNum(4);
+    List<InnerSpaceCompactionTask> tasks = select();
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertTrue(tasks.get(0).start());
+    Assert.assertEquals(1, tsFileManager.getTsFileList(true).size());
+  }
+
+  private void generateFiles(int fileNum) throws IOException {
+    for (int i = 0; i < fileNum; i++) {
+      TsFileResource resource =
+          createEmptyFileAndResourceWithName(String.format("%d-%d-0-0.tsfile", i, i), 0, true);
+      try (CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+        writer.startChunkGroup("d" + i);
+        writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+            "s1",
+            new TimeRange[] {new TimeRange(500L * i + 1, 500L * (i + 1))},
+            TSEncoding.RLE,
+            CompressionType.LZ4);
+        writer.endChunkGroup();
+        writer.endFile();
+      }
+      tsFileManager.keepOrderInsert(resource, true);
+      seqResources.add(resource);
+    }
+  }
+
+  private List<InnerSpaceCompactionTask> select() {
+    TimeWindowCompactionSelector selector =
+        new TimeWindowCompactionSelector(
+            COMPACTION_TEST_SG, "0", 0, tsFileManager, new CompactionScheduleContext());
+    return selector.selectInnerSpaceTask(tsFileManager.getTsFileList(true));
+  }
+}
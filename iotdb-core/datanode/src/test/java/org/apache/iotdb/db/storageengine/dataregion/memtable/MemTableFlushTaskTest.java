@@ -20,6 +20,8 @@
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
@@ -27,6 +29,7 @@ import org.apache.iotdb.db.utils.constant.TestConstant;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.tsfile.write.writer.RestorableTsFileIOWriter;
 import org.junit.After;
@@ -40,6 +43,8 @@ import static org.junit.Assert.assertTrue;
 
 public class MemTableFlushTaskTest {
 
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
   private RestorableTsFileIOWriter writer;
   private String storageGroup = "storage_group1";
   private String dataRegionId = "1";
@@ -161,4 +166,41 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testFlushMemTableWithParallelEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int defaultFlushEncodingThreadCount = config.getFlushEncodingThreadCount();
+    config.setFlushEncodingThreadCount(4);
+    try {
+      IDeviceID[] devices = {
+        MemTableTestUtils.deviceId0, IDeviceID.Factory.DEFAULT_FACTORY.create("d1")
+      };
+      int measurementNum = 10;
+      for (IDeviceID device : devices) {
+        for (int i = 0; i < measurementNum; i++) {
+          MemTableTestUtils.produceData(
+              memTable, startTime, endTime, device, "s" + i, MemTableTestUtils.dataType0);
+        }
+      }
+      MemTableFlushTask memTableFlushTask =
+          new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+      for (IDeviceID device : devices) {
+        for (int i = 0; i < measurementNum; i++) {
+          assertEquals(
+              1,
+              writer.getVisibleMetadataList(device, "s" + i, MemTableTestUtils.dataType0).size());
+          ChunkMetadata chunkMetaData =
+              writer.getVisibleMetadataList(device, "s" + i, MemTableTestUtils.dataType0).get(0);
+          assertEquals(startTime, chunkMetaData.getStartTime());
+          assertEquals(endTime, chunkMetaData.getEndTime());
+          assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
+        }
+      }
+    } finally {
+      config.setFlushEncodingThreadCount(defaultFlushEncodingThreadCount);
+    }
+  }
 }
@@ -42,6 +42,7 @@ import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.filter.factory.TimeFilterApi;
 import org.apache.tsfile.read.reader.IPointReader;
 import org.apache.tsfile.utils.Binary;
 import org.apache.tsfile.utils.Pair;
@@ -282,6 +283,77 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(10, cnt);
   }
 
+  @Test
+  public void queryWithTimeFilterTest()
+      throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable(database, dataRegionId);
+    int dataSize = 1000;
+    for (int i = 0; i < dataSize; i++) {
+      memTable.write(
+          deviceID,
+          Collections.singletonList(
+              new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.PLAIN)),
+          i,
+          new Object[] {i});
+    }
+
+    // the whole mem chunk is out of the time range
+    Assert.assertNull(
+        memTable.query(
+            new QueryContext(),
+            nonAlignedFullPath,
+            Long.MIN_VALUE,
+            null,
+            TimeFilterApi.gt(dataSize)));
+    Assert.assertNull(memTable.query(new QueryContext(), nonAlignedFullPath, dataSize, null, null));
+
+    // the leading rows of the sorted TVList are skipped
+    ReadOnlyMemChunk memChunk =
+        memTable.query(
+            new QueryContext(), nonAlignedFullPath, Long.MIN_VALUE, null, TimeFilterApi.gtEq(600));
+    memChunk.sortTvLists();
+    memChunk.initChunkMetaFromTvLists();
+    Assert.assertEquals(600, memChunk.getChunkMetaData().getStatistics().getStartTime());
+    Assert.assertEquals(400, memChunk.getChunkMetaData().getStatistics().getCount());
+    Assert.assertEquals(600, memChunk.getPageOffsetsList().get(0)[0]);
+  }
+
+  @Test
+  public void queryAlignedWithTimeFilterTest()
+      throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable(database, dataRegionId);
+    int dataSize = 1000;
+    // written in descending order, so the TVList is sorted by the query
+    for (int i = dataSize - 1; i >= 0; i--) {
+      memTable.writeAlignedRow(
+          deviceID,
+          Collections.singletonList(
+              new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.PLAIN)),
+          i,
+          new Object[] {i});
+    }
+
+    // the whole mem chunk is out of the time range
+    Assert.assertNull(
+        memTable.query(
+            new QueryContext(), alignedFullPath, Long.MIN_VALUE, null, TimeFilterApi.gt(dataSize)));
+    Assert.assertNull(memTable.query(new QueryContext(), alignedFullPath, dataSize, null, null));
+
+    // the leading rows of the sorted TVList are skipped
+    AlignedReadOnlyMemChunk memChunk =
+        (AlignedReadOnlyMemChunk)
+            memTable.query(
+                new QueryContext(), alignedFullPath, Long.MIN_VALUE, null, TimeFilterApi.gtEq(600));
+    memChunk.sortTvLists();
+    memChunk.initChunkMetaFromTvLists();
+    Assert.assertEquals(600, memChunk.getChunkMetaData().getStatistics().getStartTime());
+    Assert.assertEquals(400, memChunk.getChunkMetaData().getStatistics().getCount());
+    Assert.assertEquals(600, memChunk.getPageOffsetsList().get(0)[0]);
+    Assert.assertEquals(600, memChunk.getTimeStatisticsList().get(0).getStartTime());
+    Assert.assertEquals(400, memChunk.getValuesStatisticsList().get(0)[0].getCount());
+    Assert.assertEquals(600, memChunk.getValuesStatisticsList().get(0)[0].getMinValue());
+  }
+
   @Test
   public void queryAlignChuckWithDeletionTest()
       throws IOException, QueryProcessException, MetadataException {
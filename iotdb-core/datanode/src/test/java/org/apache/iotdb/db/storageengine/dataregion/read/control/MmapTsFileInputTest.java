@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.control;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class MmapTsFileInputTest {
+
+  private static final IDeviceID DEVICE = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d1");
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean enableMmapSealedTsFileRead;
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    enableMmapSealedTsFileRead = config.isEnableMmapSealedTsFileRead();
+    file = new File(TestConstant.BASE_OUTPUT_PATH.concat("mmap-test.tsfile"));
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    try (TsFileIOWriter writer = new TsFileIOWriter(file)) {
+      MeasurementSchema schema =
+          new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.LZ4);
+      for (int i = 0; i < 10; i++) {
+        writer.startChunkGroup(DEVICE);
+        ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+        for (long time = i * 1000L; time < (i + 1) * 1000L; time++) {
+          chunkWriter.write(time, time * 7);
+        }
+        chunkWriter.writeToFileWriter(writer);
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setEnableMmapSealedTsFileRead(enableMmapSealedTsFileRead);
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testReadAcrossRegions() throws IOException {
+    byte[] expected = Files.readAllBytes(file.toPath());
+    MmapTsFileInput input = new MmapTsFileInput(file.getPath(), 100);
+    try {
+      Assert.assertEquals(expected.length, input.size());
+      // read at positions across the regions
+      ByteBuffer buffer = ByteBuffer.allocate(250);
+      Assert.assertEquals(250, input.read(buffer, 50));
+      for (int i = 0; i < 250; i++) {
+        Assert.assertEquals(expected[50 + i], buffer.get(i));
+      }
+      buffer.clear();
+      Assert.assertEquals(10, input.read(buffer, expected.length - 10));
+      buffer.clear();
+      Assert.assertEquals(-1, input.read(buffer, expected.length));
+
+      // read from the position of the input, by the input and its stream
+      input.position(0);
+      buffer = ByteBuffer.allocate(120);
+      Assert.assertEquals(120, input.read(buffer));
+      Assert.assertEquals(120, input.position());
+      InputStream inputStream = input.wrapAsInputStream();
+      Assert.assertEquals(expected[120] & 0xFF, inputStream.read());
+      byte[] bytes = new byte[expected.length];
+      int readSize = inputStream.read(bytes, 0, bytes.length);
+      Assert.assertEquals(expected.length - 121, readSize);
+      for (int i = 0; i < readSize; i++) {
+        Assert.assertEquals(expected[121 + i], bytes[i]);
+      }
+      Assert.assertEquals(-1, inputStream.read());
+    } finally {
+      input.close();
+    }
+    Assert.assertThrows(ClosedChannelException.class, () -> input.read(ByteBuffer.allocate(1), 0));
+  }
+
+  @Test
+  public void testReadChunksFromFileReaderManager() throws IOException {
+    config.setEnableMmapSealedTsFileRead(true);
+    TsFileResource resource = new TsFileResource(file);
+    FileReaderManager manager = FileReaderManager.getInstance();
+    manager.increaseFileReaderReference(resource, true);
+    TsFileSequenceReader reader = manager.get(file.getPath(), true);
+    Assert.assertTrue(reader instanceof MmapTsFileSequenceReader);
+
+    Path path = new Path(DEVICE, "s1", true);
+    try (TsFileSequenceReader channelReader = new TsFileSequenceReader(file.getPath())) {
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(path);
+      Assert.assertEquals(channelReader.getChunkMetadataList(path), chunkMetadataList);
+      Assert.assertEquals(10, chunkMetadataList.size());
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        Assert.assertEquals(
+            channelReader.readMemChunk(chunkMetadata).getData(),
+            reader.readMemChunk(chunkMetadata).getData());
+      }
+    }
+
+    // the reader is closed and the file is unmapped when it's not referenced any more
+    manager.decreaseFileReaderReference(resource, true);
+    Assert.assertFalse(manager.contains(resource, true));
+    Assert.assertThrows(ClosedChannelException.class, () -> reader.readTailMagic());
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+@SuppressWarnings("OptionalGetWithoutIsPresent")
+public class CompactDeviceTimeIndexTest {
+
+  private static final int DEVICE_NUM = 1000;
+
+  private final DeviceIdDictionary dictionary = new DeviceIdDictionary();
+
+  @Test
+  public void testLookup() {
+    Random random = new Random(1);
+    ArrayDeviceTimeIndex arrayIndex = new ArrayDeviceTimeIndex();
+    long[] startTimes = new long[DEVICE_NUM];
+    long[] endTimes = new long[DEVICE_NUM];
+    // insert in reverse order so that the device order differs from the dictionary order
+    for (int i = DEVICE_NUM - 1; i >= 0; i--) {
+      startTimes[i] = random.nextInt(1_000_000) - 500_000L;
+      endTimes[i] = startTimes[i] + random.nextInt(100_000);
+      arrayIndex.updateStartTime(device(i), startTimes[i]);
+      arrayIndex.updateEndTime(device(i), endTimes[i]);
+    }
+    arrayIndex.close();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      dictionary.getOrCreateId(device(i));
+    }
+
+    ArrayDeviceTimeIndex compactIndex = CompactDeviceTimeIndex.compact(arrayIndex, dictionary);
+    Assert.assertTrue(compactIndex instanceof CompactDeviceTimeIndex);
+    Assert.assertTrue(compactIndex.calculateRamSize() < arrayIndex.calculateRamSize());
+    Assert.assertEquals(arrayIndex.getMinStartTime(), compactIndex.getMinStartTime());
+    Assert.assertEquals(arrayIndex.getMaxEndTime(), compactIndex.getMaxEndTime());
+    Assert.assertEquals(arrayIndex.getDevices(), compactIndex.getDevices());
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      Assert.assertEquals(startTimes[i], (long) compactIndex.getStartTime(device(i)).get());
+      Assert.assertEquals(endTimes[i], (long) compactIndex.getEndTime(device(i)).get());
+      Assert.assertArrayEquals(
+          new long[] {startTimes[i], endTimes[i]}, compactIndex.getStartAndEndTime(device(i)));
+      Assert.assertFalse(compactIndex.definitelyNotContains(device(i)));
+    }
+
+    // known by the dictionary but not in the file, and unknown by the dictionary
+    dictionary.getOrCreateId(device(DEVICE_NUM));
+    Assert.assertTrue(compactIndex.definitelyNotContains(device(DEVICE_NUM)));
+    Assert.assertFalse(compactIndex.getStartTime(device(DEVICE_NUM + 1)).isPresent());
+    Assert.assertNull(compactIndex.getStartAndEndTime(device(DEVICE_NUM + 1)));
+    Assert.assertFalse(compactIndex.getDevices().contains(device(DEVICE_NUM + 1)));
+
+    Assert.assertEquals(arrayIndex.stillLives(0), compactIndex.stillLives(0));
+    Assert.assertEquals(
+        arrayIndex.isSpanMultiTimePartitions(), compactIndex.isSpanMultiTimePartitions());
+  }
+
+  @Test
+  public void testExtremeTimes() {
+    ArrayDeviceTimeIndex arrayIndex = new ArrayDeviceTimeIndex();
+    arrayIndex.updateStartTime(device(0), Long.MIN_VALUE);
+    arrayIndex.updateEndTime(device(0), Long.MAX_VALUE);
+    arrayIndex.updateStartTime(device(1), 0);
+    arrayIndex.updateEndTime(device(1), 0);
+    arrayIndex.updateStartTime(device(2), Long.MAX_VALUE);
+    arrayIndex.updateEndTime(device(2), Long.MAX_VALUE);
+    arrayIndex.close();
+
+    ArrayDeviceTimeIndex compactIndex = CompactDeviceTimeIndex.compact(arrayIndex, dictionary);
+    Assert.assertTrue(compactIndex instanceof CompactDeviceTimeIndex);
+    Assert.assertArrayEquals(
+        new long[] {Long.MIN_VALUE, Long.MAX_VALUE}, compactIndex.getStartAndEndTime(device(0)));
+    Assert.assertArrayEquals(new long[] {0, 0}, compactIndex.getStartAndEndTime(device(1)));
+    Assert.assertArrayEquals(
+        new long[] {Long.MAX_VALUE, Long.MAX_VALUE}, compactIndex.getStartAndEndTime(device(2)));
+  }
+
+  @Test
+  public void testUnsealedIndexIsNotCompacted() {
+    ArrayDeviceTimeIndex arrayIndex = new ArrayDeviceTimeIndex();
+    Assert.assertSame(arrayIndex, CompactDeviceTimeIndex.compact(arrayIndex, dictionary));
+    // the end time of an unsealed sequence file is not set yet
+    arrayIndex.updateStartTime(device(0), 10);
+    Assert.assertSame(arrayIndex, CompactDeviceTimeIndex.compact(arrayIndex, dictionary));
+  }
+
+  @Test
+  public void testSerializeAsArrayDeviceTimeIndex() throws IOException {
+    ArrayDeviceTimeIndex arrayIndex = new ArrayDeviceTimeIndex();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      arrayIndex.updateStartTime(device(i), i * 10L);
+      arrayIndex.updateEndTime(device(i), i * 10L + 5);
+    }
+    arrayIndex.close();
+    CompactDeviceTimeIndex compactIndex =
+        (CompactDeviceTimeIndex) CompactDeviceTimeIndex.compact(arrayIndex, dictionary);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    compactIndex.serialize(outputStream);
+    ITimeIndex deserialized =
+        ITimeIndex.createTimeIndex(new ByteArrayInputStream(outputStream.toByteArray()));
+    Assert.assertEquals(ITimeIndex.ARRAY_DEVICE_TIME_INDEX_TYPE, deserialized.getTimeIndexType());
+    Assert.assertTrue(deserialized instanceof ArrayDeviceTimeIndex);
+
+    InputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    ReadWriteIOUtils.readByte(inputStream);
+    Set<IDeviceID> devices = ArrayDeviceTimeIndex.getDevices(inputStream);
+    Assert.assertEquals(new HashSet<>(arrayIndex.getDevices()), devices);
+
+    ArrayDeviceTimeIndex expanded = compactIndex.toArrayDeviceTimeIndex();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      Assert.assertEquals(i * 10L, (long) deserialized.getStartTime(device(i)).get());
+      Assert.assertEquals(i * 10L + 5, (long) deserialized.getEndTime(device(i)).get());
+      Assert.assertEquals(i * 10L + 5, (long) expanded.getEndTime(device(i)).get());
+    }
+    expanded.updateEndTime(device(0), 100);
+    Assert.assertEquals(100L, (long) expanded.getEndTime(device(0)).get());
+  }
+
+  @Test
+  public void testDictionaryRamSize() {
+    long ramSize = dictionary.getRamSize();
+    for (int i = 0; i < DEVICE_NUM * 2; i++) {
+      dictionary.getOrCreateId(device(i));
+      Assert.assertTrue(dictionary.getRamSize() > ramSize + device(i).ramBytesUsed());
+      ramSize = dictionary.getRamSize();
+    }
+    // interning known devices costs nothing
+    for (int i = 0; i < DEVICE_NUM * 2; i++) {
+      dictionary.getOrCreateId(device(i));
+    }
+    Assert.assertEquals(ramSize, dictionary.getRamSize());
+  }
+
+  private static IDeviceID device(int i) {
+    return IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d" + i);
+  }
+}
@@ -31,6 +31,9 @@ import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.CompactDeviceTimeIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.DeviceIdDictionary;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
@@ -103,6 +106,7 @@ public class ResourceManagerTest {
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
     TsFileResourceManager.getInstance().clear();
+    DeviceIdDictionary.getInstance().clear();
     EnvironmentUtils.cleanAllDir();
   }
 
@@ -413,4 +417,88 @@ public class ResourceManagerTest {
     Assert.assertTrue(tsFileResource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE);
     Assert.assertEquals(1, tsFileResourceManager.getDegradedTimeIndexNum());
   }
+
+  @Test
+  public void testDeviceIdDictionaryMemCost() {
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                1
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 1
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + ".tsfile"));
+    TsFileResource tsFileResource = new TsFileResource(file);
+    IDeviceID device = IDeviceID.Factory.DEFAULT_FACTORY.create("root.test.d1");
+    tsFileResource.updateStartTime(device, 1);
+    tsFileResource.updateEndTime(device, 2);
+    // interned as a compact time index would do
+    DeviceIdDictionary.getInstance().getOrCreateId(device);
+
+    tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
+    Assert.assertEquals(
+        tsFileResource.calculateRamSize() + DeviceIdDictionary.getInstance().getRamSize(),
+        tsFileResourceManager.getTotalTimeIndexMemCost());
+    // the dictionary is not released by degradation
+    TsFileResourceManager.getInstance().forceDegradeTsFileResource(tsFileResource);
+    Assert.assertEquals(
+        tsFileResource.calculateRamSize() + DeviceIdDictionary.getInstance().getRamSize(),
+        tsFileResourceManager.getTotalTimeIndexMemCost());
+  }
+
+  @Test
+  public void testRebuildDeviceIdDictionary() {
+    DeviceIdDictionary.getInstance().clear();
+    // the devices of the removed file are no longer used once it is removed
+    TsFileResource removedResource = createCompactTsFileResource(1, 2000);
+    TsFileResource liveResource = createCompactTsFileResource(2, 10);
+    tsFileResourceManager.registerSealedTsFileResource(removedResource);
+    tsFileResourceManager.registerSealedTsFileResource(liveResource);
+    DeviceIdDictionary oldDictionary = DeviceIdDictionary.getInstance();
+    Assert.assertEquals(2000, oldDictionary.size());
+
+    tsFileResourceManager.removeTsFileResource(removedResource);
+    DeviceIdDictionary dictionary = DeviceIdDictionary.getInstance();
+    Assert.assertNotSame(oldDictionary, dictionary);
+    Assert.assertEquals(10, dictionary.size());
+    Assert.assertEquals(
+        liveResource.calculateRamSize() + dictionary.getRamSize(),
+        tsFileResourceManager.getTotalTimeIndexMemCost());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(
+          i, (long) liveResource.getTimeIndex().getStartTime(createDevice(i)).get());
+    }
+    // the index of the removed file still works with the old dictionary
+    Assert.assertEquals(
+        1500L, (long) removedResource.getTimeIndex().getStartTime(createDevice(1500)).get());
+  }
+
+  private TsFileResource createCompactTsFileResource(long version, int deviceNum) {
+    File file =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                version
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + version
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + IoTDBConstant.FILE_NAME_SEPARATOR
+                    + 0
+                    + ".tsfile"));
+    TsFileResource tsFileResource = new TsFileResource(file);
+    ArrayDeviceTimeIndex timeIndex = new ArrayDeviceTimeIndex();
+    for (int i = 0; i < deviceNum; i++) {
+      timeIndex.updateStartTime(createDevice(i), i);
+      timeIndex.updateEndTime(createDevice(i), i + 1);
+    }
+    tsFileResource.setTimeIndex(CompactDeviceTimeIndex.compact(timeIndex));
+    return tsFileResource;
+  }
+
+  private static IDeviceID createDevice(int i) {
+    return IDeviceID.Factory.DEFAULT_FACTORY.create("root.test.d" + i);
+  }
 }
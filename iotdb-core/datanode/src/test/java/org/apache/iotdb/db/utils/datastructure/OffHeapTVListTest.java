@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapSlabAllocator;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapSlabAllocator.Block;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
+
+import org.apache.tsfile.utils.BitMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+public class OffHeapTVListTest {
+
+  private static final int ROW_COUNT = ARRAY_SIZE * 5 + 7;
+
+  @Test
+  public void testPutAndSort() {
+    long usedBytes = OffHeapSlabAllocator.getUsedBytes();
+    Random random = new Random(0);
+    LongTVList onHeap = LongTVList.newList();
+    LongTVList offHeap = new OffHeapLongTVList();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      long time = random.nextInt(ROW_COUNT);
+      onHeap.putLong(time, i);
+      offHeap.putLong(time, i);
+    }
+    Assert.assertEquals(onHeap.calculateRamSize(), offHeap.calculateRamSize());
+    Assert.assertEquals(onHeap.isSorted(), offHeap.isSorted());
+
+    onHeap.sort();
+    offHeap.sort();
+    Assert.assertEquals(onHeap.rowCount(), offHeap.rowCount());
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Assert.assertEquals(onHeap.getTime(i), offHeap.getTime(i));
+      Assert.assertEquals(onHeap.getLong(i), offHeap.getLong(i));
+    }
+
+    LongTVList cloneList = offHeap.clone();
+    offHeap.clear();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      Assert.assertEquals(onHeap.getTime(i), cloneList.getTime(i));
+      Assert.assertEquals(onHeap.getLong(i), cloneList.getLong(i));
+    }
+    cloneList.clear();
+    Assert.assertEquals(usedBytes, OffHeapSlabAllocator.getUsedBytes());
+  }
+
+  @Test
+  public void testReleaseBeyondPoolSize() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    long poolSize = config.getOffHeapMemTablePoolSizeInByte();
+    config.setOffHeapMemTablePoolSizeInByte(0);
+    try {
+      long usedBytes = OffHeapSlabAllocator.getUsedBytes();
+      long pooledBytes = OffHeapSlabAllocator.getPooledBytes();
+      long slabBytesInUse = OffHeapSlabAllocator.getSlabBytes() - pooledBytes;
+      long chargedBytes = SystemInfo.getInstance().getOffHeapMemtableMemoryCost();
+      List<Block> blocks = allocateTwoSlabs();
+      Assert.assertTrue(
+          SystemInfo.getInstance().getOffHeapMemtableMemoryCost()
+              >= chargedBytes + 2L * OffHeapSlabAllocator.SLAB_SIZE_IN_BYTES);
+      blocks.forEach(OffHeapSlabAllocator::release);
+      // the pool is full, so the slabs without used blocks are freed
+      Assert.assertTrue(OffHeapSlabAllocator.getPooledBytes() <= pooledBytes);
+      Assert.assertEquals(
+          slabBytesInUse,
+          OffHeapSlabAllocator.getSlabBytes() - OffHeapSlabAllocator.getPooledBytes());
+      Assert.assertEquals(chargedBytes, SystemInfo.getInstance().getOffHeapMemtableMemoryCost());
+      Assert.assertEquals(usedBytes, OffHeapSlabAllocator.getUsedBytes());
+    } finally {
+      config.setOffHeapMemTablePoolSizeInByte(poolSize);
+    }
+  }
+
+  @Test
+  public void testReleaseWithinPoolSize() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    long poolSize = config.getOffHeapMemTablePoolSizeInByte();
+    config.setOffHeapMemTablePoolSizeInByte(Long.MAX_VALUE);
+    try {
+      long chargedBytes = SystemInfo.getInstance().getOffHeapMemtableMemoryCost();
+      List<Block> blocks = allocateTwoSlabs();
+      long slabBytes = OffHeapSlabAllocator.getSlabBytes();
+      long pooledBytes = OffHeapSlabAllocator.getPooledBytes();
+      blocks.forEach(OffHeapSlabAllocator::release);
+      // whole slabs are kept, at least the two new ones
+      Assert.assertEquals(slabBytes, OffHeapSlabAllocator.getSlabBytes());
+      Assert.assertTrue(
+          OffHeapSlabAllocator.getPooledBytes()
+              >= pooledBytes + 2L * OffHeapSlabAllocator.SLAB_SIZE_IN_BYTES);
+      Assert.assertEquals(chargedBytes, SystemInfo.getInstance().getOffHeapMemtableMemoryCost());
+    } finally {
+      config.setOffHeapMemTablePoolSizeInByte(poolSize);
+    }
+  }
+
+  /** Allocate enough blocks to use up any partly used slab and two new ones. */
+  private List<Block> allocateTwoSlabs() {
+    int blocksPerSlab = OffHeapSlabAllocator.SLAB_SIZE_IN_BYTES / (ARRAY_SIZE * Long.BYTES);
+    List<Block> blocks = new ArrayList<>();
+    for (int i = 0; i < blocksPerSlab * 3; i++) {
+      blocks.add(OffHeapSlabAllocator.allocate(Long.BYTES));
+    }
+    return blocks;
+  }
+
+  @Test
+  public void testPutBatchWithBitMap() {
+    long usedBytes = OffHeapSlabAllocator.getUsedBytes();
+    long[] times = new long[ROW_COUNT];
+    int[] intValues = new int[ROW_COUNT];
+    float[] floatValues = new float[ROW_COUNT];
+    double[] doubleValues = new double[ROW_COUNT];
+    BitMap bitMap = new BitMap(ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      times[i] = ROW_COUNT - i;
+      intValues[i] = i;
+      floatValues[i] = i + 0.5f;
+      doubleValues[i] = i + 0.25;
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+
+    IntTVList intList = new OffHeapIntTVList();
+    FloatTVList floatList = new OffHeapFloatTVList();
+    DoubleTVList doubleList = new OffHeapDoubleTVList();
+    // write in two batches, the first one ends in the middle of a block
+    int split = ARRAY_SIZE + 3;
+    intList.putInts(times, intValues, bitMap, 0, split);
+    intList.putInts(times, intValues, bitMap, split, ROW_COUNT);
+    floatList.putFloats(times, floatValues, bitMap, 0, split);
+    floatList.putFloats(times, floatValues, bitMap, split, ROW_COUNT);
+    doubleList.putDoubles(times, doubleValues, bitMap, 0, split);
+    doubleList.putDoubles(times, doubleValues, bitMap, split, ROW_COUNT);
+    intList.sort();
+    floatList.sort();
+    doubleList.sort();
+
+    int nonNullCount = ROW_COUNT - (ROW_COUNT + 99) / 100;
+    Assert.assertEquals(nonNullCount, intList.rowCount());
+    int row = 0;
+    for (int i = ROW_COUNT - 1; i >= 0; i--) {
+      if (bitMap.isMarked(i)) {
+        continue;
+      }
+      Assert.assertEquals(times[i], intList.getTime(row));
+      Assert.assertEquals(intValues[i], intList.getInt(row));
+      Assert.assertEquals(floatValues[i], floatList.getFloat(row), 0);
+      Assert.assertEquals(doubleValues[i], doubleList.getDouble(row), 0);
+      row++;
+    }
+
+    intList.clear();
+    floatList.clear();
+    doubleList.clear();
+    Assert.assertEquals(usedBytes, OffHeapSlabAllocator.getUsedBytes());
+  }
+
+  @Test
+  public void testDelete() {
+    LongTVList tvList = new OffHeapLongTVList();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertEquals(ARRAY_SIZE, tvList.delete(0, ARRAY_SIZE - 1));
+    Assert.assertEquals(ROW_COUNT - ARRAY_SIZE, tvList.count());
+    tvList.clear();
+  }
+}
@@ -34,6 +34,7 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_MANAGEMENT("Fragment-Instance-Management"),
   FRAGMENT_INSTANCE_NOTIFICATION("Fragment-Instance-Notification"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
+  CHUNK_PREFETCH("Chunk-Prefetch"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -58,6 +59,7 @@ public enum ThreadName {
   // -------------------------- Flush --------------------------
   FLUSH("Flush"),
   FLUSH_SUB_TASK("Flush-SubTask"),
+  FLUSH_ENCODING("Flush-Encoding"),
   FLUSH_TASK_SUBMIT("FlushTask-Submit-Pool"),
   TIMED_FLUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FLUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
@@ -207,7 +209,8 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              CHUNK_PREFETCH));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -233,6 +236,7 @@ public enum ThreadName {
           Arrays.asList(
               FLUSH,
               FLUSH_SUB_TASK,
+              FLUSH_ENCODING,
               FLUSH_TASK_SUBMIT,
               TIMED_FLUSH_SEQ_MEMTABLE,
               TIMED_FLUSH_UNSEQ_MEMTABLE));
@@ -227,6 +227,7 @@ public class CommonConfig {
   private int pipeExtractorAssignerDisruptorRingBufferSize = 65536;
   private long pipeExtractorAssignerDisruptorRingBufferEntrySizeInBytes = 50; // 50B
   private int pipeExtractorMatcherCacheSize = 1024;
+  private boolean pipeExtractorMatcherTrieEnabled = false;
 
   private int pipeConnectorHandshakeTimeoutMs = 10 * 1000; // 10 seconds
   private int pipeConnectorTransferTimeoutMs = 15 * 60 * 1000; // 15 minutes
@@ -259,6 +260,9 @@ public class CommonConfig {
 
   private long pipeReceiverLoginPeriodicVerificationIntervalMs = 300000;
   private double pipeReceiverActualToEstimatedMemoryRatio = 3;
+  private boolean pipeReceiverFastWriteEnabled = false;
+  private int pipeReceiverFastWriteCacheSize = 1024;
+  private long pipeReceiverFastWriteCacheExpireMs = 60 * 1000L; // 1 minute
 
   private int pipeMaxAllowedHistoricalTsFilePerDataRegion = 100;
   private int pipeMaxAllowedPendingTsFileEpochPerDataRegion = 5;
@@ -806,6 +810,14 @@ public class CommonConfig {
     this.pipeExtractorMatcherCacheSize = pipeExtractorMatcherCacheSize;
   }
 
+  public boolean isPipeExtractorMatcherTrieEnabled() {
+    return pipeExtractorMatcherTrieEnabled;
+  }
+
+  public void setPipeExtractorMatcherTrieEnabled(boolean pipeExtractorMatcherTrieEnabled) {
+    this.pipeExtractorMatcherTrieEnabled = pipeExtractorMatcherTrieEnabled;
+  }
+
   public int getPipeConnectorHandshakeTimeoutMs() {
     return pipeConnectorHandshakeTimeoutMs;
   }
@@ -1057,6 +1069,30 @@ public class CommonConfig {
     return pipeReceiverActualToEstimatedMemoryRatio;
   }
 
+  public boolean isPipeReceiverFastWriteEnabled() {
+    return pipeReceiverFastWriteEnabled;
+  }
+
+  public void setPipeReceiverFastWriteEnabled(boolean pipeReceiverFastWriteEnabled) {
+    this.pipeReceiverFastWriteEnabled = pipeReceiverFastWriteEnabled;
+  }
+
+  public int getPipeReceiverFastWriteCacheSize() {
+    return pipeReceiverFastWriteCacheSize;
+  }
+
+  public void setPipeReceiverFastWriteCacheSize(int pipeReceiverFastWriteCacheSize) {
+    this.pipeReceiverFastWriteCacheSize = pipeReceiverFastWriteCacheSize;
+  }
+
+  public long getPipeReceiverFastWriteCacheExpireMs() {
+    return pipeReceiverFastWriteCacheExpireMs;
+  }
+
+  public void setPipeReceiverFastWriteCacheExpireMs(long pipeReceiverFastWriteCacheExpireMs) {
+    this.pipeReceiverFastWriteCacheExpireMs = pipeReceiverFastWriteCacheExpireMs;
+  }
+
   public int getPipeMaxAllowedHistoricalTsFilePerDataRegion() {
     return pipeMaxAllowedHistoricalTsFilePerDataRegion;
   }
@@ -381,6 +381,13 @@ public class CommonDescriptor {
                     properties.getProperty(
                         "pipe_extractor_matcher_cache_size",
                         String.valueOf(config.getPipeExtractorMatcherCacheSize())))));
+    config.setPipeExtractorMatcherTrieEnabled(
+        Boolean.parseBoolean(
+            Optional.ofNullable(properties.getProperty("pipe_source_matcher_trie_enabled"))
+                .orElse(
+                    properties.getProperty(
+                        "pipe_extractor_matcher_trie_enabled",
+                        String.valueOf(config.isPipeExtractorMatcherTrieEnabled())))));
 
     config.setPipeConnectorHandshakeTimeoutMs(
         Long.parseLong(
@@ -522,6 +529,21 @@ public class CommonDescriptor {
             properties.getProperty(
                 "pipe_receiver_actual_to_estimated_memory_ratio",
                 Double.toString(config.getPipeReceiverActualToEstimatedMemoryRatio()))));
+    config.setPipeReceiverFastWriteEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_receiver_fast_write_enabled",
+                Boolean.toString(config.isPipeReceiverFastWriteEnabled()))));
+    config.setPipeReceiverFastWriteCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_receiver_fast_write_cache_size",
+                Integer.toString(config.getPipeReceiverFastWriteCacheSize()))));
+    config.setPipeReceiverFastWriteCacheExpireMs(
+        Long.parseLong(
+            properties.getProperty(
+                "pipe_receiver_fast_write_cache_expire_ms",
+                Long.toString(config.getPipeReceiverFastWriteCacheExpireMs()))));
 
     config.setPipeMaxAllowedHistoricalTsFilePerDataRegion(
         Integer.parseInt(
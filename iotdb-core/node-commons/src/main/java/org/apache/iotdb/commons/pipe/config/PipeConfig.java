@@ -126,6 +126,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeExtractorMatcherCacheSize();
   }
 
+  public boolean isPipeExtractorMatcherTrieEnabled() {
+    return COMMON_CONFIG.isPipeExtractorMatcherTrieEnabled();
+  }
+
   /////////////////////////////// Connector ///////////////////////////////
 
   public int getPipeConnectorHandshakeTimeoutMs() {
@@ -246,6 +250,18 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeReceiverActualToEstimatedMemoryRatio();
   }
 
+  public boolean isPipeReceiverFastWriteEnabled() {
+    return COMMON_CONFIG.isPipeReceiverFastWriteEnabled();
+  }
+
+  public int getPipeReceiverFastWriteCacheSize() {
+    return COMMON_CONFIG.getPipeReceiverFastWriteCacheSize();
+  }
+
+  public long getPipeReceiverFastWriteCacheExpireMs() {
+    return COMMON_CONFIG.getPipeReceiverFastWriteCacheExpireMs();
+  }
+
   /////////////////////////////// Hybrid Mode ///////////////////////////////
 
   public int getPipeMaxAllowedHistoricalTsFilePerDataRegion() {
@@ -418,6 +434,7 @@ public class PipeConfig {
         "PipeExtractorAssignerDisruptorRingBufferEntrySizeInBytes: {}",
         getPipeExtractorAssignerDisruptorRingBufferEntrySizeInBytes());
     LOGGER.info("PipeExtractorMatcherCacheSize: {}", getPipeExtractorMatcherCacheSize());
+    LOGGER.info("PipeExtractorMatcherTrieEnabled: {}", isPipeExtractorMatcherTrieEnabled());
 
     LOGGER.info("PipeConnectorHandshakeTimeoutMs: {}", getPipeConnectorHandshakeTimeoutMs());
     LOGGER.info("PipeConnectorTransferTimeoutMs: {}", getPipeConnectorTransferTimeoutMs());
@@ -479,6 +496,9 @@ public class PipeConfig {
     LOGGER.info(
         "PipeReceiverActualToEstimatedMemoryRatio: {}",
         getPipeReceiverActualToEstimatedMemoryRatio());
+    LOGGER.info("PipeReceiverFastWriteEnabled: {}", isPipeReceiverFastWriteEnabled());
+    LOGGER.info("PipeReceiverFastWriteCacheSize: {}", getPipeReceiverFastWriteCacheSize());
+    LOGGER.info("PipeReceiverFastWriteCacheExpireMs: {}", getPipeReceiverFastWriteCacheExpireMs());
 
     LOGGER.info(
         "PipeMaxAllowedHistoricalTsFilePerDataRegion: {}",
@@ -120,12 +120,14 @@ public enum Metric {
   DATA_EXCHANGE_COST("data_exchange_cost"),
   DATA_EXCHANGE_COUNT("data_exchange_count"),
   DATA_EXCHANGE_SIZE("data_exchange_size"),
+  DATA_EXCHANGE_LOCAL_SIZE("data_exchange_local_size"),
   DRIVER_SCHEDULER("driver_scheduler"),
   COORDINATOR("coordinator"),
   FRAGMENT_INSTANCE_MANAGER("fragment_instance_manager"),
   MEMORY_POOL("memory_pool"),
   LOCAL_EXECUTION_PLANNER("local_execution_planner"),
   QUERY_DISK_READ("query_disk_read"),
+  CHUNK_PREFETCH("chunk_prefetch"),
 
   // file related
   FILE_SIZE("file_size"),
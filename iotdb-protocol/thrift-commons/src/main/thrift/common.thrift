@@ -283,7 +283,9 @@ enum TAggregationType {
   LAST_BY,
   MIN,
   MAX,
-  COUNT_ALL
+  COUNT_ALL,
+  APPROX_COUNT_DISTINCT,
+  APPROX_PERCENTILE
 }
 
 struct TShowConfigurationTemplateResp {